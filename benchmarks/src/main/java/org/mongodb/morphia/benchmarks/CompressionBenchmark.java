@@ -0,0 +1,125 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import org.bson.types.Binary;
+import org.mongodb.morphia.mapping.serialization.CompressedBinary;
+import org.mongodb.morphia.mapping.serialization.Compression;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compressing and decompressing the values of @Compressed fields with each codec, for text, repetitive structured data and
+ * random bytes.  Compressing also counts the bytes going in and coming out as the {@link Sizes} secondary results, so that the time taken
+ * can be weighed against the space saved: as both are averaged over the same time, the compression ratio is the score of
+ * {@code compressedBytes} divided by that of {@code originalBytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+    private static final String[] WORDS = {"lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+                                           "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua"};
+
+    @Param({"DEFLATE", "LZ4"})
+    private Compression codec;
+
+    @Param({"text", "json", "random"})
+    private String content;
+
+    @Param({"4096", "65536"})
+    private int size;
+
+    private byte[] value;
+    private Binary compressed;
+
+    /**
+     * Builds the value and compresses it once for {@link #decompress()}
+     */
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        value = new byte[size];
+        if ("random".equals(content)) {
+            random.nextBytes(value);
+        } else {
+            final StringBuilder sb = new StringBuilder(size);
+            for (int i = 0; sb.length() < size; i++) {
+                if ("json".equals(content)) {
+                    sb.append("{\"_id\": ").append(i).append(", \"name\": \"").append(WORDS[random.nextInt(WORDS.length)])
+                      .append("\", \"score\": ").append(random.nextInt(1000)).append("}, ");
+                } else {
+                    sb.append(WORDS[random.nextInt(WORDS.length)]).append(i % 12 == 11 ? ". " : " ");
+                }
+            }
+            System.arraycopy(sb.toString().getBytes(), 0, value, 0, size);
+        }
+        final Object result = CompressedBinary.compress(value, codec, 0);
+        compressed = result instanceof Binary ? (Binary) result : null;
+    }
+
+    /**
+     * @param sizes counts the bytes compressed and the bytes they were compressed to
+     * @return the compressed value
+     */
+    @Benchmark
+    public Object compress(final Sizes sizes) {
+        final Object result = CompressedBinary.compress(value, codec, 0);
+        sizes.originalBytes += size;
+        sizes.compressedBytes += result instanceof Binary ? ((Binary) result).length() : size;
+        return result;
+    }
+
+    /**
+     * @return the decompressed value
+     * @throws IOException never, the value being valid
+     */
+    @Benchmark
+    public Object decompress() throws IOException {
+        return compressed == null ? value : CompressedBinary.decompress(compressed);
+    }
+
+    /**
+     * The sizes reported alongside the time taken to compress.  Values which do not get smaller are stored as they are, so they count
+     * as their original size.
+     */
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class Sizes {
+        /**
+         * The number of bytes compressed
+         */
+        public long originalBytes;
+
+        /**
+         * The number of bytes stored for them
+         */
+        public long compressedBytes;
+
+        /**
+         * Starts counting again for each iteration
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            originalBytes = 0;
+            compressedBytes = 0;
+        }
+    }
+}
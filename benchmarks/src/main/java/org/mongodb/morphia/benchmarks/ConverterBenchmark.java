@@ -0,0 +1,92 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import org.bson.types.ObjectId;
+import org.mongodb.morphia.converters.Converters;
+import org.mongodb.morphia.mapping.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the converter for a value and running it, for a mix of the types Morphia converts.  Each invocation converts every value
+ * once, so the scores are per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    private static final int VALUES = 12;
+
+    private final Converters converters = new Mapper().getConverters();
+    private Object[] values;
+    private Class<?>[] types;
+    private Object[] encoded;
+
+    /**
+     * Encodes the values to decode
+     */
+    @Setup
+    public void setUp() {
+        values = new Object[]{"text", 42, 42L, 4.2, 4.2f, true, new Date(0), new ObjectId(), Locale.CANADA_FRENCH, TimeUnit.SECONDS,
+                              URI.create("http://example.com"), UUID.randomUUID()};
+        if (values.length != VALUES) {
+            throw new IllegalStateException("Expected " + VALUES + " values");
+        }
+        types = new Class<?>[values.length];
+        encoded = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            types[i] = values[i].getClass();
+            encoded[i] = converters.encode(values[i]);
+        }
+    }
+
+    /**
+     * @param blackhole receives the encoded values
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void encode(final Blackhole blackhole) {
+        for (final Object value : values) {
+            blackhole.consume(converters.encode(value));
+        }
+    }
+
+    /**
+     * @param blackhole receives the decoded values
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void decode(final Blackhole blackhole) {
+        for (int i = 0; i < encoded.length; i++) {
+            blackhole.consume(converters.decode(types[i], encoded[i], null));
+        }
+    }
+
+    /**
+     * @return the converted value, through a converter found by the declared type rather than the value's class
+     */
+    @Benchmark
+    public Object encodeByDeclaredType() {
+        return converters.encode(BigDecimal.class, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,261 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import org.bson.types.ObjectId;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Reference;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The entities the benchmarks map, from a handful of fields to many fields, deep embedding and many references.
+ */
+final class Entities {
+    static final int REFERENCES = 20;
+    static final int DEPTH = 6;
+    static final int LEAVES = 5;
+
+    private Entities() {
+    }
+
+    static Flat flat() {
+        final Flat flat = new Flat();
+        flat.id = new ObjectId();
+        flat.name = "flat";
+        flat.age = 42;
+        flat.score = 12.5;
+        flat.created = new Date(0);
+        return flat;
+    }
+
+    static Wide wide() {
+        final Wide wide = new Wide();
+        wide.id = new ObjectId();
+        wide.text0 = "value " + 0;
+        wide.text1 = "value " + 1;
+        wide.text2 = "value " + 2;
+        wide.text3 = "value " + 3;
+        wide.text4 = "value " + 4;
+        wide.text5 = "value " + 5;
+        wide.text6 = "value " + 6;
+        wide.text7 = "value " + 7;
+        wide.text8 = "value " + 8;
+        wide.text9 = "value " + 9;
+        wide.number0 = 0 * 1000;
+        wide.number1 = 1 * 1000;
+        wide.number2 = 2 * 1000;
+        wide.number3 = 3 * 1000;
+        wide.number4 = 4 * 1000;
+        wide.number5 = 5 * 1000;
+        wide.number6 = 6 * 1000;
+        wide.number7 = 7 * 1000;
+        wide.number8 = 8 * 1000;
+        wide.number9 = 9 * 1000;
+        wide.count0 = 0L << 40;
+        wide.count1 = 1L << 40;
+        wide.count2 = 2L << 40;
+        wide.count3 = 3L << 40;
+        wide.count4 = 4L << 40;
+        wide.ratio0 = 0 / 7.0;
+        wide.ratio1 = 1 / 7.0;
+        wide.ratio2 = 2 / 7.0;
+        wide.ratio3 = 3 / 7.0;
+        wide.ratio4 = 4 / 7.0;
+        wide.flag0 = true;
+        wide.flag1 = false;
+        wide.flag2 = true;
+        wide.flag3 = false;
+        wide.flag4 = true;
+        wide.date0 = new Date(0 * 86400000L);
+        wide.date1 = new Date(1 * 86400000L);
+        wide.date2 = new Date(2 * 86400000L);
+        wide.date3 = new Date(3 * 86400000L);
+        wide.date4 = new Date(4 * 86400000L);
+        return wide;
+    }
+
+    static Deep deep() {
+        final Deep deep = new Deep();
+        deep.id = new ObjectId();
+        deep.root = level(DEPTH);
+        return deep;
+    }
+
+    static List<Author> authors() {
+        final List<Author> authors = new ArrayList<Author>();
+        for (int i = 0; i < REFERENCES; i++) {
+            authors.add(new Author(new ObjectId(), "author " + i));
+        }
+        return authors;
+    }
+
+    static Book book(final List<Author> authors) {
+        final Book book = new Book();
+        book.id = new ObjectId();
+        book.title = "book";
+        book.authors = new ArrayList<Author>(authors);
+        return book;
+    }
+
+    static LazyBook lazyBook(final List<Author> authors) {
+        final LazyBook book = new LazyBook();
+        book.id = new ObjectId();
+        book.title = "lazy book";
+        book.authors = new ArrayList<Author>(authors);
+        return book;
+    }
+
+    private static Level level(final int depth) {
+        final Level level = new Level();
+        level.name = "level " + depth;
+        for (int i = 0; i < LEAVES; i++) {
+            level.leaves.add(new Leaf("leaf " + i, i));
+        }
+        if (depth > 1) {
+            level.child = level(depth - 1);
+        }
+        return level;
+    }
+
+    @Entity(value = "flat", noClassnameStored = true)
+    static class Flat {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int age;
+        private double score;
+        private Date created;
+
+        ObjectId getId() {
+            return id;
+        }
+    }
+
+    @Entity(value = "wide", noClassnameStored = true)
+    static class Wide {
+        @Id
+        private ObjectId id;
+        private String text0;
+        private String text1;
+        private String text2;
+        private String text3;
+        private String text4;
+        private String text5;
+        private String text6;
+        private String text7;
+        private String text8;
+        private String text9;
+        private int number0;
+        private int number1;
+        private int number2;
+        private int number3;
+        private int number4;
+        private int number5;
+        private int number6;
+        private int number7;
+        private int number8;
+        private int number9;
+        private long count0;
+        private long count1;
+        private long count2;
+        private long count3;
+        private long count4;
+        private double ratio0;
+        private double ratio1;
+        private double ratio2;
+        private double ratio3;
+        private double ratio4;
+        private boolean flag0;
+        private boolean flag1;
+        private boolean flag2;
+        private boolean flag3;
+        private boolean flag4;
+        private Date date0;
+        private Date date1;
+        private Date date2;
+        private Date date3;
+        private Date date4;
+    }
+
+    @Entity(value = "deep", noClassnameStored = true)
+    static class Deep {
+        @Id
+        private ObjectId id;
+        private Level root;
+    }
+
+    @Embedded
+    static class Level {
+        private String name;
+        private Level child;
+        private List<Leaf> leaves = new ArrayList<Leaf>();
+    }
+
+    @Embedded
+    static class Leaf {
+        private String name;
+        private int value;
+
+        Leaf() {
+        }
+
+        Leaf(final String name, final int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Referenced by books.  Public, as the cglib proxies call it reflectively.
+     */
+    @Entity(value = "authors", noClassnameStored = true)
+    public static class Author {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Author() {
+        }
+
+        Author(final ObjectId id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * @return the id
+         */
+        public ObjectId getId() {
+            return id;
+        }
+
+        /**
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Entity(value = "books", noClassnameStored = true)
+    static class Book {
+        @Id
+        private ObjectId id;
+        private String title;
+        @Reference
+        private List<Author> authors;
+    }
+
+    @Entity(value = "books", noClassnameStored = true)
+    static class LazyBook {
+        @Id
+        private ObjectId id;
+        private String title;
+        @Reference(lazy = true)
+        private List<Author> authors;
+    }
+}
@@ -0,0 +1,101 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import org.bson.types.ObjectId;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.benchmarks.Entities.Flat;
+import org.mongodb.morphia.mapping.cache.ConcurrentEntityCache;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.mapping.cache.SharedEntityCacheFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups and stores against each EntityCache implementation, holding a fixed number of entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityCacheBenchmark {
+    private static final int ENTITIES = 1024;
+
+    @Param({"default", "concurrent", "shared"})
+    private String cacheType;
+
+    private EntityCache cache;
+    private Key<Flat>[] keys;
+    private Key<Flat>[] missing;
+    private Flat[] entities;
+    private int next;
+
+    /**
+     * Fills the cache
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        if ("default".equals(cacheType)) {
+            cache = new DefaultEntityCache();
+        } else if ("concurrent".equals(cacheType)) {
+            cache = new ConcurrentEntityCache();
+        } else if ("shared".equals(cacheType)) {
+            cache = new SharedEntityCacheFactory(ENTITIES * 2, 1, TimeUnit.HOURS).createCache();
+        } else {
+            throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+        }
+        keys = new Key[ENTITIES];
+        missing = new Key[ENTITIES];
+        entities = new Flat[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            entities[i] = Entities.flat();
+            keys[i] = new Key<Flat>(Flat.class, "flats", entities[i].getId());
+            missing[i] = new Key<Flat>(Flat.class, "flats", new ObjectId());
+            cache.putEntity(keys[i], entities[i]);
+        }
+    }
+
+    /**
+     * @return the cached entity
+     */
+    @Benchmark
+    public Flat getHit() {
+        return cache.getEntity(keys[next()]);
+    }
+
+    /**
+     * @return null, as the entity is not cached
+     */
+    @Benchmark
+    public Flat getMiss() {
+        return cache.getEntity(missing[next()]);
+    }
+
+    /**
+     * Stores an entity again
+     */
+    @Benchmark
+    public void put() {
+        final int i = next();
+        cache.putEntity(keys[i], entities[i]);
+    }
+
+    private int next() {
+        next = (next + 1) & (ENTITIES - 1);
+        return next;
+    }
+}
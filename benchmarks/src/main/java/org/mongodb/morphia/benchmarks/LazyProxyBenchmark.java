@@ -0,0 +1,100 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.benchmarks.Entities.Author;
+import org.mongodb.morphia.mapping.lazy.CGLibLazyProxyFactory;
+import org.mongodb.morphia.mapping.lazy.LazyProxyFactory;
+import org.mongodb.morphia.mapping.lazy.SubclassLazyProxyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling a getter through a fetched lazy reference, for each LazyProxyFactory, against calling it directly.  The referenced
+ * entity is served by a stub Datastore and fetched during setup, so only the cost of dispatching through the proxy is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyProxyBenchmark {
+    @Param({"cglib", "subclass"})
+    private String factory;
+
+    private Author author;
+    private Author proxy;
+
+    /**
+     * Creates and fetches the proxy
+     */
+    @Setup
+    public void setUp() {
+        author = Entities.authors().get(0);
+        final LazyProxyFactory proxyFactory;
+        if ("cglib".equals(factory)) {
+            proxyFactory = new CGLibLazyProxyFactory();
+        } else if ("subclass".equals(factory)) {
+            proxyFactory = new SubclassLazyProxyFactory();
+        } else {
+            throw new IllegalArgumentException("Unknown proxy factory: " + factory);
+        }
+        final Datastore datastore = (Datastore) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Datastore.class},
+                                                                       new FetchHandler(author));
+        proxy = proxyFactory.createProxy(datastore, Author.class, new Key<Author>(Author.class, "authors", author.getId()), false);
+        if (!author.getName().equals(proxy.getName())) {
+            throw new IllegalStateException("The proxy was not fetched");
+        }
+    }
+
+    /**
+     * @return the name, read from the entity
+     */
+    @Benchmark
+    public String direct() {
+        return author.getName();
+    }
+
+    /**
+     * @return the name, read through the proxy
+     */
+    @Benchmark
+    public String proxied() {
+        return proxy.getName();
+    }
+
+    /**
+     * Stands in for a Datastore which only ever fetches the same entity
+     */
+    private static final class FetchHandler implements InvocationHandler {
+        private final Object entity;
+
+        private FetchHandler(final Object entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public Object invoke(final Object target, final Method method, final Object[] args) {
+            if (method.getName().equals("getByKey")) {
+                return entity;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import com.mongodb.DBObject;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.benchmarks.Entities.Author;
+import org.mongodb.morphia.benchmarks.Entities.Book;
+import org.mongodb.morphia.benchmarks.Entities.Deep;
+import org.mongodb.morphia.benchmarks.Entities.Flat;
+import org.mongodb.morphia.benchmarks.Entities.LazyBook;
+import org.mongodb.morphia.benchmarks.Entities.Wide;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Mapper#toDBObject(Object)} and {@link Mapper#fromDBObject(org.mongodb.morphia.Datastore, Class, DBObject, EntityCache)}
+ * for flat, wide (40 fields), deeply embedded and reference heavy entities.  Every decode uses a new EntityCache, as every query does.
+ * Eager references are decoded from a cache which already holds the referenced entities, so no server is needed; filling that cache is
+ * part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private final Mapper mapper = new Mapper();
+    private Flat flat;
+    private Wide wide;
+    private Deep deep;
+    private List<Author> authors;
+    private Book book;
+    private LazyBook lazyBook;
+    private DBObject flatDocument;
+    private DBObject wideDocument;
+    private DBObject deepDocument;
+    private DBObject bookDocument;
+    private DBObject lazyBookDocument;
+
+    /**
+     * Maps the entities and encodes the documents to decode
+     */
+    @Setup
+    public void setUp() {
+        for (final Class<?> type : new Class<?>[]{Flat.class, Wide.class, Deep.class, Author.class, Book.class, LazyBook.class}) {
+            mapper.addMappedClass(type);
+        }
+        flat = Entities.flat();
+        wide = Entities.wide();
+        deep = Entities.deep();
+        authors = Entities.authors();
+        book = Entities.book(authors);
+        lazyBook = Entities.lazyBook(authors);
+        flatDocument = mapper.toDBObject(flat);
+        wideDocument = mapper.toDBObject(wide);
+        deepDocument = mapper.toDBObject(deep);
+        bookDocument = mapper.toDBObject(book);
+        lazyBookDocument = mapper.toDBObject(lazyBook);
+    }
+
+    /**
+     * @return the encoded entity
+     */
+    @Benchmark
+    public DBObject encodeFlat() {
+        return mapper.toDBObject(flat);
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Flat decodeFlat() {
+        return mapper.fromDBObject(null, Flat.class, flatDocument, new DefaultEntityCache());
+    }
+
+    /**
+     * @return the encoded entity
+     */
+    @Benchmark
+    public DBObject encodeWide() {
+        return mapper.toDBObject(wide);
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Wide decodeWide() {
+        return mapper.fromDBObject(null, Wide.class, wideDocument, new DefaultEntityCache());
+    }
+
+    /**
+     * @return the encoded entity
+     */
+    @Benchmark
+    public DBObject encodeDeep() {
+        return mapper.toDBObject(deep);
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Deep decodeDeep() {
+        return mapper.fromDBObject(null, Deep.class, deepDocument, new DefaultEntityCache());
+    }
+
+    /**
+     * @return the encoded entity
+     */
+    @Benchmark
+    public DBObject encodeReferences() {
+        return mapper.toDBObject(book);
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Book decodeReferences() {
+        final EntityCache cache = new DefaultEntityCache();
+        for (final Author author : authors) {
+            final Key<Author> key = mapper.getKey(author);
+            cache.putEntity(key, author);
+        }
+        return mapper.fromDBObject(null, Book.class, bookDocument, cache);
+    }
+
+    /**
+     * @return the decoded entity, holding a lazy proxy of its references
+     */
+    @Benchmark
+    public LazyBook decodeLazyReferences() {
+        return mapper.fromDBObject(null, LazyBook.class, lazyBookDocument, new DefaultEntityCache());
+    }
+}
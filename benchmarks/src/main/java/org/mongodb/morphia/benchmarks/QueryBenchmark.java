@@ -0,0 +1,99 @@
+package org.mongodb.morphia.benchmarks;
+
+
+import com.mongodb.DBObject;
+import com.mongodb.MongoClient;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Morphia;
+import org.mongodb.morphia.benchmarks.Entities.Wide;
+import org.mongodb.morphia.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a query and rendering it to the document sent to the server, with field validation on and off.  No query is ever run,
+ * so no server is needed; without one the driver only logs that it can not connect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    @Param({"true", "false"})
+    private boolean validate;
+
+    private MongoClient client;
+    private Datastore datastore;
+
+    /**
+     * Creates the Datastore and maps the queried entity
+     */
+    @Setup
+    public void setUp() {
+        client = new MongoClient();
+        final Morphia morphia = new Morphia();
+        morphia.map(Wide.class);
+        datastore = morphia.createDatastore(client, "morphia_benchmarks");
+    }
+
+    /**
+     * Closes the client
+     */
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    /**
+     * @return the rendered query
+     */
+    @Benchmark
+    public DBObject filter() {
+        return query()
+                   .filter("text0 =", "value")
+                   .filter("number0 >", 5)
+                   .getQueryObject();
+    }
+
+    /**
+     * @return the rendered query
+     */
+    @Benchmark
+    public DBObject fieldCriteria() {
+        final Query<Wide> query = query();
+        query.field("text1").equal("value");
+        query.field("number1").greaterThanOrEq(1).field("number1").lessThan(100);
+        query.field("count0").in(Arrays.asList(1L, 2L, 3L));
+        query.field("date0").exists();
+        query.or(query.criteria("ratio0").equal(1.0), query.criteria("flag0").equal(true));
+        return query.getQueryObject();
+    }
+
+    /**
+     * @return the rendered sort
+     */
+    @Benchmark
+    public DBObject order() {
+        return query().order("text0, -number0, count0").getSortObject();
+    }
+
+    private Query<Wide> query() {
+        final Query<Wide> query = datastore.createQuery(Wide.class);
+        return validate ? query : query.disableValidation();
+    }
+}
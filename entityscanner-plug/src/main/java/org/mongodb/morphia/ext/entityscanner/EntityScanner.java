@@ -4,7 +4,9 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import org.mongodb.morphia.Morphia;
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.mapping.MappingException;
 import org.mongodb.morphia.utils.Assert;
+import org.mongodb.morphia.utils.EntityIndex;
 import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.scanners.TypeAnnotationsScanner;
@@ -12,6 +14,9 @@ import org.reflections.scanners.TypeElementsScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -19,7 +24,9 @@ import java.util.Iterator;
 import java.util.Set;
 
 /**
- * Provides a scanner to find entities according to a given predicate
+ * Provides a scanner to find entities according to a given predicate.  If
+ * {@link org.mongodb.morphia.mapping.MapperOptions#setUseEntityIndex} is set, the entities of the jars with a complete build-time
+ * {@link EntityIndex} are read from the index instead of scanning those jars, and the classes the index lists as unmapped are not scanned.
  *
  * @author us@thomas-daily.de
  */
@@ -46,6 +53,10 @@ public class EntityScanner {
             localPredicate = Predicates.alwaysTrue();
         }
         Assert.parametersNotNull("m, predicate", m, localPredicate);
+        final EntityIndex index = m.getMapper().getOptions().isUseEntityIndex() ? loadIndex() : null;
+        if (index != null) {
+            localPredicate = Predicates.and(localPredicate, Predicates.not(Predicates.in(unmappedClassFiles(index))));
+        }
         final ConfigurationBuilder conf = new ConfigurationBuilder();
         conf.setScanners(new TypeElementsScanner(), new TypeAnnotationsScanner());
 
@@ -57,6 +68,8 @@ public class EntityScanner {
             final URL url = iterator.next();
             if (url.getPath().endsWith("jnilib")) {
                 iterator.remove();
+            } else if (index != null && mapIndexedEntities(m, index, url, localPredicate)) {
+                iterator.remove();
             }
         }
         conf.setUrls(new ArrayList<URL>(s));
@@ -71,4 +84,53 @@ public class EntityScanner {
             m.map(c);
         }
     }
+
+    private EntityIndex loadIndex() {
+        try {
+            return EntityIndex.load(Thread.currentThread().getContextClassLoader());
+        } catch (IOException e) {
+            throw new MappingException("Could not read the entity index", e);
+        }
+    }
+
+    /**
+     * Maps the entities the index of a jar lists, if that index is complete
+     *
+     * @return true if the jar does not have to be scanned
+     */
+    private boolean mapIndexedEntities(final Morphia m, final EntityIndex index, final URL url, final Predicate<String> predicate) {
+        final File jar;
+        try {
+            jar = new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return false;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (!index.isComplete(jar)) {
+            return false;
+        }
+        for (final String name : index.getClassNames(jar, EntityIndex.ENTITY)) {
+            if (predicate.apply(name.replace('.', '/') + ".class")) {
+                try {
+                    m.map(Class.forName(name, true, Thread.currentThread().getContextClassLoader()));
+                } catch (ClassNotFoundException e) {
+                    throw new MappingException("Could not load the indexed entity " + name, e);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists the class files which the entity index marks as unmapped, named the way the predicate sees them
+     */
+    private Set<String> unmappedClassFiles(final EntityIndex index) {
+        final Set<String> files = new HashSet<String>();
+        for (final String name : index.getUnmappedClassNames()) {
+            files.add(name + ".class");
+            files.add(name.replace('.', '/') + ".class");
+        }
+        return files;
+    }
 }
@@ -0,0 +1,55 @@
+package org.mongodb.morphia;
+
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * Thrown by a bulk save when some @Version entities were concurrently updated or deleted.  Every other entity of the save has either been
+ * saved or, for ordered bulk writes, came after the first conflict and was never attempted.
+ *
+ * @see Morphia#setUseBulkSaves(boolean)
+ */
+public class BulkSaveException extends ConcurrentModificationException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Object> conflicts;
+    private final List<Key<?>> saved;
+    private final List<Object> unprocessed;
+
+    /**
+     * Creates an exception
+     *
+     * @param conflicts   the entities which were concurrently updated or deleted and not saved
+     * @param saved       the keys of the entities which were saved
+     * @param unprocessed the entities which were not attempted after the first conflict of an ordered bulk save
+     */
+    public BulkSaveException(final List<Object> conflicts, final List<Key<?>> saved, final List<Object> unprocessed) {
+        super(String.format("%d entities were concurrently updated, %d saved, %d not attempted", conflicts.size(), saved.size(),
+                            unprocessed.size()));
+        this.conflicts = conflicts;
+        this.saved = saved;
+        this.unprocessed = unprocessed;
+    }
+
+    /**
+     * @return the entities which were concurrently updated or deleted and not saved
+     */
+    public List<Object> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return the keys of the entities which were saved
+     */
+    public List<Key<?>> getSaved() {
+        return saved;
+    }
+
+    /**
+     * @return the entities which were not attempted because an earlier batch of an ordered bulk write reported a conflict
+     */
+    public List<Object> getUnprocessed() {
+        return unprocessed;
+    }
+}
@@ -22,46 +22,45 @@ import org.mongodb.morphia.aggregation.AggregationPipelineImpl;
 import org.mongodb.morphia.annotations.CappedAt;
 import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.annotations.Field;
-import org.mongodb.morphia.annotations.Index;
 import org.mongodb.morphia.annotations.IndexOptions;
-import org.mongodb.morphia.annotations.Indexed;
-import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.NotSaved;
 import org.mongodb.morphia.annotations.PostPersist;
-import org.mongodb.morphia.annotations.Reference;
-import org.mongodb.morphia.annotations.Serialized;
-import org.mongodb.morphia.annotations.Text;
 import org.mongodb.morphia.annotations.Version;
 import org.mongodb.morphia.logging.Logger;
 import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.EntitySnapshot;
 import org.mongodb.morphia.mapping.MappedClass;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.Mapper;
 import org.mongodb.morphia.mapping.MappingException;
 import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.mapping.cache.EntityCacheFactory;
 import org.mongodb.morphia.mapping.lazy.proxy.ProxyHelper;
+import org.mongodb.morphia.metrics.OperationTimer;
+import org.mongodb.morphia.metrics.OperationType;
 import org.mongodb.morphia.query.DefaultQueryFactory;
 import org.mongodb.morphia.query.Query;
 import org.mongodb.morphia.query.QueryException;
 import org.mongodb.morphia.query.QueryFactory;
+import org.mongodb.morphia.query.QueryResultCache;
 import org.mongodb.morphia.query.UpdateException;
 import org.mongodb.morphia.query.UpdateOperations;
 import org.mongodb.morphia.query.UpdateOpsImpl;
 import org.mongodb.morphia.query.UpdateResults;
 import org.mongodb.morphia.utils.Assert;
-import org.mongodb.morphia.utils.IndexType;
 import org.mongodb.morphia.utils.ReflectionUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -75,6 +74,7 @@ import static org.mongodb.morphia.query.QueryImpl.parseFieldsString;
 @SuppressWarnings("deprecation")
 public class DatastoreImpl implements AdvancedDatastore {
     private static final Logger LOG = MorphiaLoggerFactory.get(DatastoreImpl.class);
+    private static final int DEFAULT_QUERY_CACHE_DOCUMENTS = 10000;
 
     private final Morphia morphia;
     private final MongoClient mongoClient;
@@ -84,6 +84,7 @@ public class DatastoreImpl implements AdvancedDatastore {
     private DBDecoderFactory decoderFactory;
 
     private volatile QueryFactory queryFactory = new DefaultQueryFactory();
+    private volatile QueryResultCache queryResultCache = new QueryResultCache(DEFAULT_QUERY_CACHE_DOCUMENTS);
 
     /**
      * Create a new DatastoreImpl
@@ -188,18 +189,27 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new QueryException("Delete does not allow sort/offset/limit query options.");
         }
 
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.DELETE, dbColl.getName(), query.getEntityClass());
         final DBObject queryObject = query.getQueryObject();
-        if (queryObject != null) {
-            if (wc == null) {
-                wr = dbColl.remove(queryObject);
+        timer.mapped();
+        try {
+            if (queryObject != null) {
+                if (wc == null) {
+                    wr = dbColl.remove(queryObject);
+                } else {
+                    wr = dbColl.remove(queryObject, wc);
+                }
+            } else if (wc == null) {
+                wr = dbColl.remove(new BasicDBObject());
             } else {
-                wr = dbColl.remove(queryObject, wc);
+                wr = dbColl.remove(new BasicDBObject(), wc);
             }
-        } else if (wc == null) {
-            wr = dbColl.remove(new BasicDBObject());
-        } else {
-            wr = dbColl.remove(new BasicDBObject(), wc);
+        } finally {
+            invalidateCache(dbColl);
         }
+        timer.executed();
+        timer.affected(wr, wc == null ? dbColl.getWriteConcern() : wc);
+        timer.finish();
 
         return wr;
     }
@@ -217,7 +227,9 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
         try {
             final Object id = mapper.getId(wrapped);
-            return delete(wrapped.getClass(), id, wc);
+            final WriteResult wr = delete(wrapped.getClass(), id, wc);
+            mapper.dropSnapshot(wrapped, getCollection(wrapped).getFullName());
+            return wr;
 
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -280,6 +292,32 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
     }
 
+    /**
+     * Compares the indexes declared by the mapped classes with those in the database without changing anything.  The existing indexes
+     * are listed once per collection.
+     *
+     * @param background true if the declared indexes would be built in the background
+     * @param executor   the Executor to list the indexes of several collections in parallel with, or null to list them in turn
+     * @return the differences found
+     * @see #reconcileIndexes(boolean, Executor)
+     */
+    public IndexPlan planIndexes(final boolean background, final Executor executor) {
+        return new IndexReconciler(this, background, false).reconcile(executor);
+    }
+
+    /**
+     * An alternative to {@link #ensureIndexes(boolean)} for applications with many mapped classes.  The existing indexes are listed once
+     * per collection and only the missing ones are created, with one command per collection, with collections processed in parallel.
+     * Indexes whose options changed are reported but left alone, as they would have to be dropped first.
+     *
+     * @param background true if the missing indexes should be built in the background
+     * @param executor   the Executor to process several collections in parallel with, or null to process them in turn
+     * @return the differences found, with the missing indexes now created
+     */
+    public IndexPlan reconcileIndexes(final boolean background, final Executor executor) {
+        return new IndexReconciler(this, background, true).reconcile(executor);
+    }
+
     @Override
     public <T> void ensureIndexes(final Class<T> clazz) {
         ensureIndexes(clazz, false);
@@ -330,9 +368,10 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         final DBObject result = dbColl.findAndModify(query.getQueryObject(), query.getFieldsObject(), query.getSortObject(), true,
                                                      null, false, false);
+        invalidateCache(dbColl);
 
         if (result != null) {
-            return mapper.fromDBObject(this, query.getEntityClass(), result, createCache());
+            return loaded(mapper.fromDBObject(this, query.getEntityClass(), result, createCache()), result, dbColl);
         }
 
         return null;
@@ -371,8 +410,17 @@ public class DatastoreImpl implements AdvancedDatastore {
                 throw e;
             }
         }
+        invalidateCache(dbColl);
 
-        return res == null ? null : mapper.fromDBObject(this, query.getEntityClass(), res, createCache());
+        return res == null ? null : loaded(mapper.fromDBObject(this, query.getEntityClass(), res, createCache()), res, dbColl);
+    }
+
+    /**
+     * Records the snapshot of an entity read by a command rather than through a query
+     */
+    private <T> T loaded(final T entity, final DBObject dbObject, final DBCollection dbColl) {
+        mapper.snapshotLoaded(entity, dbObject, dbColl.getFullName());
+        return entity;
     }
 
     private <T> void updateForVersioning(final Query<T> query, final UpdateOperations<T> operations) {
@@ -521,6 +569,23 @@ public class DatastoreImpl implements AdvancedDatastore {
         this.queryFactory = queryFactory;
     }
 
+    /**
+     * @return the cache holding the results of queries run with {@link Query#cacheFor(long, java.util.concurrent.TimeUnit)}
+     */
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * Replaces the cache holding the results of queries run with {@link Query#cacheFor(long, java.util.concurrent.TimeUnit)}, e.g. to
+     * change its size.  The cache holds 10,000 documents by default.
+     *
+     * @param queryResultCache the new cache
+     */
+    public void setQueryResultCache(final QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
     @Override
     public <T> MapreduceResults<T> mapReduce(final MapreduceType type, final Query query, final String map, final String reduce,
                                              final String finalize, final Map<String, Object> scopeFields, final Class<T> outputType) {
@@ -619,6 +684,7 @@ public class DatastoreImpl implements AdvancedDatastore {
         if (MapreduceType.INLINE.equals(type)) {
             results.setInlineRequiredOptions(this, outputType, getMapper(), cache);
         } else {
+            queryResultCache.invalidate(results.getOutputCollectionName());
             results.setQuery(newQuery(outputType, db.getCollection(results.getOutputCollectionName())));
         }
 
@@ -669,6 +735,8 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         dbObj.put(Mapper.ID_KEY, idValue);
         postSaveOperations(Collections.<Object>singletonList(entity), involvedObjects, dbColl, false);
+        // only the non-null fields were written, so the stored document is not known
+        mapper.dropSnapshot(unwrapped, dbColl.getFullName());
         return key;
     }
 
@@ -691,6 +759,9 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> Iterable<Key<T>> save(final Iterable<T> entities, final WriteConcern wc) {
+        if (morphia.isUseBulkSaves()) {
+            return bulkSave(entities, wc);
+        }
         final List<Key<T>> savedKeys = new ArrayList<Key<T>>();
         for (final T ent : entities) {
             savedKeys.add(save(ent, wc));
@@ -737,7 +808,9 @@ public class DatastoreImpl implements AdvancedDatastore {
             operations.set(versionMF.getNameToStore(), nextValue(oldVer));
         }
 
-        return update(q, operations);
+        final UpdateResults results = update(q, operations);
+        mapper.dropSnapshot(entity, q.getCollection().getFullName());
+        return results;
     }
 
     @Override
@@ -895,8 +968,9 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> T get(final Class<T> clazz, final DBRef ref) {
-        DBObject object = getDB().getCollection(ref.getCollectionName()).findOne(new BasicDBObject("_id", ref.getId()));
-        return mapper.fromDBObject(this, clazz, object, createCache());
+        final DBCollection dbColl = getDB().getCollection(ref.getCollectionName());
+        final DBObject object = dbColl.findOne(new BasicDBObject("_id", ref.getId()));
+        return loaded(mapper.fromDBObject(this, clazz, object, createCache()), object, dbColl);
     }
 
     @Override
@@ -1089,77 +1163,12 @@ public class DatastoreImpl implements AdvancedDatastore {
     protected void ensureIndex(final DBCollection dbColl, final String name, final BasicDBObject fields, final boolean unique,
                                final boolean dropDupsOnCreate, final boolean background, final boolean sparse,
                                final int expireAfterSeconds) {
-        final BasicDBObject opts = new BasicDBObject();
-        if (name != null && name.length() != 0) {
-            opts.append("name", name);
-        }
-        if (unique) {
-            opts.append("unique", true);
-            if (dropDupsOnCreate) {
-                opts.append("dropDups", true);
-            }
-        }
-
-        if (background) {
-            opts.append("background", true);
-        }
-        if (sparse) {
-            opts.append("sparse", true);
-        }
-
-        if (expireAfterSeconds > -1) {
-            opts.append("expireAfterSeconds", expireAfterSeconds);
-        }
-
-        LOG.debug(format("Creating index for %s with keys:%s and opts:%s", dbColl.getName(), fields, opts));
-        dbColl.createIndex(fields, opts);
+        ensureIndex(dbColl, fields, IndexCollector.extractOptions(name, unique, dropDupsOnCreate, background, sparse, expireAfterSeconds));
     }
 
     protected void ensureIndex(final MappedClass mc, final DBCollection dbColl, final Field[] fields, final IndexOptions options,
                                final boolean background, final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
-        DBObject keys = new BasicDBObject();
-        final StringBuilder name = new StringBuilder();
-        if (!parentMCs.isEmpty()) {
-            for (final MappedField pmf : parentMFs) {
-                name.append(pmf.getNameToStore()).append(".");
-            }
-        }
-        DBObject opts = extractOptions(options, background);
-        for (Field field : fields) {
-            String value = field.value();
-            String key = name + value;
-            if (!"$**".equals(value)) {
-                List<String> namePath = new ArrayList<String>();
-                final MappedField mappedField = findField(namePath, mc, value);
-                if (!options.disableValidation() && mappedField == null) {
-                    throw new MappingException(format("Unknown field '%s' for index: %s", value, mc.getClazz().getName()));
-                } else {
-                    StringBuilder sb = new StringBuilder();
-                    for (String s : namePath) {
-                        if (sb.length() != 0) {
-                            sb.append(".");
-                        }
-                        sb.append(s);
-                    }
-                    key = name + sb.toString();
-                }
-            }
-            keys.put(key, field.type().toIndexValue());
-            if (field.weight() != -1) {
-                if (field.type() != IndexType.TEXT) {
-                    throw new MappingException("Weight values only apply to text indexes: " + Arrays.toString(fields));
-                }
-                DBObject weights = (DBObject) opts.get("weights");
-                if (weights == null) {
-                    weights = new BasicDBObject();
-                    opts.put("weights", weights);
-                }
-                weights.put(key, field.weight());
-            }
-        }
-
-        LOG.debug(format("Creating index for %s with keys:%s and opts:%s", dbColl.getName(), keys, opts));
-        dbColl.createIndex(keys, opts);
+        createIndex(dbColl, new IndexCollector(mapper).declareIndex(mc, fields, options, background, parentMCs, parentMFs));
     }
 
     protected void ensureIndex(final DBCollection dbColl, final DBObject keys, final DBObject options) {
@@ -1178,16 +1187,24 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     protected void ensureIndexes(final DBCollection dbColl, final MappedClass mc, final boolean background,
                                  final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
-        if (parentMCs.contains(mc)) {
-            return;
-        }
+        final List<BasicDBObject> indexes = new ArrayList<BasicDBObject>();
+        // @Indexes entries go through the same protected hooks as they always have so that subclasses overriding them still see them
+        new IndexCollector(mapper) {
+            @Override
+            void addIndex(final List<BasicDBObject> declared, final MappedClass declaring, final Field[] fields,
+                          final IndexOptions options, final boolean bg, final List<MappedClass> mcs, final List<MappedField> mfs) {
+                ensureIndex(declaring, dbColl, fields, options, bg, mcs, mfs);
+            }
 
-        if (mc.getEmbeddedAnnotation() != null && parentMCs.isEmpty()) {
-            return;
+            @Override
+            void addIndex(final List<BasicDBObject> declared, final String name, final BasicDBObject fields, final boolean unique,
+                          final boolean dropDupsOnCreate, final boolean bg, final boolean sparse, final int expireAfterSeconds) {
+                ensureIndex(dbColl, name, fields, unique, dropDupsOnCreate, bg, sparse, expireAfterSeconds);
+            }
+        }.collect(indexes, mc, background, parentMCs, parentMFs);
+        for (final BasicDBObject index : indexes) {
+            createIndex(dbColl, index);
         }
-        processClassAnnotations(dbColl, mc, background, parentMCs, parentMFs);
-
-        processEmbeddedAnnotations(dbColl, mc, background, parentMCs, parentMFs);
     }
 
     protected void ensureIndexes(final MappedClass mc, final boolean background) {
@@ -1207,15 +1224,20 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 
     protected <T> Key<T> insert(final DBCollection dbColl, final T entity, final WriteConcern wc) {
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.INSERT, dbColl.getName(), entity.getClass());
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
         final DBObject dbObj = entityToDBObj(entity, involvedObjects);
+        timer.mapped(dbObj);
         if (wc == null) {
             dbColl.insert(dbObj);
         } else {
             dbColl.insert(dbObj, wc);
         }
+        timer.executed();
 
-        return postSaveOperations(Collections.singletonList(entity), involvedObjects, dbColl).get(0);
+        final Key<T> key = postSaveOperations(Collections.singletonList(entity), involvedObjects, dbColl).get(0);
+        timer.finish();
+        return key;
     }
 
     protected <T> Key<T> save(final DBCollection dbColl, final T entity, final WriteConcern wc) {
@@ -1230,22 +1252,79 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
 
         // involvedObjects is used not only as a cache but also as a list of what needs to be called for life-cycle methods at the end.
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.SAVE, dbColl.getName(), mc.getClazz());
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
         final DBObject dbObj = entityToDBObj(entity, involvedObjects);
+        timer.mapped(dbObj);
 
-        // try to do an update if there is a @Version field
         final Object idValue = dbObj.get(Mapper.ID_KEY);
-        WriteResult wr = tryVersionedUpdate(dbColl, entity, dbObj, idValue, wc, mc);
+        final boolean dirtyTracking = mapper.getOptions().isDirtyTracking();
+        final EntitySnapshot snapshot = dirtyTracking && idValue != null ? mapper.getSnapshot(entity, dbColl.getFullName()) : null;
 
-        if (wr == null) {
-            if (wc == null) {
-                dbColl.save(dbObj);
-            } else {
-                dbColl.save(dbObj, wc);
+        // send only the changes if the entity was loaded or saved before, otherwise try an update if there is a @Version field
+        if (snapshot == null || !tryPartialUpdate(dbColl, entity, dbObj, idValue, snapshot, wc, mc)) {
+            WriteResult wr = tryVersionedUpdate(dbColl, entity, dbObj, idValue, wc, mc);
+
+            if (wr == null) {
+                if (wc == null) {
+                    dbColl.save(dbObj);
+                } else {
+                    dbColl.save(dbObj, wc);
+                }
             }
         }
+        timer.executed();
 
-        return postSaveOperations(Collections.singletonList(entity), involvedObjects, dbColl).get(0);
+        final Key<T> key = postSaveOperations(Collections.singletonList(entity), involvedObjects, dbColl).get(0);
+        if (dirtyTracking) {
+            mapper.takeSnapshot(entity, dbObj, dbColl.getFullName());
+        }
+        timer.finish();
+        return key;
+    }
+
+    /**
+     * Saves only the top level fields which changed since the snapshot was taken.
+     *
+     * @return false if the entity has to be saved in full instead
+     */
+    protected <T> boolean tryPartialUpdate(final DBCollection dbColl, final T entity, final DBObject dbObj, final Object idValue,
+                                           final EntitySnapshot snapshot, final WriteConcern wc, final MappedClass mc) {
+        final MappedField mfVersion = mc.getMappedVersionField();
+        final Long oldVersion = mfVersion == null ? null : (Long) mfVersion.getFieldValue(entity);
+        if (mfVersion != null && oldVersion == null) {
+            return false;
+        }
+
+        final DBObject update = snapshot.diff(dbObj);
+        if (update == null) {
+            return true;
+        }
+
+        final Query<?> query = createIdQuery(dbColl, entity, idValue, mc);
+        if (mfVersion != null) {
+            final String versionKeyName = mfVersion.getNameToStore();
+            final long newVersion = nextValue(oldVersion);
+            dbObj.put(versionKeyName, newVersion);
+            DBObject set = (DBObject) update.get("$set");
+            if (set == null) {
+                set = new BasicDBObject();
+                update.put("$set", set);
+            }
+            set.put(versionKeyName, newVersion);
+            query.filter(versionKeyName, oldVersion);
+        }
+
+        final UpdateResults res = update(query, update, false, false, wc);
+        if (res.getUpdatedCount() == 1) {
+            return true;
+        }
+        if (mfVersion != null) {
+            throw new ConcurrentModificationException(format("Entity of class %s (id='%s',version='%d') was concurrently updated.",
+                                                             entity.getClass().getName(), idValue, oldVersion));
+        }
+        // the document is gone so write all of it
+        return false;
     }
 
     protected <T> WriteResult tryVersionedUpdate(final DBCollection dbColl, final T entity, final DBObject dbObj, final Object idValue,
@@ -1265,16 +1344,7 @@ public class DatastoreImpl implements AdvancedDatastore {
         //        mfVersion.setFieldValue(entity, newVersion);
 
         if (idValue != null && newVersion != 1) {
-            final Query<?> query = find(dbColl.getName(), entity.getClass());
-            boolean compoundId = !ReflectionUtils.isPrimitiveLike(mc.getMappedIdField().getType())
-                                     && idValue instanceof DBObject;
-            if (compoundId) {
-                query.disableValidation();
-            }
-            query.filter(Mapper.ID_KEY, idValue);
-            if (compoundId) {
-                query.enableValidation();
-            }
+            final Query<?> query = createIdQuery(dbColl, entity, idValue, mc);
             query.filter(versionKeyName, oldVersion);
             final UpdateResults res = update(query, dbObj, false, false, wc);
 
@@ -1295,6 +1365,20 @@ public class DatastoreImpl implements AdvancedDatastore {
         return wr;
     }
 
+    private Query<?> createIdQuery(final DBCollection dbColl, final Object entity, final Object idValue, final MappedClass mc) {
+        final Query<?> query = find(dbColl.getName(), entity.getClass());
+        boolean compoundId = !ReflectionUtils.isPrimitiveLike(mc.getMappedIdField().getType())
+                                 && idValue instanceof DBObject;
+        if (compoundId) {
+            query.disableValidation();
+        }
+        query.filter(Mapper.ID_KEY, idValue);
+        if (compoundId) {
+            query.enableValidation();
+        }
+        return query;
+    }
+
     private Query<?> buildExistsQuery(final Object entityOrKey) {
         final Object unwrapped = ProxyHelper.unwrap(entityOrKey);
         final Key<?> key = mapper.getKey(unwrapped);
@@ -1310,87 +1394,16 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mapper.createEntityCache();
     }
 
-    private void createTextIndex(final DBCollection dbColl, final List<MappedClass> parentMCs, final List<MappedField> parentMFs,
-                                 final MappedField mf) {
-        final Text index = mf.getAnnotation(Text.class);
-        final StringBuilder prefix = new StringBuilder();
-        if (!parentMCs.isEmpty()) {
-            for (final MappedField pmf : parentMFs) {
-                prefix.append(pmf.getNameToStore()).append(".");
-            }
-        }
-
-        String field = prefix + mf.getNameToStore();
-
-        DBObject keys = new BasicDBObject(field, IndexType.TEXT.toIndexValue());
-        DBObject opts = extractOptions(index.options(), false);
-        if (index.value() != -1) {
-            DBObject weights = new BasicDBObject();
-            opts.put("weights", weights);
-            weights.put(field, index.value());
-        }
-        LOG.debug(format("Creating index for %s with keys:%s and opts:%s", dbColl.getName(), keys, opts));
-        dbColl.createIndex(keys, opts);
+    void createIndex(final DBCollection dbColl, final BasicDBObject index) {
+        final BasicDBObject options = new BasicDBObject(index);
+        options.remove("key");
+        ensureIndex(dbColl, (DBObject) index.get("key"), options);
     }
 
     private DBObject entityToDBObj(final Object entity, final Map<Object, DBObject> involvedObjects) {
         return mapper.toDBObject(ProxyHelper.unwrap(entity), involvedObjects);
     }
 
-    private DBObject extractOptions(final IndexOptions options, final boolean background) {
-        final DBObject opts = new BasicDBObject();
-
-        putIfNotEmpty(opts, "name", options.name());
-        putIfNotEmpty(opts, "default_language", options.language());
-        putIfNotEmpty(opts, "language_override", options.languageOverride());
-        putIfTrue(opts, "background", options.background() || background);
-        putIfTrue(opts, "dropDups", options.dropDups());
-        putIfTrue(opts, "sparse", options.sparse());
-        putIfTrue(opts, "unique", options.unique());
-        if (options.expireAfterSeconds() != -1) {
-            opts.put("expireAfterSeconds", options.expireAfterSeconds());
-        }
-        return opts;
-    }
-
-    private DBObject extractOptions(final Indexed indexed) {
-        final DBObject opts = new BasicDBObject();
-
-        putIfNotEmpty(opts, "name", indexed.name());
-        putIfTrue(opts, "background", indexed.background());
-        putIfTrue(opts, "dropDups", indexed.dropDups());
-        putIfTrue(opts, "sparse", indexed.sparse());
-        putIfTrue(opts, "unique", indexed.unique());
-        if (indexed.expireAfterSeconds() != -1) {
-            opts.put("expireAfterSeconds", indexed.expireAfterSeconds());
-        }
-        return opts;
-    }
-
-    private MappedField findField(final List<String> namePath, final MappedClass mc, final String value) {
-        if (value.contains(".")) {
-            String segment = value.substring(0, value.indexOf("."));
-            MappedField field = findField(namePath, mc, segment);
-            if (field != null) {
-                MappedClass mappedClass =
-                    getMapper().getMappedClass(field.getSubType() != null ? field.getSubType() : field.getConcreteType());
-                return findField(namePath, mappedClass, value.substring(value.indexOf(".") + 1));
-            } else {
-                namePath.addAll(Arrays.asList(value.split("\\.")));
-                return null;
-            }
-        } else {
-            MappedField mf = mc.getMappedField(value);
-            if (mf == null) {
-                mf = mc.getMappedFieldByJavaField(value);
-            }
-            if (mf != null) {
-                namePath.add(mf.getNameToStore());
-            }
-            return mf;
-        }
-    }
-
     @SuppressWarnings("unchecked")
     private <T> Iterable<Key<T>> insert(final DBCollection dbColl, final Iterable<T> entities, final WriteConcern wc) {
         if (!entities.iterator().hasNext()) {
@@ -1401,23 +1414,151 @@ public class DatastoreImpl implements AdvancedDatastore {
         if (writeConcern == null) {
             writeConcern = getWriteConcern(entities.iterator().next());
         }
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.INSERT, dbColl.getName(),
+                                                          entities.iterator().next().getClass());
         final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
         if (morphia.getUseBulkWriteOperations()) {
             BulkWriteOperation bulkWriteOperation = dbColl.initializeOrderedBulkOperation();
             for (final T entity : entities) {
-                bulkWriteOperation.insert(toDbObject(entity, involvedObjects));
+                final DBObject dbObj = toDbObject(entity, involvedObjects);
+                timer.mapped(dbObj);
+                bulkWriteOperation.insert(dbObj);
             }
             bulkWriteOperation.execute(writeConcern);
         } else {
             writeConcern = getWriteConcern(entities.iterator().next());
             final List<DBObject> list = new ArrayList<DBObject>();
             for (final T entity : entities) {
-                list.add(toDbObject(entity, involvedObjects));
+                final DBObject dbObj = toDbObject(entity, involvedObjects);
+                timer.mapped(dbObj);
+                list.add(dbObj);
             }
             dbColl.insert(writeConcern, list.toArray(new DBObject[list.size()]));
         }
+        timer.executed();
+
+        final List<Key<T>> keys = postSaveOperations(entities, involvedObjects, dbColl);
+        timer.finish();
+        return keys;
+    }
+
+    /**
+     * Saves entities with bulk writes, grouped by collection and in batches of {@link Morphia#getBulkWriteBatchSize()}.  Entities with an
+     * id are written as upserting replacements.  Those with a @Version are saved one at a time through {@link #save(DBCollection, Object,
+     * WriteConcern)}, as the version stored after a bulk write can not tell which of two writers of the same version won; those
+     * concurrently updated or deleted are reported as conflicts.  Once an ordered save reports a conflict, the following entities are not
+     * attempted.
+     */
+    private <T> List<Key<T>> bulkSave(final Iterable<T> entities, final WriteConcern wc) {
+        final List<T> all = new ArrayList<T>();
+        final Map<DBCollection, List<T>> byCollection = new LinkedHashMap<DBCollection, List<T>>();
+        for (final T entity : entities) {
+            final T unwrapped = ProxyHelper.unwrap(entity);
+            if (unwrapped == null) {
+                throw new UpdateException("Can not persist a null entity");
+            }
+            all.add(unwrapped);
+            final DBCollection dbColl = getCollection(unwrapped);
+            List<T> list = byCollection.get(dbColl);
+            if (list == null) {
+                list = new ArrayList<T>();
+                byCollection.put(dbColl, list);
+            }
+            list.add(unwrapped);
+        }
+
+        final Map<Object, Key<T>> keys = new IdentityHashMap<Object, Key<T>>();
+        final List<Object> conflicts = new ArrayList<Object>();
+        final List<Object> unprocessed = new ArrayList<Object>();
+        final int batchSize = morphia.getBulkWriteBatchSize();
+        boolean stopped = false;
+        for (final Entry<DBCollection, List<T>> entry : byCollection.entrySet()) {
+            final DBCollection dbColl = entry.getKey();
+            final List<T> batch = new ArrayList<T>();
+            for (final T entity : entry.getValue()) {
+                if (stopped) {
+                    unprocessed.add(entity);
+                } else if (mapper.getMappedClass(entity).getMappedVersionField() == null) {
+                    batch.add(entity);
+                    if (batch.size() == batchSize) {
+                        bulkSave(dbColl, batch, wc, keys);
+                        batch.clear();
+                    }
+                } else {
+                    // the entities before this one are written first, so that ordered saves stay in order
+                    bulkSave(dbColl, batch, wc, keys);
+                    batch.clear();
+                    try {
+                        keys.put(entity, save(dbColl, entity, wc));
+                    } catch (ConcurrentModificationException e) {
+                        conflicts.add(entity);
+                        stopped = morphia.isOrderedBulkWrites();
+                    }
+                }
+            }
+            bulkSave(dbColl, batch, wc, keys);
+        }
+
+        final List<Key<T>> savedKeys = new ArrayList<Key<T>>();
+        for (final T entity : all) {
+            final Key<T> key = keys.get(entity);
+            if (key != null) {
+                savedKeys.add(key);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new BulkSaveException(conflicts, new ArrayList<Key<?>>(savedKeys), unprocessed);
+        }
+        return savedKeys;
+    }
+
+    private <T> void bulkSave(final DBCollection dbColl, final List<T> batch, final WriteConcern wc, final Map<Object, Key<T>> keys) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.SAVE, dbColl.getName(), batch.get(0).getClass());
+        final BulkWriteOperation operation = morphia.isOrderedBulkWrites() ? dbColl.initializeOrderedBulkOperation()
+                                                                           : dbColl.initializeUnorderedBulkOperation();
+        final List<DBObject> documents = new ArrayList<DBObject>(batch.size());
+        final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+        for (final T entity : batch) {
+            final MappedClass mc = mapper.getMappedClass(entity);
+            if (mc.getAnnotation(NotSaved.class) != null) {
+                throw new MappingException(format("Entity type: %s is marked as NotSaved which means you should not try to save it!",
+                                                  mc.getClazz().getName()));
+            }
+            final DBObject dbObj = entityToDBObj(entity, involvedObjects);
+            timer.mapped(dbObj);
+            documents.add(dbObj);
+
+            final Object idValue = dbObj.get(Mapper.ID_KEY);
+            if (idValue == null) {
+                operation.insert(dbObj);
+            } else {
+                operation.find(new BasicDBObject(Mapper.ID_KEY, idValue)).upsert().replaceOne(dbObj);
+            }
+        }
+
+        timer.mapped();
+        try {
+            if (wc == null) {
+                operation.execute();
+            } else {
+                operation.execute(wc);
+            }
+        } finally {
+            queryResultCache.invalidate(dbColl.getName());
+        }
+        timer.executed();
 
-        return postSaveOperations(entities, involvedObjects, dbColl);
+        final List<Key<T>> savedKeys = postSaveOperations(batch, involvedObjects, dbColl);
+        for (int i = 0; i < batch.size(); i++) {
+            keys.put(batch.get(i), savedKeys.get(i));
+            if (mapper.getOptions().isDirtyTracking()) {
+                mapper.takeSnapshot(batch.get(i), documents.get(i), dbColl.getFullName());
+            }
+        }
+        timer.finish();
     }
 
     /**
@@ -1451,8 +1592,13 @@ public class DatastoreImpl implements AdvancedDatastore {
     private <T> List<Key<T>> postSaveOperations(final Iterable<T> entities, final Map<Object, DBObject> involvedObjects,
                                                 final DBCollection collection, final boolean fetchKeys) {
         List<Key<T>> keys = new ArrayList<Key<T>>();
+        queryResultCache.invalidate(collection.getName());
+        final EntityCacheFactory cacheFactory = mapper.getOptions().getCacheFactory();
         for (final T entity : entities) {
             final DBObject dbObj = involvedObjects.remove(entity);
+            if (dbObj != null && dbObj.get(Mapper.ID_KEY) != null) {
+                cacheFactory.invalidate(new Key<T>((Class<? extends T>) entity.getClass(), collection.getName(), dbObj.get(Mapper.ID_KEY)));
+            }
 
             if (fetchKeys) {
                 if (dbObj.get(Mapper.ID_KEY) == null) {
@@ -1472,97 +1618,9 @@ public class DatastoreImpl implements AdvancedDatastore {
         return keys;
     }
 
-    @SuppressWarnings("deprecation")
-    private void processClassAnnotations(final DBCollection dbColl, final MappedClass mc, final boolean background,
-                                         final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
-        // Ensure indexes from class annotation
-        final List<Indexes> indexes = mc.getAnnotations(Indexes.class);
-        if (indexes != null) {
-            for (final Indexes idx : indexes) {
-                if (idx.value().length > 0) {
-                    for (final Index index : idx.value()) {
-                        if (index.fields().length != 0) {
-                            ensureIndex(mc, dbColl, index.fields(), index.options(), background, parentMCs, parentMFs);
-                        } else {
-                            LOG.warning(format("This index on '%s' is using deprecated configuration options.  Please update to use the "
-                                                   + "fields value on @Index: %s", mc.getClazz().getName(), index.toString()));
-                            final BasicDBObject fields = parseFieldsString(index.value(), mc.getClazz(), mapper,
-                                                                           !index.disableValidation());
-                            ensureIndex(dbColl, index.name(), fields, index.unique(), index.dropDups(),
-                                        index.background() ? index.background() : background, index.sparse(), index.expireAfterSeconds());
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Ensure indexes from field annotations, and embedded entities
-     */
-    private void processEmbeddedAnnotations(final DBCollection dbColl, final MappedClass mc, final boolean background,
-                                            final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
-        List<MappedField> annotatedWith = mc.getFieldsAnnotatedWith(Text.class);
-        if (annotatedWith.size() > 1) {
-            throw new MappingException("Only one text index can be defined per collection: " + mc.getClazz().getName());
-        }
-        for (final MappedField mf : mc.getPersistenceFields()) {
-            if (mf.hasAnnotation(Indexed.class)) {
-                final Indexed index = mf.getAnnotation(Indexed.class);
-                final StringBuilder prefix = new StringBuilder();
-                if (!parentMCs.isEmpty()) {
-                    for (final MappedField pmf : parentMFs) {
-                        prefix.append(pmf.getNameToStore()).append(".");
-                    }
-                }
-
-                final BasicDBObject oldOptions = (BasicDBObject) extractOptions(index);
-                final IndexOptions options = index.options();
-                final BasicDBObject newOptions = (BasicDBObject) extractOptions(options, false);
-                if (!oldOptions.isEmpty() && !newOptions.isEmpty()) {
-                    throw new MappingException("Mixed usage of deprecated @Indexed value with the new @IndexOption values is not "
-                                                   + "allowed.  Please migrate all settings to @IndexOptions");
-                }
-                if (!newOptions.isEmpty()) {
-                    ensureIndex(dbColl, new BasicDBObject(prefix + mf.getNameToStore(), index.value().toIndexValue()), newOptions);
-                } else {
-                    ensureIndex(dbColl,
-                                index.name(),
-                                new BasicDBObject(prefix + mf.getNameToStore(), index.value().toIndexValue()),
-                                index.unique(),
-                                index.dropDups(),
-                                index.background() || background,
-                                index.sparse(),
-                                index.expireAfterSeconds());
-                }
-            }
-
-            if (mf.hasAnnotation(Text.class)) {
-                createTextIndex(dbColl, parentMCs, parentMFs, mf);
-            }
-
-            if (!mf.isTypeMongoCompatible() && !mf.hasAnnotation(Reference.class) && !mf.hasAnnotation(Serialized.class)
-                    && !mf.hasAnnotation(NotSaved.class) && !mf.isTransient()) {
-                final List<MappedClass> newParentClasses = new ArrayList<MappedClass>(parentMCs);
-                final List<MappedField> newParents = new ArrayList<MappedField>(parentMFs);
-                newParentClasses.add(mc);
-                newParents.add(mf);
-                ensureIndexes(dbColl, mapper.getMappedClass(mf.isSingleValue() ? mf.getType() : mf.getSubClass()), background,
-                              newParentClasses, newParents);
-            }
-        }
-    }
-
-    private void putIfNotEmpty(final DBObject opts, final String key, final String value) {
-        if (!value.equals("")) {
-            opts.put(key, value);
-        }
-    }
-
-    private void putIfTrue(final DBObject opts, final String key, final boolean value) {
-        if (value) {
-            opts.put(key, true);
-        }
+    private void invalidateCache(final DBCollection dbColl) {
+        queryResultCache.invalidate(dbColl.getName());
+        mapper.getOptions().getCacheFactory().invalidate(dbColl.getName());
     }
 
     @SuppressWarnings("unchecked")
@@ -1616,6 +1674,7 @@ public class DatastoreImpl implements AdvancedDatastore {
         if (dbColl == null) {
             dbColl = getCollection(query.getEntityClass());
         }
+        final OperationTimer timer = OperationTimer.start(mapper, OperationType.UPDATE, dbColl.getName(), query.getEntityClass());
 
         if (query.getSortObject() != null && query.getSortObject().keySet() != null && !query.getSortObject().keySet().isEmpty()) {
             throw new QueryException("sorting is not allowed for updates.");
@@ -1651,11 +1710,19 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
 
         final WriteResult wr;
-        if (wc == null) {
-            wr = dbColl.update(queryObject, update, createIfMissing, multi);
-        } else {
-            wr = dbColl.update(queryObject, update, createIfMissing, multi, wc);
+        timer.mapped();
+        try {
+            if (wc == null) {
+                wr = dbColl.update(queryObject, update, createIfMissing, multi);
+            } else {
+                wr = dbColl.update(queryObject, update, createIfMissing, multi, wc);
+            }
+        } finally {
+            invalidateCache(dbColl);
         }
+        timer.executed();
+        timer.affected(wr, wc == null ? dbColl.getWriteConcern() : wc);
+        timer.finish();
 
         return new UpdateResults(wr);
     }
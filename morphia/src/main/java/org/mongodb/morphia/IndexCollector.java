@@ -0,0 +1,319 @@
+package org.mongodb.morphia;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.mongodb.morphia.annotations.Field;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.IndexOptions;
+import org.mongodb.morphia.annotations.Indexed;
+import org.mongodb.morphia.annotations.Indexes;
+import org.mongodb.morphia.annotations.NotSaved;
+import org.mongodb.morphia.annotations.Reference;
+import org.mongodb.morphia.annotations.Serialized;
+import org.mongodb.morphia.annotations.Text;
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.MappingException;
+import org.mongodb.morphia.utils.IndexType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.mongodb.morphia.query.QueryImpl.parseFieldsString;
+
+/**
+ * Reads the indexes declared by the annotations of mapped classes as index documents, i.e. the index options with the keys under "key".
+ *
+ * @see DatastoreImpl#ensureIndexes()
+ * @see IndexReconciler
+ */
+@SuppressWarnings("deprecation")
+class IndexCollector {
+    private static final Logger LOG = MorphiaLoggerFactory.get(IndexCollector.class);
+
+    private final Mapper mapper;
+
+    IndexCollector(final Mapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Collects the indexes declared by a class and the classes embedded in it, without touching the database
+     */
+    void collect(final List<BasicDBObject> declared, final MappedClass mc, final boolean background,
+                 final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+        if (parentMCs.contains(mc)) {
+            return;
+        }
+
+        if (mc.getEmbeddedAnnotation() != null && parentMCs.isEmpty()) {
+            return;
+        }
+        processClassAnnotations(declared, mc, background, parentMCs, parentMFs);
+
+        processEmbeddedAnnotations(declared, mc, background, parentMCs, parentMFs);
+    }
+
+    BasicDBObject declareIndex(final MappedClass mc, final Field[] fields, final IndexOptions options, final boolean background,
+                               final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+        DBObject keys = new BasicDBObject();
+        final StringBuilder name = new StringBuilder();
+        if (!parentMCs.isEmpty()) {
+            for (final MappedField pmf : parentMFs) {
+                name.append(pmf.getNameToStore()).append(".");
+            }
+        }
+        DBObject opts = extractOptions(options, background);
+        for (Field field : fields) {
+            String value = field.value();
+            String key = name + value;
+            if (!"$**".equals(value)) {
+                List<String> namePath = new ArrayList<String>();
+                final MappedField mappedField = findField(namePath, mc, value);
+                if (!options.disableValidation() && mappedField == null) {
+                    throw new MappingException(format("Unknown field '%s' for index: %s", value, mc.getClazz().getName()));
+                } else {
+                    StringBuilder sb = new StringBuilder();
+                    for (String s : namePath) {
+                        if (sb.length() != 0) {
+                            sb.append(".");
+                        }
+                        sb.append(s);
+                    }
+                    key = name + sb.toString();
+                }
+            }
+            keys.put(key, field.type().toIndexValue());
+            if (field.weight() != -1) {
+                if (field.type() != IndexType.TEXT) {
+                    throw new MappingException("Weight values only apply to text indexes: " + Arrays.toString(fields));
+                }
+                DBObject weights = (DBObject) opts.get("weights");
+                if (weights == null) {
+                    weights = new BasicDBObject();
+                    opts.put("weights", weights);
+                }
+                weights.put(key, field.weight());
+            }
+        }
+        return indexDocument(keys, opts);
+    }
+
+    /**
+     * Adds the index declared by the fields and options of an @Index.  Overridden by {@link DatastoreImpl#ensureIndexes()} to keep
+     * creating these through its protected ensureIndex hooks.
+     */
+    void addIndex(final List<BasicDBObject> declared, final MappedClass mc, final Field[] fields, final IndexOptions options,
+                  final boolean background, final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+        declared.add(declareIndex(mc, fields, options, background, parentMCs, parentMFs));
+    }
+
+    /**
+     * Adds an index declared with the deprecated values of @Index or @Indexed.  Overridden like {@link #addIndex(List, MappedClass,
+     * Field[], IndexOptions, boolean, List, List)}.
+     */
+    void addIndex(final List<BasicDBObject> declared, final String name, final BasicDBObject fields, final boolean unique,
+                  final boolean dropDupsOnCreate, final boolean background, final boolean sparse, final int expireAfterSeconds) {
+        declared.add(indexDocument(fields, extractOptions(name, unique, dropDupsOnCreate, background, sparse, expireAfterSeconds)));
+    }
+
+    private static BasicDBObject indexDocument(final DBObject keys, final DBObject options) {
+        final BasicDBObject index = new BasicDBObject("key", keys);
+        index.putAll(options);
+        return index;
+    }
+
+    private BasicDBObject declareTextIndex(final List<MappedClass> parentMCs, final List<MappedField> parentMFs, final MappedField mf) {
+        final Text index = mf.getAnnotation(Text.class);
+        final StringBuilder prefix = new StringBuilder();
+        if (!parentMCs.isEmpty()) {
+            for (final MappedField pmf : parentMFs) {
+                prefix.append(pmf.getNameToStore()).append(".");
+            }
+        }
+
+        String field = prefix + mf.getNameToStore();
+
+        DBObject keys = new BasicDBObject(field, IndexType.TEXT.toIndexValue());
+        DBObject opts = extractOptions(index.options(), false);
+        if (index.value() != -1) {
+            DBObject weights = new BasicDBObject();
+            opts.put("weights", weights);
+            weights.put(field, index.value());
+        }
+        return indexDocument(keys, opts);
+    }
+
+    private static DBObject extractOptions(final IndexOptions options, final boolean background) {
+        final DBObject opts = new BasicDBObject();
+
+        putIfNotEmpty(opts, "name", options.name());
+        putIfNotEmpty(opts, "default_language", options.language());
+        putIfNotEmpty(opts, "language_override", options.languageOverride());
+        putIfTrue(opts, "background", options.background() || background);
+        putIfTrue(opts, "dropDups", options.dropDups());
+        putIfTrue(opts, "sparse", options.sparse());
+        putIfTrue(opts, "unique", options.unique());
+        if (options.expireAfterSeconds() != -1) {
+            opts.put("expireAfterSeconds", options.expireAfterSeconds());
+        }
+        return opts;
+    }
+
+    static BasicDBObject extractOptions(final String name, final boolean unique, final boolean dropDupsOnCreate, final boolean background,
+                                        final boolean sparse, final int expireAfterSeconds) {
+        final BasicDBObject opts = new BasicDBObject();
+        if (name != null && name.length() != 0) {
+            opts.append("name", name);
+        }
+        if (unique) {
+            opts.append("unique", true);
+            if (dropDupsOnCreate) {
+                opts.append("dropDups", true);
+            }
+        }
+
+        if (background) {
+            opts.append("background", true);
+        }
+        if (sparse) {
+            opts.append("sparse", true);
+        }
+
+        if (expireAfterSeconds > -1) {
+            opts.append("expireAfterSeconds", expireAfterSeconds);
+        }
+        return opts;
+    }
+
+    private static DBObject extractOptions(final Indexed indexed) {
+        final DBObject opts = new BasicDBObject();
+
+        putIfNotEmpty(opts, "name", indexed.name());
+        putIfTrue(opts, "background", indexed.background());
+        putIfTrue(opts, "dropDups", indexed.dropDups());
+        putIfTrue(opts, "sparse", indexed.sparse());
+        putIfTrue(opts, "unique", indexed.unique());
+        if (indexed.expireAfterSeconds() != -1) {
+            opts.put("expireAfterSeconds", indexed.expireAfterSeconds());
+        }
+        return opts;
+    }
+
+    private MappedField findField(final List<String> namePath, final MappedClass mc, final String value) {
+        if (value.contains(".")) {
+            String segment = value.substring(0, value.indexOf("."));
+            MappedField field = findField(namePath, mc, segment);
+            if (field != null) {
+                MappedClass mappedClass =
+                    mapper.getMappedClass(field.getSubType() != null ? field.getSubType() : field.getConcreteType());
+                return findField(namePath, mappedClass, value.substring(value.indexOf(".") + 1));
+            } else {
+                namePath.addAll(Arrays.asList(value.split("\\.")));
+                return null;
+            }
+        } else {
+            MappedField mf = mc.getMappedField(value);
+            if (mf == null) {
+                mf = mc.getMappedFieldByJavaField(value);
+            }
+            if (mf != null) {
+                namePath.add(mf.getNameToStore());
+            }
+            return mf;
+        }
+    }
+
+    private void processClassAnnotations(final List<BasicDBObject> declared, final MappedClass mc, final boolean background,
+                                         final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+        // Ensure indexes from class annotation
+        final List<Indexes> indexes = mc.getAnnotations(Indexes.class);
+        if (indexes != null) {
+            for (final Indexes idx : indexes) {
+                if (idx.value().length > 0) {
+                    for (final Index index : idx.value()) {
+                        if (index.fields().length != 0) {
+                            addIndex(declared, mc, index.fields(), index.options(), background, parentMCs, parentMFs);
+                        } else {
+                            LOG.warning(format("This index on '%s' is using deprecated configuration options.  Please update to use the "
+                                                   + "fields value on @Index: %s", mc.getClazz().getName(), index.toString()));
+                            final BasicDBObject fields = parseFieldsString(index.value(), mc.getClazz(), mapper,
+                                                                           !index.disableValidation());
+                            addIndex(declared, index.name(), fields, index.unique(), index.dropDups(), index.background() || background,
+                                     index.sparse(), index.expireAfterSeconds());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensure indexes from field annotations, and embedded entities
+     */
+    private void processEmbeddedAnnotations(final List<BasicDBObject> declared, final MappedClass mc, final boolean background,
+                                            final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+        List<MappedField> annotatedWith = mc.getFieldsAnnotatedWith(Text.class);
+        if (annotatedWith.size() > 1) {
+            throw new MappingException("Only one text index can be defined per collection: " + mc.getClazz().getName());
+        }
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            if (mf.hasAnnotation(Indexed.class)) {
+                final Indexed index = mf.getAnnotation(Indexed.class);
+                final StringBuilder prefix = new StringBuilder();
+                if (!parentMCs.isEmpty()) {
+                    for (final MappedField pmf : parentMFs) {
+                        prefix.append(pmf.getNameToStore()).append(".");
+                    }
+                }
+
+                final BasicDBObject oldOptions = (BasicDBObject) extractOptions(index);
+                final IndexOptions options = index.options();
+                final BasicDBObject newOptions = (BasicDBObject) extractOptions(options, false);
+                if (!oldOptions.isEmpty() && !newOptions.isEmpty()) {
+                    throw new MappingException("Mixed usage of deprecated @Indexed value with the new @IndexOption values is not "
+                                                   + "allowed.  Please migrate all settings to @IndexOptions");
+                }
+                final BasicDBObject keys = new BasicDBObject(prefix + mf.getNameToStore(), index.value().toIndexValue());
+                if (!newOptions.isEmpty()) {
+                    declared.add(indexDocument(keys, newOptions));
+                } else {
+                    addIndex(declared, index.name(), keys, index.unique(), index.dropDups(), index.background() || background,
+                             index.sparse(), index.expireAfterSeconds());
+                }
+            }
+
+            if (mf.hasAnnotation(Text.class)) {
+                declared.add(declareTextIndex(parentMCs, parentMFs, mf));
+            }
+
+            if (!mf.isTypeMongoCompatible() && !mf.hasAnnotation(Reference.class) && !mf.hasAnnotation(Serialized.class)
+                    && !mf.hasAnnotation(NotSaved.class) && !mf.isTransient()) {
+                final List<MappedClass> newParentClasses = new ArrayList<MappedClass>(parentMCs);
+                final List<MappedField> newParents = new ArrayList<MappedField>(parentMFs);
+                newParentClasses.add(mc);
+                newParents.add(mf);
+                collect(declared, mapper.getMappedClass(mf.isSingleValue() ? mf.getType() : mf.getSubClass()), background,
+                               newParentClasses, newParents);
+            }
+        }
+    }
+
+    private static void putIfNotEmpty(final DBObject opts, final String key, final String value) {
+        if (!value.equals("")) {
+            opts.put(key, value);
+        }
+    }
+
+    private static void putIfTrue(final DBObject opts, final String key, final boolean value) {
+        if (value) {
+            opts.put(key, true);
+        }
+    }
+}
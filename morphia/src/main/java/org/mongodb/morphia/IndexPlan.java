@@ -0,0 +1,304 @@
+package org.mongodb.morphia;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The differences between the indexes declared by the mapped classes and those existing in the database, as found by
+ * {@link DatastoreImpl#planIndexes(boolean, java.util.concurrent.Executor)} and
+ * {@link DatastoreImpl#reconcileIndexes(boolean, java.util.concurrent.Executor)}.
+ * <p/>
+ * Indexes are matched by their keys.  Only missing indexes are ever created; indexes whose options changed have to be dropped and
+ * created again, and indexes which are no longer declared have to be dropped, by hand.
+ */
+public class IndexPlan {
+    private static final String KEY = "key";
+    private static final String NAME = "name";
+    private static final String WEIGHTS = "weights";
+    private static final String TEXT = "text";
+    private static final String TEXT_KEY = "_fts";
+    private static final String TEXT_INDEX_KEY = "_ftsx";
+    private static final List<String> OPTIONS = Arrays.asList("unique", "sparse", "expireAfterSeconds");
+    private static final List<String> TEXT_OPTIONS = Arrays.asList("default_language", "language_override");
+
+    private final List<Change> changes;
+    private final boolean applied;
+
+    IndexPlan(final List<Change> changes, final boolean applied) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.applied = applied;
+    }
+
+    /**
+     * @return every difference found
+     */
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @param type the kind of difference
+     * @return the differences of the given kind
+     */
+    public List<Change> getChanges(final ChangeType type) {
+        final List<Change> list = new ArrayList<Change>();
+        for (final Change change : changes) {
+            if (change.getType() == type) {
+                list.add(change);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return true if the missing indexes were created, false if this plan is the result of a dry run
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * @return true if the database has exactly the indexes declared
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IndexPlan");
+        sb.append(applied ? " (applied)" : " (dry run)");
+        if (changes.isEmpty()) {
+            sb.append(": no changes");
+        }
+        for (final Change change : changes) {
+            sb.append("\n  ").append(change);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compares the indexes declared for a collection with the existing ones
+     *
+     * @param collection the name of the collection
+     * @param declared   the declared indexes as index documents, i.e. the options with the keys under "key"
+     * @param existing   the existing indexes as listed by the server
+     * @return the differences
+     */
+    static List<Change> diff(final String collection, final List<? extends DBObject> declared, final List<DBObject> existing) {
+        final List<Change> changes = new ArrayList<Change>();
+        final List<DBObject> unmatched = new ArrayList<DBObject>();
+        for (final DBObject index : existing) {
+            if (!"_id_".equals(index.get(NAME))) {
+                unmatched.add(index);
+            }
+        }
+
+        final Set<List<String>> seen = new HashSet<List<String>>();
+        for (final DBObject index : declared) {
+            final List<String> pattern = keyPattern(index);
+            if (!seen.add(pattern)) {
+                continue;
+            }
+            DBObject match = null;
+            for (final DBObject candidate : unmatched) {
+                if (pattern.equals(keyPattern(candidate))) {
+                    match = candidate;
+                    break;
+                }
+            }
+            if (match == null) {
+                changes.add(new Change(collection, ChangeType.MISSING, index, null));
+            } else {
+                unmatched.remove(match);
+                if (!sameOptions(index, match)) {
+                    changes.add(new Change(collection, ChangeType.CHANGED, index, match));
+                }
+            }
+        }
+        for (final DBObject index : unmatched) {
+            changes.add(new Change(collection, ChangeType.UNDECLARED, null, index));
+        }
+        return changes;
+    }
+
+    /**
+     * Generates the name the server gives an index created without one
+     *
+     * @param keys the keys of the index
+     * @return the name
+     */
+    static String defaultName(final DBObject keys) {
+        final StringBuilder name = new StringBuilder();
+        for (final String key : keys.keySet()) {
+            if (name.length() != 0) {
+                name.append('_');
+            }
+            name.append(key).append('_').append(keys.get(key));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Lists the keys of an index in order.  Text indexes are stored with internal keys and their fields as weights, so both forms are
+     * reduced to the fields covered by the text index, in place of its first key.
+     */
+    private static List<String> keyPattern(final DBObject index) {
+        final DBObject keys = (DBObject) index.get(KEY);
+        final List<String> pattern = new ArrayList<String>();
+        final Set<String> textFields = new TreeSet<String>();
+        final DBObject weights = (DBObject) index.get(WEIGHTS);
+        if (keys.containsField(TEXT_KEY) && weights != null) {
+            textFields.addAll(weights.keySet());
+        } else {
+            for (final String key : keys.keySet()) {
+                if (TEXT.equals(keys.get(key))) {
+                    textFields.add(key);
+                }
+            }
+        }
+
+        boolean textAdded = false;
+        for (final String key : keys.keySet()) {
+            final Object value = keys.get(key);
+            if (TEXT_KEY.equals(key) || TEXT_INDEX_KEY.equals(key) || TEXT.equals(value)) {
+                if (!textAdded) {
+                    pattern.add(TEXT + ":" + textFields);
+                    textAdded = true;
+                }
+            } else {
+                pattern.add(key + ":" + normalize(value));
+            }
+        }
+        return pattern;
+    }
+
+    private static boolean sameOptions(final DBObject declared, final DBObject existing) {
+        for (final String option : OPTIONS) {
+            if (!normalize(declared.get(option)).equals(normalize(existing.get(option)))) {
+                return false;
+            }
+        }
+        // text indexes are listed with the server's defaults for these
+        for (final String option : TEXT_OPTIONS) {
+            if (declared.containsField(option) && !declared.get(option).equals(existing.get(option))) {
+                return false;
+            }
+        }
+        if (declared.containsField(NAME) && !declared.get(NAME).equals(existing.get(NAME))) {
+            return false;
+        }
+        final DBObject weights = (DBObject) declared.get(WEIGHTS);
+        final DBObject existingWeights = (DBObject) existing.get(WEIGHTS);
+        if (existingWeights != null) {
+            for (final String field : existingWeights.keySet()) {
+                final Object weight = weights != null && weights.containsField(field) ? weights.get(field) : 1;
+                if (!normalize(weight).equals(normalize(existingWeights.get(field)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Object normalize(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value == null ? Boolean.FALSE : value;
+    }
+
+    /**
+     * The kinds of differences between declared and existing indexes
+     */
+    public enum ChangeType {
+        /**
+         * The index is declared but does not exist.  Reconciling creates it.
+         */
+        MISSING,
+        /**
+         * An index with the same keys exists but with different options.  It has to be dropped and created again by hand.
+         */
+        CHANGED,
+        /**
+         * The index exists but is not declared by any mapped class.
+         */
+        UNDECLARED
+    }
+
+    /**
+     * A difference between a declared and an existing index
+     */
+    public static final class Change {
+        private final String collection;
+        private final ChangeType type;
+        private final DBObject declared;
+        private final DBObject existing;
+
+        Change(final String collection, final ChangeType type, final DBObject declared, final DBObject existing) {
+            this.collection = collection;
+            this.type = type;
+            this.declared = declared;
+            this.existing = existing;
+        }
+
+        /**
+         * @return the name of the collection
+         */
+        public String getCollection() {
+            return collection;
+        }
+
+        /**
+         * @return the kind of difference
+         */
+        public ChangeType getType() {
+            return type;
+        }
+
+        /**
+         * @return the declared index with its keys under "key", or null for an undeclared index
+         */
+        public DBObject getDeclared() {
+            return declared;
+        }
+
+        /**
+         * @return the existing index as listed by the server, or null for a missing index
+         */
+        public DBObject getExisting() {
+            return existing;
+        }
+
+        /**
+         * @return the keys of the index
+         */
+        public DBObject getKeys() {
+            return (DBObject) (declared != null ? declared : existing).get(KEY);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append(type).append(' ').append(collection).append(' ').append(getKeys());
+            if (declared != null) {
+                final BasicDBObject options = new BasicDBObject(declared.toMap());
+                options.remove(KEY);
+                sb.append(" declared: ").append(options);
+            }
+            if (existing != null) {
+                sb.append(" existing: ").append(existing.get(NAME));
+            }
+            return sb.toString();
+        }
+    }
+}
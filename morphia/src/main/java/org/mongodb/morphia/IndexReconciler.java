@@ -0,0 +1,143 @@
+package org.mongodb.morphia;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.mongodb.morphia.IndexPlan.Change;
+import org.mongodb.morphia.IndexPlan.ChangeType;
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.MappingException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import static java.lang.String.format;
+
+/**
+ * Compares the declared indexes with the existing ones a collection at a time and, unless planning only, creates the missing ones.
+ *
+ * @see DatastoreImpl#reconcileIndexes(boolean, Executor)
+ */
+class IndexReconciler {
+    private static final Logger LOG = MorphiaLoggerFactory.get(IndexReconciler.class);
+    private static final int COMMAND_NOT_FOUND = 59;
+
+    private final DatastoreImpl datastore;
+    private final boolean background;
+    private final boolean apply;
+
+    IndexReconciler(final DatastoreImpl datastore, final boolean background, final boolean apply) {
+        this.datastore = datastore;
+        this.background = background;
+        this.apply = apply;
+    }
+
+    IndexPlan reconcile(final Executor executor) {
+        final List<FutureTask<List<Change>>> tasks = new ArrayList<FutureTask<List<Change>>>();
+        for (final Entry<String, List<BasicDBObject>> entry : declaredIndexes().entrySet()) {
+            final FutureTask<List<Change>> task = new FutureTask<List<Change>>(new Callable<List<Change>>() {
+                @Override
+                public List<Change> call() {
+                    return reconcile(datastore.getDB().getCollection(entry.getKey()), entry.getValue());
+                }
+            });
+            tasks.add(task);
+            if (executor == null) {
+                task.run();
+            } else {
+                executor.execute(task);
+            }
+        }
+
+        final List<Change> changes = new ArrayList<Change>();
+        for (final FutureTask<List<Change>> task : tasks) {
+            try {
+                changes.addAll(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MappingException("Interrupted while reconciling indexes", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new MappingException("Could not reconcile indexes", e.getCause());
+            }
+        }
+        return new IndexPlan(changes, apply);
+    }
+
+    /**
+     * Collects the indexes of every mapped class by collection.  This only reads the mapping, so any invalid declaration fails before the
+     * database is touched.
+     */
+    private Map<String, List<BasicDBObject>> declaredIndexes() {
+        final Map<String, List<BasicDBObject>> declared = new LinkedHashMap<String, List<BasicDBObject>>();
+        final IndexCollector collector = new IndexCollector(datastore.getMapper());
+        for (final MappedClass mc : datastore.getMapper().getMappedClasses()) {
+            final List<BasicDBObject> indexes = new ArrayList<BasicDBObject>();
+            collector.collect(indexes, mc, background, new ArrayList<MappedClass>(), new ArrayList<MappedField>());
+            if (!indexes.isEmpty() || mc.getEntityAnnotation() != null) {
+                final String collection = datastore.getCollection(mc.getClazz()).getName();
+                if (!declared.containsKey(collection)) {
+                    declared.put(collection, new ArrayList<BasicDBObject>());
+                }
+                declared.get(collection).addAll(indexes);
+            }
+        }
+        return declared;
+    }
+
+    private List<Change> reconcile(final DBCollection dbColl, final List<BasicDBObject> declared) {
+        final List<Change> changes = IndexPlan.diff(dbColl.getName(), declared, dbColl.getIndexInfo());
+        if (apply) {
+            final List<DBObject> missing = new ArrayList<DBObject>();
+            for (final Change change : changes) {
+                if (change.getType() == ChangeType.MISSING) {
+                    missing.add(change.getDeclared());
+                }
+            }
+            if (!missing.isEmpty()) {
+                createIndexes(dbColl, missing);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Creates indexes with a single createIndexes command, or one at a time on servers which do not support it
+     */
+    private void createIndexes(final DBCollection dbColl, final List<DBObject> indexes) {
+        final BasicDBList specs = new BasicDBList();
+        for (final DBObject index : indexes) {
+            final BasicDBObject spec = new BasicDBObject(index.toMap());
+            if (!spec.containsField("name")) {
+                spec.put("name", IndexPlan.defaultName((DBObject) spec.get("key")));
+            }
+            specs.add(spec);
+        }
+        LOG.debug(format("Creating indexes for %s: %s", dbColl.getName(), specs));
+        final CommandResult result = datastore.getDB().command(new BasicDBObject("createIndexes", dbColl.getName())
+                                                                   .append("indexes", specs));
+        if (!result.ok()) {
+            if (result.getInt("code", 0) != COMMAND_NOT_FOUND) {
+                result.throwOnError();
+            }
+            for (final DBObject index : indexes) {
+                datastore.createIndex(dbColl, new BasicDBObject(index.toMap()));
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.mapping.Mapper;
 import org.mongodb.morphia.mapping.MappingException;
 import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.utils.EntityIndex;
 import org.mongodb.morphia.utils.ReflectionUtils;
 
 import java.io.IOException;
@@ -37,6 +38,9 @@ import java.util.Set;
 public class Morphia {
     private final Mapper mapper;
     private boolean useBulkWriteOperations = false;
+    private boolean useBulkSaves = false;
+    private int bulkWriteBatchSize = 1000;
+    private boolean orderedBulkWrites = true;
 
     /**
      * Creates a Morphia instance with a default Mapper and an empty class set.
@@ -175,6 +179,62 @@ public class Morphia {
         this.useBulkWriteOperations = useBulkWriteOperations;
     }
 
+    /**
+     * @return true if saving several entities at once uses bulk writes
+     */
+    public boolean isUseBulkSaves() {
+        return useBulkSaves;
+    }
+
+    /**
+     * Configures Morphia to save several entities at once with bulk writes, in batches of {@link #getBulkWriteBatchSize()}.  Entities
+     * with a @Version are still saved one at a time, and their conflicts are reported together by a {@link BulkSaveException}.  Only
+     * useful with MongoDB 2.6+.
+     *
+     * @param useBulkSaves true if Morphia should save several entities with bulk writes
+     * @see Datastore#save(Iterable, com.mongodb.WriteConcern)
+     */
+    public void setUseBulkSaves(final boolean useBulkSaves) {
+        this.useBulkSaves = useBulkSaves;
+    }
+
+    /**
+     * @return the maximum number of entities sent in one bulk write when saving
+     */
+    public int getBulkWriteBatchSize() {
+        return bulkWriteBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of entities sent in one bulk write when saving.
+     *
+     * @param bulkWriteBatchSize the batch size
+     */
+    public void setBulkWriteBatchSize(final int bulkWriteBatchSize) {
+        if (bulkWriteBatchSize <= 0) {
+            throw new IllegalArgumentException("bulkWriteBatchSize must be greater than zero");
+        }
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    /**
+     * @return true if bulk saves are ordered
+     */
+    public boolean isOrderedBulkWrites() {
+        return orderedBulkWrites;
+    }
+
+    /**
+     * Controls whether bulk saves are ordered.  An ordered bulk save stops at the first failed entity while an unordered one attempts
+     * every entity, possibly in parallel on the server.  An ordered bulk save also stops after the first @Version entity found to be
+     * concurrently updated or deleted.
+     *
+     * @param orderedBulkWrites true if bulk saves should be ordered
+     */
+    public void setOrderedBulkWrites(final boolean orderedBulkWrites) {
+        this.orderedBulkWrites = orderedBulkWrites;
+    }
+
     /**
      * Maps a set of classes
      *
@@ -220,7 +280,9 @@ public class Morphia {
     }
 
     /**
-     * Tries to map all classes in the package specified.
+     * Tries to map all classes in the package specified.  If {@link org.mongodb.morphia.mapping.MapperOptions#isUseEntityIndex()} is set,
+     * the jars with a complete build-time {@link org.mongodb.morphia.utils.EntityIndex} are not read and the classes the index lists as
+     * unmapped are not loaded.
      *
      * @param packageName          the name of the package to process
      * @param ignoreInvalidClasses specifies whether to ignore classes in the package that cannot be mapped
@@ -228,7 +290,12 @@ public class Morphia {
      */
     public synchronized Morphia mapPackage(final String packageName, final boolean ignoreInvalidClasses) {
         try {
-            for (final Class clazz : ReflectionUtils.getClasses(packageName, mapper.getOptions().isMapSubPackages())) {
+            final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            final boolean subPackages = mapper.getOptions().isMapSubPackages();
+            final Set<Class<?>> classes = mapper.getOptions().isUseEntityIndex()
+                                          ? EntityIndex.getClasses(loader, packageName, subPackages)
+                                          : ReflectionUtils.getClasses(loader, packageName, subPackages);
+            for (final Class clazz : classes) {
                 try {
                     final Embedded embeddedAnn = ReflectionUtils.getClassEmbeddedAnnotation(clazz);
                     final Entity entityAnn = ReflectionUtils.getClassEntityAnnotation(clazz);
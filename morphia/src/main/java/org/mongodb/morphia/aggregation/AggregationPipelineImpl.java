@@ -13,6 +13,7 @@ import org.mongodb.morphia.logging.Logger;
 import org.mongodb.morphia.logging.MorphiaLoggerFactory;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.metrics.OperationType;
 import org.mongodb.morphia.query.MorphiaIterator;
 import org.mongodb.morphia.query.Query;
 
@@ -78,7 +79,8 @@ public class AggregationPipelineImpl implements AggregationPipeline {
         LOG.debug("stages = " + stages);
 
         Cursor cursor = collection.aggregate(stages, options, readPreference);
-        return new MorphiaIterator<U, U>(datastore, cursor, mapper, target, collectionName, mapper.createEntityCache());
+        return new MorphiaIterator<U, U>(datastore, cursor, mapper, target, collectionName, mapper.createEntityCache(),
+                                         OperationType.AGGREGATE);
     }
 
     @Override
@@ -179,7 +181,10 @@ public class AggregationPipelineImpl implements AggregationPipeline {
     @Override
     public <U> Iterator<U> out(final String collectionName, final Class<U> target, final AggregationOptions options) {
         stages.add(new BasicDBObject("$out", collectionName));
-        return aggregate(target, options);
+        final Iterator<U> results = aggregate(target, options);
+        datastore.getQueryResultCache().invalidate(collectionName);
+        mapper.getOptions().getCacheFactory().invalidate(collectionName);
+        return results;
     }
 
     @Override
@@ -0,0 +1,32 @@
+package org.mongodb.morphia.annotations;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks an entity as eligible for the shared, second-level entity cache.  Cached instances are handed out to every query that resolves
+ * the same key so this is meant for read-mostly data such as reference targets and the instances should not be modified.
+ *
+ * @see org.mongodb.morphia.mapping.cache.SharedEntityCacheFactory
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Cached {
+    /**
+     * How long an instance stays in the cache after it was loaded.  Zero or less uses the default time to live of the cache.
+     */
+    long ttl() default 0;
+
+    /**
+     * The unit of {@link #ttl()}
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
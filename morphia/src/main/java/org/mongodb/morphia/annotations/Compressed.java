@@ -0,0 +1,37 @@
+package org.mongodb.morphia.annotations;
+
+
+import org.mongodb.morphia.mapping.serialization.Compression;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Compresses the value of a String or byte[] field when it is larger than a threshold.  Larger values are stored as binary data with a
+ * small header naming the codec; smaller values, and values which do not get smaller when compressed, are stored as they are.  Either
+ * kind is read back, so the annotation can be added to a field holding existing data.  It can not be removed while compressed values
+ * remain, since a field without it reads them as plain binary data; raise the
+ * threshold above the size of the values and save the entities again first.
+ * <p/>
+ * Compressed values can not be queried or indexed meaningfully.
+ *
+ * @see org.mongodb.morphia.mapping.serialization.CompressedBinary
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Compressed {
+    /**
+     * The codec to compress values with
+     */
+    Compression codec() default Compression.LZ4;
+
+    /**
+     * The size, in bytes, from which values are compressed.  Strings are measured in UTF-8.
+     */
+    int threshold() default 1024;
+}
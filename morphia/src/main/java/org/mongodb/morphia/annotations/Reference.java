@@ -41,6 +41,12 @@ public @interface Reference {
      */
     @Deprecated Class<?> concreteClass() default Object.class;
 
+    /**
+     * For lazy references, how many unfetched proxies of the referenced type loaded by the same query to fetch together, with one query,
+     * when the first of them is used.  The default of 1 fetches each proxy on its own.
+     */
+    int batchSize() default 1;
+
     /**
      * Specifies whether only _id should be stored versus storing a DBRef
      */
@@ -0,0 +1,279 @@
+package org.mongodb.morphia.async;
+
+
+import com.mongodb.WriteResult;
+import org.mongodb.morphia.AdvancedDatastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.query.Query;
+import org.mongodb.morphia.query.UpdateOperations;
+import org.mongodb.morphia.query.UpdateResults;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Datastore operations on an Executor and hands back {@link MorphiaFuture}s rather than blocking the caller.  The mapping of
+ * documents to entities happens on the executor's threads as well.
+ * <pre>
+ * AsyncDatastore async = new AsyncDatastore(datastore, Executors.newFixedThreadPool(16));
+ * async.get(Hotel.class, id).onComplete(new Callback&lt;Hotel&gt;() { ... });
+ * </pre>
+ * The executor should have about as many threads as the MongoClient has connections.  Entities passed to an operation must not be
+ * modified until its future completes.
+ */
+public class AsyncDatastore {
+    private final AdvancedDatastore datastore;
+    private final Executor executor;
+
+    /**
+     * Creates an AsyncDatastore
+     *
+     * @param datastore the Datastore to run operations against
+     * @param executor  the Executor to run them on
+     */
+    public AsyncDatastore(final AdvancedDatastore datastore, final Executor executor) {
+        this.datastore = datastore;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a query for a type
+     *
+     * @param type the type to query
+     * @param <T>  the type to query
+     * @return the query
+     */
+    public <T> AsyncQuery<T> createQuery(final Class<T> type) {
+        return new AsyncQuery<T>(this, datastore.createQuery(type));
+    }
+
+    /**
+     * Wraps an existing query.  Later changes to the query are not seen by the returned AsyncQuery.
+     *
+     * @param query the query
+     * @param <T>   the type to query
+     * @return the query
+     */
+    public <T> AsyncQuery<T> wrap(final Query<T> query) {
+        return new AsyncQuery<T>(this, query);
+    }
+
+    /**
+     * Deletes an entity
+     *
+     * @param entity the entity to delete
+     * @param <T>    the type of the entity
+     * @return the pending results of the delete
+     * @see org.mongodb.morphia.Datastore#delete(Object)
+     */
+    public <T> MorphiaFuture<WriteResult> delete(final T entity) {
+        return submit(new Callable<WriteResult>() {
+            @Override
+            public WriteResult call() {
+                return datastore.delete(entity);
+            }
+        });
+    }
+
+    /**
+     * Deletes the entities matching a query
+     *
+     * @param query the query
+     * @param <T>   the type to delete
+     * @return the pending results of the delete
+     * @see org.mongodb.morphia.Datastore#delete(Query)
+     */
+    public <T> MorphiaFuture<WriteResult> delete(final Query<T> query) {
+        final Query<T> copy = query.cloneQuery();
+        return submit(new Callable<WriteResult>() {
+            @Override
+            public WriteResult call() {
+                return datastore.delete(copy);
+            }
+        });
+    }
+
+    /**
+     * Finds an entity by its id
+     *
+     * @param clazz the type to find
+     * @param id    the id to find
+     * @param <T>   the type to find
+     * @param <V>   the type of the id
+     * @return the pending entity, which is null if none was found
+     * @see org.mongodb.morphia.Datastore#get(Class, Object)
+     */
+    public <T, V> MorphiaFuture<T> get(final Class<T> clazz, final V id) {
+        return submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return datastore.get(clazz, id);
+            }
+        });
+    }
+
+    /**
+     * Finds the entities of a list of keys.  The keys are grouped by collection and each collection is queried concurrently.
+     *
+     * @param keys the keys to find
+     * @param <T>  the type to find
+     * @return the pending entities, grouped by collection
+     * @see org.mongodb.morphia.Datastore#getByKeys(Iterable)
+     */
+    public <T> MorphiaFuture<List<T>> getByKeys(final Iterable<Key<T>> keys) {
+        final Map<String, List<Key<T>>> groups = new LinkedHashMap<String, List<Key<T>>>();
+        for (final Key<T> key : keys) {
+            final String group = key.getCollection() != null ? key.getCollection() : key.getType().getName();
+            List<Key<T>> list = groups.get(group);
+            if (list == null) {
+                list = new ArrayList<Key<T>>();
+                groups.put(group, list);
+            }
+            list.add(key);
+        }
+
+        final MorphiaFuture<List<T>> result = new MorphiaFuture<List<T>>();
+        if (groups.isEmpty()) {
+            result.complete(new ArrayList<T>());
+            return result;
+        }
+
+        final List<MorphiaFuture<List<T>>> parts = new ArrayList<MorphiaFuture<List<T>>>();
+        for (final List<Key<T>> group : groups.values()) {
+            parts.add(submit(new Callable<List<T>>() {
+                @Override
+                public List<T> call() {
+                    return datastore.getByKeys(group);
+                }
+            }));
+        }
+        final AtomicInteger remaining = new AtomicInteger(parts.size());
+        final Callback<List<T>> join = new Callback<List<T>>() {
+            @Override
+            public void onResult(final List<T> entities, final Throwable t) {
+                if (t != null) {
+                    result.fail(t);
+                } else if (remaining.decrementAndGet() == 0) {
+                    final List<T> all = new ArrayList<T>();
+                    for (final MorphiaFuture<List<T>> part : parts) {
+                        try {
+                            all.addAll(part.get());
+                        } catch (InterruptedException e) {
+                            result.fail(e);
+                            return;
+                        } catch (ExecutionException e) {
+                            result.fail(e.getCause());
+                            return;
+                        }
+                    }
+                    result.complete(all);
+                }
+            }
+        };
+        for (final MorphiaFuture<List<T>> part : parts) {
+            part.onComplete(join);
+        }
+        return result;
+    }
+
+    /**
+     * Inserts an entity
+     *
+     * @param entity the entity to insert
+     * @param <T>    the type of the entity
+     * @return the pending key of the entity
+     * @see AdvancedDatastore#insert(Object)
+     */
+    public <T> MorphiaFuture<Key<T>> insert(final T entity) {
+        return submit(new Callable<Key<T>>() {
+            @Override
+            public Key<T> call() {
+                return datastore.insert(entity);
+            }
+        });
+    }
+
+    /**
+     * Saves an entity
+     *
+     * @param entity the entity to save
+     * @param <T>    the type of the entity
+     * @return the pending key of the entity
+     * @see org.mongodb.morphia.Datastore#save(Object)
+     */
+    public <T> MorphiaFuture<Key<T>> save(final T entity) {
+        return submit(new Callable<Key<T>>() {
+            @Override
+            public Key<T> call() {
+                return datastore.save(entity);
+            }
+        });
+    }
+
+    /**
+     * Saves entities
+     *
+     * @param entities the entities to save
+     * @param <T>      the type of the entities
+     * @return the pending keys of the entities
+     * @see org.mongodb.morphia.Datastore#save(Iterable)
+     */
+    public <T> MorphiaFuture<Iterable<Key<T>>> save(final Iterable<T> entities) {
+        return submit(new Callable<Iterable<Key<T>>>() {
+            @Override
+            public Iterable<Key<T>> call() {
+                return datastore.save(entities);
+            }
+        });
+    }
+
+    /**
+     * Updates the entities matching a query
+     *
+     * @param query      the query
+     * @param operations the updates to apply
+     * @param <T>        the type to update
+     * @return the pending results of the update
+     * @see org.mongodb.morphia.Datastore#update(Query, UpdateOperations)
+     */
+    public <T> MorphiaFuture<UpdateResults> update(final Query<T> query, final UpdateOperations<T> operations) {
+        final Query<T> copy = query.cloneQuery();
+        return submit(new Callable<UpdateResults>() {
+            @Override
+            public UpdateResults call() {
+                return datastore.update(copy, operations);
+            }
+        });
+    }
+
+    /**
+     * Runs any task on this datastore's Executor, e.g. to combine several blocking calls.
+     *
+     * @param task the task
+     * @param <V>  the result type
+     * @return the pending result of the task
+     */
+    public <V> MorphiaFuture<V> submit(final Callable<V> task) {
+        final MorphiaFuture<V> future = new MorphiaFuture<V>();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                future.run(task);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return the underlying Datastore
+     */
+    public AdvancedDatastore getDatastore() {
+        return datastore;
+    }
+}
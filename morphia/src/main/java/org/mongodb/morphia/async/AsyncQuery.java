@@ -0,0 +1,78 @@
+package org.mongodb.morphia.async;
+
+
+import org.mongodb.morphia.query.Query;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs a query on an {@link AsyncDatastore}'s Executor.  The query is copied when this is created so that it can be reused or changed
+ * by the caller while the query runs.
+ *
+ * @param <T> the type being queried
+ */
+public class AsyncQuery<T> {
+    private final AsyncDatastore datastore;
+    private final Query<T> query;
+
+    AsyncQuery(final AsyncDatastore datastore, final Query<T> query) {
+        this.datastore = datastore;
+        this.query = query.cloneQuery();
+    }
+
+    /**
+     * Execute the query and get the results.
+     *
+     * @return the pending results
+     * @see Query#asList()
+     */
+    public MorphiaFuture<List<T>> asList() {
+        final Query<T> copy = query.cloneQuery();
+        return datastore.submit(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return copy.asList();
+            }
+        });
+    }
+
+    /**
+     * Count the total number of values in the result, ignoring limit and offset
+     *
+     * @return the pending count
+     * @see Query#countAll()
+     */
+    public MorphiaFuture<Long> countAll() {
+        final Query<T> copy = query.cloneQuery();
+        return datastore.submit(new Callable<Long>() {
+            @Override
+            public Long call() {
+                return copy.countAll();
+            }
+        });
+    }
+
+    /**
+     * Execute the query and get the first result.
+     *
+     * @return the pending result, which is null if nothing matched
+     * @see Query#get()
+     */
+    public MorphiaFuture<T> get() {
+        final Query<T> copy = query.cloneQuery();
+        return datastore.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return copy.get();
+            }
+        });
+    }
+
+    /**
+     * @return a copy of the wrapped query
+     */
+    public Query<T> getQuery() {
+        return query.cloneQuery();
+    }
+}
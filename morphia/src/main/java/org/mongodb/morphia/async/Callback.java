@@ -0,0 +1,18 @@
+package org.mongodb.morphia.async;
+
+
+/**
+ * Receives the outcome of an asynchronous operation.
+ *
+ * @param <T> the result type
+ * @see MorphiaFuture#onComplete(Callback)
+ */
+public interface Callback<T> {
+    /**
+     * Called once the operation completes.  Exactly one of the parameters is meaningful.
+     *
+     * @param result the result of the operation if it succeeded
+     * @param t      the failure if the operation failed, otherwise null
+     */
+    void onResult(T result, Throwable t);
+}
@@ -0,0 +1,180 @@
+package org.mongodb.morphia.async;
+
+
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending result of an {@link AsyncDatastore} operation.  Besides the usual blocking {@link #get()}, callbacks can be registered to
+ * be told of the result without waiting for it.
+ * <p/>
+ * The future is completed once, by the task computing it or by {@link #cancel(boolean)}; whichever comes first wins.  The state, result
+ * and callbacks are guarded by the future itself, and waiting threads are released by a latch.  A callback which throws is logged and
+ * does not keep the other callbacks from being called.
+ *
+ * @param <T> the result type
+ */
+public class MorphiaFuture<T> implements Future<T> {
+    private static final Logger LOG = MorphiaLoggerFactory.get(MorphiaFuture.class);
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private List<Callback<? super T>> callbacks = new ArrayList<Callback<? super T>>();
+    private boolean completed;
+    private T result;
+    private Throwable failure;
+    private Thread runner;
+    private boolean interrupted;
+
+    MorphiaFuture() {
+    }
+
+    /**
+     * Registers a callback to be called with the result.  If the result is already available the callback is called immediately, on the
+     * calling thread.  Otherwise it is called on the thread completing this future.
+     *
+     * @param callback the callback
+     * @return this
+     */
+    public MorphiaFuture<T> onComplete(final Callback<? super T> callback) {
+        synchronized (this) {
+            if (!completed) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        callBack(callback);
+        return this;
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        if (!finish(null, new CancellationException())) {
+            return false;
+        }
+        if (mayInterruptIfRunning) {
+            synchronized (this) {
+                // run() clears runner under this lock, so the thread is still running the task and no other one
+                if (runner != null) {
+                    runner.interrupt();
+                    interrupted = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return completed && failure instanceof CancellationException;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return completed;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return result();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return result();
+    }
+
+    /**
+     * Runs a task on the calling thread and completes this future with its outcome, unless the future was cancelled first
+     */
+    void run(final Callable<T> task) {
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+        try {
+            complete(task.call());
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            synchronized (this) {
+                runner = null;
+                // do not leak the interrupt of a cancellation which raced with the end of the task to the next task of this thread
+                if (interrupted) {
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    void complete(final T t) {
+        finish(t, null);
+    }
+
+    void fail(final Throwable t) {
+        finish(null, t);
+    }
+
+    /**
+     * Completes this future unless it already is, then calls the callbacks registered so far
+     *
+     * @return false if this future was already complete
+     */
+    private boolean finish(final T value, final Throwable t) {
+        final List<Callback<? super T>> pending;
+        synchronized (this) {
+            if (completed) {
+                return false;
+            }
+            completed = true;
+            result = value;
+            failure = t;
+            pending = callbacks;
+            callbacks = null;
+        }
+        done.countDown();
+        for (final Callback<? super T> callback : pending) {
+            callBack(callback);
+        }
+        return true;
+    }
+
+    private synchronized T result() throws ExecutionException {
+        if (failure instanceof CancellationException) {
+            throw (CancellationException) failure;
+        } else if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return result;
+    }
+
+    private void callBack(final Callback<? super T> callback) {
+        final T value;
+        final Throwable t;
+        synchronized (this) {
+            value = result;
+            t = failure;
+        }
+        try {
+            callback.onResult(value, t);
+        } catch (Throwable e) {
+            // the future is complete, so there is nobody left to hand the exception to
+            LOG.error("A callback of a MorphiaFuture failed", e);
+        }
+    }
+}
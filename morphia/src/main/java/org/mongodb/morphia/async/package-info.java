@@ -0,0 +1,4 @@
+/**
+ * Non-blocking access to a Datastore for callers which should not tie up a thread per database call.
+ */
+package org.mongodb.morphia.async;
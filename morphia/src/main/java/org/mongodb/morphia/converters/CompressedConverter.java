@@ -0,0 +1,46 @@
+package org.mongodb.morphia.converters;
+
+
+import org.bson.types.Binary;
+import org.mongodb.morphia.annotations.Compressed;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.MappingException;
+import org.mongodb.morphia.mapping.serialization.CompressedBinary;
+
+import java.io.IOException;
+
+import static java.lang.String.format;
+
+
+/**
+ * Reads and writes the values of String and byte[] fields annotated with {@link Compressed}
+ */
+public class CompressedConverter extends TypeConverter {
+    @Override
+    public Object decode(final Class targetClass, final Object fromDBObject, final MappedField f) {
+        if (!CompressedBinary.isCompressed(fromDBObject)) {
+            return fromDBObject;
+        }
+        try {
+            return CompressedBinary.decompress((Binary) fromDBObject);
+        } catch (IOException e) {
+            throw new MappingException(format("While decompressing %s", f.getFullName()), e);
+        }
+    }
+
+    @Override
+    public Object encode(final Object value, final MappedField f) {
+        final Compressed compressed = f.getAnnotation(Compressed.class);
+        if (value instanceof String) {
+            return CompressedBinary.compress((String) value, compressed.codec(), compressed.threshold());
+        } else if (value instanceof byte[]) {
+            return CompressedBinary.compress((byte[]) value, compressed.codec(), compressed.threshold());
+        }
+        return value;
+    }
+
+    @Override
+    protected boolean isSupported(final Class c, final MappedField optionalExtraInfo) {
+        return optionalExtraInfo != null && optionalExtraInfo.hasAnnotation(Compressed.class);
+    }
+}
@@ -3,6 +3,7 @@ package org.mongodb.morphia.converters;
 import com.mongodb.DBObject;
 import org.mongodb.morphia.logging.Logger;
 import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.EphemeralMappedField;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.Mapper;
 import org.mongodb.morphia.mapping.MapperOptions;
@@ -19,14 +20,20 @@ import static java.lang.String.format;
 
 /**
  * Defines a bundle of converters
+ * <p/>
+ * The converter resolved for a type, or for a field and the type of its value, is cached until a converter is added or removed, so that
+ * encoding a value looks its converter up in a hash table instead of asking every converter whether it can handle the value.
  */
 public abstract class Converters {
     private static final Logger LOG = MorphiaLoggerFactory.get(Converters.class);
+    private static final Object NOT_FOUND = new Object();
 
     private final Mapper mapper;
     private final List<TypeConverter> untypedTypeEncoders = new LinkedList<TypeConverter>();
     private final Map<Class, List<TypeConverter>> tcMap = new ConcurrentHashMap<Class, List<TypeConverter>>();
     private final List<Class<? extends TypeConverter>> registeredConverterClasses = new ArrayList<Class<? extends TypeConverter>>();
+    private volatile int version;
+    private volatile Dispatch dispatch = new Dispatch();
 
     /**
      * Creates a bundle with a particular Mapper.
@@ -64,6 +71,7 @@ public abstract class Converters {
 
         registeredConverterClasses.add(tc.getClass());
         tc.setMapper(mapper);
+        invalidate();
 
         return tc;
     }
@@ -82,7 +90,7 @@ public abstract class Converters {
         if (toDecode == null) {
             toDecode = fromDBObject.getClass();
         }
-        return getEncoder(toDecode).decode(toDecode, fromDBObject, mf);
+        return lookup(toDecode).decode(toDecode, fromDBObject, mf);
     }
 
     /**
@@ -106,7 +114,7 @@ public abstract class Converters {
      * @return the encoded version of the object
      */
     public Object encode(final Class c, final Object o) {
-        return getEncoder(c).encode(o);
+        return lookup(c).encode(o);
     }
 
     /**
@@ -120,7 +128,12 @@ public abstract class Converters {
     public void fromDBObject(final DBObject dbObj, final MappedField mf, final Object targetEntity) {
         final Object object = mf.getDbObjectValue(dbObj);
         if (object != null) {
-            final TypeConverter enc = getEncoder(mf);
+            final PrimitiveConverter primitive = getPrimitiveConverter(mf);
+            if (primitive != null) {
+                decodePrimitive(primitive, object, mf, targetEntity);
+                return;
+            }
+            final TypeConverter enc = lookup(null, mf);
             final Object decodedValue = enc.decode(mf.getType(), object, mf);
             try {
                 mf.setFieldValue(targetEntity, decodedValue);
@@ -136,7 +149,7 @@ public abstract class Converters {
      * @return true if there is a converter for the type of the field
      */
     public boolean hasDbObjectConverter(final MappedField field) {
-        final TypeConverter converter = getEncoder(field);
+        final TypeConverter converter = lookup(null, field);
         return converter != null && !(converter instanceof IdentityConverter) && !(converter instanceof SimpleValueConverter);
     }
 
@@ -145,7 +158,7 @@ public abstract class Converters {
      * @return true if there is a converter for the type
      */
     public boolean hasDbObjectConverter(final Class c) {
-        final TypeConverter converter = getEncoder(c);
+        final TypeConverter converter = lookup(c);
         return converter != null && !(converter instanceof IdentityConverter) && !(converter instanceof SimpleValueConverter);
     }
 
@@ -173,7 +186,7 @@ public abstract class Converters {
      * @see SimpleValueConverter
      */
     public boolean hasSimpleValueConverter(final Class c) {
-        return (getEncoder(c) instanceof SimpleValueConverter);
+        return (lookup(c) instanceof SimpleValueConverter);
     }
 
     /**
@@ -182,7 +195,14 @@ public abstract class Converters {
      * @see SimpleValueConverter
      */
     public boolean hasSimpleValueConverter(final MappedField c) {
-        return (getEncoder(c) instanceof SimpleValueConverter);
+        return (lookup(null, c) instanceof SimpleValueConverter);
+    }
+
+    /**
+     * @return a number which changes each time a converter is added or removed.  Used to detect stale mapping decisions.
+     */
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -214,7 +234,7 @@ public abstract class Converters {
             }
             registeredConverterClasses.remove(tc.getClass());
         }
-
+        invalidate();
     }
 
     /**
@@ -226,10 +246,14 @@ public abstract class Converters {
      * @param opts             the options to apply
      */
     public void toDBObject(final Object containingObject, final MappedField mf, final DBObject dbObj, final MapperOptions opts) {
-        final Object fieldValue = mf.getFieldValue(containingObject);
-        final TypeConverter enc = getEncoder(fieldValue, mf);
-
-        final Object encoded = enc.encode(fieldValue, mf);
+        final PrimitiveConverter primitive = getPrimitiveConverter(mf);
+        final Object encoded;
+        if (primitive != null) {
+            encoded = encodePrimitive(primitive, containingObject, mf);
+        } else {
+            final Object fieldValue = mf.getFieldValue(containingObject);
+            encoded = lookup(fieldValue, mf).encode(fieldValue, mf);
+        }
         if (encoded != null || opts.isStoreNulls()) {
             dbObj.put(mf.getNameToStore(), encoded);
         }
@@ -292,7 +316,141 @@ public abstract class Converters {
         }
     }
 
-    private TypeConverter getEncoder(final MappedField mf) {
-        return getEncoder(null, mf);
+    /**
+     * Drops every cached resolution.  The cache is replaced only once the converters have changed, so a lookup racing with the change
+     * can at worst fill the discarded cache.
+     */
+    private void invalidate() {
+        version++;
+        dispatch = new Dispatch();
+    }
+
+    /**
+     * @return the converter for a type as found by {@link #getEncoder(Class)}, resolving it only once
+     */
+    private TypeConverter lookup(final Class c) {
+        final Map<Class, Object> byClass = dispatch.byClass;
+        Object converter = byClass.get(c);
+        if (converter == null) {
+            converter = getEncoder(c);
+            byClass.put(c, converter == null ? NOT_FOUND : converter);
+        }
+        return converter == NOT_FOUND ? null : (TypeConverter) converter;
+    }
+
+    /**
+     * @return the converter for a field and its value as found by {@link #getEncoder(Object, MappedField)}, resolving it only once for
+     * each type of value.  The EphemeralMappedFields made up for the elements of maps and collections are created for every value
+     * decoded, so they are resolved every time rather than filling the cache.
+     */
+    private TypeConverter lookup(final Object val, final MappedField mf) {
+        if (mf instanceof EphemeralMappedField) {
+            return getEncoder(val, mf);
+        }
+        final FieldDispatch field = fieldDispatch(mf);
+        Object converter;
+        if (val == null) {
+            converter = field.withoutValue;
+            if (converter == null) {
+                converter = getEncoder(null, mf);
+                field.withoutValue = converter == null ? NOT_FOUND : converter;
+            }
+        } else {
+            converter = field.byValueClass.get(val.getClass());
+            if (converter == null) {
+                converter = getEncoder(val, mf);
+                field.byValueClass.put(val.getClass(), converter == null ? NOT_FOUND : converter);
+            }
+        }
+        return converter == NOT_FOUND ? null : (TypeConverter) converter;
+    }
+
+    /**
+     * @return the number of fields with cached resolutions
+     */
+    int getCachedFieldCount() {
+        return dispatch.byField.size();
+    }
+
+    private FieldDispatch fieldDispatch(final MappedField mf) {
+        final Map<MappedField, FieldDispatch> byField = dispatch.byField;
+        FieldDispatch field = byField.get(mf);
+        if (field == null) {
+            field = new FieldDispatch();
+            byField.put(mf, field);
+        }
+        return field;
+    }
+
+    private PrimitiveConverter getPrimitiveConverter(final MappedField mf) {
+        if (mf instanceof EphemeralMappedField) {
+            return resolvePrimitiveConverter(mf);
+        }
+        final FieldDispatch field = fieldDispatch(mf);
+        Object primitive = field.primitive;
+        if (primitive == null) {
+            primitive = resolvePrimitiveConverter(mf);
+            field.primitive = primitive == null ? NOT_FOUND : primitive;
+        }
+        return primitive == NOT_FOUND ? null : (PrimitiveConverter) primitive;
+    }
+
+    /**
+     * @return the converter of an int, long or double field if it can read and write the field without boxing, or null
+     */
+    private PrimitiveConverter resolvePrimitiveConverter(final MappedField mf) {
+        final Class type = mf.getType();
+        final Class boxed;
+        if (type == int.class) {
+            boxed = Integer.class;
+        } else if (type == long.class) {
+            boxed = Long.class;
+        } else if (type == double.class) {
+            boxed = Double.class;
+        } else {
+            return null;
+        }
+        if (mf.getAccessor() == null) {
+            return null;
+        }
+        // field values are written with the converter of their boxed type, which may have been replaced on its own
+        final TypeConverter converter = lookup(null, mf);
+        return converter instanceof PrimitiveConverter && converter == lookup(boxed) ? (PrimitiveConverter) converter : null;
+    }
+
+    private void decodePrimitive(final PrimitiveConverter converter, final Object value, final MappedField mf, final Object entity) {
+        final Class type = mf.getType();
+        if (type == int.class) {
+            mf.getAccessor().setInt(entity, converter.decodeInt(value, mf));
+        } else if (type == long.class) {
+            mf.getAccessor().setLong(entity, converter.decodeLong(value, mf));
+        } else {
+            mf.getAccessor().setDouble(entity, converter.decodeDouble(value, mf));
+        }
+    }
+
+    private Object encodePrimitive(final PrimitiveConverter converter, final Object entity, final MappedField mf) {
+        final Class type = mf.getType();
+        if (type == int.class) {
+            return converter.encodeInt(mf.getAccessor().getInt(entity), mf);
+        } else if (type == long.class) {
+            return converter.encodeLong(mf.getAccessor().getLong(entity), mf);
+        } else {
+            return converter.encodeDouble(mf.getAccessor().getDouble(entity), mf);
+        }
+    }
+
+    /**
+     * The converters resolved since the last change to this bundle.  Negative results are cached as {@link #NOT_FOUND}.
+     */
+    private static final class Dispatch {
+        private final Map<Class, Object> byClass = new ConcurrentHashMap<Class, Object>();
+        private final Map<MappedField, FieldDispatch> byField = new ConcurrentHashMap<MappedField, FieldDispatch>();
+    }
+
+    private static final class FieldDispatch {
+        private final Map<Class, Object> byValueClass = new ConcurrentHashMap<Class, Object>(4);
+        private volatile Object withoutValue;
+        private volatile Object primitive;
     }
 }
@@ -31,8 +31,9 @@ public class CustomConverters extends Converters {
 
     @Override
     public void removeConverter(final TypeConverter tc) {
-        super.removeConverter(tc);
+        // the defaults first, so that no lookup caches a converter being removed from them
         defaultConverters.removeConverter(tc);
+        super.removeConverter(tc);
     }
 
     @Override
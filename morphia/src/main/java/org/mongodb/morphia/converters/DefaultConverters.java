@@ -16,6 +16,7 @@ import org.mongodb.morphia.mapping.Mapper;
 public class DefaultConverters extends Converters {
     private final IdentityConverter identityConverter;
     private final SerializedObjectConverter serializedConverter;
+    private final CompressedConverter compressedConverter;
 
     /**
      * Creates a bundle with a particular Mapper.
@@ -59,6 +60,9 @@ public class DefaultConverters extends Converters {
         //generic converter that will just pass things through.
         identityConverter = new IdentityConverter();
         serializedConverter = new SerializedObjectConverter();
+        serializedConverter.setMapper(mapper);
+        compressedConverter = new CompressedConverter();
+        compressedConverter.setMapper(mapper);
     }
 
     @Override
@@ -76,6 +80,9 @@ public class DefaultConverters extends Converters {
         if (serializedConverter.canHandle(mf)) {
             return serializedConverter;
         }
+        if (compressedConverter.canHandle(mf)) {
+            return compressedConverter;
+        }
 
         TypeConverter encoder = super.getEncoder(val, mf);
         if (encoder == null && (identityConverter.canHandle(mf)
@@ -11,7 +11,7 @@ import java.util.List;
  * @author Uwe Schaefer, (us@thomas-daily.de)
  * @author scotthernandez
  */
-public class DoubleConverter extends TypeConverter implements SimpleValueConverter {
+public class DoubleConverter extends NumberConverter {
 
     /**
      * Creates the Converter.
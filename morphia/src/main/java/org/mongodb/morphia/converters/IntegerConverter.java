@@ -11,7 +11,7 @@ import java.util.List;
  * @author Uwe Schaefer, (us@thomas-daily.de)
  * @author scotthernandez
  */
-public class IntegerConverter extends TypeConverter implements SimpleValueConverter {
+public class IntegerConverter extends NumberConverter {
     /**
      * Creates the Converter.
      */
@@ -11,7 +11,7 @@ import java.util.List;
  * @author Uwe Schaefer, (us@thomas-daily.de)
  * @author scotthernandez
  */
-public class LongConverter extends TypeConverter implements SimpleValueConverter {
+public class LongConverter extends NumberConverter {
 
     /**
      * Creates the Converter.
@@ -41,5 +41,4 @@ public class LongConverter extends TypeConverter implements SimpleValueConverter
 
         return Long.parseLong(val.toString());
     }
-
 }
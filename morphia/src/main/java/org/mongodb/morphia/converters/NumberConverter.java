@@ -0,0 +1,44 @@
+package org.mongodb.morphia.converters;
+
+
+import org.mongodb.morphia.mapping.MappedField;
+
+/**
+ * The unboxed reads and writes shared by the converters of int, long and double fields.  Each of them only gets the calls for its own
+ * type, but stored numbers of any type, or their string forms, are read as any of the three.
+ */
+abstract class NumberConverter extends TypeConverter implements SimpleValueConverter, PrimitiveConverter {
+    NumberConverter(final Class... types) {
+        super(types);
+    }
+
+    @Override
+    public int decodeInt(final Object val, final MappedField mf) {
+        return val instanceof Number ? ((Number) val).intValue() : Integer.parseInt(val.toString());
+    }
+
+    @Override
+    public long decodeLong(final Object val, final MappedField mf) {
+        return val instanceof Number ? ((Number) val).longValue() : Long.parseLong(val.toString());
+    }
+
+    @Override
+    public double decodeDouble(final Object val, final MappedField mf) {
+        return val instanceof Number ? ((Number) val).doubleValue() : Double.parseDouble(val.toString());
+    }
+
+    @Override
+    public Object encodeInt(final int value, final MappedField mf) {
+        return value;
+    }
+
+    @Override
+    public Object encodeLong(final long value, final MappedField mf) {
+        return value;
+    }
+
+    @Override
+    public Object encodeDouble(final double value, final MappedField mf) {
+        return value;
+    }
+}
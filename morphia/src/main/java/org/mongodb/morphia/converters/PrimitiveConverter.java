@@ -0,0 +1,69 @@
+package org.mongodb.morphia.converters;
+
+
+import org.mongodb.morphia.mapping.MappedField;
+
+/**
+ * Implemented by converters which can read and write primitive fields without boxing.  Fields of type int, long and double whose
+ * converter implements this interface are set through {@link org.mongodb.morphia.mapping.FieldAccessor#setInt(Object, int)} and its
+ * siblings, and read through the matching getters, instead of going through {@link TypeConverter#decode(Class, Object, MappedField)} and
+ * {@link TypeConverter#encode(Object, MappedField)}.  Converters which do not implement it are used through the boxed methods as before.
+ * <p/>
+ * Values read from the database are never null when these methods are called.  The encode methods return the value to store in the
+ * document, which, documents holding objects, is boxed once.
+ */
+public interface PrimitiveConverter {
+    /**
+     * Decodes a value read from the database for an int field
+     *
+     * @param fromDBObject the value read
+     * @param mf           the MappedField being decoded
+     * @return the value of the field
+     */
+    int decodeInt(Object fromDBObject, MappedField mf);
+
+    /**
+     * Decodes a value read from the database for a long field
+     *
+     * @param fromDBObject the value read
+     * @param mf           the MappedField being decoded
+     * @return the value of the field
+     */
+    long decodeLong(Object fromDBObject, MappedField mf);
+
+    /**
+     * Decodes a value read from the database for a double field
+     *
+     * @param fromDBObject the value read
+     * @param mf           the MappedField being decoded
+     * @return the value of the field
+     */
+    double decodeDouble(Object fromDBObject, MappedField mf);
+
+    /**
+     * Encodes the value of an int field
+     *
+     * @param value the value of the field
+     * @param mf    the MappedField being encoded
+     * @return the value to store
+     */
+    Object encodeInt(int value, MappedField mf);
+
+    /**
+     * Encodes the value of a long field
+     *
+     * @param value the value of the field
+     * @param mf    the MappedField being encoded
+     * @return the value to store
+     */
+    Object encodeLong(long value, MappedField mf);
+
+    /**
+     * Encodes the value of a double field
+     *
+     * @param value the value of the field
+     * @param mf    the MappedField being encoded
+     * @return the value to store
+     */
+    Object encodeDouble(double value, MappedField mf);
+}
@@ -5,7 +5,7 @@ import org.bson.types.Binary;
 import org.mongodb.morphia.annotations.Serialized;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.MappingException;
-import org.mongodb.morphia.mapping.Serializer;
+import org.mongodb.morphia.mapping.serialization.SerializationFormat;
 
 import java.io.IOException;
 
@@ -28,8 +28,7 @@ public class SerializedObjectConverter extends TypeConverter {
         }
 
         try {
-            final boolean useCompression = !f.getAnnotation(Serialized.class).disableCompression();
-            return Serializer.deserialize(fromDBObject, useCompression);
+            return getFormat().deserialize(fromDBObject);
         } catch (IOException e) {
             throw new MappingException("While deserializing to " + f.getFullName(), e);
         } catch (ClassNotFoundException e) {
@@ -44,12 +43,16 @@ public class SerializedObjectConverter extends TypeConverter {
         }
         try {
             final boolean useCompression = !f.getAnnotation(Serialized.class).disableCompression();
-            return Serializer.serialize(value, useCompression);
+            return getFormat().serialize(value, useCompression);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    private SerializationFormat getFormat() {
+        return getMapper() != null ? getMapper().getOptions().getSerializationFormat() : SerializationFormat.DEFAULT;
+    }
+
     @Override
     protected boolean isSupported(final Class c, final MappedField optionalExtraInfo) {
         return optionalExtraInfo != null && (optionalExtraInfo.hasAnnotation(Serialized.class));
@@ -0,0 +1,147 @@
+package org.mongodb.morphia.mapping;
+
+
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.NotSaved;
+import org.mongodb.morphia.annotations.Property;
+import org.mongodb.morphia.annotations.Reference;
+import org.mongodb.morphia.annotations.Serialized;
+import org.mongodb.morphia.converters.Converters;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The per-class decisions of which {@link CustomMapper} reads and writes each persistent field.  These depend only on the field's
+ * annotations, its type and the registered converters so they are made once and replayed for every document rather than being
+ * re-evaluated for every field of every document.  A plan is tied to the state of the {@link Converters} it was built against and is
+ * rebuilt by {@link MappedClass#getCodecPlan(Mapper)} when converters are added or removed.
+ * <p/>
+ * The plan does not hold the converters or the document names itself because the {@link CustomMapper}s it dispatches to take the
+ * {@link MappedField}.  Instead those are resolved once on their own: a field's converter is cached by the {@link Converters} dispatch
+ * table, which is invalidated by the same converters version as the plan, and its stored and load names are memoized by the field and
+ * resolved here when the plan is built.
+ */
+final class CodecPlan {
+    /**
+     * The CustomMapper slots of {@link MapperOptions} a field can be mapped by
+     */
+    enum Strategy {
+        VALUE,
+        EMBEDDED,
+        REFERENCE,
+        DEFAULT;
+
+        CustomMapper mapper(final MapperOptions options) {
+            switch (this) {
+                case VALUE:
+                    return options.getValueMapper();
+                case EMBEDDED:
+                    return options.getEmbeddedMapper();
+                case REFERENCE:
+                    return options.getReferenceMapper();
+                default:
+                    return options.getDefaultMapper();
+            }
+        }
+    }
+
+    private final FieldPlan[] reads;
+    private final FieldPlan[] writes;
+    private final int convertersVersion;
+
+    CodecPlan(final MappedClass mc, final Converters converters) {
+        convertersVersion = converters.getVersion();
+        final List<MappedField> fields = mc.getPersistenceFields();
+        final List<FieldPlan> readPlans = new ArrayList<FieldPlan>(fields.size());
+        final List<FieldPlan> writePlans = new ArrayList<FieldPlan>(fields.size());
+        for (final MappedField mf : fields) {
+            mf.getNameToStore();
+            mf.getLoadNames();
+            readPlans.add(new FieldPlan(mf, readStrategy(mf, converters), false));
+            if (!mf.hasAnnotation(NotSaved.class)) {
+                final Strategy write = writeStrategy(mf, converters);
+                writePlans.add(new FieldPlan(mf, write, write != Strategy.VALUE && valueMayVary(mf)));
+            }
+        }
+        reads = readPlans.toArray(new FieldPlan[readPlans.size()]);
+        writes = writePlans.toArray(new FieldPlan[writePlans.size()]);
+    }
+
+    static Strategy readStrategy(final MappedField mf, final Converters converters) {
+        if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class)
+            || mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf)) {
+            return Strategy.VALUE;
+        } else if (mf.hasAnnotation(Embedded.class)) {
+            return Strategy.EMBEDDED;
+        } else if (mf.hasAnnotation(Reference.class)) {
+            return Strategy.REFERENCE;
+        } else {
+            return Strategy.DEFAULT;
+        }
+    }
+
+    static Strategy writeStrategy(final MappedField mf, final Converters converters) {
+        // the first of these annotations present on the field decides, in this order
+        if (mf.hasAnnotation(Property.class)) {
+            return Strategy.VALUE;
+        } else if (mf.hasAnnotation(Embedded.class)) {
+            return mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf) ? Strategy.VALUE : Strategy.EMBEDDED;
+        } else if (mf.hasAnnotation(Serialized.class)) {
+            return Strategy.VALUE;
+        } else if (mf.hasAnnotation(Reference.class)) {
+            return mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf) ? Strategy.VALUE : Strategy.REFERENCE;
+        } else {
+            return mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf) ? Strategy.VALUE : Strategy.DEFAULT;
+        }
+    }
+
+    /**
+     * @return true if the runtime value of the field might be of a different type than the declared one and so might still need to be
+     * checked for a SimpleValueConverter when writing
+     */
+    private static boolean valueMayVary(final MappedField mf) {
+        final Class type = mf.getType();
+        return !type.isPrimitive() && !Modifier.isFinal(type.getModifiers());
+    }
+
+    FieldPlan[] getReads() {
+        return reads;
+    }
+
+    FieldPlan[] getWrites() {
+        return writes;
+    }
+
+    boolean isCurrent(final Converters converters) {
+        return convertersVersion == converters.getVersion();
+    }
+
+    static final class FieldPlan {
+        private final MappedField field;
+        private final Strategy strategy;
+        private final boolean checkValue;
+
+        FieldPlan(final MappedField field, final Strategy strategy, final boolean checkValue) {
+            this.field = field;
+            this.strategy = strategy;
+            this.checkValue = checkValue;
+        }
+
+        MappedField getField() {
+            return field;
+        }
+
+        Strategy getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * @return true if the value held by the field must be checked for a SimpleValueConverter before using the planned strategy
+         */
+        boolean isCheckValue() {
+            return checkValue;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.mongodb.morphia.mapping;
+
+
+import com.mongodb.DBCallback;
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DefaultDBCallback;
+import com.mongodb.DefaultDBDecoder;
+import org.bson.BSONObject;
+
+import java.util.List;
+
+/**
+ * A DBDecoder which reads documents, including embedded ones, into {@link CompactDBObject}s rather than
+ * {@link com.mongodb.BasicDBObject}s.  This roughly halves the garbage created per document read when iterating large results.  Enable
+ * it with:
+ * <pre>
+ * ((AdvancedDatastore) datastore).setDecoderFact(CompactDBDecoder.FACTORY);
+ * </pre>
+ * Arrays are still read as {@link com.mongodb.BasicDBList}s.  Document classes configured with
+ * {@link DBCollection#setObjectClass(Class)} are not used by this decoder.
+ */
+public class CompactDBDecoder extends DefaultDBDecoder {
+    /**
+     * The factory to pass to {@link org.mongodb.morphia.AdvancedDatastore#setDecoderFact(DBDecoderFactory)}
+     */
+    public static final DBDecoderFactory FACTORY = new DBDecoderFactory() {
+        @Override
+        public DBDecoder create() {
+            return new CompactDBDecoder();
+        }
+    };
+
+    @Override
+    public DBCallback getDBCallback(final DBCollection collection) {
+        return new CompactDBCallback(collection);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactDBDecoder";
+    }
+
+    private static class CompactDBCallback extends DefaultDBCallback {
+        CompactDBCallback(final DBCollection collection) {
+            super(collection);
+        }
+
+        @Override
+        public BSONObject create() {
+            return new CompactDBObject();
+        }
+
+        @Override
+        public BSONObject create(final boolean array, final List<String> path) {
+            return array ? super.create(true, path) : new CompactDBObject();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.mongodb.morphia.mapping;
+
+
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+import org.bson.BSONObject;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A DBObject which keeps its fields in insertion order in two parallel arrays rather than in a hash map.  Mapped entities rarely have
+ * more than a few dozen fields and each one is looked up once while mapping, so a linear scan costs less than building the hash table
+ * and allocating an entry per field the way {@link com.mongodb.BasicDBObject} does.
+ *
+ * @see CompactDBDecoder
+ */
+public class CompactDBObject implements DBObject {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    private boolean partial;
+
+    /**
+     * Creates an empty document
+     */
+    public CompactDBObject() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty document
+     *
+     * @param capacity the number of fields to allocate room for
+     */
+    public CompactDBObject(final int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+    }
+
+    @Override
+    public void markAsPartialObject() {
+        partial = true;
+    }
+
+    @Override
+    public boolean isPartialObject() {
+        return partial;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            final Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+        if (size == keys.length) {
+            final int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public void putAll(final BSONObject o) {
+        for (final String key : o.keySet()) {
+            put(key, o.get(key));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(final Map m) {
+        for (final Map.Entry<Object, Object> entry : ((Map<Object, Object>) m).entrySet()) {
+            put(entry.getKey().toString(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object get(final String key) {
+        final int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Map toMap() {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public Object removeField(final String key) {
+        final int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        final Object old = values[index];
+        remove(index);
+        return old;
+    }
+
+    @Override
+    @Deprecated
+    public boolean containsKey(final String s) {
+        return containsField(s);
+    }
+
+    @Override
+    public boolean containsField(final String s) {
+        return indexOf(s) >= 0;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new KeySet();
+    }
+
+    /**
+     * @return the number of fields in this document
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BSONObject)) {
+            return false;
+        }
+        return toMap().equals(((BSONObject) o).toMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return toMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return JSON.serialize(this);
+    }
+
+    private int indexOf(final String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void remove(final int index) {
+        final int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    private class KeySet extends AbstractSet<String> {
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next;
+                private boolean removable;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    removable = true;
+                    return keys[next++];
+                }
+
+                @Override
+                public void remove() {
+                    if (!removable) {
+                        throw new IllegalStateException();
+                    }
+                    removable = false;
+                    CompactDBObject.this.remove(--next);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof String && containsField((String) o);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.mongodb.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The state of an entity as last read from or written to the database, kept as a digest of each top level field of its document.  Used
+ * to turn a save of a loaded entity into an update of only the fields which changed.
+ *
+ * @see MapperOptions#setDirtyTracking(boolean)
+ */
+public final class EntitySnapshot {
+    private final Map<String, byte[]> digests;
+
+    private EntitySnapshot(final Map<String, byte[]> digests) {
+        this.digests = digests;
+    }
+
+    /**
+     * Creates a snapshot of a document
+     *
+     * @param dbObject the document
+     * @return the snapshot
+     */
+    public static EntitySnapshot of(final DBObject dbObject) {
+        final MessageDigest md = newDigest();
+        final DefaultDBEncoder encoder = new DefaultDBEncoder();
+        final Map<String, byte[]> digests = new HashMap<String, byte[]>();
+        for (final String key : dbObject.keySet()) {
+            digests.put(key, digest(md, encoder, key, dbObject.get(key)));
+        }
+        return new EntitySnapshot(digests);
+    }
+
+    /**
+     * Computes the update needed to bring the document this snapshot was taken of in line with another version of it.  The _id field is
+     * never part of the update.
+     *
+     * @param dbObject the new version of the document
+     * @return the update, with $set and/or $unset operators, or null if nothing changed
+     */
+    public DBObject diff(final DBObject dbObject) {
+        final MessageDigest md = newDigest();
+        final DefaultDBEncoder encoder = new DefaultDBEncoder();
+        final BasicDBObject set = new BasicDBObject();
+        final BasicDBObject unset = new BasicDBObject();
+        for (final String key : dbObject.keySet()) {
+            if (Mapper.ID_KEY.equals(key)) {
+                continue;
+            }
+            final Object value = dbObject.get(key);
+            final byte[] previous = digests.get(key);
+            if (previous == null || !Arrays.equals(previous, digest(md, encoder, key, value))) {
+                set.put(key, value);
+            }
+        }
+        for (final Entry<String, byte[]> entry : digests.entrySet()) {
+            if (!dbObject.containsField(entry.getKey())) {
+                unset.put(entry.getKey(), "");
+            }
+        }
+
+        if (set.isEmpty() && unset.isEmpty()) {
+            return null;
+        }
+        final BasicDBObject update = new BasicDBObject();
+        if (!set.isEmpty()) {
+            update.put("$set", set);
+        }
+        if (!unset.isEmpty()) {
+            update.put("$unset", unset);
+        }
+        return update;
+    }
+
+    private static byte[] digest(final MessageDigest md, final DefaultDBEncoder encoder, final String key, final Object value) {
+        md.reset();
+        return md.digest(encoder.encode(new BasicDBObject(key, value)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new MappingException("MD5 is not available to track changes", e);
+        }
+    }
+}
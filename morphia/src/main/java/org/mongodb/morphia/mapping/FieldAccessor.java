@@ -0,0 +1,77 @@
+package org.mongodb.morphia.mapping;
+
+
+/**
+ * Reads and writes the value of one java field on instances of its declaring class.  A MappedField holds one FieldAccessor which is
+ * created once, when the class is mapped, by the {@link FieldAccessorFactory} configured on the {@link MapperOptions}.
+ * <p/>
+ * The primitive methods allow the value of a primitive field to be read or written without boxing.  They fail with an
+ * IllegalArgumentException when used on a field of an incompatible type.
+ *
+ * @see MappedField#getAccessor()
+ */
+public interface FieldAccessor {
+    /**
+     * Gets the value of the field, boxing primitives
+     *
+     * @param instance the instance to read
+     * @return the value of the field
+     */
+    Object get(Object instance);
+
+    /**
+     * Sets the value of the field, unboxing primitives
+     *
+     * @param instance the instance to update
+     * @param value    the value to set
+     */
+    void set(Object instance, Object value);
+
+    /**
+     * Gets the value of an int field
+     *
+     * @param instance the instance to read
+     * @return the value of the field
+     */
+    int getInt(Object instance);
+
+    /**
+     * Sets the value of an int field
+     *
+     * @param instance the instance to update
+     * @param value    the value to set
+     */
+    void setInt(Object instance, int value);
+
+    /**
+     * Gets the value of a long field
+     *
+     * @param instance the instance to read
+     * @return the value of the field
+     */
+    long getLong(Object instance);
+
+    /**
+     * Sets the value of a long field
+     *
+     * @param instance the instance to update
+     * @param value    the value to set
+     */
+    void setLong(Object instance, long value);
+
+    /**
+     * Gets the value of a double field
+     *
+     * @param instance the instance to read
+     * @return the value of the field
+     */
+    double getDouble(Object instance);
+
+    /**
+     * Sets the value of a double field
+     *
+     * @param instance the instance to update
+     * @param value    the value to set
+     */
+    void setDouble(Object instance, double value);
+}
@@ -0,0 +1,20 @@
+package org.mongodb.morphia.mapping;
+
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates the {@link FieldAccessor} used to read and write a mapped field.  The factory is consulted once per field when a class is
+ * mapped so it should be set on the {@link MapperOptions} before any classes are mapped.
+ *
+ * @see MapperOptions#setFieldAccessorFactory(FieldAccessorFactory)
+ */
+public interface FieldAccessorFactory {
+    /**
+     * Creates an accessor for the field
+     *
+     * @param field the field to access.  It has already been made accessible.
+     * @return the accessor
+     */
+    FieldAccessor createAccessor(Field field);
+}
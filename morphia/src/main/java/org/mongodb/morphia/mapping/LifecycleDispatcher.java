@@ -0,0 +1,116 @@
+package org.mongodb.morphia.mapping;
+
+
+import com.mongodb.DBObject;
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * The lifecycle methods of a {@link MappedClass}, resolved once for each event.  The methods are made accessible, their arities read and
+ * the instances of the {@link org.mongodb.morphia.annotations.EntityListeners} created when the dispatcher is built, so calling an event
+ * is a loop over an array of handlers.  Events without methods are not held at all and cost a single lookup.
+ * <p/>
+ * Listener instances come from the {@link Mapper#getInstanceCache() instance cache} of the Mapper the dispatcher is built for, so a
+ * dispatcher is rebuilt by {@link MappedClass#callLifecycleMethods(Class, Object, DBObject, Mapper)} when called with another Mapper.
+ */
+final class LifecycleDispatcher {
+    private static final Logger LOG = MorphiaLoggerFactory.get(LifecycleDispatcher.class);
+
+    private final Mapper mapper;
+    private final Map<Class<? extends Annotation>, Handler[]> handlers = new HashMap<Class<? extends Annotation>, Handler[]>();
+
+    LifecycleDispatcher(final Mapper mapper, final Map<Class<? extends Annotation>, List<Handler>> handlers) {
+        this.mapper = mapper;
+        for (final Map.Entry<Class<? extends Annotation>, List<Handler>> entry : handlers.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                this.handlers.put(entry.getKey(), entry.getValue().toArray(new Handler[entry.getValue().size()]));
+            }
+        }
+    }
+
+    /**
+     * Groups handlers by event, in the order they are added
+     */
+    static void add(final Map<Class<? extends Annotation>, List<Handler>> handlers, final Class<? extends Annotation> event,
+                    final Handler handler) {
+        List<Handler> list = handlers.get(event);
+        if (list == null) {
+            list = new ArrayList<Handler>();
+            handlers.put(event, list);
+        }
+        list.add(handler);
+    }
+
+    boolean isFor(final Mapper mapper) {
+        return this.mapper == mapper;
+    }
+
+    /**
+     * Calls the methods of an event in order.  A method returning a DBObject replaces the one passed to the methods after it.
+     *
+     * @return the DBObject returned by the last method returning one, or dbObj
+     */
+    DBObject call(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj) {
+        final Handler[] eventHandlers = handlers.get(event);
+        if (eventHandlers == null) {
+            return dbObj;
+        }
+        DBObject retDbObj = dbObj;
+        try {
+            for (final Handler handler : eventHandlers) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), handler.method, handler.listener));
+                }
+                final Object tempObj = handler.invoke(entity, retDbObj);
+                if (tempObj != null) {
+                    retDbObj = (DBObject) tempObj;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+        return retDbObj;
+    }
+
+    /**
+     * A lifecycle method bound to the listener it is called on, or to the entity if the listener is null
+     */
+    static final class Handler {
+        private final Method method;
+        private final Object listener;
+        private final int arity;
+
+        Handler(final Method method, final Object listener) {
+            method.setAccessible(true);
+            this.method = method;
+            this.listener = listener;
+            arity = method.getParameterTypes().length;
+        }
+
+        private Object invoke(final Object entity, final DBObject dbObj) throws IllegalAccessException, InvocationTargetException {
+            if (listener == null) {
+                return arity == 0 ? method.invoke(entity) : method.invoke(entity, dbObj);
+            }
+            switch (arity) {
+                case 0:
+                    return method.invoke(listener);
+                case 1:
+                    return method.invoke(listener, entity);
+                default:
+                    return method.invoke(listener, entity, dbObj);
+            }
+        }
+    }
+}
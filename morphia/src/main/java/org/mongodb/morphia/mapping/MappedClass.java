@@ -28,7 +28,6 @@ import org.mongodb.morphia.utils.ReflectionUtils;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -105,6 +104,8 @@ public class MappedClass {
     private Entity entityAn;
     private Embedded embeddedAn;
     private MapperOptions mapperOptions;
+    private volatile CodecPlan codecPlan;
+    private volatile LifecycleDispatcher lifecycleDispatcher;
 
     /**
      * Creates a MappedClass instance
@@ -129,6 +130,38 @@ public class MappedClass {
     }
 
 
+    /**
+     * Gets the plan used to read and write the persistent fields of this class, building it if needed
+     *
+     * @param mapper the Mapper to use
+     * @return the plan
+     */
+    CodecPlan getCodecPlan(final Mapper mapper) {
+        CodecPlan plan = codecPlan;
+        if (plan == null || !plan.isCurrent(mapper.getConverters())) {
+            plan = new CodecPlan(this, mapper.getConverters());
+            codecPlan = plan;
+        }
+        return plan;
+    }
+
+    private LifecycleDispatcher getLifecycleDispatcher(final Mapper mapper) {
+        LifecycleDispatcher dispatcher = lifecycleDispatcher;
+        if (dispatcher == null || !dispatcher.isFor(mapper)) {
+            final Map<Class<? extends Annotation>, List<LifecycleDispatcher.Handler>> handlers =
+                new HashMap<Class<? extends Annotation>, List<LifecycleDispatcher.Handler>>();
+            for (final Map.Entry<Class<? extends Annotation>, List<ClassMethodPair>> entry : lifecycleMethods.entrySet()) {
+                for (final ClassMethodPair cm : entry.getValue()) {
+                    final Object listener = cm.clazz == null ? null : getOrCreateInstance(cm.clazz, mapper);
+                    LifecycleDispatcher.add(handlers, entry.getKey(), new LifecycleDispatcher.Handler(cm.method, listener));
+                }
+            }
+            dispatcher = new LifecycleDispatcher(mapper, handlers);
+            lifecycleDispatcher = dispatcher;
+        }
+        return dispatcher;
+    }
+
     /**
      * @return true if the MappedClass is an interface
      */
@@ -193,7 +226,8 @@ public class MappedClass {
     }
 
     /**
-     * Call the lifecycle methods
+     * Call the lifecycle methods.  The methods and listener instances are resolved on the first call, and events without methods or
+     * interceptors return immediately.
      *
      * @param event  the lifecycle annotation
      * @param entity the entity to process
@@ -201,60 +235,12 @@ public class MappedClass {
      * @param mapper  the Mapper to use
      * @return dbObj
      */
-    @SuppressWarnings({"WMI", "unchecked"})
     public DBObject callLifecycleMethods(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                          final Mapper mapper) {
-        final List<ClassMethodPair> methodPairs = getLifecycleMethods((Class<Annotation>) event);
-        DBObject retDbObj = dbObj;
-        try {
-            Object tempObj;
-            if (methodPairs != null) {
-                final HashMap<Class<?>, Object> toCall = new HashMap<Class<?>, Object>((int) (methodPairs.size() * 1.3));
-                for (final ClassMethodPair cm : methodPairs) {
-                    toCall.put(cm.clazz, null);
-                }
-                for (final Class<?> c : toCall.keySet()) {
-                    if (c != null) {
-                        toCall.put(c, getOrCreateInstance(c, mapper));
-                    }
-                }
-
-                for (final ClassMethodPair cm : methodPairs) {
-                    final Method method = cm.method;
-                    final Object inst = toCall.get(cm.clazz);
-                    method.setAccessible(true);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), method, inst));
-                    }
-
-                    if (inst == null) {
-                        if (method.getParameterTypes().length == 0) {
-                            tempObj = method.invoke(entity);
-                        } else {
-                            tempObj = method.invoke(entity, retDbObj);
-                        }
-                    } else if (method.getParameterTypes().length == 0) {
-                        tempObj = method.invoke(inst);
-                    } else if (method.getParameterTypes().length == 1) {
-                        tempObj = method.invoke(inst, entity);
-                    } else {
-                        tempObj = method.invoke(inst, entity, retDbObj);
-                    }
-
-                    if (tempObj != null) {
-                        retDbObj = (DBObject) tempObj;
-                    }
-                }
-            }
-
+        final DBObject retDbObj = getLifecycleDispatcher(mapper).call(event, entity, dbObj);
+        if (!mapper.getInterceptors().isEmpty()) {
             callGlobalInterceptors(event, entity, dbObj, mapper);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
         }
-
         return retDbObj;
     }
 
@@ -5,6 +5,7 @@ import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import org.mongodb.morphia.Key;
 import org.mongodb.morphia.annotations.AlsoLoad;
+import org.mongodb.morphia.annotations.Compressed;
 import org.mongodb.morphia.annotations.ConstructorArgs;
 import org.mongodb.morphia.annotations.Embedded;
 import org.mongodb.morphia.annotations.Id;
@@ -40,6 +41,7 @@ import java.util.Set;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 
 
 /**
@@ -55,6 +57,7 @@ public class MappedField {
 
     static {
         INTERESTING.add(Serialized.class);
+        INTERESTING.add(Compressed.class);
         INTERESTING.add(Indexed.class);
         INTERESTING.add(Property.class);
         INTERESTING.add(Reference.class);
@@ -72,6 +75,7 @@ public class MappedField {
     private final List<MappedField> typeParameters = new ArrayList<MappedField>();
     private Class persistedClass;
     private Field field; // the field :)
+    private FieldAccessor accessor; // reads and writes the field
     private Class realType; // the real type
     private Constructor constructor; // the constructor for the type
     private Type subType; // the type (T) for the Collection<T>/T[]/Map<?,T>
@@ -85,10 +89,14 @@ public class MappedField {
     private boolean isArray; // indicated if it is an Array
     private boolean isCollection; // indicated if the collection is a list)
     private Type genericType;
+    // the stored and load names, resolved on first use and reset when the annotations change
+    private volatile String nameToStore;
+    private volatile List<String> loadNames;
 
     MappedField(final Field f, final Class<?> clazz, final Mapper mapper) {
         f.setAccessible(true);
         field = f;
+        accessor = mapper.getOptions().getFieldAccessorFactory().createAccessor(f);
         persistedClass = clazz;
         realType = field.getType();
         genericType = field.getGenericType();
@@ -104,6 +112,7 @@ public class MappedField {
      */
     MappedField(final Field field, final Type type, final Mapper mapper) {
         this.field = field;
+        accessor = mapper.getOptions().getFieldAccessorFactory().createAccessor(field);
         genericType = type;
         discoverType(mapper);
     }
@@ -125,6 +134,7 @@ public class MappedField {
     public void addAnnotation(final Class<? extends Annotation> clazz) {
         if (field.isAnnotationPresent(clazz)) {
             foundAnnotations.put(clazz, field.getAnnotation(clazz));
+            resetNames();
         }
     }
 
@@ -136,6 +146,7 @@ public class MappedField {
      */
     public void addAnnotation(final Class<? extends Annotation> clazz, final Annotation ann) {
         foundAnnotations.put(clazz, ann);
+        resetNames();
     }
 
     /**
@@ -206,6 +217,14 @@ public class MappedField {
         return field;
     }
 
+    /**
+     * @return the accessor used to read and write the underlying java field
+     * @see MapperOptions#setFieldAccessorFactory(FieldAccessorFactory)
+     */
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
     /**
      * Gets the value of the field mapped on the instance given.
      *
@@ -213,11 +232,7 @@ public class MappedField {
      * @return the value stored in the java field
      */
     public Object getFieldValue(final Object instance) {
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        return accessor.get(instance);
     }
 
     /**
@@ -261,12 +276,17 @@ public class MappedField {
      * @return the name of the field's (key)name for mongodb, in order of loading.
      */
     public List<String> getLoadNames() {
-        final List<String> names = new ArrayList<String>();
-        names.add(getMappedFieldName());
-
-        final AlsoLoad al = (AlsoLoad) foundAnnotations.get(AlsoLoad.class);
-        if (al != null && al.value() != null && al.value().length > 0) {
-            names.addAll(asList(al.value()));
+        List<String> names = loadNames;
+        if (names == null) {
+            names = new ArrayList<String>();
+            names.add(getMappedFieldName());
+
+            final AlsoLoad al = (AlsoLoad) foundAnnotations.get(AlsoLoad.class);
+            if (al != null && al.value() != null && al.value().length > 0) {
+                names.addAll(asList(al.value()));
+            }
+            names = unmodifiableList(names);
+            loadNames = names;
         }
 
         return names;
@@ -285,7 +305,12 @@ public class MappedField {
      * @return the name of the field's (key)name for mongodb
      */
     public String getNameToStore() {
-        return getMappedFieldName();
+        String name = nameToStore;
+        if (name == null) {
+            name = getMappedFieldName();
+            nameToStore = name;
+        }
+        return name;
     }
 
     /**
@@ -413,11 +438,7 @@ public class MappedField {
      * @param value    the value to set
      */
     public void setFieldValue(final Object instance, final Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        accessor.set(instance, value);
     }
 
     @Override
@@ -713,6 +734,11 @@ public class MappedField {
         }
     }
 
+    private void resetNames() {
+        nameToStore = null;
+        loadNames = null;
+    }
+
     void setIsMap(final boolean isMap) {
         this.isMap = isMap;
     }
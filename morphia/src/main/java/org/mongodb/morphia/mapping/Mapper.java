@@ -21,19 +21,18 @@ import org.mongodb.morphia.Datastore;
 import org.mongodb.morphia.EntityInterceptor;
 import org.mongodb.morphia.Key;
 import org.mongodb.morphia.annotations.Converters;
-import org.mongodb.morphia.annotations.Embedded;
-import org.mongodb.morphia.annotations.NotSaved;
 import org.mongodb.morphia.annotations.PostLoad;
 import org.mongodb.morphia.annotations.PreLoad;
 import org.mongodb.morphia.annotations.PrePersist;
 import org.mongodb.morphia.annotations.PreSave;
-import org.mongodb.morphia.annotations.Property;
 import org.mongodb.morphia.annotations.Reference;
 import org.mongodb.morphia.annotations.Serialized;
 import org.mongodb.morphia.converters.CustomConverters;
 import org.mongodb.morphia.converters.TypeConverter;
 import org.mongodb.morphia.logging.Logger;
 import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.CodecPlan.FieldPlan;
+import org.mongodb.morphia.mapping.CodecPlan.Strategy;
 import org.mongodb.morphia.mapping.cache.EntityCache;
 import org.mongodb.morphia.mapping.lazy.LazyFeatureDependencies;
 import org.mongodb.morphia.mapping.lazy.LazyProxyFactory;
@@ -99,6 +98,8 @@ public class Mapper {
     // TODO: make these configurable
     private final LazyProxyFactory proxyFactory = LazyFeatureDependencies.createDefaultProxyFactory();
     private final org.mongodb.morphia.converters.Converters converters;
+    private final WeakIdentityMap<Object, Map<String, EntitySnapshot>> snapshots =
+        new WeakIdentityMap<Object, Map<String, EntitySnapshot>>();
     private MapperOptions opts = new MapperOptions();
 
     /**
@@ -257,8 +258,8 @@ public class Mapper {
             final MappedClass mc = getMappedClass(entity);
             final DBObject updated = mc.callLifecycleMethods(PreLoad.class, entity, dbObject, this);
             try {
-                for (final MappedField mf : mc.getPersistenceFields()) {
-                    readMappedField(datastore, mf, entity, cache, updated);
+                for (final FieldPlan plan : mc.getCodecPlan(this).getReads()) {
+                    plan.getStrategy().mapper(opts).fromDBObject(datastore, updated, plan.getField(), entity, cache, this);
                 }
             } catch (final MappingException e) {
                 Object id = dbObject.get(ID_KEY);
@@ -267,15 +268,85 @@ public class Mapper {
                                                   datastore.getDB().getName()), e);
             }
 
+            mc.callLifecycleMethods(PostLoad.class, entity, updated, this);
             if (updated.containsField(ID_KEY) && getMappedClass(entity).getIdField() != null) {
                 final Key key = new Key(entity.getClass(), getCollectionName(entity.getClass()), updated.get(ID_KEY));
                 cache.putEntity(key, entity);
+                // shared only once the entity is complete so other threads never see a partially loaded entity
+                getOptions().getCacheFactory().publish(cache, key, entity);
             }
-            mc.callLifecycleMethods(PostLoad.class, entity, updated, this);
         }
         return entity;
     }
 
+    /**
+     * Gets the state of an entity as it was last loaded from or saved to a collection
+     *
+     * @param entity    the entity
+     * @param namespace the full name of the collection, as given by {@link com.mongodb.DBCollection#getFullName()}
+     * @return the snapshot or null if none was taken for that collection
+     * @see MapperOptions#setDirtyTracking(boolean)
+     */
+    public EntitySnapshot getSnapshot(final Object entity, final String namespace) {
+        synchronized (snapshots) {
+            final Map<String, EntitySnapshot> byNamespace = snapshots.get(entity);
+            return byNamespace == null ? null : byNamespace.get(namespace);
+        }
+    }
+
+    /**
+     * Records the state of an entity as stored in a collection.  Snapshots are kept for each collection, as the same instance may be
+     * saved to several, and are discarded along with the entity.
+     *
+     * @param entity    the entity
+     * @param dbObject  the document the entity was loaded from or saved as
+     * @param namespace the full name of the collection, as given by {@link com.mongodb.DBCollection#getFullName()}
+     * @see MapperOptions#setDirtyTracking(boolean)
+     */
+    public void takeSnapshot(final Object entity, final DBObject dbObject, final String namespace) {
+        final EntitySnapshot snapshot = EntitySnapshot.of(dbObject);
+        synchronized (snapshots) {
+            Map<String, EntitySnapshot> byNamespace = snapshots.get(entity);
+            if (byNamespace == null) {
+                byNamespace = new HashMap<String, EntitySnapshot>();
+                snapshots.put(entity, byNamespace);
+            }
+            byNamespace.put(namespace, snapshot);
+        }
+    }
+
+    /**
+     * Records the state of an entity just read from a collection, if dirty tracking is enabled and the document has an _id
+     *
+     * @param entity    the entity
+     * @param dbObject  the document the entity was loaded from
+     * @param namespace the full name of the collection, as given by {@link com.mongodb.DBCollection#getFullName()}
+     * @see MapperOptions#setDirtyTracking(boolean)
+     */
+    public void snapshotLoaded(final Object entity, final DBObject dbObject, final String namespace) {
+        if (opts.isDirtyTracking() && entity != null && dbObject.containsField(ID_KEY) && isMapped(entity.getClass())
+            && getMappedClass(entity).getIdField() != null) {
+            takeSnapshot(entity, dbObject, namespace);
+        }
+    }
+
+    /**
+     * Discards the snapshot of an entity for a collection, after the document was changed in a way which can not be tracked, so that the
+     * next save writes it in full
+     *
+     * @param entity    the entity
+     * @param namespace the full name of the collection, as given by {@link com.mongodb.DBCollection#getFullName()}
+     * @see MapperOptions#setDirtyTracking(boolean)
+     */
+    public void dropSnapshot(final Object entity, final String namespace) {
+        synchronized (snapshots) {
+            final Map<String, EntitySnapshot> byNamespace = snapshots.get(entity);
+            if (byNamespace != null) {
+                byNamespace.remove(namespace);
+            }
+        }
+    }
+
     /**
      * Looks up the class mapped to a named collection.
      *
@@ -626,7 +697,7 @@ public class Mapper {
             }
         } else if (mf != null && mf.hasAnnotation(Serialized.class)) { //serialized
             try {
-                mappedValue = Serializer.serialize(value, !mf.getAnnotation(Serialized.class).disableCompression());
+                mappedValue = opts.getSerializationFormat().serialize(value, !mf.getAnnotation(Serialized.class).disableCompression());
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -710,7 +781,8 @@ public class Mapper {
     }
 
     protected LazyProxyFactory getProxyFactory() {
-        return proxyFactory;
+        final LazyProxyFactory configured = opts.getProxyFactory();
+        return configured != null ? configured : proxyFactory;
     }
 
     private void addConverters(final MappedClass mc) {
@@ -770,17 +842,6 @@ public class Mapper {
         return refs;
     }
 
-    private Class<? extends Annotation> getFieldAnnotation(final MappedField mf) {
-        Class<? extends Annotation> annType = null;
-        for (final Class<? extends Annotation> testType : new Class[]{Property.class, Embedded.class, Serialized.class, Reference.class}) {
-            if (mf.hasAnnotation(testType)) {
-                annType = testType;
-                break;
-            }
-        }
-        return annType;
-    }
-
     private boolean isAssignable(final MappedField mf, final Object value) {
         return mf != null
             && (mf.hasAnnotation(Reference.class) || Key.class.isAssignableFrom(mf.getType())
@@ -801,43 +862,20 @@ public class Mapper {
 
     private void readMappedField(final Datastore datastore, final MappedField mf, final Object entity, final EntityCache cache,
                                  final DBObject dbObject) {
-        if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class)
-            || mf.isTypeMongoCompatible() || getConverters().hasSimpleValueConverter(mf)) {
-            opts.getValueMapper().fromDBObject(datastore, dbObject, mf, entity, cache, this);
-        } else if (mf.hasAnnotation(Embedded.class)) {
-            opts.getEmbeddedMapper().fromDBObject(datastore, dbObject, mf, entity, cache, this);
-        } else if (mf.hasAnnotation(Reference.class)) {
-            opts.getReferenceMapper().fromDBObject(datastore, dbObject, mf, entity, cache, this);
-        } else {
-            opts.getDefaultMapper().fromDBObject(datastore, dbObject, mf, entity, cache, this);
-        }
+        CodecPlan.readStrategy(mf, getConverters()).mapper(opts).fromDBObject(datastore, dbObject, mf, entity, cache, this);
     }
 
-    private void writeMappedField(final DBObject dbObject, final MappedField mf, final Object entity,
+    private void writeMappedField(final DBObject dbObject, final FieldPlan plan, final Object entity,
                                   final Map<Object, DBObject> involvedObjects) {
-
-        //skip not saved fields.
-        if (mf.hasAnnotation(NotSaved.class)) {
-            return;
+        final MappedField mf = plan.getField();
+        Strategy strategy = plan.getStrategy();
+        if (plan.isCheckValue() && getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))) {
+            strategy = Strategy.VALUE;
         }
-
-        // get the annotation from the field.
-        Class<? extends Annotation> annType = getFieldAnnotation(mf);
-
-        if (Property.class.equals(annType) || Serialized.class.equals(annType) || mf.isTypeMongoCompatible()
-            || (getConverters().hasSimpleValueConverter(mf) || (getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))))) {
-            opts.getValueMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Reference.class.equals(annType)) {
-            opts.getReferenceMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Embedded.class.equals(annType)) {
-            opts.getEmbeddedMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("No annotation was found, using default mapper " + opts.getDefaultMapper() + " for " + mf);
-            }
-            opts.getDefaultMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
+        if (strategy == Strategy.DEFAULT && LOG.isDebugEnabled()) {
+            LOG.debug("No annotation was found, using default mapper " + opts.getDefaultMapper() + " for " + mf);
         }
-
+        strategy.mapper(opts).toDBObject(entity, mf, dbObject, involvedObjects, this);
     }
 
     <T> Key<T> manualRefToKey(final String collection, final Object id) {
@@ -939,11 +977,11 @@ public class Mapper {
             dbObject = mc.callLifecycleMethods(PrePersist.class, entity, dbObject, this);
         }
 
-        for (final MappedField mf : mc.getPersistenceFields()) {
+        for (final FieldPlan plan : mc.getCodecPlan(this).getWrites()) {
             try {
-                writeMappedField(dbObject, mf, entity, involvedObjects);
+                writeMappedField(dbObject, plan, entity, involvedObjects);
             } catch (Exception e) {
-                throw new MappingException("Error mapping field:" + mf.getFullName(), e);
+                throw new MappingException("Error mapping field:" + plan.getField().getFullName(), e);
             }
         }
         if (involvedObjects != null) {
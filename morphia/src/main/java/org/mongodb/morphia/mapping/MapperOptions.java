@@ -8,6 +8,11 @@ import org.mongodb.morphia.logging.MorphiaLoggerFactory;
 import org.mongodb.morphia.mapping.cache.DefaultEntityCacheFactory;
 import org.mongodb.morphia.mapping.cache.EntityCacheFactory;
 import org.mongodb.morphia.mapping.lazy.DatastoreProvider;
+import org.mongodb.morphia.mapping.lazy.LazyProxyFactory;
+import org.mongodb.morphia.mapping.serialization.SerializationFormat;
+import org.mongodb.morphia.metrics.MorphiaMetrics;
+
+import java.util.concurrent.Executor;
 
 
 /**
@@ -29,8 +34,18 @@ public class MapperOptions {
     private boolean useLowerCaseCollectionNames;
     private boolean cacheClassLookups = false;
     private boolean mapSubPackages = false;
+    private boolean useEntityIndex = false;
+    private boolean batchReferenceLoading = false;
+    private boolean dirtyTracking = false;
+    private Executor decodeExecutor = null;
+    private int parallelDecodeThreshold = 100;
+    private int parallelDecodeWindow = 256;
     private ObjectFactory objectFactory = new DefaultCreator(this);
+    private FieldAccessorFactory fieldAccessorFactory = new ReflectiveFieldAccessorFactory();
     private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
+    private LazyProxyFactory proxyFactory = null;
+    private MorphiaMetrics metrics = null;
+    private SerializationFormat serializationFormat = SerializationFormat.DEFAULT;
     private CustomMapper embeddedMapper = new EmbeddedMapper();
     private CustomMapper defaultMapper = embeddedMapper;
     private CustomMapper referenceMapper = new ReferenceMapper();
@@ -55,8 +70,18 @@ public class MapperOptions {
         setStoreEmpties(options.isStoreEmpties());
         setUseLowerCaseCollectionNames(options.isUseLowerCaseCollectionNames());
         setCacheClassLookups(options.isCacheClassLookups());
+        setUseEntityIndex(options.isUseEntityIndex());
+        setBatchReferenceLoading(options.isBatchReferenceLoading());
+        setDirtyTracking(options.isDirtyTracking());
+        setDecodeExecutor(options.getDecodeExecutor());
+        setParallelDecodeThreshold(options.getParallelDecodeThreshold());
+        setParallelDecodeWindow(options.getParallelDecodeWindow());
         setObjectFactory(options.getObjectFactory());
+        setFieldAccessorFactory(options.getFieldAccessorFactory());
         setCacheFactory(options.getCacheFactory());
+        setProxyFactory(options.getProxyFactory());
+        setMetrics(options.getMetrics());
+        setSerializationFormat(options.getSerializationFormat());
         setEmbeddedMapper(options.getEmbeddedMapper());
         setDefaultMapper(options.getDefaultMapper());
         setReferenceMapper(options.getReferenceMapper());
@@ -79,6 +104,64 @@ public class MapperOptions {
         this.cacheFactory = cacheFactory;
     }
 
+    /**
+     * @return the factory creating the proxies of lazy references, or null if the Mapper's default is used
+     */
+    public LazyProxyFactory getProxyFactory() {
+        return proxyFactory;
+    }
+
+    /**
+     * Sets the factory creating the proxies of lazy references.  By default the proxytoys based
+     * {@link org.mongodb.morphia.mapping.lazy.CGLibLazyProxyFactory} is used.
+     *
+     * @param proxyFactory the factory, or null to use the default
+     * @see org.mongodb.morphia.mapping.lazy.SubclassLazyProxyFactory
+     */
+    public void setProxyFactory(final LazyProxyFactory proxyFactory) {
+        this.proxyFactory = proxyFactory;
+    }
+
+    /**
+     * @return the MorphiaMetrics operations are reported to, or null if they are not timed
+     */
+    public MorphiaMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the MorphiaMetrics to report finds, writes, aggregations and reference fetches to.  When null, the default, operations are
+     * not timed at all.
+     *
+     * @param metrics the metrics, or null
+     * @see org.mongodb.morphia.metrics.HistogramMetrics
+     */
+    public void setMetrics(final MorphiaMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the format of the values of @Serialized fields
+     */
+    public SerializationFormat getSerializationFormat() {
+        return serializationFormat;
+    }
+
+    /**
+     * Sets the format of the values of @Serialized fields.  Values are always read according to their header, so this only changes how
+     * values are written from now on.  Formats other than {@link SerializationFormat#DEFAULT} write a header which versions of Morphia
+     * older than {@link SerializationFormat} can not read.
+     *
+     * @param serializationFormat the format
+     * @see org.mongodb.morphia.mapping.serialization.CompactJavaSerialization
+     */
+    public void setSerializationFormat(final SerializationFormat serializationFormat) {
+        if (serializationFormat == null) {
+            throw new IllegalArgumentException("The serialization format can not be null");
+        }
+        this.serializationFormat = serializationFormat;
+    }
+
     /**
      * @return the DatastoreProvider Morphia should use
      * @deprecated unused
@@ -199,6 +282,120 @@ public class MapperOptions {
         this.actLikeSerializer = actLikeSerializer;
     }
 
+    /**
+     * @return true if Morphia should fetch the non-lazy references of a multi-valued field with a single query per collection
+     */
+    public boolean isBatchReferenceLoading() {
+        return batchReferenceLoading;
+    }
+
+    /**
+     * Controls if the non-lazy references held in a List/Set/Map field are fetched with one {@code $in} query per referenced collection
+     * rather than one query per reference.
+     *
+     * @param batchReferenceLoading true if Morphia should fetch the references of a multi-valued field in batches
+     */
+    public void setBatchReferenceLoading(final boolean batchReferenceLoading) {
+        this.batchReferenceLoading = batchReferenceLoading;
+    }
+
+    /**
+     * @return true if Morphia tracks the state of loaded entities to save only what changed
+     */
+    public boolean isDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    /**
+     * Controls if Morphia remembers the stored state of entities it loads or saves.  When enabled, saving such an entity again sends
+     * a $set/$unset update of only the top level fields which changed, or nothing at all if none did.  @Version checks still apply.
+     *
+     * @param dirtyTracking true if Morphia should track the state of loaded entities
+     */
+    public void setDirtyTracking(final boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+    }
+
+    /**
+     * @return the Executor query results are mapped on, or null if they are mapped on the iterating thread
+     */
+    public Executor getDecodeExecutor() {
+        return decodeExecutor;
+    }
+
+    /**
+     * Sets an Executor to map query results on.  Queries then read ahead of the caller and map up to {@link #getParallelDecodeWindow()}
+     * documents concurrently while the next batch is fetched.  Results are still returned in cursor order.  Queries limited to fewer than
+     * {@link #getParallelDecodeThreshold()} results are mapped on the iterating thread.
+     * <p/>
+     * Entities of one query share its EntityCache across threads.  When the default, single threaded, cache is configured these queries
+     * use a {@link org.mongodb.morphia.mapping.cache.ConcurrentEntityCache} instead.
+     *
+     * @param decodeExecutor the Executor, or null to map results on the iterating thread
+     */
+    public void setDecodeExecutor(final Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+    }
+
+    /**
+     * @return the smallest query limit for which results are mapped on the decode Executor
+     * @see #setDecodeExecutor(Executor)
+     */
+    public int getParallelDecodeThreshold() {
+        return parallelDecodeThreshold;
+    }
+
+    /**
+     * Sets the smallest query limit for which results are mapped on the decode Executor.  Queries without a limit always are.
+     *
+     * @param parallelDecodeThreshold the threshold
+     * @see #setDecodeExecutor(Executor)
+     */
+    public void setParallelDecodeThreshold(final int parallelDecodeThreshold) {
+        this.parallelDecodeThreshold = parallelDecodeThreshold;
+    }
+
+    /**
+     * @return how many documents a query may read ahead of the caller when mapping on the decode Executor
+     * @see #setDecodeExecutor(Executor)
+     */
+    public int getParallelDecodeWindow() {
+        return parallelDecodeWindow;
+    }
+
+    /**
+     * Sets how many documents a query may read ahead of the caller when mapping on the decode Executor.  This bounds the memory held by
+     * results the caller has not consumed yet.
+     *
+     * @param parallelDecodeWindow the number of documents, at least 1
+     * @see #setDecodeExecutor(Executor)
+     */
+    public void setParallelDecodeWindow(final int parallelDecodeWindow) {
+        if (parallelDecodeWindow < 1) {
+            throw new IllegalArgumentException("The parallel decode window must be at least 1");
+        }
+        this.parallelDecodeWindow = parallelDecodeWindow;
+    }
+
+    /**
+     * @return the factory used to create the accessors which read and write mapped fields
+     */
+    public FieldAccessorFactory getFieldAccessorFactory() {
+        return fieldAccessorFactory;
+    }
+
+    /**
+     * Sets the factory used to create the accessors which read and write mapped fields.  Accessors are created when a class is mapped
+     * so this needs to be set before any classes are mapped.
+     *
+     * @param fieldAccessorFactory the factory to use
+     * @see ReflectiveFieldAccessorFactory
+     * @see UnsafeFieldAccessorFactory
+     */
+    public void setFieldAccessorFactory(final FieldAccessorFactory fieldAccessorFactory) {
+        this.fieldAccessorFactory = fieldAccessorFactory;
+    }
+
     /**
      * @return true if Morphia should cache name -> Class lookups
      */
@@ -293,4 +490,25 @@ public class MapperOptions {
     public void setMapSubPackages(final boolean mapSubPackages) {
         this.mapSubPackages = mapSubPackages;
     }
+
+    /**
+     * @return true if scanning a package reads the build-time entity index instead of the jars it covers and skips the classes it lists
+     * as unmapped
+     * @see org.mongodb.morphia.utils.EntityIndex
+     */
+    public boolean isUseEntityIndex() {
+        return useEntityIndex;
+    }
+
+    /**
+     * Controls if the build-time entity index is used to avoid loading classes which are not mapped while scanning a package.  The index
+     * is only written when {@link org.mongodb.morphia.processor.EntityIndexProcessor} is run by the build, so this is off by default.
+     *
+     * @param useEntityIndex true if scanning a package reads the entity index instead of the jars it covers and skips the classes it
+     *                       lists as unmapped
+     * @see org.mongodb.morphia.utils.EntityIndex
+     */
+    public void setUseEntityIndex(final boolean useEntityIndex) {
+        this.useEntityIndex = useEntityIndex;
+    }
 }
@@ -1,7 +1,9 @@
 package org.mongodb.morphia.mapping;
 
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import org.mongodb.morphia.Datastore;
@@ -10,11 +12,16 @@ import org.mongodb.morphia.annotations.Reference;
 import org.mongodb.morphia.logging.Logger;
 import org.mongodb.morphia.logging.MorphiaLoggerFactory;
 import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.mapping.lazy.BatchingLazyProxyFactory;
 import org.mongodb.morphia.mapping.lazy.LazyFeatureDependencies;
+import org.mongodb.morphia.mapping.lazy.LazyProxyFactory;
+import org.mongodb.morphia.mapping.lazy.proxy.LazyReferenceBatch;
 import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
 import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
 import org.mongodb.morphia.mapping.lazy.proxy.ProxyHelper;
+import org.mongodb.morphia.metrics.OperationTimer;
+import org.mongodb.morphia.metrics.OperationType;
 import org.mongodb.morphia.utils.IterHelper;
 import org.mongodb.morphia.utils.IterHelper.IterCallback;
 import org.mongodb.morphia.utils.IterHelper.MapIterCallback;
@@ -22,6 +29,8 @@ import org.mongodb.morphia.utils.ReflectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +39,10 @@ import java.util.Map;
 class ReferenceMapper implements CustomMapper {
     public static final Logger LOG = MorphiaLoggerFactory.get(ReferenceMapper.class);
 
+    // the batches of lazy references by the EntityCache of the query loading them
+    private final WeakIdentityMap<EntityCache, Map<String, LazyReferenceBatch>> lazyBatches =
+        new WeakIdentityMap<EntityCache, Map<String, LazyReferenceBatch>>();
+
     @Override
     public void fromDBObject(final Datastore datastore, final DBObject dbObject, final MappedField mf, final Object entity,
                              final EntityCache cache, final Mapper mapper) {
@@ -89,11 +102,42 @@ class ReferenceMapper implements CustomMapper {
         if (proxyAlreadyCreated != null) {
             return proxyAlreadyCreated;
         }
-        final Object newProxy = mapper.getProxyFactory().createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
+        final LazyProxyFactory proxyFactory = mapper.getProxyFactory();
+        final Object newProxy;
+        if (anntotation.batchSize() > 1 && proxyFactory instanceof BatchingLazyProxyFactory) {
+            newProxy = ((BatchingLazyProxyFactory) proxyFactory).createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing(),
+                                                                             getBatch(datastore, mapper, cache, key, anntotation));
+        } else {
+            newProxy = proxyFactory.createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
+        }
         cache.putProxy(key, newProxy);
         return newProxy;
     }
 
+    /**
+     * Finds the batch for lazy references to the key's collection made while loading the results using the cache
+     */
+    private LazyReferenceBatch getBatch(final Datastore datastore, final Mapper mapper, final EntityCache cache, final Key key,
+                                        final Reference annotation) {
+        Map<String, LazyReferenceBatch> batches;
+        synchronized (lazyBatches) {
+            batches = lazyBatches.get(cache);
+            if (batches == null) {
+                batches = new HashMap<String, LazyReferenceBatch>();
+                lazyBatches.put(cache, batches);
+            }
+        }
+        synchronized (batches) {
+            final String name = key.getCollection() + "/" + annotation.batchSize();
+            LazyReferenceBatch batch = batches.get(name);
+            if (batch == null) {
+                batch = new LazyReferenceBatch(datastore, mapper, annotation.batchSize());
+                batches.put(name, batch);
+            }
+            return batch;
+        }
+    }
+
     private Key<?> getKey(final Object entity, final Mapper mapper) {
         try {
             if (entity instanceof ProxiedEntityReference) {
@@ -141,6 +185,9 @@ class ReferenceMapper implements CustomMapper {
             }
         } else {
             final Object dbVal = mf.getDbObjectValue(dbObject);
+            if (dbVal instanceof Collection && mapper.getOptions().isBatchReferenceLoading()) {
+                prefetch(datastore, mapper, cache, mf, refAnn.idOnly(), (Collection) dbVal);
+            }
             final Collection refs = references;
             new IterHelper<String, Object>().loopOrSingle(dbVal, new IterCallback<Object>() {
                 @Override
@@ -172,6 +219,8 @@ class ReferenceMapper implements CustomMapper {
             if (refAnn.lazy() && LazyFeatureDependencies.assertDependencyFullFilled()) {
                 // replace map by proxy to it.
                 m = mapper.getProxyFactory().createMapProxy(datastore, m, referenceObjClass, refAnn.ignoreMissing());
+            } else if (mapper.getOptions().isBatchReferenceLoading()) {
+                prefetch(datastore, mapper, cache, mf, refAnn.idOnly(), dbVal.toMap().values());
             }
 
             final Map map = m;
@@ -294,6 +343,70 @@ class ReferenceMapper implements CustomMapper {
         }
     }
 
+    /**
+     * Fetches all the references in refs not already in the cache with one {@code $in} query per collection and adds the results to the
+     * cache so the subsequent calls to resolveObject are served without a round trip each.
+     */
+    void prefetch(final Datastore datastore, final Mapper mapper, final EntityCache cache, final MappedField mf, final boolean idOnly,
+                  final Collection refs) {
+        if (refs.size() < 2) {
+            return;
+        }
+
+        final Class referenceObjClass = mf.isSingleValue() ? mf.getType() : mf.getSubClass();
+        final Map<String, Map<Object, Key>> pending = new LinkedHashMap<String, Map<Object, Key>>();
+        for (final Object ref : refs) {
+            if (ref == null) {
+                continue;
+            }
+            final Object id = idOnly ? ref : ((DBRef) ref).getId();
+            if (id instanceof DBObject) {
+                ((DBObject) id).removeField(Mapper.CLASS_NAME_FIELDNAME);
+            }
+            final Key key = mapper.createKey(referenceObjClass, id);
+            if (cache.getEntity(key) != null) {
+                continue;
+            }
+            final String collection = idOnly ? mapper.getCollectionName(referenceObjClass) : ((DBRef) ref).getCollectionName();
+            Map<Object, Key> ids = pending.get(collection);
+            if (ids == null) {
+                ids = new LinkedHashMap<Object, Key>();
+                pending.put(collection, ids);
+            }
+            ids.put(id, key);
+        }
+
+        for (final Map.Entry<String, Map<Object, Key>> entry : pending.entrySet()) {
+            final Map<Object, Key> ids = entry.getValue();
+            final DBCollection collection = datastore.getDB().getCollection(entry.getKey());
+            final BasicDBObject query = new BasicDBObject(Mapper.ID_KEY, new BasicDBObject("$in", new ArrayList<Object>(ids.keySet())));
+            final OperationTimer timer = OperationTimer.start(mapper, OperationType.REFERENCE_FETCH, entry.getKey(), referenceObjClass);
+            final DBCursor cursor = collection.find(query);
+            try {
+                while (cursor.hasNext()) {
+                    final DBObject refDbObject = cursor.next();
+                    timer.executed();
+                    timer.document(refDbObject);
+                    final Key key = ids.remove(refDbObject.get(Mapper.ID_KEY));
+                    if (key != null) {
+                        Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
+                        refObj = mapper.fromDb(datastore, refDbObject, refObj, cache);
+                        mapper.snapshotLoaded(refObj, refDbObject, collection.getFullName());
+                        cache.putEntity(key, refObj);
+                    }
+                    timer.mapped();
+                }
+            } finally {
+                cursor.close();
+            }
+            timer.executed();
+            for (final Key missing : ids.values()) {
+                cache.notifyExists(missing, false);
+            }
+            timer.finish();
+        }
+    }
+
     Object resolveObject(final Datastore datastore, final Mapper mapper, final EntityCache cache, final MappedField mf,
                          final boolean idOnly, final Object ref) {
         if (ref == null) {
@@ -309,28 +422,40 @@ class ReferenceMapper implements CustomMapper {
             return cached;
         }
 
-        final DBObject refDbObject;
-        DBCollection collection;
-        Object id;
+        DBObject refDbObject = null;
+        DBCollection collection = null;
+        OperationTimer timer = null;
+        // a batched fetch has already established that this reference does not exist
+        if (!mapper.getOptions().isBatchReferenceLoading() || !Boolean.FALSE.equals(cache.exists(key))) {
+            Object id;
 
-        if (idOnly) {
-            collection = datastore.getCollection(key.getType());
-            id = ref;
-        } else {
-            collection = datastore.getDB().getCollection(dbRef.getCollectionName());
-            id = dbRef.getId();
-        }
-        if (id instanceof DBObject) {
-            ((DBObject) id).removeField(Mapper.CLASS_NAME_FIELDNAME);
+            if (idOnly) {
+                collection = datastore.getCollection(key.getType());
+                id = ref;
+            } else {
+                collection = datastore.getDB().getCollection(dbRef.getCollectionName());
+                id = dbRef.getId();
+            }
+            if (id instanceof DBObject) {
+                ((DBObject) id).removeField(Mapper.CLASS_NAME_FIELDNAME);
+            }
+            timer = OperationTimer.start(mapper, OperationType.REFERENCE_FETCH, collection.getName(), key.getType());
+            refDbObject = collection.findOne(id);
+            timer.executed();
+            timer.document(refDbObject);
         }
-        refDbObject = collection.findOne(id);
 
         if (refDbObject != null) {
             Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
             refObj = mapper.fromDb(datastore, refDbObject, refObj, cache);
+            mapper.snapshotLoaded(refObj, refDbObject, collection.getFullName());
             cache.putEntity(key, refObj);
+            timer.finish();
             return refObj;
         }
+        if (timer != null) {
+            timer.finish();
+        }
 
         final boolean ignoreMissing = mf.getAnnotation(Reference.class) != null && mf.getAnnotation(Reference.class).ignoreMissing();
         if (!ignoreMissing) {
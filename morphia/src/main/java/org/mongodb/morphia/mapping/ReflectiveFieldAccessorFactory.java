@@ -0,0 +1,94 @@
+package org.mongodb.morphia.mapping;
+
+
+import java.lang.reflect.Field;
+
+/**
+ * The default FieldAccessorFactory which uses {@link Field#get(Object)} and {@link Field#set(Object, Object)}.
+ */
+public class ReflectiveFieldAccessorFactory implements FieldAccessorFactory {
+    @Override
+    public FieldAccessor createAccessor(final Field field) {
+        return new ReflectiveFieldAccessor(field);
+    }
+
+    static class ReflectiveFieldAccessor implements FieldAccessor {
+        private final Field field;
+
+        ReflectiveFieldAccessor(final Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            try {
+                return field.get(instance);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            try {
+                field.set(instance, value);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public int getInt(final Object instance) {
+            try {
+                return field.getInt(instance);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void setInt(final Object instance, final int value) {
+            try {
+                field.setInt(instance, value);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public long getLong(final Object instance) {
+            try {
+                return field.getLong(instance);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void setLong(final Object instance, final long value) {
+            try {
+                field.setLong(instance, value);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public double getDouble(final Object instance) {
+            try {
+                return field.getDouble(instance);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void setDouble(final Object instance, final double value) {
+            try {
+                field.setDouble(instance, value);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
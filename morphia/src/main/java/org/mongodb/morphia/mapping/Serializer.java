@@ -15,6 +15,9 @@ import java.util.zip.GZIPOutputStream;
 
 
 /**
+ * Reads and writes the format of @Serialized fields used before {@link org.mongodb.morphia.mapping.serialization.SerializationFormat},
+ * which still reads values written by this class.
+ *
  * @author Uwe Schaefer, (us@thomas-daily.de)
  */
 public final class Serializer {
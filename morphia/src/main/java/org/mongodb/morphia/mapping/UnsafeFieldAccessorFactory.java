@@ -0,0 +1,283 @@
+package org.mongodb.morphia.mapping;
+
+
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A FieldAccessorFactory which reads and writes fields directly by their memory offset, bypassing the access checks and boxing of
+ * {@link Field#get(Object)} and {@link Field#set(Object, Object)}.  Offsets are resolved once per field.  int, long and double fields
+ * get specialized accessors that do not box when used through the primitive methods of {@link FieldAccessor}.
+ * <p/>
+ * Static, volatile and final fields, the remaining primitive types and JVMs where the direct path is not available are all served by
+ * {@link ReflectiveFieldAccessorFactory}.
+ */
+@SuppressWarnings("sunapi")
+public class UnsafeFieldAccessorFactory implements FieldAccessorFactory {
+    private static final Logger LOG = MorphiaLoggerFactory.get(UnsafeFieldAccessorFactory.class);
+    private static final sun.misc.Unsafe UNSAFE = loadUnsafe();
+
+    private final FieldAccessorFactory fallback = new ReflectiveFieldAccessorFactory();
+
+    /**
+     * @return true if this JVM supports direct field access.  If not, every accessor created will be reflective.
+     */
+    public static boolean isAvailable() {
+        return UNSAFE != null;
+    }
+
+    @Override
+    public FieldAccessor createAccessor(final Field field) {
+        final int modifiers = field.getModifiers();
+        if (UNSAFE == null || Modifier.isStatic(modifiers) || Modifier.isVolatile(modifiers) || Modifier.isFinal(modifiers)) {
+            return fallback.createAccessor(field);
+        }
+        final FieldAccessor reflective = fallback.createAccessor(field);
+        final long offset = UNSAFE.objectFieldOffset(field);
+        final Class<?> type = field.getType();
+        if (type == int.class) {
+            return new IntAccessor(field, reflective, offset);
+        } else if (type == long.class) {
+            return new LongAccessor(field, reflective, offset);
+        } else if (type == double.class) {
+            return new DoubleAccessor(field, reflective, offset);
+        } else if (type.isPrimitive()) {
+            return reflective;
+        } else {
+            return new ObjectAccessor(field, reflective, offset, type);
+        }
+    }
+
+    private static sun.misc.Unsafe loadUnsafe() {
+        try {
+            final Field field = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (sun.misc.Unsafe) field.get(null);
+        } catch (Throwable t) {
+            LOG.warning("Direct field access is not available.  Falling back to reflection: " + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delegates everything to the reflective accessor.  Subclasses override the paths they can serve directly; anything else, including
+     * values needing a widening conversion and type errors, keeps the reflective semantics.
+     */
+    private abstract static class DirectAccessor implements FieldAccessor {
+        private final Class<?> declaringClass;
+        private final FieldAccessor reflective;
+        private final long offset;
+
+        DirectAccessor(final Field field, final FieldAccessor reflective, final long offset) {
+            declaringClass = field.getDeclaringClass();
+            this.reflective = reflective;
+            this.offset = offset;
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        FieldAccessor reflective() {
+            return reflective;
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            return reflective.get(instance);
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            reflective.set(instance, value);
+        }
+
+        @Override
+        public int getInt(final Object instance) {
+            return reflective.getInt(instance);
+        }
+
+        @Override
+        public void setInt(final Object instance, final int value) {
+            reflective.setInt(instance, value);
+        }
+
+        @Override
+        public long getLong(final Object instance) {
+            return reflective.getLong(instance);
+        }
+
+        @Override
+        public void setLong(final Object instance, final long value) {
+            reflective.setLong(instance, value);
+        }
+
+        @Override
+        public double getDouble(final Object instance) {
+            return reflective.getDouble(instance);
+        }
+
+        @Override
+        public void setDouble(final Object instance, final double value) {
+            reflective.setDouble(instance, value);
+        }
+
+        /**
+         * Fails as {@link Field#get(Object)} would for instances without the field, which Unsafe would read or corrupt memory for
+         */
+        void checkInstance(final Object instance) {
+            if (instance == null) {
+                throw new NullPointerException("instance");
+            }
+            if (!declaringClass.isInstance(instance)) {
+                throw new IllegalArgumentException("Can not access a field of " + declaringClass.getName() + " on an instance of "
+                                                   + instance.getClass().getName());
+            }
+        }
+
+        /**
+         * @return true if the instance has the field, so that it can be written directly
+         */
+        boolean accepts(final Object instance) {
+            return declaringClass.isInstance(instance);
+        }
+    }
+
+    private static class ObjectAccessor extends DirectAccessor {
+        private final Class<?> type;
+
+        ObjectAccessor(final Field field, final FieldAccessor reflective, final long offset, final Class<?> type) {
+            super(field, reflective, offset);
+            this.type = type;
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            checkInstance(instance);
+            return UNSAFE.getObject(instance, offset());
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            if (accepts(instance) && (value == null || type.isInstance(value))) {
+                UNSAFE.putObject(instance, offset(), value);
+            } else {
+                reflective().set(instance, value);
+            }
+        }
+    }
+
+    private static class IntAccessor extends DirectAccessor {
+        IntAccessor(final Field field, final FieldAccessor reflective, final long offset) {
+            super(field, reflective, offset);
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            return getInt(instance);
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            if (accepts(instance) && value instanceof Integer) {
+                UNSAFE.putInt(instance, offset(), (Integer) value);
+            } else {
+                reflective().set(instance, value);
+            }
+        }
+
+        @Override
+        public int getInt(final Object instance) {
+            checkInstance(instance);
+            return UNSAFE.getInt(instance, offset());
+        }
+
+        @Override
+        public void setInt(final Object instance, final int value) {
+            checkInstance(instance);
+            UNSAFE.putInt(instance, offset(), value);
+        }
+
+        @Override
+        public long getLong(final Object instance) {
+            return getInt(instance);
+        }
+
+        @Override
+        public double getDouble(final Object instance) {
+            return getInt(instance);
+        }
+    }
+
+    private static class LongAccessor extends DirectAccessor {
+        LongAccessor(final Field field, final FieldAccessor reflective, final long offset) {
+            super(field, reflective, offset);
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            return getLong(instance);
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            if (accepts(instance) && value instanceof Long) {
+                UNSAFE.putLong(instance, offset(), (Long) value);
+            } else {
+                reflective().set(instance, value);
+            }
+        }
+
+        @Override
+        public long getLong(final Object instance) {
+            checkInstance(instance);
+            return UNSAFE.getLong(instance, offset());
+        }
+
+        @Override
+        public void setLong(final Object instance, final long value) {
+            checkInstance(instance);
+            UNSAFE.putLong(instance, offset(), value);
+        }
+
+        @Override
+        public double getDouble(final Object instance) {
+            return getLong(instance);
+        }
+    }
+
+    private static class DoubleAccessor extends DirectAccessor {
+        DoubleAccessor(final Field field, final FieldAccessor reflective, final long offset) {
+            super(field, reflective, offset);
+        }
+
+        @Override
+        public Object get(final Object instance) {
+            return getDouble(instance);
+        }
+
+        @Override
+        public void set(final Object instance, final Object value) {
+            if (accepts(instance) && value instanceof Double) {
+                UNSAFE.putDouble(instance, offset(), (Double) value);
+            } else {
+                reflective().set(instance, value);
+            }
+        }
+
+        @Override
+        public double getDouble(final Object instance) {
+            checkInstance(instance);
+            return UNSAFE.getDouble(instance, offset());
+        }
+
+        @Override
+        public void setDouble(final Object instance, final double value) {
+            checkInstance(instance);
+            UNSAFE.putDouble(instance, offset(), value);
+        }
+    }
+}
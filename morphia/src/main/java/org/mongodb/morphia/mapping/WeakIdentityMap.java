@@ -0,0 +1,70 @@
+package org.mongodb.morphia.mapping;
+
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A synchronized map which compares its keys by identity and holds them weakly so entries go away with the objects they describe.
+ * Entities may define equals() and hashCode() in terms of mutable state so those can not be used to track instances.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+class WeakIdentityMap<K, V> {
+    private final Map<IdentityReference<K>, V> map = new HashMap<IdentityReference<K>, V>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    synchronized V get(final K key) {
+        return map.get(new IdentityReference<K>(key, null));
+    }
+
+    synchronized void put(final K key, final V value) {
+        expunge();
+        map.put(new IdentityReference<K>(key, queue), value);
+    }
+
+    synchronized V remove(final K key) {
+        return map.remove(new IdentityReference<K>(key, null));
+    }
+
+    synchronized int size() {
+        expunge();
+        return map.size();
+    }
+
+    private void expunge() {
+        Object reference;
+        while ((reference = queue.poll()) != null) {
+            map.remove(reference);
+        }
+    }
+
+    private static final class IdentityReference<K> extends WeakReference<K> {
+        private final int hash;
+
+        private IdentityReference(final K referent, final ReferenceQueue<K> queue) {
+            super(referent, queue);
+            hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityReference)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((IdentityReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
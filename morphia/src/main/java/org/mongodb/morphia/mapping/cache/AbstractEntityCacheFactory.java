@@ -0,0 +1,21 @@
+package org.mongodb.morphia.mapping.cache;
+
+
+import org.mongodb.morphia.Key;
+
+/**
+ * An EntityCacheFactory whose caches live only as long as a query, so that it ignores loaded entities and writes.
+ */
+public abstract class AbstractEntityCacheFactory implements EntityCacheFactory {
+    @Override
+    public <T> void publish(final EntityCache cache, final Key<T> key, final T entity) {
+    }
+
+    @Override
+    public void invalidate(final Key<?> key) {
+    }
+
+    @Override
+    public void invalidate(final String collection) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.mongodb.morphia.mapping.cache;
+
+/**
+ * Cache factory returning thread-safe entity caches.
+ *
+ * @see ConcurrentEntityCache
+ */
+public class ConcurrentEntityCacheFactory extends AbstractEntityCacheFactory {
+
+    /**
+     * Creates a new ConcurrentEntityCache
+     *
+     * @return the cache
+     */
+    public EntityCache createCache() {
+        return new ConcurrentEntityCache();
+    }
+}
@@ -3,7 +3,7 @@ package org.mongodb.morphia.mapping.cache;
 /**
  * Default implementation of cache factory, returning the default entity cache.
  */
-public class DefaultEntityCacheFactory implements EntityCacheFactory {
+public class DefaultEntityCacheFactory extends AbstractEntityCacheFactory {
 
     /**
      * Creates a new DefaultEntityCache
@@ -1,7 +1,11 @@
 package org.mongodb.morphia.mapping.cache;
 
+import org.mongodb.morphia.Key;
+
 /**
- * Factory for entity caches.
+ * Factory for entity caches.  Besides creating the per-query caches, it is told when an entity has been completely loaded and when a
+ * Datastore writes, so that a cache shared beyond one query can publish and invalidate entities.  Extend
+ * {@link AbstractEntityCacheFactory} to only create caches.
  */
 public interface EntityCacheFactory {
 
@@ -11,4 +15,28 @@ public interface EntityCacheFactory {
      * @return the cache
      */
     EntityCache createCache();
+
+    /**
+     * Called once an entity put in a cache created by this factory is completely loaded, including its references
+     *
+     * @param cache  the cache the entity was put in
+     * @param key    the Key of the entity
+     * @param entity the entity
+     * @param <T>    the type of the entity
+     */
+    <T> void publish(EntityCache cache, Key<T> key, T entity);
+
+    /**
+     * Called after a Datastore saved or deleted an entity
+     *
+     * @param key the Key of the entity
+     */
+    void invalidate(Key<?> key);
+
+    /**
+     * Called after a Datastore wrote documents of a collection without knowing which, e.g. with an update or a delete by query
+     *
+     * @param collection the name of the collection
+     */
+    void invalidate(String collection);
 }
@@ -1,13 +1,15 @@
 package org.mongodb.morphia.mapping.cache;
 
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * This class stores various statistics on an EntityCache
+ * This class stores various statistics on an EntityCache.  The counters may be updated from several threads.
  */
 public class EntityCacheStatistics {
-    private int entities;
-    private int hits;
-    private int misses;
+    private final AtomicInteger entities = new AtomicInteger();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
 
     /**
      * Copies the statistics
@@ -16,40 +18,61 @@ public class EntityCacheStatistics {
      */
     public EntityCacheStatistics copy() {
         final EntityCacheStatistics copy = new EntityCacheStatistics();
-        copy.entities = entities;
-        copy.hits = hits;
-        copy.misses = misses;
+        copy.entities.set(entities.get());
+        copy.hits.set(hits.get());
+        copy.misses.set(misses.get());
         return copy;
     }
 
+    /**
+     * @return the number of entities added to the cache
+     */
+    public int getEntities() {
+        return entities.get();
+    }
+
+    /**
+     * @return the number of lookups which found an entry
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which found nothing
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
     /**
      * Increments the entity count
      */
     public void incEntities() {
-        entities++;
+        entities.incrementAndGet();
     }
 
     /**
      * Increments the hit count
      */
     public void incHits() {
-        hits++;
+        hits.incrementAndGet();
     }
 
     /**
      * Increments the miss count
      */
     public void incMisses() {
-        misses++;
+        misses.incrementAndGet();
     }
 
     /**
      * Clears the statistics
      */
     public void reset() {
-        entities = 0;
-        hits = 0;
-        misses = 0;
+        entities.set(0);
+        hits.set(0);
+        misses.set(0);
     }
 
     @Override
@@ -0,0 +1,95 @@
+package org.mongodb.morphia.mapping.cache;
+
+
+import org.mongodb.morphia.Key;
+
+/**
+ * The per-query EntityCache created by {@link SharedEntityCacheFactory}.  It behaves like {@link ConcurrentEntityCache} but consults, and
+ * publishes to, the factory's shared store for entities of {@link org.mongodb.morphia.annotations.Cached} classes.
+ * <p/>
+ * Entities put in the cache are only seen by this cache.  The factory calls {@link #publish(Key, Object)} when the Mapper reports an
+ * entity completely loaded, so other threads never see a partially loaded entity.  An entity is not published if its collection was
+ * invalidated since this cache was created or last flushed, as it may have been read before the write.
+ */
+public class SharedEntityCache implements EntityCache {
+    private final EntityCache local = new ConcurrentEntityCache();
+    private final SharedEntityCacheFactory factory;
+    private volatile long generation;
+
+    /**
+     * Creates a cache
+     *
+     * @param factory the factory holding the shared store
+     */
+    public SharedEntityCache(final SharedEntityCacheFactory factory) {
+        this.factory = factory;
+        generation = factory.getStore().generation();
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        final Boolean exists = local.exists(k);
+        if (exists == null && factory.getTtl(k.getType()) > 0 && factory.getStore().get(k) != null) {
+            return true;
+        }
+        return exists;
+    }
+
+    @Override
+    public void flush() {
+        local.flush();
+        generation = factory.getStore().generation();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getEntity(final Key<T> k) {
+        T entity = local.getEntity(k);
+        if (entity == null && factory.getTtl(k.getType()) > 0) {
+            entity = (T) factory.getStore().get(k);
+            if (entity != null) {
+                local.putEntity(k, entity);
+            }
+        }
+        return entity;
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        return local.getProxy(k);
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        local.notifyExists(k, exists);
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        local.putEntity(k, t);
+    }
+
+    /**
+     * Shares a completely loaded entity with other threads, if its class is cached
+     *
+     * @param k   the Key of the entity
+     * @param t   the entity
+     * @param <T> the type of the entity
+     */
+    public <T> void publish(final Key<T> k, final T t) {
+        final long ttl = factory.getTtl(k.getType());
+        if (ttl > 0) {
+            factory.getStore().put(k, t, ttl, generation);
+        }
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        local.putProxy(k, t);
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return local.stats();
+    }
+}
@@ -0,0 +1,89 @@
+package org.mongodb.morphia.mapping.cache;
+
+
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.annotations.Cached;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An EntityCacheFactory whose caches share a bounded, second-level store of the entities of {@link Cached} classes.  Each query still
+ * gets its own first-level {@link ConcurrentEntityCache} but lookups which miss it fall through to the shared store so frequently
+ * referenced entities are not read again for every query.  Entities are only published to the store once they have been fully loaded.
+ * <p/>
+ * Datastores using a Mapper configured with this factory invalidate the store on their own saves, deletes and updates.  Writes made
+ * through other Mappers or directly against the database are only picked up once the cached entries expire.  Because the store is keyed
+ * by collection and id, a Mapper using this factory should only be used with one database.
+ * <pre>
+ * morphia.getMapper().getOptions().setCacheFactory(new SharedEntityCacheFactory(10000, 5, TimeUnit.MINUTES));
+ * </pre>
+ */
+public class SharedEntityCacheFactory extends AbstractEntityCacheFactory {
+    private final SharedEntityStore store;
+    private final long defaultTtl;
+    private final ConcurrentMap<Class<?>, Long> ttls = new ConcurrentHashMap<Class<?>, Long>();
+
+    /**
+     * Creates a factory
+     *
+     * @param maxEntries the maximum number of entities to hold in the shared store
+     * @param defaultTtl how long entities stay in the shared store unless their {@link Cached} annotation says otherwise
+     * @param unit       the unit of defaultTtl
+     */
+    public SharedEntityCacheFactory(final int maxEntries, final long defaultTtl, final TimeUnit unit) {
+        store = new SharedEntityStore(maxEntries);
+        this.defaultTtl = unit.toMillis(defaultTtl);
+    }
+
+    @Override
+    public EntityCache createCache() {
+        return new SharedEntityCache(this);
+    }
+
+    @Override
+    public <T> void publish(final EntityCache cache, final Key<T> key, final T entity) {
+        if (cache instanceof SharedEntityCache) {
+            ((SharedEntityCache) cache).publish(key, entity);
+        }
+    }
+
+    @Override
+    public void invalidate(final Key<?> key) {
+        store.invalidate(key);
+    }
+
+    @Override
+    public void invalidate(final String collection) {
+        store.invalidate(collection);
+    }
+
+    /**
+     * @return the shared store.  Use it to read the hit and miss statistics or to invalidate entities changed elsewhere.
+     */
+    public SharedEntityStore getStore() {
+        return store;
+    }
+
+    /**
+     * @param type the entity type
+     * @return how long, in milliseconds, entities of the type can be held in the shared store.  Zero if they are not to be stored.
+     */
+    long getTtl(final Class<?> type) {
+        if (type == null) {
+            return 0;
+        }
+        Long ttl = ttls.get(type);
+        if (ttl == null) {
+            final Cached cached = type.getAnnotation(Cached.class);
+            if (cached == null) {
+                ttl = 0L;
+            } else {
+                ttl = cached.ttl() > 0 ? cached.unit().toMillis(cached.ttl()) : defaultTtl;
+            }
+            ttls.put(type, ttl);
+        }
+        return ttl;
+    }
+}
@@ -0,0 +1,234 @@
+package org.mongodb.morphia.mapping.cache;
+
+
+import org.mongodb.morphia.Key;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bounded, least recently used store behind {@link SharedEntityCacheFactory}.  Entities are stored by collection and id so an
+ * entity loaded through a Key of one type in a hierarchy is invalidated by a write through any other.  Entries expire after their time to
+ * live and are evicted, least recently used first, once the store holds more than its maximum number of entries.  All access is
+ * synchronized on the store.
+ * <p/>
+ * Every invalidation advances the store's generation and records it against the collection invalidated.  Entities loaded by a reader
+ * which started before a collection was last invalidated may be stale, so {@link #put(Key, Object, long, long)} drops them.
+ */
+public class SharedEntityStore {
+    private final int maxEntries;
+    private final Map<StoreKey, Entry> entries;
+    private final Map<String, Set<StoreKey>> keysByCollection = new HashMap<String, Set<StoreKey>>();
+    private final Map<String, Long> invalidated = new HashMap<String, Long>();
+    private final EntityCacheStatistics stats = new EntityCacheStatistics();
+    private long generation;
+    private long cleared;
+
+    /**
+     * Creates a store
+     *
+     * @param maxEntries the maximum number of entities to hold
+     */
+    public SharedEntityStore(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        this.maxEntries = maxEntries;
+        entries = new LinkedHashMap<StoreKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<StoreKey, Entry> eldest) {
+                if (size() > SharedEntityStore.this.maxEntries) {
+                    unindex(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up an entity
+     *
+     * @param key the Key to search for
+     * @return the entity or null if it is not cached or has expired
+     */
+    public synchronized Object get(final Key<?> key) {
+        final StoreKey storeKey = new StoreKey(key);
+        final Entry entry = entries.get(storeKey);
+        if (entry == null || entry.expires < System.currentTimeMillis()) {
+            if (entry != null) {
+                remove(storeKey);
+            }
+            stats.incMisses();
+            return null;
+        }
+        stats.incHits();
+        return entry.entity;
+    }
+
+    /**
+     * Adds or replaces an entity
+     *
+     * @param key       the Key of the entity
+     * @param entity    the entity
+     * @param ttlMillis how long the entity may be handed out, in milliseconds
+     */
+    public synchronized void put(final Key<?> key, final Object entity, final long ttlMillis) {
+        final StoreKey storeKey = new StoreKey(key);
+        if (entries.put(storeKey, new Entry(entity, System.currentTimeMillis() + ttlMillis)) == null) {
+            Set<StoreKey> keys = keysByCollection.get(storeKey.collection);
+            if (keys == null) {
+                keys = new HashSet<StoreKey>();
+                keysByCollection.put(storeKey.collection, keys);
+            }
+            keys.add(storeKey);
+            stats.incEntities();
+        }
+    }
+
+    /**
+     * Adds or replaces an entity unless its collection was invalidated after the given generation
+     *
+     * @param key        the Key of the entity
+     * @param entity     the entity
+     * @param ttlMillis  how long the entity may be handed out, in milliseconds
+     * @param generation the {@link #generation()} before the entity was read
+     * @return true if the entity was stored
+     */
+    public synchronized boolean put(final Key<?> key, final Object entity, final long ttlMillis, final long generation) {
+        final Long last = invalidated.get(key.getCollection());
+        if (cleared > generation || last != null && last > generation) {
+            return false;
+        }
+        put(key, entity, ttlMillis);
+        return true;
+    }
+
+    /**
+     * @return a marker to pass to {@link #put(Key, Object, long, long)} so that entities read concurrently with a write are dropped
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Removes an entity
+     *
+     * @param key the Key of the entity
+     */
+    public synchronized void invalidate(final Key<?> key) {
+        invalidated.put(key.getCollection(), ++generation);
+        remove(new StoreKey(key));
+    }
+
+    /**
+     * Removes every entity stored for a collection
+     *
+     * @param collection the name of the collection
+     */
+    public synchronized void invalidate(final String collection) {
+        invalidated.put(collection, ++generation);
+        final Set<StoreKey> keys = keysByCollection.remove(collection);
+        if (keys != null) {
+            for (final StoreKey key : keys) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes any expired entities.  Expired entities are otherwise only removed when looked up or evicted.
+     */
+    public synchronized void purge() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<StoreKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<StoreKey, Entry> entry = iterator.next();
+            if (entry.getValue().expires < now) {
+                iterator.remove();
+                unindex(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Removes everything from the store
+     */
+    public synchronized void clear() {
+        cleared = ++generation;
+        invalidated.clear();
+        entries.clear();
+        keysByCollection.clear();
+    }
+
+    /**
+     * @return the number of entities held, including any which have expired but not been removed yet
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the hits and misses of lookups against this store
+     */
+    public synchronized EntityCacheStatistics stats() {
+        return stats.copy();
+    }
+
+    private void remove(final StoreKey key) {
+        if (entries.remove(key) != null) {
+            unindex(key);
+        }
+    }
+
+    private void unindex(final StoreKey key) {
+        final Set<StoreKey> keys = keysByCollection.get(key.collection);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByCollection.remove(key.collection);
+            }
+        }
+    }
+
+    private static final class StoreKey {
+        private final String collection;
+        private final Object id;
+
+        private StoreKey(final Key<?> key) {
+            collection = key.getCollection();
+            id = key.getId();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StoreKey)) {
+                return false;
+            }
+            final StoreKey that = (StoreKey) o;
+            return (collection == null ? that.collection == null : collection.equals(that.collection)) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (collection == null ? 0 : collection.hashCode()) + id.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final Object entity;
+        private final long expires;
+
+        private Entry(final Object entity, final long expires) {
+            this.entity = entity;
+            this.expires = expires;
+        }
+    }
+}
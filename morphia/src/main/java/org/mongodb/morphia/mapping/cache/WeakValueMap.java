@@ -0,0 +1,55 @@
+package org.mongodb.morphia.mapping.cache;
+
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent map which only weakly references its values.  Entries whose values have been collected are removed as the map is
+ * written to.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+class WeakValueMap<K, V> {
+    private final ConcurrentMap<K, ValueReference<K, V>> map = new ConcurrentHashMap<K, ValueReference<K, V>>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+
+    V get(final K key) {
+        final ValueReference<K, V> reference = map.get(key);
+        return reference == null ? null : reference.get();
+    }
+
+    boolean containsKey(final K key) {
+        return get(key) != null;
+    }
+
+    void put(final K key, final V value) {
+        expunge();
+        map.put(key, new ValueReference<K, V>(key, value, queue));
+    }
+
+    void clear() {
+        expunge();
+        map.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+        ValueReference<K, V> reference;
+        while ((reference = (ValueReference<K, V>) queue.poll()) != null) {
+            map.remove(reference.key, reference);
+        }
+    }
+
+    private static final class ValueReference<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private ValueReference(final K key, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
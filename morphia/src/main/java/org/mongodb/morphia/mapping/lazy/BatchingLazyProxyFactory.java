@@ -0,0 +1,26 @@
+package org.mongodb.morphia.mapping.lazy;
+
+
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.mapping.lazy.proxy.LazyReferenceBatch;
+
+/**
+ * A LazyProxyFactory whose proxies can be fetched together with their siblings.  Without one, {@code @Reference(batchSize)} is ignored.
+ *
+ * @see org.mongodb.morphia.annotations.Reference#batchSize()
+ */
+public interface BatchingLazyProxyFactory extends LazyProxyFactory {
+    /**
+     * Creates a proxy for a Class which is fetched along with the other references of its batch.
+     *
+     * @param <T>           the type of the entity
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param targetClass   the referenced object's Class
+     * @param key           the Key of the reference
+     * @param ignoreMissing ignore references that don't exist in the database
+     * @param batch         the batch to fetch the reference with
+     * @return the proxy
+     */
+    <T> T createProxy(Datastore datastore, Class<T> targetClass, Key<T> key, boolean ignoreMissing, LazyReferenceBatch batch);
+}
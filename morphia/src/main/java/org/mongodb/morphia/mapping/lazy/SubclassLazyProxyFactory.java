@@ -0,0 +1,172 @@
+package org.mongodb.morphia.mapping.lazy;
+
+
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Dispatcher;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.FixedValue;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.annotations.IdGetter;
+import org.mongodb.morphia.mapping.lazy.proxy.AbstractReference;
+import org.mongodb.morphia.mapping.lazy.proxy.CollectionObjectReference;
+import org.mongodb.morphia.mapping.lazy.proxy.EntityObjectReference;
+import org.mongodb.morphia.mapping.lazy.proxy.LazyReferenceBatch;
+import org.mongodb.morphia.mapping.lazy.proxy.MapObjectReference;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReference;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedReference;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A LazyProxyFactory whose proxies are plain cglib subclasses of the referenced types.  Once the reference is fetched, calls are
+ * dispatched straight to the target through generated code, without reflection or locking.  One proxy class is generated per referenced
+ * type, the first time it is proxied, and only the class is kept.  Serializing a proxy writes the target in its place.
+ * <pre>
+ * morphia.getMapper().getOptions().setProxyFactory(new SubclassLazyProxyFactory());
+ * </pre>
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SubclassLazyProxyFactory implements BatchingLazyProxyFactory {
+    private static final int REFERENCE = 0;
+    private static final int TARGET = 1;
+    private static final int IGNORE = 2;
+    private static final int ID = 3;
+    private static final int REPLACE = 4;
+    private static final CallbackFilter FILTER = new ProxyCallbackFilter();
+    private static final Class[] CALLBACK_TYPES = {Dispatcher.class, Dispatcher.class, NoOp.class, MethodInterceptor.class,
+                                                   FixedValue.class};
+
+    private final ConcurrentMap<List<Class<?>>, Class<?>> proxyClasses = new ConcurrentHashMap<List<Class<?>>, Class<?>>();
+
+    @Override
+    public <T extends Collection> T createListProxy(final Datastore datastore, final T listToProxy, final Class referenceObjClass,
+                                                    final boolean ignoreMissing) {
+        final CollectionObjectReference reference = new CollectionObjectReference(listToProxy, referenceObjClass, ignoreMissing, datastore);
+        return (T) createProxy(listToProxy.getClass(), ProxiedEntityReferenceList.class, reference);
+    }
+
+    @Override
+    public <T extends Map> T createMapProxy(final Datastore datastore, final T mapToProxy, final Class referenceObjClass,
+                                            final boolean ignoreMissing) {
+        final MapObjectReference reference = new MapObjectReference(datastore, mapToProxy, referenceObjClass, ignoreMissing);
+        return (T) createProxy(mapToProxy.getClass(), ProxiedEntityReferenceMap.class, reference);
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing) {
+        return createProxy(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing,
+                             final LazyReferenceBatch batch) {
+        final EntityObjectReference reference = new EntityObjectReference(datastore, targetClass, key, ignoreMissing, batch);
+        return (T) createProxy(targetClass, ProxiedEntityReference.class, reference);
+    }
+
+    /**
+     * Instantiates the generated class with the callbacks of one reference.  Only the class is cached, so that no proxy, and through it
+     * no reference, fetched entity or Datastore, is kept alive by this factory.
+     */
+    private Object createProxy(final Class<?> targetClass, final Class<?> referenceType, final AbstractReference reference) {
+        final List<Class<?>> key = Arrays.<Class<?>>asList(targetClass, referenceType);
+        Class<?> proxyClass = proxyClasses.get(key);
+        if (proxyClass == null) {
+            final Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(targetClass);
+            enhancer.setInterfaces(new Class[]{referenceType, SerializableProxy.class});
+            enhancer.setCallbackFilter(FILTER);
+            enhancer.setCallbackTypes(CALLBACK_TYPES);
+            proxyClass = enhancer.createClass();
+            final Class<?> existing = proxyClasses.putIfAbsent(key, proxyClass);
+            if (existing != null) {
+                proxyClass = existing;
+            }
+        }
+        // the callbacks are handed to the constructor through a thread local, as Enhancer.create does
+        Enhancer.registerCallbacks(proxyClass, callbacks(reference));
+        try {
+            return ReflectUtils.newInstance(proxyClass);
+        } finally {
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    private Callback[] callbacks(final AbstractReference reference) {
+        final Callback[] callbacks = new Callback[5];
+        callbacks[REFERENCE] = new Dispatcher() {
+            @Override
+            public Object loadObject() {
+                return reference;
+            }
+        };
+        callbacks[TARGET] = new Dispatcher() {
+            @Override
+            public Object loadObject() {
+                return reference.get();
+            }
+        };
+        callbacks[IGNORE] = NoOp.INSTANCE;
+        callbacks[ID] = new MethodInterceptor() {
+            @Override
+            public Object intercept(final Object proxy, final Method method, final Object[] args, final MethodProxy methodProxy)
+                throws Throwable {
+                if (reference instanceof EntityObjectReference) {
+                    return ((EntityObjectReference) reference).__getKey().getId();
+                }
+                return methodProxy.invoke(reference.get(), args);
+            }
+        };
+        callbacks[REPLACE] = new FixedValue() {
+            @Override
+            public Object loadObject() {
+                return reference.get();
+            }
+        };
+        return callbacks;
+    }
+
+    /**
+     * Implemented by the generated proxies so that serialization writes the target in place of the proxy.  Not meant to be used directly.
+     */
+    public interface SerializableProxy extends Serializable {
+        /**
+         * @return the target of the proxy
+         * @throws ObjectStreamException never
+         */
+        Object writeReplace() throws ObjectStreamException;
+    }
+
+    private static final class ProxyCallbackFilter implements CallbackFilter {
+        @Override
+        public int accept(final Method method) {
+            final boolean noArgs = method.getParameterTypes().length == 0;
+            if (ProxiedReference.class.isAssignableFrom(method.getDeclaringClass())) {
+                return REFERENCE;
+            } else if (noArgs && "finalize".equals(method.getName())) {
+                return IGNORE;
+            } else if (noArgs && "writeReplace".equals(method.getName())) {
+                return REPLACE;
+            } else if (method.getAnnotation(IdGetter.class) != null) {
+                return ID;
+            }
+            return TARGET;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import static java.lang.String.format;
 public class EntityObjectReference extends AbstractReference implements ProxiedEntityReference {
     private static final long serialVersionUID = 1L;
     private final Key key;
+    private final transient LazyReferenceBatch batch;
 
     /**
      * Creates an object reference
@@ -23,8 +24,26 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
      * @param ignoreMissing ignore references that don't exist in the database
      */
     public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing) {
+        this(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    /**
+     * Creates an object reference which is fetched together with other references of its batch
+     *
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param targetClass   the Class of the referenced item
+     * @param key           the Key value
+     * @param ignoreMissing ignore references that don't exist in the database
+     * @param batch         the batch to fetch this reference with, or null to fetch it on its own
+     */
+    public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing,
+                                 final LazyReferenceBatch batch) {
         super(datastore, targetClass, ignoreMissing);
         this.key = key;
+        this.batch = batch;
+        if (batch != null) {
+            batch.add(key);
+        }
     }
 
     //CHECKSTYLE:OFF
@@ -42,7 +61,8 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
     @Override
     @SuppressWarnings("unchecked")
     protected Object fetch() {
-        final Object entity = getDatastore().getByKey(referenceObjClass, key);
+        // the batch is not serialized so deserialized references fetch themselves
+        final Object entity = batch != null ? batch.fetch(key) : getDatastore().getByKey(referenceObjClass, key);
         if (entity == null && !ignoreMissing) {
             throw new LazyReferenceFetchingException(format("During the lifetime of the proxy, the Entity identified by '%s' "
                                                                 + "disappeared from the Datastore.", key));
@@ -0,0 +1,111 @@
+package org.mongodb.morphia.mapping.lazy.proxy;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups the lazy references to one type created while loading the same query results.  The first of them to be used fetches itself along
+ * with up to {@code batchSize - 1} of its unfetched siblings in a single query; the siblings then find their entities here instead of
+ * querying for them one at a time.
+ *
+ * @see org.mongodb.morphia.annotations.Reference#batchSize()
+ */
+public class LazyReferenceBatch {
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final int batchSize;
+    private final Set<Key<?>> pending = new LinkedHashSet<Key<?>>();
+    private final Map<Key<?>, Object> fetched = new HashMap<Key<?>, Object>();
+
+    /**
+     * Creates a batch
+     *
+     * @param datastore the Datastore to fetch the references from
+     * @param mapper    the Mapper to read and convert the ids of the fetched entities with
+     * @param batchSize the maximum number of references to fetch at once
+     */
+    public LazyReferenceBatch(final Datastore datastore, final Mapper mapper, final int batchSize) {
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds the key of an unfetched reference to the batch
+     *
+     * @param key the key
+     */
+    public synchronized void add(final Key<?> key) {
+        if (!fetched.containsKey(key)) {
+            pending.add(key);
+        }
+    }
+
+    /**
+     * Fetches the entity of a key, along with those of other pending keys unless they have been fetched already
+     *
+     * @param key the key
+     * @return the entity, or null if it does not exist
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public synchronized Object fetch(final Key<?> key) {
+        if (fetched.containsKey(key)) {
+            return fetched.remove(key);
+        }
+
+        final List<Key<?>> keys = new ArrayList<Key<?>>();
+        keys.add(key);
+        pending.remove(key);
+        final Iterator<Key<?>> iterator = pending.iterator();
+        while (keys.size() < batchSize && iterator.hasNext()) {
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+
+        final List<Key<?>> storedKeys = new ArrayList<Key<?>>(keys.size());
+        for (final Key<?> k : keys) {
+            storedKeys.add(new Key(k.getType(), k.getCollection(), toStoredId(k.getId())));
+        }
+        final Map<Object, Object> entities = new HashMap<Object, Object>();
+        for (final Object entity : datastore.getByKeys((List) storedKeys)) {
+            final MappedField idField = mapper.getMappedClass(entity).getMappedIdField();
+            entities.put(toStoredId(mapper.toMongoObject(idField, null, mapper.getId(entity))), entity);
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            fetched.put(keys.get(i), entities.get(storedKeys.get(i).getId()));
+        }
+        return entities.get(storedKeys.get(0).getId());
+    }
+
+    /**
+     * Converts an id to the form it is stored in as an _id: references to embedded ids carry the class name the document does not.
+     */
+    private Object toStoredId(final Object id) {
+        if (id instanceof DBObject) {
+            final DBObject copy = new BasicDBObject(((DBObject) id).toMap());
+            copy.removeField(Mapper.CLASS_NAME_FIELDNAME);
+            return copy;
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of references in this batch which have not asked for their entity yet
+     */
+    public synchronized int getPendingCount() {
+        return pending.size() + fetched.size();
+    }
+}
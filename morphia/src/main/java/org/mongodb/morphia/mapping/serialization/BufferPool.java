@@ -0,0 +1,28 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+/**
+ * Keeps one {@link OutputBuffer} per thread.  A buffer is taken out of the pool while in use, so a nested use on the same thread gets a
+ * new one, and buffers grown beyond {@link #MAX_RETAINED} bytes are dropped rather than held by the thread.
+ */
+final class BufferPool {
+    static final int MAX_RETAINED = 1 << 20;
+
+    private final ThreadLocal<OutputBuffer> buffers = new ThreadLocal<OutputBuffer>();
+
+    OutputBuffer acquire() {
+        final OutputBuffer buffer = buffers.get();
+        if (buffer == null) {
+            return new OutputBuffer();
+        }
+        buffers.set(null);
+        buffer.setSize(0);
+        return buffer;
+    }
+
+    void release(final OutputBuffer buffer) {
+        if (buffer.capacity() <= MAX_RETAINED) {
+            buffers.set(buffer);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+/**
+ * Java serialization which writes each class description as the class name alone and reads it back from the local class.  This saves
+ * most of the size of small values and the work of writing and comparing descriptions, but only works for schema-stable classes: a value
+ * can not be read once the serializable fields of any class in it have changed, even in ways standard java serialization tolerates.
+ * Custom writeObject and readObject methods, enums and proxies work as usual.
+ *
+ * @see JavaSerialization
+ */
+public class CompactJavaSerialization implements SerializationStrategy {
+    /**
+     * The id of this strategy
+     */
+    public static final int ID = 2;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void serialize(final Object value, final OutputStream out) throws IOException {
+        final ObjectOutputStream oos = new CompactOutputStream(out);
+        oos.writeObject(value);
+        oos.flush();
+    }
+
+    @Override
+    public Object deserialize(final InputStream in) throws IOException, ClassNotFoundException {
+        return new CompactInputStream(in).readObject();
+    }
+
+    private static class CompactOutputStream extends ObjectOutputStream {
+        CompactOutputStream(final OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void writeClassDescriptor(final ObjectStreamClass desc) throws IOException {
+            writeUTF(desc.getName());
+        }
+    }
+
+    private static class CompactInputStream extends ObjectInputStream {
+        CompactInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            final String name = readUTF();
+            final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Class<?> type;
+            try {
+                type = Class.forName(name, false, loader != null ? loader : CompactJavaSerialization.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                type = Class.forName(name, false, CompactJavaSerialization.class.getClassLoader());
+            }
+            return ObjectStreamClass.lookupAny(type);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import org.bson.types.Binary;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Compresses Strings and byte arrays into {@link Binary} values of the user defined subtype {@value #SUBTYPE}, as stored for
+ * {@link org.mongodb.morphia.annotations.Compressed} fields.  The data starts with a header:
+ * <pre>
+ * byte 0     the format version, {@value #VERSION}
+ * byte 1     the kind of value: 0 for a byte[], 1 for a UTF-8 String
+ * byte 2     the id of the {@link Compression}
+ * bytes 3-6  the uncompressed length, big-endian
+ * </pre>
+ * Compression runs in a buffer reused by each thread.
+ */
+public final class CompressedBinary {
+    /**
+     * The BSON binary subtype of compressed values
+     */
+    public static final byte SUBTYPE = (byte) 0x80;
+
+    /**
+     * The version of the header written
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_LENGTH = 7;
+    private static final int BYTES = 0;
+    private static final int STRING = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final BufferPool BUFFERS = new BufferPool();
+
+    private CompressedBinary() {
+    }
+
+    /**
+     * @param value a value read from the database
+     * @return true if the value was compressed by this class
+     */
+    public static boolean isCompressed(final Object value) {
+        return value instanceof Binary && ((Binary) value).getType() == SUBTYPE;
+    }
+
+    /**
+     * Compresses a String if its UTF-8 form is at least {@code threshold} bytes long
+     *
+     * @param value     the String
+     * @param codec     the codec to use
+     * @param threshold the length from which to compress
+     * @return the compressed value, or the String itself if it is below the threshold or does not get smaller when compressed
+     */
+    public static Object compress(final String value, final Compression codec, final int threshold) {
+        // UTF-8 takes one to three bytes per char, so only the lengths in between need encoding to be measured
+        if (value.length() * 3 < threshold) {
+            return value;
+        }
+        final byte[] bytes = value.getBytes(UTF_8);
+        if (bytes.length < threshold) {
+            return value;
+        }
+        final Binary compressed = compress(STRING, bytes, codec);
+        return compressed != null ? compressed : value;
+    }
+
+    /**
+     * Compresses a byte array if it is at least {@code threshold} bytes long
+     *
+     * @param value     the array
+     * @param codec     the codec to use
+     * @param threshold the length from which to compress
+     * @return the compressed value, or the array itself if it is below the threshold or does not get smaller when compressed
+     */
+    public static Object compress(final byte[] value, final Compression codec, final int threshold) {
+        if (value.length < threshold) {
+            return value;
+        }
+        final Binary compressed = compress(BYTES, value, codec);
+        return compressed != null ? compressed : value;
+    }
+
+    /**
+     * Decompresses a value compressed by this class
+     *
+     * @param value the compressed value
+     * @return the String or byte array
+     * @throws IOException thrown if the value is corrupt
+     */
+    public static Object decompress(final Binary value) throws IOException {
+        final byte[] data = value.getData();
+        if (data.length < HEADER_LENGTH || data[0] != VERSION) {
+            throw new IOException("Unknown compressed value format");
+        }
+        final Compression codec = Compression.forId(data[2] & 0xFF);
+        final int length = (data[3] & 0xFF) << 24 | (data[4] & 0xFF) << 16 | (data[5] & 0xFF) << 8 | data[6] & 0xFF;
+        if (length < 0 || length > (long) (data.length - HEADER_LENGTH) * SerializationFormat.MAX_EXPANSION) {
+            throw new IOException("Invalid length for " + (data.length - HEADER_LENGTH) + " compressed bytes: " + length);
+        }
+        switch (data[1]) {
+            case BYTES:
+                final byte[] bytes = new byte[length];
+                codec.decompress(data, HEADER_LENGTH, data.length - HEADER_LENGTH, bytes, length);
+                return bytes;
+            case STRING:
+                final OutputBuffer buffer = BUFFERS.acquire();
+                try {
+                    buffer.setSize(length);
+                    codec.decompress(data, HEADER_LENGTH, data.length - HEADER_LENGTH, buffer.array(), length);
+                    return new String(buffer.array(), 0, length, UTF_8);
+                } finally {
+                    BUFFERS.release(buffer);
+                }
+            default:
+                throw new IOException("Unknown compressed value kind: " + data[1]);
+        }
+    }
+
+    private static Binary compress(final int kind, final byte[] bytes, final Compression codec) {
+        final OutputBuffer buffer = BUFFERS.acquire();
+        try {
+            buffer.setSize(HEADER_LENGTH);
+            codec.compress(bytes, 0, bytes.length, buffer);
+            if (buffer.size() >= bytes.length) {
+                return null;
+            }
+            final byte[] data = buffer.array();
+            data[0] = VERSION;
+            data[1] = (byte) kind;
+            data[2] = (byte) codec.getId();
+            data[3] = (byte) (bytes.length >>> 24);
+            data[4] = (byte) (bytes.length >>> 16);
+            data[5] = (byte) (bytes.length >>> 8);
+            data[6] = (byte) bytes.length;
+            return new Binary(SUBTYPE, buffer.toByteArray());
+        } finally {
+            BUFFERS.release(buffer);
+        }
+    }
+}
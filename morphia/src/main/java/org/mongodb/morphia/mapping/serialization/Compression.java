@@ -0,0 +1,145 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The codecs serialized values can be compressed with.  The id of the codec is stored in the header of each value.
+ * <p/>
+ * Every thread reuses one Deflater and one Inflater instead of allocating new ones, and their native memory, for every value.
+ */
+public enum Compression {
+    /**
+     * Values are stored as they are
+     */
+    NONE(0) {
+        @Override
+        void compress(final byte[] src, final int srcOff, final int srcLen, final OutputBuffer out) {
+            out.write(src, srcOff, srcLen);
+        }
+
+        @Override
+        void decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstLen) throws IOException {
+            if (srcLen != dstLen) {
+                throw new IOException("Expected " + dstLen + " bytes but found " + srcLen);
+            }
+            System.arraycopy(src, srcOff, dst, 0, srcLen);
+        }
+    },
+
+    /**
+     * The zlib format, favoring speed over size.  Smaller than {@link #LZ4} but several times slower.
+     */
+    DEFLATE(1) {
+        @Override
+        void compress(final byte[] src, final int srcOff, final int srcLen, final OutputBuffer out) {
+            final Deflater deflater = DEFLATERS.get();
+            deflater.reset();
+            deflater.setInput(src, srcOff, srcLen);
+            deflater.finish();
+            out.ensureCapacity(out.size() + srcLen / 2 + 64);
+            while (!deflater.finished()) {
+                if (out.size() == out.capacity()) {
+                    out.ensureCapacity(out.capacity() + 1);
+                }
+                out.setSize(out.size() + deflater.deflate(out.array(), out.size(), out.capacity() - out.size()));
+            }
+        }
+
+        @Override
+        void decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstLen) throws IOException {
+            final Inflater inflater = INFLATERS.get();
+            inflater.reset();
+            inflater.setInput(src, srcOff, srcLen);
+            try {
+                int length = 0;
+                while (length < dstLen && !inflater.finished()) {
+                    final int read = inflater.inflate(dst, length, dstLen - length);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += read;
+                }
+                if (length != dstLen || !inflater.finished()) {
+                    throw new IOException("Corrupt deflate data: expected " + dstLen + " bytes");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt deflate data: " + e.getMessage());
+            }
+        }
+    },
+
+    /**
+     * The LZ4 block format, from a pure java implementation.  Much faster than {@link #DEFLATE} but compresses less.
+     */
+    LZ4(2) {
+        @Override
+        void compress(final byte[] src, final int srcOff, final int srcLen, final OutputBuffer out) {
+            out.ensureCapacity(out.size() + Lz4.maxCompressedLength(srcLen));
+            out.setSize(out.size() + Lz4.compress(src, srcOff, srcLen, out.array(), out.size()));
+        }
+
+        @Override
+        void decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstLen) throws IOException {
+            Lz4.decompress(src, srcOff, srcLen, dst, 0, dstLen);
+        }
+    };
+
+    private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.BEST_SPEED);
+        }
+    };
+
+    private static final ThreadLocal<Inflater> INFLATERS = new ThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater();
+        }
+    };
+
+    private final int id;
+
+    Compression(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the id stored with values compressed by this codec
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Finds a codec by its id
+     *
+     * @param id the id
+     * @return the codec
+     * @throws IOException thrown if there is no codec with this id
+     */
+    public static Compression forId(final int id) throws IOException {
+        for (final Compression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IOException("Unknown compression codec: " + id);
+    }
+
+    /**
+     * Appends the compressed data to the buffer
+     */
+    abstract void compress(byte[] src, int srcOff, int srcLen, OutputBuffer out);
+
+    /**
+     * Decompresses data into the start of {@code dst}
+     *
+     * @throws IOException thrown if the data is corrupt or does not decompress to exactly {@code dstLen} bytes
+     */
+    abstract void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstLen) throws IOException;
+}
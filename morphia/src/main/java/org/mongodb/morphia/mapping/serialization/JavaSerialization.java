@@ -0,0 +1,36 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Standard java serialization, as used by Morphia for {@link org.mongodb.morphia.annotations.Serialized} fields all along.  Values carry
+ * full class descriptions, so they can still be read after their classes evolve in the ways java serialization allows.
+ */
+public class JavaSerialization implements SerializationStrategy {
+    /**
+     * The id of this strategy
+     */
+    public static final int ID = 1;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void serialize(final Object value, final OutputStream out) throws IOException {
+        final ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(value);
+        oos.flush();
+    }
+
+    @Override
+    public Object deserialize(final InputStream in) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(in).readObject();
+    }
+}
@@ -0,0 +1,195 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure java implementation of the LZ4 block format: a greedy single-pass compressor using a small hash table of recent positions, and a
+ * decompressor which checks every length and offset against the bounds of its input and output.
+ */
+final class Lz4 {
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 12;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 15;
+
+    private static final ThreadLocal<int[]> TABLES = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1 << HASH_LOG];
+        }
+    };
+
+    private Lz4() {
+    }
+
+    /**
+     * @param length the length of the data to compress
+     * @return the largest size the compressed data can have
+     */
+    static int maxCompressedLength(final int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses a block
+     *
+     * @return the compressed length
+     */
+    static int compress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstOff) {
+        final int end = srcOff + srcLen;
+        final int matchLimit = end - LAST_LITERALS;
+        final int mfLimit = end - MF_LIMIT;
+        int anchor = srcOff;
+        int op = dstOff;
+
+        if (srcLen > MF_LIMIT) {
+            final int[] table = TABLES.get();
+            Arrays.fill(table, -1);
+            int ip = srcOff;
+            int attempts = 1 << SKIP_TRIGGER;
+            while (ip < mfLimit) {
+                final int sequence = readInt(src, ip);
+                final int hash = hash(sequence);
+                int ref = table[hash];
+                table[hash] = ip;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    ip += attempts++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+                attempts = 1 << SKIP_TRIGGER;
+                while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, matchLength);
+                ip += matchLength;
+                anchor = ip;
+                if (ip < mfLimit) {
+                    table[hash(readInt(src, ip - 2))] = ip - 2;
+                }
+            }
+        }
+        return writeSequence(src, anchor, end - anchor, dst, op, 0, 0) - dstOff;
+    }
+
+    /**
+     * Decompresses a block
+     *
+     * @throws IOException thrown if the block is corrupt or does not decompress to exactly {@code dstLen} bytes
+     */
+    static void decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstOff, final int dstLen)
+        throws IOException {
+        final int end = srcOff + srcLen;
+        final int dstEnd = dstOff + dstLen;
+        int ip = srcOff;
+        int op = dstOff;
+        try {
+            while (true) {
+                final int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                if (literals > end - ip || literals > dstEnd - op) {
+                    throw new IOException("Corrupt LZ4 data: literals out of bounds");
+                }
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if (ip == end) {
+                    break;
+                }
+
+                final int offset = (src[ip++] & 0xFF) | (src[ip++] & 0xFF) << 8;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                if (offset == 0 || offset > op - dstOff || matchLength > dstEnd - op) {
+                    throw new IOException("Corrupt LZ4 data: match out of bounds");
+                }
+                int ref = op - offset;
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                    op += matchLength;
+                } else {
+                    // the match overlaps the bytes it produces, so they are copied one at a time
+                    final int matchEnd = op + matchLength;
+                    while (op < matchEnd) {
+                        dst[op++] = dst[ref++];
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupt LZ4 data: truncated");
+        }
+        if (op != dstEnd) {
+            throw new IOException("Corrupt LZ4 data: expected " + dstLen + " bytes but found " + (op - dstOff));
+        }
+    }
+
+    private static int writeSequence(final byte[] src, final int literalsOff, final int literals, final byte[] dst, final int dstOff,
+                                     final int offset, final int matchLength) {
+        int op = dstOff;
+        final int tokenPos = op++;
+        int token;
+        if (literals >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            op = writeLength(dst, op, literals - RUN_MASK);
+        } else {
+            token = literals << 4;
+        }
+        System.arraycopy(src, literalsOff, dst, op, literals);
+        op += literals;
+        if (matchLength != 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            final int length = matchLength - MIN_MATCH;
+            if (length >= RUN_MASK) {
+                token |= RUN_MASK;
+                op = writeLength(dst, op, length - RUN_MASK);
+            } else {
+                token |= length;
+            }
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(final byte[] dst, final int dstOff, final int length) {
+        int op = dstOff;
+        int remaining = length;
+        while (remaining >= 255) {
+            dst[op++] = (byte) 255;
+            remaining -= 255;
+        }
+        dst[op++] = (byte) remaining;
+        return op;
+    }
+
+    private static int readInt(final byte[] src, final int i) {
+        return (src[i] & 0xFF) | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF) << 16 | (src[i + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(final int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -0,0 +1,55 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable byte array exposing its contents without copying them
+ */
+final class OutputBuffer extends OutputStream {
+    private static final int INITIAL_CAPACITY = 512;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void write(final int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void setSize(final int size) {
+        ensureCapacity(size);
+        this.size = size;
+    }
+
+    int capacity() {
+        return bytes.length;
+    }
+
+    void ensureCapacity(final int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+}
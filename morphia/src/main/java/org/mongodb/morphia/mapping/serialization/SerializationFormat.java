@@ -0,0 +1,188 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import org.bson.types.Binary;
+import org.mongodb.morphia.mapping.Serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the values of {@link org.mongodb.morphia.annotations.Serialized} fields.  Each value is written by a
+ * {@link SerializationStrategy}, optionally compressed, behind a header naming both:
+ * <pre>
+ * byte 0     {@value #MAGIC}, which neither java serialization nor gzip data starts with
+ * byte 1     the format version, {@value #VERSION}
+ * byte 2     the id of the SerializationStrategy
+ * byte 3     the id of the {@link Compression}
+ * bytes 4-7  the uncompressed length, big-endian
+ * </pre>
+ * Values without a header are written by {@link #DEFAULT}, as by earlier versions through {@link Serializer}, and are always read,
+ * compressed or not.  Values written by the standard strategies can always be read, whichever strategy a format writes with, but values
+ * with a header can not be read by versions older than this class, so formats with a header have to be chosen explicitly.
+ * <p/>
+ * Serialization and compression work in buffers reused by each thread, so a value only allocates the array returned.  Values which do
+ * not get smaller when compressed are stored uncompressed.
+ */
+public class SerializationFormat {
+    /**
+     * The format used unless {@link org.mongodb.morphia.mapping.MapperOptions#setSerializationFormat(SerializationFormat)} says
+     * otherwise: standard java serialization compressed with gzip, without a header, as written by {@link Serializer}
+     */
+    public static final SerializationFormat DEFAULT = new SerializationFormat();
+
+    /**
+     * The first byte of every value with a header
+     */
+    public static final int MAGIC = 0x4D;
+
+    /**
+     * The version of the header written
+     */
+    public static final int VERSION = 1;
+
+    static final int HEADER_LENGTH = 8;
+    // no codec expands data further than deflate does, by at most 1032 to 1
+    static final int MAX_EXPANSION = 1032;
+    private static final int GZIP_MAGIC = 0x1F8B;
+
+    private static final BufferPool SERIALIZED = new BufferPool();
+    private static final BufferPool COMPRESSED = new BufferPool();
+
+    private final SerializationStrategy strategy;
+    private final Compression compression;
+    private final Map<Integer, SerializationStrategy> strategies = new HashMap<Integer, SerializationStrategy>();
+    private final boolean headerless;
+
+    private SerializationFormat() {
+        strategy = new JavaSerialization();
+        compression = null;
+        headerless = true;
+        strategies.put(JavaSerialization.ID, strategy);
+        strategies.put(CompactJavaSerialization.ID, new CompactJavaSerialization());
+    }
+
+    /**
+     * Creates a format
+     *
+     * @param strategy    the strategy to write values with
+     * @param compression the codec to compress values with when compression is requested
+     */
+    public SerializationFormat(final SerializationStrategy strategy, final Compression compression) {
+        if (strategy.getId() < 0 || strategy.getId() > 255) {
+            throw new IllegalArgumentException("Strategy ids must be between 0 and 255: " + strategy.getId());
+        }
+        this.strategy = strategy;
+        this.compression = compression;
+        headerless = false;
+        strategies.put(JavaSerialization.ID, new JavaSerialization());
+        strategies.put(CompactJavaSerialization.ID, new CompactJavaSerialization());
+        strategies.put(strategy.getId(), strategy);
+    }
+
+    /**
+     * @return the strategy values are written with
+     */
+    public SerializationStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the codec values are compressed with, or null if values are written without a header and compressed with gzip
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Writes a value
+     *
+     * @param value    the value to write
+     * @param compress true if the value should be compressed
+     * @return the value, with its header unless this is {@link #DEFAULT}
+     * @throws IOException thrown if the value can not be written
+     */
+    public byte[] serialize(final Object value, final boolean compress) throws IOException {
+        if (headerless) {
+            return Serializer.serialize(value, compress);
+        }
+        final OutputBuffer serialized = SERIALIZED.acquire();
+        try {
+            serialized.setSize(HEADER_LENGTH);
+            strategy.serialize(value, serialized);
+            final int length = serialized.size() - HEADER_LENGTH;
+            if (compress && compression != Compression.NONE) {
+                final OutputBuffer compressed = COMPRESSED.acquire();
+                try {
+                    compressed.setSize(HEADER_LENGTH);
+                    compression.compress(serialized.array(), HEADER_LENGTH, length, compressed);
+                    if (compressed.size() < serialized.size()) {
+                        writeHeader(compressed.array(), compression, length);
+                        return compressed.toByteArray();
+                    }
+                } finally {
+                    COMPRESSED.release(compressed);
+                }
+            }
+            writeHeader(serialized.array(), Compression.NONE, length);
+            return serialized.toByteArray();
+        } finally {
+            SERIALIZED.release(serialized);
+        }
+    }
+
+    /**
+     * Reads a value
+     *
+     * @param data the stored value, as a byte[] or a {@link Binary}
+     * @return the value
+     * @throws IOException            thrown if the value can not be read
+     * @throws ClassNotFoundException thrown if the class of the value can not be found
+     */
+    public Object deserialize(final Object data) throws IOException, ClassNotFoundException {
+        final byte[] bytes = data instanceof Binary ? ((Binary) data).getData() : (byte[]) data;
+        if (bytes.length < HEADER_LENGTH || (bytes[0] & 0xFF) != MAGIC) {
+            final boolean gzipped = bytes.length > 1 && ((bytes[0] & 0xFF) << 8 | bytes[1] & 0xFF) == GZIP_MAGIC;
+            return Serializer.deserialize(bytes, gzipped);
+        }
+        if (bytes[1] != VERSION) {
+            throw new IOException("Unknown serialization format version: " + bytes[1]);
+        }
+        final SerializationStrategy reader = strategies.get(bytes[2] & 0xFF);
+        if (reader == null) {
+            throw new IOException("Unknown serialization strategy: " + (bytes[2] & 0xFF));
+        }
+        final Compression codec = Compression.forId(bytes[3] & 0xFF);
+        final int length = (bytes[4] & 0xFF) << 24 | (bytes[5] & 0xFF) << 16 | (bytes[6] & 0xFF) << 8 | bytes[7] & 0xFF;
+        if (codec == Compression.NONE) {
+            if (length != bytes.length - HEADER_LENGTH) {
+                throw new IOException("Expected " + length + " bytes but found " + (bytes.length - HEADER_LENGTH));
+            }
+            return reader.deserialize(new ByteArrayInputStream(bytes, HEADER_LENGTH, length));
+        }
+        if (length < 0 || length > (long) (bytes.length - HEADER_LENGTH) * MAX_EXPANSION) {
+            throw new IOException("Invalid length for " + (bytes.length - HEADER_LENGTH) + " compressed bytes: " + length);
+        }
+        final OutputBuffer decompressed = SERIALIZED.acquire();
+        try {
+            decompressed.setSize(length);
+            codec.decompress(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, decompressed.array(), length);
+            return reader.deserialize(new ByteArrayInputStream(decompressed.array(), 0, length));
+        } finally {
+            SERIALIZED.release(decompressed);
+        }
+    }
+
+    private void writeHeader(final byte[] bytes, final Compression codec, final int length) {
+        bytes[0] = (byte) MAGIC;
+        bytes[1] = (byte) VERSION;
+        bytes[2] = (byte) strategy.getId();
+        bytes[3] = (byte) codec.getId();
+        bytes[4] = (byte) (length >>> 24);
+        bytes[5] = (byte) (length >>> 16);
+        bytes[6] = (byte) (length >>> 8);
+        bytes[7] = (byte) length;
+    }
+}
@@ -0,0 +1,39 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Turns the values of {@link org.mongodb.morphia.annotations.Serialized} fields into bytes and back.  The id of the strategy which wrote
+ * a value is stored in its header, so a {@link SerializationFormat} can read values written by any strategy it knows, whichever one it
+ * writes with.
+ *
+ * @see SerializationFormat
+ */
+public interface SerializationStrategy {
+    /**
+     * @return the id stored with the values written by this strategy, from 0 to 255.  Ids below 16 are reserved for Morphia.
+     */
+    int getId();
+
+    /**
+     * Writes a value
+     *
+     * @param value the value to write
+     * @param out   the stream to write to.  Closing it has no effect.
+     * @throws IOException thrown if the value can not be written
+     */
+    void serialize(Object value, OutputStream out) throws IOException;
+
+    /**
+     * Reads a value
+     *
+     * @param in the stream to read from, holding exactly the bytes written by {@link #serialize(Object, OutputStream)}
+     * @return the value
+     * @throws IOException            thrown if the value can not be read
+     * @throws ClassNotFoundException thrown if the class of the value can not be found
+     */
+    Object deserialize(InputStream in) throws IOException, ClassNotFoundException;
+}
@@ -1,6 +1,7 @@
 package org.mongodb.morphia.mapping.validation;
 
 import org.mongodb.morphia.ObjectFactory;
+import org.mongodb.morphia.annotations.Compressed;
 import org.mongodb.morphia.annotations.Embedded;
 import org.mongodb.morphia.annotations.Property;
 import org.mongodb.morphia.annotations.Reference;
@@ -18,6 +19,7 @@ import org.mongodb.morphia.mapping.validation.classrules.EntityCannotBeMapOrIter
 import org.mongodb.morphia.mapping.validation.classrules.MultipleId;
 import org.mongodb.morphia.mapping.validation.classrules.MultipleVersions;
 import org.mongodb.morphia.mapping.validation.classrules.NoId;
+import org.mongodb.morphia.mapping.validation.fieldrules.CompressedMisuse;
 import org.mongodb.morphia.mapping.validation.fieldrules.ContradictingFieldAnnotation;
 import org.mongodb.morphia.mapping.validation.fieldrules.LazyReferenceMissingDependencies;
 import org.mongodb.morphia.mapping.validation.fieldrules.LazyReferenceOnArray;
@@ -132,6 +134,7 @@ public class MappingValidator {
         constraints.add(new MapKeyDifferentFromString());
         constraints.add(new MapNotSerializable());
         constraints.add(new VersionMisuse(creator));
+        constraints.add(new CompressedMisuse());
         //
         constraints.add(new ContradictingFieldAnnotation(Reference.class, Serialized.class));
         constraints.add(new ContradictingFieldAnnotation(Reference.class, Property.class));
@@ -141,6 +144,10 @@ public class MappingValidator {
         constraints.add(new ContradictingFieldAnnotation(Embedded.class, Property.class));
         //
         constraints.add(new ContradictingFieldAnnotation(Property.class, Serialized.class));
+        //
+        constraints.add(new ContradictingFieldAnnotation(Compressed.class, Serialized.class));
+        constraints.add(new ContradictingFieldAnnotation(Compressed.class, Reference.class));
+        constraints.add(new ContradictingFieldAnnotation(Compressed.class, Embedded.class));
 
         return constraints;
     }
@@ -0,0 +1,37 @@
+package org.mongodb.morphia.mapping.validation.fieldrules;
+
+
+import org.mongodb.morphia.annotations.Compressed;
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.validation.ConstraintViolation;
+import org.mongodb.morphia.mapping.validation.ConstraintViolation.Level;
+
+import java.util.Set;
+
+import static java.lang.String.format;
+
+
+/**
+ * Checks that {@link Compressed} is only used on String and byte[] fields, with a threshold which is not negative
+ */
+public class CompressedMisuse extends FieldConstraint {
+
+    @Override
+    protected void check(final Mapper mapper, final MappedClass mc, final MappedField mf, final Set<ConstraintViolation> ve) {
+        final Compressed compressed = mf.getAnnotation(Compressed.class);
+        if (compressed != null) {
+            final Class<?> type = mf.getType();
+            if (!String.class.equals(type) && !byte[].class.equals(type)) {
+                ve.add(new ConstraintViolation(Level.FATAL, mc, mf, getClass(),
+                                               format("@%s can only be used on a String or byte[] field.",
+                                                      Compressed.class.getSimpleName())));
+            }
+            if (compressed.threshold() < 0) {
+                ve.add(new ConstraintViolation(Level.FATAL, mc, mf, getClass(),
+                                               format("The threshold of @%s can not be negative.", Compressed.class.getSimpleName())));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.mongodb.morphia.metrics;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A MorphiaMetrics which keeps {@link OperationStatistics} per kind of operation, collection and entity type, so that the entities costing
+ * the most time can be found while the application runs.  Recording an operation is lock free once its statistics exist.
+ * <p/>
+ * <pre>
+ * HistogramMetrics metrics = new HistogramMetrics();
+ * morphia.getMapper().getOptions().setMetrics(metrics);
+ * ...
+ * for (OperationStatistics stats : metrics.getStatistics()) { ... }
+ * </pre>
+ */
+public class HistogramMetrics implements MorphiaMetrics {
+    private final ConcurrentMap<List<Object>, OperationStatistics> statistics = new ConcurrentHashMap<List<Object>, OperationStatistics>();
+    private final boolean measuringBytes;
+
+    /**
+     * Creates a HistogramMetrics which does not measure the size of documents
+     */
+    public HistogramMetrics() {
+        this(false);
+    }
+
+    /**
+     * Creates a HistogramMetrics
+     *
+     * @param measuringBytes whether to measure the size of documents
+     * @see MorphiaMetrics#isMeasuringBytes()
+     */
+    public HistogramMetrics(final boolean measuringBytes) {
+        this.measuringBytes = measuringBytes;
+    }
+
+    @Override
+    public boolean isMeasuringBytes() {
+        return measuringBytes;
+    }
+
+    @Override
+    public void operation(final OperationEvent event) {
+        final List<Object> key = Arrays.<Object>asList(event.getType(), event.getCollection(), event.getEntityClass());
+        OperationStatistics stats = statistics.get(key);
+        if (stats == null) {
+            final OperationStatistics created = new OperationStatistics(event.getType(), event.getCollection(), event.getEntityClass());
+            stats = statistics.putIfAbsent(key, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        stats.record(event);
+    }
+
+    /**
+     * @return the statistics of every kind of operation, collection and entity type seen, the ones with the most time spent first
+     */
+    public List<OperationStatistics> getStatistics() {
+        final List<OperationStatistics> list = new ArrayList<OperationStatistics>(statistics.values());
+        Collections.sort(list, new Comparator<OperationStatistics>() {
+            @Override
+            public int compare(final OperationStatistics o1, final OperationStatistics o2) {
+                final long t1 = o1.getTotalTime().getTotal();
+                final long t2 = o2.getTotalTime().getTotal();
+                return t1 < t2 ? 1 : t1 == t2 ? 0 : -1;
+            }
+        });
+        return list;
+    }
+
+    /**
+     * @param type        the kind of operation
+     * @param collection  the name of the collection
+     * @param entityClass the type of the entities
+     * @return the statistics, or null if no such operation was seen
+     */
+    public OperationStatistics getStatistics(final OperationType type, final String collection, final Class<?> entityClass) {
+        return statistics.get(Arrays.<Object>asList(type, collection, entityClass));
+    }
+
+    /**
+     * Clears all statistics
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(getClass().getSimpleName()).append(':');
+        for (final OperationStatistics stats : getStatistics()) {
+            sb.append('\n').append(stats);
+        }
+        return sb.toString();
+    }
+}
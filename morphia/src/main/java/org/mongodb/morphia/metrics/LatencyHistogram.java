@@ -0,0 +1,131 @@
+package org.mongodb.morphia.metrics;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds, with a fixed memory footprint and a relative error of at most
+ * 1/64.  Values below 128 are counted exactly; larger ones fall into buckets which double in width at every power of two, each split into
+ * 64 sub-buckets, in the manner of HdrHistogram.  Values of 2<sup>40</sup> and above, about 18 minutes in nanoseconds, are counted in the
+ * last bucket.
+ * <p/>
+ * Recording takes a few atomic increments and never locks, so any number of threads can record at once.  Reading while others record
+ * gives a close but not necessarily consistent view.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_BITS = 40;
+    private static final long MAX_TRACKABLE = (1L << MAX_BITS) - 1;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_BITS - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value
+     *
+     * @param value the value.  Negative values are recorded as 0.
+     */
+    public void record(final long value) {
+        final long v = Math.max(value, 0);
+        counts.incrementAndGet(index(Math.min(v, MAX_TRACKABLE)));
+        count.incrementAndGet();
+        total.addAndGet(v);
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the sum of the values recorded
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return the largest value recorded, or 0 if there is none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0 if there is none
+     */
+    public double getMean() {
+        final long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Finds the value below which a percentage of the recorded values fall
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the largest value of the bucket holding the percentile, capped at the largest value recorded, or 0 if there is none
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // the last bucket also holds the values beyond the trackable range
+                return i == BUCKETS - 1 ? max.get() : Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears the histogram.  Values recorded while clearing may be partly lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0f p50=%d p90=%d p99=%d max=%d", getCount(), getMean(), getValueAtPercentile(50),
+                             getValueAtPercentile(90), getValueAtPercentile(99), getMax());
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / HALF + 1;
+        final long top = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package org.mongodb.morphia.metrics;
+
+
+/**
+ * Receives an event for every operation Morphia completes against the database.  Events are reported on the thread which completed the
+ * operation, so implementations must be thread safe and should return quickly.  Operations which fail are not reported.
+ * <p/>
+ * Operations started while mapping another one, such as fetching the references of the entities being read, are reported on their own
+ * and their time is also part of the mapping time of the enclosing operation.
+ *
+ * @see org.mongodb.morphia.mapping.MapperOptions#setMetrics(MorphiaMetrics)
+ * @see HistogramMetrics
+ */
+public interface MorphiaMetrics {
+    /**
+     * Tells whether to measure the size of the documents read and written.  Measuring encodes every document a second time, so it is best
+     * left off unless the sizes are needed.
+     *
+     * @return true to report sizes in {@link OperationEvent#getBytes()}
+     */
+    boolean isMeasuringBytes();
+
+    /**
+     * Receives a completed operation
+     *
+     * @param event the operation
+     */
+    void operation(OperationEvent event);
+}
@@ -0,0 +1,116 @@
+package org.mongodb.morphia.metrics;
+
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A completed operation, as reported to {@link MorphiaMetrics}.  The time spent in the driver includes the round trips to the server, the
+ * time spent mapping covers converting between entities and documents, and running the lifecycle methods.
+ */
+public final class OperationEvent {
+    private final OperationType type;
+    private final String collection;
+    private final Class<?> entityClass;
+    private final int documents;
+    private final long bytes;
+    private final long driverNanos;
+    private final long mapperNanos;
+    private final int cacheHits;
+    private final int cacheMisses;
+
+    OperationEvent(final OperationType type, final String collection, final Class<?> entityClass, final int documents, final long bytes,
+                   final long driverNanos, final long mapperNanos, final int cacheHits, final int cacheMisses) {
+        this.type = type;
+        this.collection = collection;
+        this.entityClass = entityClass;
+        this.documents = documents;
+        this.bytes = bytes;
+        this.driverNanos = driverNanos;
+        this.mapperNanos = mapperNanos;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * @return the kind of operation
+     */
+    public OperationType getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the collection, or null if it is not known
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @return the type of the entities read or written, or null if it is not known
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the number of documents read or written, or for updates and deletes, the number of documents affected as reported by the
+     * server.  Unacknowledged updates and deletes report 0.
+     */
+    public int getDocuments() {
+        return documents;
+    }
+
+    /**
+     * @return the encoded size of the documents read or written, or -1 if sizes are not being measured
+     * @see MorphiaMetrics#isMeasuringBytes()
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @param unit the unit to use
+     * @return the time spent calling the driver
+     */
+    public long getDriverTime(final TimeUnit unit) {
+        return unit.convert(driverNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit to use
+     * @return the time spent mapping
+     */
+    public long getMapperTime(final TimeUnit unit) {
+        return unit.convert(mapperNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit to use
+     * @return the time spent calling the driver and mapping
+     */
+    public long getTotalTime(final TimeUnit unit) {
+        return unit.convert(driverNanos + mapperNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of lookups in the EntityCache which found an entity, including those made to resolve references.  Only reads
+     * count lookups.
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return the number of lookups in the EntityCache which found nothing
+     */
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + collection + " (" + (entityClass == null ? null : entityClass.getName()) + "): " + documents + " documents, "
+               + (bytes < 0 ? "" : bytes + " bytes, ") + "driver " + driverNanos + " ns, mapper " + mapperNanos + " ns, cache "
+               + cacheHits + " hits " + cacheMisses + " misses";
+    }
+}
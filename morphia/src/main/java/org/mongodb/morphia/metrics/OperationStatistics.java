@@ -0,0 +1,124 @@
+package org.mongodb.morphia.metrics;
+
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The operations of one kind against one collection and entity type, as recorded by {@link HistogramMetrics}.  Times are recorded in
+ * nanoseconds.
+ */
+public class OperationStatistics {
+    private final OperationType type;
+    private final String collection;
+    private final Class<?> entityClass;
+    private final LatencyHistogram totalTime = new LatencyHistogram();
+    private final LatencyHistogram driverTime = new LatencyHistogram();
+    private final LatencyHistogram mapperTime = new LatencyHistogram();
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    OperationStatistics(final OperationType type, final String collection, final Class<?> entityClass) {
+        this.type = type;
+        this.collection = collection;
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * @return the kind of operation
+     */
+    public OperationType getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the collection, or null if it is not known
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @return the type of the entities, or null if it is not known
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the number of operations
+     */
+    public long getCount() {
+        return totalTime.getCount();
+    }
+
+    /**
+     * @return the time spent calling the driver and mapping for each operation
+     */
+    public LatencyHistogram getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return the time spent calling the driver for each operation
+     */
+    public LatencyHistogram getDriverTime() {
+        return driverTime;
+    }
+
+    /**
+     * @return the time spent mapping for each operation
+     */
+    public LatencyHistogram getMapperTime() {
+        return mapperTime;
+    }
+
+    /**
+     * @return the number of documents read or written over all operations
+     */
+    public long getDocuments() {
+        return documents.get();
+    }
+
+    /**
+     * @return the encoded size of the documents read or written over all operations, or 0 if sizes are not being measured
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return the number of lookups in the EntityCache which found an entity
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return the number of lookups in the EntityCache which found nothing
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    void record(final OperationEvent event) {
+        totalTime.record(event.getTotalTime(TimeUnit.NANOSECONDS));
+        driverTime.record(event.getDriverTime(TimeUnit.NANOSECONDS));
+        mapperTime.record(event.getMapperTime(TimeUnit.NANOSECONDS));
+        documents.addAndGet(event.getDocuments());
+        if (event.getBytes() > 0) {
+            bytes.addAndGet(event.getBytes());
+        }
+        cacheHits.addAndGet(event.getCacheHits());
+        cacheMisses.addAndGet(event.getCacheMisses());
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + collection + " (" + (entityClass == null ? null : entityClass.getName()) + "): " + documents + " documents, "
+               + bytes + " bytes, cache " + cacheHits + " hits " + cacheMisses + " misses\n\ttotal ns: " + totalTime + "\n\tdriver ns: "
+               + driverTime + "\n\tmapper ns: " + mapperTime;
+    }
+}
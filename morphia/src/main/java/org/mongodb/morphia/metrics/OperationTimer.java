@@ -0,0 +1,189 @@
+package org.mongodb.morphia.metrics;
+
+
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
+import org.bson.io.BasicOutputBuffer;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.mapping.cache.EntityCacheStatistics;
+
+/**
+ * Times an operation and reports it to the {@link MorphiaMetrics} configured on the Mapper when it finishes.  Time is split by marks: each
+ * call to {@link #mapped()} or {@link #executed()} attributes the time since the previous mark to mapping or to the driver.  When no
+ * MorphiaMetrics is configured a shared, inactive timer is returned which does nothing at all.  Callers which measure time themselves
+ * add it with {@link #addDriverTime(long)} and {@link #addMapperTime(long)} instead of marking.
+ * <p/>
+ * A timer is meant to be used by a single thread.
+ */
+public final class OperationTimer {
+    private static final OperationTimer INACTIVE = new OperationTimer(null, null, null, null);
+
+    private final MorphiaMetrics metrics;
+    private final OperationType type;
+    private final String collection;
+    private final Class<?> entityClass;
+    private long mark;
+    private boolean marked;
+    private long driverNanos;
+    private long mapperNanos;
+    private int documents;
+    private long bytes;
+    private EntityCache cache;
+    private EntityCacheStatistics cacheStart;
+    private boolean finished;
+
+    private OperationTimer(final MorphiaMetrics metrics, final OperationType type, final String collection, final Class<?> entityClass) {
+        this.metrics = metrics;
+        this.type = type;
+        this.collection = collection;
+        this.entityClass = entityClass;
+        if (metrics != null) {
+            bytes = metrics.isMeasuringBytes() ? 0 : -1;
+            mark = System.nanoTime();
+        }
+    }
+
+    /**
+     * Starts timing an operation
+     *
+     * @param mapper      the Mapper holding the MorphiaMetrics to report to
+     * @param type        the kind of operation
+     * @param collection  the name of the collection, if known
+     * @param entityClass the type of the entities, if known
+     * @return the timer
+     */
+    public static OperationTimer start(final Mapper mapper, final OperationType type, final String collection,
+                                       final Class<?> entityClass) {
+        final MorphiaMetrics metrics = mapper == null ? null : mapper.getOptions().getMetrics();
+        return metrics == null ? INACTIVE : new OperationTimer(metrics, type, collection, entityClass);
+    }
+
+    /**
+     * @return true if the operation will be reported
+     */
+    public boolean isActive() {
+        return metrics != null;
+    }
+
+    /**
+     * Attributes the time since the last mark to mapping
+     */
+    public void mapped() {
+        if (metrics != null) {
+            final long now = System.nanoTime();
+            mapperNanos += now - mark;
+            mark = now;
+            marked = true;
+        }
+    }
+
+    /**
+     * Counts a document written and attributes the time since the last mark to mapping it
+     *
+     * @param document the document
+     */
+    public void mapped(final DBObject document) {
+        mapped();
+        document(document);
+    }
+
+    /**
+     * Attributes the time since the last mark to the driver
+     */
+    public void executed() {
+        if (metrics != null) {
+            final long now = System.nanoTime();
+            driverNanos += now - mark;
+            mark = now;
+            marked = true;
+        }
+    }
+
+    /**
+     * Counts a document read or written
+     *
+     * @param document the document, or null if there was none
+     */
+    public void document(final DBObject document) {
+        if (metrics != null && document != null) {
+            documents++;
+            if (bytes >= 0) {
+                bytes += new DefaultDBEncoder().writeObject(new BasicOutputBuffer(), document);
+            }
+        }
+    }
+
+    /**
+     * Counts the documents affected by an update or delete.  The count is only read from acknowledged writes, as an unacknowledged write
+     * has none to report.
+     *
+     * @param result  the result of the write
+     * @param concern the WriteConcern the write was made with
+     */
+    public void affected(final WriteResult result, final WriteConcern concern) {
+        if (metrics != null && concern.isAcknowledged()) {
+            documents += result.getN();
+        }
+    }
+
+    /**
+     * Counts the lookups made in an EntityCache until the operation finishes.  Lookups made by other operations sharing the cache in the
+     * meantime are counted too.
+     *
+     * @param entityCache the cache
+     */
+    public void watch(final EntityCache entityCache) {
+        if (metrics != null && entityCache != null) {
+            cache = entityCache;
+            cacheStart = entityCache.stats().copy();
+        }
+    }
+
+    /**
+     * Adds time spent in the driver, for callers measuring it themselves
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void addDriverTime(final long nanos) {
+        if (metrics != null) {
+            driverNanos += nanos;
+        }
+    }
+
+    /**
+     * Adds time spent mapping, for callers measuring it themselves
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void addMapperTime(final long nanos) {
+        if (metrics != null) {
+            mapperNanos += nanos;
+        }
+    }
+
+    /**
+     * Reports the operation.  If its time was split by marks, the time since the last mark is attributed to mapping first.  Only the first
+     * call has any effect.
+     */
+    public void finish() {
+        if (metrics == null || finished) {
+            return;
+        }
+        finished = true;
+        if (marked) {
+            mapped();
+        }
+        int cacheHits = 0;
+        int cacheMisses = 0;
+        if (cache != null) {
+            final EntityCacheStatistics stats = cache.stats();
+            cacheHits = stats.getHits() - cacheStart.getHits();
+            cacheMisses = stats.getMisses() - cacheStart.getMisses();
+        }
+        metrics.operation(new OperationEvent(type, collection, entityClass, documents, bytes, driverNanos, mapperNanos, cacheHits,
+                                             cacheMisses));
+    }
+}
@@ -0,0 +1,36 @@
+package org.mongodb.morphia.metrics;
+
+
+/**
+ * The kinds of operations reported to {@link MorphiaMetrics}
+ */
+public enum OperationType {
+    /**
+     * Reading the results of a query, including the keys only queries and the queries run to load lazy references
+     */
+    FIND,
+    /**
+     * Saving one or more entities
+     */
+    SAVE,
+    /**
+     * Inserting one or more entities
+     */
+    INSERT,
+    /**
+     * Updating the documents matched by a query
+     */
+    UPDATE,
+    /**
+     * Deleting the documents matched by a query
+     */
+    DELETE,
+    /**
+     * Reading the results of an aggregation
+     */
+    AGGREGATE,
+    /**
+     * Loading the entities referenced by a @Reference field of an entity being read
+     */
+    REFERENCE_FETCH
+}
@@ -0,0 +1,155 @@
+package org.mongodb.morphia.processor;
+
+
+import org.mongodb.morphia.utils.EntityIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the {@link EntityIndex} of the classes being compiled, recording whether each is annotated with, or inherits, {@code @Entity} or
+ * {@code @Embedded}, so that {@link org.mongodb.morphia.Morphia#mapPackage(String)} does not have to load the others at runtime.  The
+ * processor is not registered as a service; name it with javac's {@code -processor} option to run it, and set
+ * {@link org.mongodb.morphia.mapping.MapperOptions#setUseEntityIndex(boolean)} to use the index.
+ * <p/>
+ * An incremental compile keeps the entries of the previous index whose class files still exist, so the index goes on listing every class of
+ * its jar or directory and is marked {@value EntityIndex#COMPLETE}.  Classes compiled later without the processor are missing from the
+ * index, or newer than it, and are loaded as if there were no index.  A jar whose classes are not exactly those of its index, such as a
+ * shaded jar merging several modules, is read in full despite the mark.
+ */
+@SupportedAnnotationTypes("*")
+public class EntityIndexProcessor extends AbstractProcessor {
+    private static final String ENTITY = "org.mongodb.morphia.annotations.Entity";
+    private static final String EMBEDDED = "org.mongodb.morphia.annotations.Embedded";
+
+    private final Map<String, String> classes = new TreeMap<String, String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!classes.isEmpty()) {
+                write(merge());
+            }
+        } else {
+            for (final Element element : roundEnv.getRootElements()) {
+                collect(element);
+            }
+        }
+        return false;
+    }
+
+    private void collect(final Element element) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            final String kind = kind(element.asType());
+            classes.put(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString(),
+                        kind != null ? kind : EntityIndex.UNMAPPED);
+        }
+        for (final Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    /**
+     * Looks for the annotations on the type and all of its supertypes, the way Morphia does at runtime.
+     */
+    private String kind(final TypeMirror type) {
+        if (!(type instanceof DeclaredType)) {
+            return null;
+        }
+        for (final AnnotationMirror annotation : ((DeclaredType) type).asElement().getAnnotationMirrors()) {
+            final String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (ENTITY.equals(name)) {
+                return EntityIndex.ENTITY;
+            } else if (EMBEDDED.equals(name)) {
+                return EntityIndex.EMBEDDED;
+            }
+        }
+        for (final TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            final String kind = kind(supertype);
+            if (kind != null) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the entries of the previous index for the classes which were not compiled this time but whose class files still exist
+     *
+     * @return false if the previous index could not be read, so that the index may not list every class
+     */
+    private boolean merge() {
+        final Map<String, String> previous = new TreeMap<String, String>();
+        try {
+            final FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.RESOURCE);
+            if (resource.getLastModified() == 0) {
+                return true;
+            }
+            EntityIndex.read(resource.openInputStream(), previous);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Could not read the previous Morphia entity index: " + e.getMessage());
+            return false;
+        }
+        for (final Map.Entry<String, String> entry : previous.entrySet()) {
+            if (!classes.containsKey(entry.getKey()) && classFileExists(entry.getKey())) {
+                final TypeElement element = processingEnv.getElementUtils().getTypeElement(entry.getKey().replace('$', '.'));
+                final String kind = element != null ? kind(element.asType()) : entry.getValue();
+                classes.put(entry.getKey(), kind != null ? kind : EntityIndex.UNMAPPED);
+            }
+        }
+        return true;
+    }
+
+    private boolean classFileExists(final String binaryName) {
+        try {
+            final int dot = binaryName.lastIndexOf('.');
+            return processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, dot < 0 ? "" : binaryName.substring(0, dot),
+                                                        binaryName.substring(dot + 1) + ".class").getLastModified() != 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void write(final boolean complete) {
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.RESOURCE);
+            final Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+            try {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                if (complete) {
+                    writer.write(EntityIndex.COMPLETE + "\n");
+                }
+                for (final Map.Entry<String, String> entry : classes.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue() + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Could not write the Morphia entity index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Annotation processors run while compiling applications which use Morphia.
+ */
+package org.mongodb.morphia.processor;
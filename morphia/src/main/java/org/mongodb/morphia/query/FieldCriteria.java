@@ -8,13 +8,14 @@ import org.mongodb.morphia.logging.MorphiaLoggerFactory;
 import org.mongodb.morphia.mapping.MappedClass;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.query.QueryValidator.ValidatedPath;
 import org.mongodb.morphia.utils.ReflectionUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.mongodb.morphia.query.QueryValidator.validateQuery;
+import static org.mongodb.morphia.query.QueryValidator.validatePath;
 
 /**
  * Defines a Criteria against a field
@@ -34,16 +35,31 @@ class FieldCriteria extends AbstractCriteria {
     FieldCriteria(final QueryImpl<?> query, final String fieldName, final FilterOperator op, final Object value, final boolean not) {
         //validate might modify prop string to translate java field name to db field name
         final StringBuilder sb = new StringBuilder(fieldName);
-        final MappedField mf = validateQuery(query.getEntityClass(),
-                                             query.getDatastore().getMapper(),
-                                             sb,
-                                             op,
-                                             value,
-                                             query.isValidatingNames(),
-                                             query.isValidatingTypes());
+        final boolean parameter = value instanceof QueryParameter;
+        final ValidatedPath path = validatePath(query.getEntityClass(),
+                                                query.getDatastore().getMapper(),
+                                                sb,
+                                                op,
+                                                parameter ? null : value,
+                                                query.isValidatingNames(),
+                                                query.isValidatingTypes() && !parameter);
+        final MappedField mf = path.getMappedField();
 
         final Mapper mapper = query.getDatastore().getMapper();
 
+        this.field = sb.toString();
+        this.operator = op;
+        // parameters are converted when a value is bound to them
+        this.value = parameter ? new ParameterSlot((QueryParameter) value, mapper, path.getMappedClass(), mf, op,
+                                                   query.isValidatingTypes())
+                               : mapValue(mapper, mf, op, value);
+        this.not = not;
+    }
+
+    /**
+     * Converts a query value to its stored form
+     */
+    static Object mapValue(final Mapper mapper, final MappedField mf, final FilterOperator op, final Object value) {
         MappedClass mc = null;
         try {
             if (value != null && !ReflectionUtils.isPropertyType(value.getClass())
@@ -74,11 +90,7 @@ class FieldCriteria extends AbstractCriteria {
             && Iterable.class.isAssignableFrom(value.getClass())) {
             mappedValue = Collections.emptyList();
         }
-
-        this.field = sb.toString();
-        this.operator = op;
-        this.value = mappedValue;
-        this.not = not;
+        return mappedValue;
     }
 
     @Override
@@ -1,14 +1,18 @@
 package org.mongodb.morphia.query;
 
 
+import com.mongodb.Cursor;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import org.mongodb.morphia.Datastore;
 import org.mongodb.morphia.mapping.Mapper;
 import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.metrics.OperationTimer;
+import org.mongodb.morphia.metrics.OperationType;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -23,6 +27,7 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
     private final Class<T> clazz;
     private final String collection;
     private final EntityCache cache;
+    private final OperationTimer timer;
     private long driverTime;
     private long mapperTime;
     private Datastore datastore;
@@ -38,21 +43,40 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      */
     public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
                            final String collection, final EntityCache cache) {
+        this(datastore, it, mapper, clazz, collection, cache, OperationType.FIND);
+    }
+
+    /**
+     * Creates a MorphiaIterator
+     * @param datastore  the Datastore to use when fetching this reference
+     * @param it         the Iterator to use
+     * @param mapper     the Mapper to use
+     * @param clazz      the original type being iterated
+     * @param collection the mongodb collection
+     * @param cache      the EntityCache
+     * @param type       the operation to report to the {@link org.mongodb.morphia.metrics.MorphiaMetrics} once the iterator is
+     *                   exhausted or closed
+     */
+    public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
+                           final String collection, final EntityCache cache, final OperationType type) {
         wrapped = it;
         this.mapper = mapper;
         this.clazz = clazz;
         this.collection = collection;
         this.cache = cache;
         this.datastore = datastore;
+        timer = OperationTimer.start(mapper, type, collection, clazz);
+        timer.watch(cache);
     }
 
     /**
      * Closes the underlying cursor.
      */
     public void close() {
-        if (wrapped != null && wrapped instanceof DBCursor) {
-            ((DBCursor) wrapped).close();
+        if (wrapped instanceof Cursor) {
+            ((Cursor) wrapped).close();
         }
+        timer.finish();
     }
 
     /**
@@ -80,7 +104,15 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      * @return the time spent calling the driver in ms
      */
     public long getDriverTime() {
-        return driverTime;
+        return getDriverTime(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param unit the unit to use
+     * @return the time spent calling the driver
+     */
+    public long getDriverTime(final TimeUnit unit) {
+        return unit.convert(driverTime, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -94,17 +126,23 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      * @return the time spent calling the mapper in ms
      */
     public long getMapperTime() {
-        return mapperTime;
+        return getMapperTime(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param unit the unit to use
+     * @return the time spent calling the mapper
+     */
+    public long getMapperTime(final TimeUnit unit) {
+        return unit.convert(mapperTime, TimeUnit.NANOSECONDS);
     }
 
     @Override
     public boolean hasNext() {
-        if (wrapped == null) {
-            return false;
+        final boolean ret = hasNextDocument();
+        if (!ret) {
+            timer.finish();
         }
-        final long start = System.currentTimeMillis();
-        final boolean ret = wrapped.hasNext();
-        driverTime += System.currentTimeMillis() - start;
         return ret;
     }
 
@@ -119,9 +157,9 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
 
     @Override
     public void remove() {
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         wrapped.remove();
-        driverTime += System.currentTimeMillis() - start;
+        addDriverTime(System.nanoTime() - start);
     }
 
     @Override
@@ -131,24 +169,54 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
 
     @SuppressWarnings("unchecked")
     protected V convertItem(final DBObject dbObj) {
-        return (V) mapper.fromDBObject(datastore, clazz, dbObj, cache);
+        final V entity = (V) mapper.fromDBObject(datastore, clazz, dbObj, cache);
+        if (datastore != null && mapper.getOptions().isDirtyTracking()) {
+            mapper.snapshotLoaded(entity, dbObj, datastore.getDB().getName() + "." + collection);
+        }
+        return entity;
     }
 
     protected DBObject getNext() {
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         final DBObject dbObj = wrapped.next();
-        driverTime += System.currentTimeMillis() - start;
+        addDriverTime(System.nanoTime() - start);
+        timer.document(dbObj);
         return dbObj;
     }
 
+    /**
+     * Checks for another document without reporting the operation when there is none
+     *
+     * @return true if the underlying Iterator has another document
+     */
+    protected boolean hasNextDocument() {
+        if (wrapped == null) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        final boolean ret = wrapped.hasNext();
+        addDriverTime(System.nanoTime() - start);
+        return ret;
+    }
+
     private V processItem(final DBObject dbObj) {
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         final V item = convertItem(dbObj);
-        mapperTime += System.currentTimeMillis() - start;
+        addMapperTime(System.nanoTime() - start);
         return item;
     }
 
     Datastore getDatastore() {
         return datastore;
     }
+
+    void addMapperTime(final long nanos) {
+        mapperTime += nanos;
+        timer.addMapperTime(nanos);
+    }
+
+    private void addDriverTime(final long nanos) {
+        driverTime += nanos;
+        timer.addDriverTime(nanos);
+    }
 }
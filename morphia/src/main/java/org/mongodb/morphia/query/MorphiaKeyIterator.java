@@ -6,6 +6,8 @@ import org.mongodb.morphia.Datastore;
 import org.mongodb.morphia.Key;
 import org.mongodb.morphia.mapping.Mapper;
 
+import java.util.Iterator;
+
 /**
  * Defines an Iterator across the Key values for a given type.
  *
@@ -26,6 +28,19 @@ public class MorphiaKeyIterator<T> extends MorphiaIterator<T, Key<T>> {
         super(datastore, cursor, mapper, clazz, collection, null);
     }
 
+    /**
+     * Create
+     * @param datastore  the Datastore to use when fetching this reference
+     * @param documents  the documents to iterate
+     * @param mapper     the Mapper to use
+     * @param clazz      the original type being iterated
+     * @param collection the mongodb collection
+     */
+    public MorphiaKeyIterator(final Datastore datastore, final Iterator<DBObject> documents, final Mapper mapper,
+                              final Class<T> clazz, final String collection) {
+        super(datastore, documents, mapper, clazz, collection, null);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected Key<T> convertItem(final DBObject dbObj) {
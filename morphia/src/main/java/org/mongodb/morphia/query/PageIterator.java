@@ -0,0 +1,288 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+import org.mongodb.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.lang.String.format;
+
+/**
+ * Iterates over the results of a query a page at a time using keyset pagination.  Instead of skipping the documents of earlier pages, each
+ * page asks for the documents sorting after the last one returned, so that every page is a range scan of the index supporting the sort.
+ * The query's sort is extended with _id to make it unique.
+ * <p/>
+ * Sort fields are added to the fields retrieved so that their values can be read, and must not be null in any matching document.  Sorts on
+ * metadata such as {@link Meta#textScore()}, and on {@code $natural} order, can not be filtered on; those queries fall back to skipping
+ * the earlier pages.
+ * <p/>
+ * {@link #getContinuationToken()} returns a token for the position after the last page returned, which can be passed to
+ * {@link QueryResults#pages(int, String)} to resume iterating later, e.g. in a new request.  The token also carries the number of entities
+ * returned so far, so that a resumed iteration stops at the query's limit too.
+ * <p/>
+ * The token is plain JSON holding the sort values of the last entity returned, so it is readable by whoever holds it and can be edited.
+ * Tokens coming back from clients must be treated as untrusted input: a token only moves the position within the results of the query
+ * it is passed to, and values holding query operators are rejected, but it discloses the sort values and can point anywhere in those
+ * results.  Encrypt or sign it before handing it out if that matters.
+ *
+ * @param <T> the type being queried
+ */
+public class PageIterator<T> implements Iterable<List<T>>, Iterator<List<T>> {
+    private static final String SKIP = "skip";
+    private static final String VALUES = "values";
+    private static final String NATURAL = "$natural";
+
+    private final QueryImpl<T> query;
+    private final DBObject queryObject;
+    private final int pageSize;
+    private final List<String> keys = new ArrayList<String>();
+    private final List<Integer> directions = new ArrayList<Integer>();
+    private final boolean skipping;
+    private int remaining;
+
+    private List<Object> position;
+    private int skipped;
+    private boolean started;
+
+    private List<T> page;
+    private List<Object> pagePosition;
+    private boolean exhausted;
+
+    PageIterator(final QueryImpl<T> query, final int pageSize, final String continuationToken) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be greater than 0");
+        }
+        this.query = query.cloneQuery();
+        this.pageSize = pageSize;
+        queryObject = this.query.getQueryObject();
+        remaining = query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+
+        boolean meta = false;
+        final BasicDBObject sort = new BasicDBObject();
+        final DBObject original = query.getSortObject();
+        if (original != null) {
+            for (final String key : original.keySet()) {
+                final Object direction = original.get(key);
+                sort.put(key, direction);
+                if (direction instanceof Number && !NATURAL.equals(key)) {
+                    keys.add(key);
+                    directions.add(((Number) direction).intValue());
+                } else {
+                    meta = true;
+                }
+            }
+        }
+        if (!sort.containsField(Mapper.ID_KEY) && !sort.containsField(NATURAL)) {
+            sort.put(Mapper.ID_KEY, 1);
+            keys.add(Mapper.ID_KEY);
+            directions.add(1);
+        }
+        skipping = meta;
+        this.query.setSortObject(sort);
+        this.query.includeFields(keys);
+
+        if (continuationToken != null) {
+            parseToken(continuationToken);
+            // the entities returned before the token count against the query's limit
+            remaining = Math.max(0, remaining - skipped);
+        }
+    }
+
+    /**
+     * @return a token for the position after the last page returned by {@link #next()}, or null if no page has been returned yet
+     */
+    public String getContinuationToken() {
+        if (!started) {
+            return null;
+        }
+        final BasicDBObject token = new BasicDBObject(SKIP, skipped);
+        if (!skipping) {
+            token.put(VALUES, position);
+        }
+        return JSON.serialize(token);
+    }
+
+    /**
+     * @return the maximum number of entities per page
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page == null && !exhausted) {
+            fetch();
+        }
+        return page != null;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final List<T> next = page;
+        page = null;
+        started = true;
+        position = pagePosition;
+        skipped += next.size();
+        return next;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported on pages");
+    }
+
+    @Override
+    public Iterator<List<T>> iterator() {
+        return this;
+    }
+
+    private void fetch() {
+        final int size = Math.min(pageSize, remaining);
+        if (size <= 0) {
+            exhausted = true;
+            return;
+        }
+
+        final QueryImpl<T> pageQuery = query.cloneQuery();
+        pageQuery.limit(size);
+        if (skipping) {
+            pageQuery.offset(query.getOffset() + skipped);
+        } else if (position != null) {
+            pageQuery.offset(0);
+            pageQuery.setChildren(new ArrayList<Criteria>());
+            pageQuery.setQueryObject(seekQuery());
+        }
+
+        final List<DBObject> documents = new ArrayList<DBObject>(size);
+        final DBCursor cursor = pageQuery.prepareCursor();
+        try {
+            while (cursor.hasNext()) {
+                documents.add(cursor.next());
+            }
+        } finally {
+            cursor.close();
+        }
+
+        remaining -= documents.size();
+        if (documents.size() < size) {
+            exhausted = true;
+        }
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        if (!skipping) {
+            final DBObject last = documents.get(documents.size() - 1);
+            pagePosition = new ArrayList<Object>(keys.size());
+            for (final String key : keys) {
+                final Object value = valueAt(last, key);
+                if (value == null) {
+                    throw new QueryException(format("Keyset pagination needs values for all sort fields but '%s' is null in %s",
+                                                    key, last));
+                }
+                pagePosition.add(value);
+            }
+        }
+
+        page = new ArrayList<T>(documents.size());
+        final MorphiaIterator<T, T> entities = new MorphiaIterator<T, T>(query.getDatastore(), documents.iterator(),
+                                                                         query.getDatastore().getMapper(), query.getEntityClass(),
+                                                                         query.getCollection().getName(),
+                                                                         query.getDatastore().getMapper().createEntityCache());
+        for (final T entity : entities) {
+            page.add(entity);
+        }
+    }
+
+    /**
+     * Builds the query for the documents sorting after the current position:
+     * {@code (k1 > v1) or (k1 = v1 and k2 > v2) or ...}, using less than for descending keys.
+     */
+    private BasicDBObject seekQuery() {
+        final BasicDBList or = new BasicDBList();
+        for (int i = 0; i < keys.size(); i++) {
+            final BasicDBObject clause = new BasicDBObject();
+            for (int j = 0; j < i; j++) {
+                clause.put(keys.get(j), position.get(j));
+            }
+            clause.put(keys.get(i), new BasicDBObject(directions.get(i) < 0 ? "$lt" : "$gt", position.get(i)));
+            or.add(clause);
+        }
+        final DBObject seek = or.size() == 1 ? (DBObject) or.get(0) : new BasicDBObject("$or", or);
+
+        final BasicDBObject seekQuery = new BasicDBObject();
+        if (queryObject.keySet().isEmpty()) {
+            seekQuery.putAll(seek);
+        } else {
+            final BasicDBList and = new BasicDBList();
+            and.add(queryObject);
+            and.add(seek);
+            seekQuery.put("$and", and);
+        }
+        return seekQuery;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseToken(final String continuationToken) {
+        final Object parsed;
+        try {
+            parsed = JSON.parse(continuationToken);
+        } catch (RuntimeException e) {
+            throw new QueryException(format("'%s' is not a valid continuation token", continuationToken), e);
+        }
+        if (!(parsed instanceof DBObject)) {
+            throw new QueryException(format("'%s' is not a valid continuation token", continuationToken));
+        }
+        final DBObject token = (DBObject) parsed;
+        started = true;
+        if (!(token.get(SKIP) instanceof Number)) {
+            throw new QueryException(format("'%s' is not a valid continuation token", continuationToken));
+        }
+        skipped = ((Number) token.get(SKIP)).intValue();
+        if (skipping ? token.containsField(VALUES)
+                     : !(token.get(VALUES) instanceof List) || ((List) token.get(VALUES)).size() != keys.size()) {
+            throw new QueryException(format("The continuation token '%s' does not match the sort of this query", continuationToken));
+        }
+        if (!skipping) {
+            position = new ArrayList<Object>((List<Object>) token.get(VALUES));
+            for (final Object value : position) {
+                if (value instanceof DBObject && hasOperators((DBObject) value)) {
+                    throw new QueryException(format("'%s' is not a valid continuation token", continuationToken));
+                }
+            }
+        }
+    }
+
+    private static boolean hasOperators(final DBObject value) {
+        for (final String key : value.keySet()) {
+            final Object nested = value.get(key);
+            if (key.startsWith("$") || (nested instanceof DBObject && hasOperators((DBObject) nested))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object valueAt(final DBObject document, final String path) {
+        Object value = document;
+        for (final String part : path.split("\\.")) {
+            if (!(value instanceof DBObject)) {
+                return null;
+            }
+            value = ((DBObject) value).get(part);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.DBObject;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.MappingException;
+import org.mongodb.morphia.mapping.cache.EntityCache;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A MorphiaIterator which reads ahead of the caller and maps the documents it read on an Executor.  Up to {@code window} documents are
+ * read and mapped concurrently; while the caller waits on the driver for the next batch, the previous one is being mapped.  Reading ahead
+ * stops as soon as the next entity to return has been mapped.  Results are returned in cursor order.  Tailable queries are never read
+ * ahead.  A document whose mapping has not started by the time the caller asks for it is mapped on the calling thread,
+ * so a busy or saturated Executor slows iteration down but never stalls it.
+ *
+ * @param <T> the original type being iterated
+ * @param <V> the type of the values returned
+ * @see org.mongodb.morphia.mapping.MapperOptions#setDecodeExecutor(Executor)
+ */
+public class ParallelMorphiaIterator<T, V> extends MorphiaIterator<T, V> {
+    private final Executor executor;
+    private final int window;
+    private final LinkedList<FutureTask<V>> pending = new LinkedList<FutureTask<V>>();
+    private boolean closed;
+
+    /**
+     * Creates a ParallelMorphiaIterator
+     *
+     * @param datastore  the Datastore to use when fetching this reference
+     * @param it         the Iterator to use
+     * @param mapper     the Mapper to use
+     * @param clazz      the original type being iterated
+     * @param collection the mongodb collection
+     * @param cache      the EntityCache.  It is used by several threads at once and must be thread safe.
+     * @param executor   the Executor to map documents on
+     * @param window     the maximum number of documents to read ahead of the caller
+     */
+    public ParallelMorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
+                                   final String collection, final EntityCache cache, final Executor executor, final int window) {
+        super(datastore, it, mapper, clazz, collection, cache);
+        this.executor = executor;
+        this.window = window;
+    }
+
+    /**
+     * Closes the underlying cursor and cancels the mapping of documents which were read but not returned yet.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (final FutureTask<V> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        super.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty() || !closed && super.hasNext();
+    }
+
+    @Override
+    public V next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        readAhead();
+        final FutureTask<V> head = pending.removeFirst();
+        final long start = System.nanoTime();
+        try {
+            // a no-op if a worker has already started it
+            head.run();
+            return head.get();
+        } catch (ExecutionException e) {
+            close();
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MappingException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while waiting for an entity to be mapped", e);
+        } finally {
+            addMapperTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Not supported as the underlying cursor is positioned ahead of the returned entities.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported when reading ahead");
+    }
+
+    /**
+     * Reads documents until the window is full or the first pending document has been mapped, so that the caller gets what is available
+     * rather than waiting on the driver for a full window
+     */
+    private void readAhead() {
+        while (!closed && pending.size() < window && (pending.isEmpty() || !pending.getFirst().isDone()) && hasNextDocument()) {
+            final DBObject dbObj = getNext();
+            final FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+                @Override
+                public V call() {
+                    return convertItem(dbObj);
+                }
+            });
+            pending.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // next() maps it on the calling thread
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.ParallelScanOptions;
+import org.mongodb.morphia.logging.Logger;
+import org.mongodb.morphia.logging.MorphiaLoggerFactory;
+import org.mongodb.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Splits a query into disjoint segments for {@link QueryResults#parallelScan(int)}.  A query reading every document of a collection whole
+ * is split by the server's parallelCollectionScan command where it returns a cursor for every segment.  Any other query, or one against a
+ * server without the command or returning fewer cursors, as WiredTiger does, is split into ranges of _id: the collection's _id index is
+ * sampled for boundaries which divide the collection into segments of about the same number of documents, and each segment runs the query
+ * restricted to its range.
+ */
+final class ParallelScan {
+    private static final Logger LOG = MorphiaLoggerFactory.get(ParallelScan.class);
+
+    private ParallelScan() {
+    }
+
+    static <T> List<MorphiaIterator<T, T>> split(final QueryImpl<T> query, final int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("The number of segments must be at least 1");
+        }
+        if (query.getOffset() > 0 || query.getLimit() > 0 || query.isTailable()) {
+            throw new QueryException("Queries with an offset, a limit or a tailable cursor can not be split into segments");
+        }
+        if (segments > 1 && query.isCollectionScan()) {
+            final List<Cursor> cursors = collectionScan(query, segments);
+            if (cursors != null) {
+                final List<MorphiaIterator<T, T>> iterators = new ArrayList<MorphiaIterator<T, T>>(cursors.size());
+                for (final Cursor cursor : cursors) {
+                    iterators.add(segment(query, cursor));
+                }
+                return iterators;
+            }
+        }
+        return rangeScan(query, segments);
+    }
+
+    /**
+     * Samples the _id index for the lower bounds of every segment after the first.  Each sample walks the index from the previous
+     * boundary only, so sampling reads the index once in all.  Range queries only match _id values of the same type as the bound, so a
+     * collection whose first and last _id differ in type is not split.
+     *
+     * @return the boundaries in ascending order, fewer than segments - 1 if the collection is small, or none
+     */
+    static List<Object> boundaries(final DBCollection collection, final int segments) {
+        final List<Object> boundaries = new ArrayList<Object>();
+        final long step = segments < 2 ? 0 : collection.getCount() / segments;
+        if (step == 0) {
+            return boundaries;
+        }
+        final Object first = edge(collection, 1);
+        final Object last = edge(collection, -1);
+        if (first == null || last == null || !sameType(first, last)) {
+            LOG.warning(format("The _id values of %s are of different types, so it is scanned as a single segment", collection.getName()));
+            return boundaries;
+        }
+        Object previous = first;
+        while (boundaries.size() < segments - 1) {
+            final DBCursor cursor = collection.find(new BasicDBObject(Mapper.ID_KEY, new BasicDBObject("$gte", previous)),
+                                                    new BasicDBObject(Mapper.ID_KEY, 1))
+                                              .sort(new BasicDBObject(Mapper.ID_KEY, 1))
+                                              .skip((int) Math.min(step, Integer.MAX_VALUE))
+                                              .limit(1);
+            try {
+                if (!cursor.hasNext()) {
+                    break;
+                }
+                previous = cursor.next().get(Mapper.ID_KEY);
+            } finally {
+                cursor.close();
+            }
+            boundaries.add(previous);
+        }
+        return boundaries;
+    }
+
+    /**
+     * Restricts a query to the _id range of a segment
+     *
+     * @param query      the query object
+     * @param boundaries the boundaries of the segments
+     * @param segment    the index of the segment
+     * @return the query object of the segment
+     */
+    static DBObject rangeQuery(final DBObject query, final List<Object> boundaries, final int segment) {
+        final BasicDBObject range = new BasicDBObject();
+        if (segment > 0) {
+            range.put("$gte", boundaries.get(segment - 1));
+        }
+        if (segment < boundaries.size()) {
+            range.put("$lt", boundaries.get(segment));
+        }
+        if (range.isEmpty()) {
+            return query;
+        }
+        final BasicDBObject idRange = new BasicDBObject(Mapper.ID_KEY, range);
+        if (query.keySet().isEmpty()) {
+            return idRange;
+        }
+        final BasicDBList and = new BasicDBList();
+        and.add(query);
+        and.add(idRange);
+        return new BasicDBObject("$and", and);
+    }
+
+    private static <T> List<MorphiaIterator<T, T>> rangeScan(final QueryImpl<T> query, final int segments) {
+        final List<Object> boundaries = boundaries(query.getCollection(), segments);
+        final DBObject queryObject = query.getQueryObject();
+        final List<MorphiaIterator<T, T>> iterators = new ArrayList<MorphiaIterator<T, T>>(boundaries.size() + 1);
+        for (int i = 0; i <= boundaries.size(); i++) {
+            final QueryImpl<T> segmentQuery = query.cloneQuery();
+            segmentQuery.setChildren(new ArrayList<Criteria>());
+            segmentQuery.setQueryObject(rangeQuery(queryObject, boundaries, i));
+            iterators.add(segment(query, segmentQuery.prepareCursor()));
+        }
+        return iterators;
+    }
+
+    /**
+     * @return the cursors of a parallelCollectionScan, or null if the server does not support it or returns fewer cursors than segments
+     */
+    private static List<Cursor> collectionScan(final QueryImpl<?> query, final int segments) {
+        final ParallelScanOptions.Builder options = ParallelScanOptions.builder().numCursors(segments);
+        if (query.getBatchSize() > 0) {
+            options.batchSize(query.getBatchSize());
+        }
+        if (query.getReadPreference() != null) {
+            options.readPreference(query.getReadPreference());
+        }
+        final List<Cursor> cursors;
+        try {
+            cursors = query.getCollection().parallelScan(options.build());
+        } catch (MongoException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(format("parallelCollectionScan failed on %s, splitting it by _id instead: %s", query.getCollection().getName(),
+                                 e.getMessage()));
+            }
+            return null;
+        }
+        if (cursors.size() < segments) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(format("parallelCollectionScan returned %d of %d cursors on %s, splitting it by _id instead", cursors.size(),
+                                 segments, query.getCollection().getName()));
+            }
+            for (final Cursor cursor : cursors) {
+                cursor.close();
+            }
+            return null;
+        }
+        return cursors;
+    }
+
+    private static <T> MorphiaIterator<T, T> segment(final QueryImpl<T> query, final Iterator<DBObject> cursor) {
+        final Mapper mapper = query.getDatastore().getMapper();
+        return new MorphiaIterator<T, T>(query.getDatastore(), cursor, mapper, query.getEntityClass(), query.getCollection().getName(),
+                                         mapper.createEntityCache());
+    }
+
+    private static Object edge(final DBCollection collection, final int direction) {
+        final DBCursor cursor = collection.find(new BasicDBObject(), new BasicDBObject(Mapper.ID_KEY, 1))
+                                          .sort(new BasicDBObject(Mapper.ID_KEY, direction))
+                                          .limit(1);
+        try {
+            return cursor.hasNext() ? cursor.next().get(Mapper.ID_KEY) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static boolean sameType(final Object first, final Object last) {
+        // all numbers compare with one another
+        return first.getClass().equals(last.getClass()) || first instanceof Number && last instanceof Number;
+    }
+}
@@ -0,0 +1,186 @@
+package org.mongodb.morphia.query;
+
+
+import org.mongodb.morphia.mapping.MappingException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the segments of a {@link QueryResults#parallelScan(int, Executor) parallel scan}.  Every segment is read and mapped by a task of
+ * its own on an Executor, which hands the entities over through a bounded queue; the caller receives them in no particular order.  The
+ * Executor must run the tasks on threads other than the caller's, ideally one per segment: a segment waiting for a thread is read once
+ * another one has finished.
+ * <p/>
+ * A failure in any segment closes the others and is thrown from {@link #hasNext()} or {@link #next()}.  The iterator must be closed if it
+ * is not read to the end, so that the tasks stop and close their cursors.
+ *
+ * @param <T> the type being iterated
+ */
+public class ParallelScanIterator<T> implements Iterable<T>, Iterator<T> {
+    private static final Object END = new Object();
+    private static final long OFFER_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private volatile boolean closed;
+    private int running;
+    private Object next;
+
+    /**
+     * Starts reading the segments
+     *
+     * @param segments the segments to read, each of which is iterated and closed by its own task
+     * @param executor the Executor to run the tasks on
+     * @param capacity the maximum number of entities mapped ahead of the caller
+     */
+    public ParallelScanIterator(final List<MorphiaIterator<T, T>> segments, final Executor executor, final int capacity) {
+        queue = new ArrayBlockingQueue<Object>(capacity);
+        for (int i = 0; i < segments.size(); i++) {
+            final MorphiaIterator<T, T> segment = segments.get(i);
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        scan(segment);
+                    }
+                });
+                running++;
+            } catch (RejectedExecutionException e) {
+                close();
+                for (final MorphiaIterator<T, T> notStarted : segments.subList(i, segments.size())) {
+                    notStarted.close();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops reading.  The tasks close their cursors once they notice.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && running > 0 && !closed) {
+            final Object item = take();
+            if (item == END) {
+                running--;
+            } else if (item instanceof Failure) {
+                close();
+                final Throwable cause = ((Failure) item).cause;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new MappingException(cause.getMessage(), cause);
+            } else {
+                next = item;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T entity = (T) next;
+        next = null;
+        return entity;
+    }
+
+    /**
+     * Not supported as the entities come from several cursors.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported on a parallel scan");
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while waiting for a segment of a parallel scan", e);
+        }
+    }
+
+    private void scan(final MorphiaIterator<T, T> segment) {
+        Object last = END;
+        boolean interrupted = false;
+        try {
+            while (!closed && segment.hasNext()) {
+                put(segment.next());
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            last = new Failure(new MappingException("Interrupted while reading a segment of a parallel scan", e));
+        } catch (RuntimeException e) {
+            last = new Failure(e);
+        } catch (Error e) {
+            last = new Failure(e);
+        } finally {
+            segment.close();
+            interrupted |= finish(last);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for room in the queue, giving up once the iterator is closed
+     */
+    private void put(final Object item) throws InterruptedException {
+        boolean offered = false;
+        while (!offered && !closed) {
+            offered = queue.offer(item, OFFER_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Hands over the end of a segment even if interrupted, as the caller waits for every segment to end
+     *
+     * @return true if the thread was interrupted meanwhile
+     */
+    private boolean finish(final Object last) {
+        boolean interrupted = false;
+        boolean offered = false;
+        while (!offered && !closed) {
+            try {
+                offered = queue.offer(last, OFFER_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        return interrupted;
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(final Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
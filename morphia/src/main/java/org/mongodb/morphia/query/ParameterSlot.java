@@ -0,0 +1,46 @@
+package org.mongodb.morphia.query;
+
+
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+
+/**
+ * Stands in for the value of a {@link QueryParameter} in the query document of a {@link PreparedQuery}.  It keeps what was resolved
+ * about the field when the query was built so that bound values only need converting.
+ */
+final class ParameterSlot {
+    private final QueryParameter parameter;
+    private final Mapper mapper;
+    private final MappedClass mappedClass;
+    private final MappedField mappedField;
+    private final FilterOperator operator;
+    private final boolean validatingTypes;
+
+    ParameterSlot(final QueryParameter parameter, final Mapper mapper, final MappedClass mappedClass, final MappedField mappedField,
+                  final FilterOperator operator, final boolean validatingTypes) {
+        this.parameter = parameter;
+        this.mapper = mapper;
+        this.mappedClass = mappedClass;
+        this.mappedField = mappedField;
+        this.operator = operator;
+        this.validatingTypes = validatingTypes;
+    }
+
+    String getName() {
+        return parameter.getName();
+    }
+
+    Object resolve(final Object value) {
+        // the check skipped when the query was built, as the value was not known then
+        if (validatingTypes && mappedField != null) {
+            QueryValidator.validateType(mappedClass, mappedField, operator, value);
+        }
+        return FieldCriteria.mapValue(mapper, mappedField, operator, value);
+    }
+
+    @Override
+    public String toString() {
+        return parameter.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * A query whose filters were validated and translated to stored field names once, to be run many times with different values.  Build
+ * the query as usual, using {@link #param(String)} in place of the values which change, and bind those each time the query is run:
+ * <pre>
+ * PreparedQuery&lt;Hotel&gt; byCity = new PreparedQuery&lt;Hotel&gt;(ds.createQuery(Hotel.class)
+ *                                                                 .filter("address.city", PreparedQuery.param("city"))
+ *                                                                 .order("-stars"));
+ * List&lt;Hotel&gt; hotels = byCity.bind("city", "Berlin").asList();
+ * </pre>
+ * Binding deeply copies the prepared query document, checking and converting each bound value as the original filter would have, without
+ * resolving any paths again.  Parameters are supported as the values of {@link Query#filter(String, Object)} and of the {@link FieldEnd}
+ * methods which take a single value, such as {@code equal}, {@code greaterThan} or {@code hasThisOne}.  A PreparedQuery is thread safe.
+ *
+ * @param <T> the type being queried
+ */
+public class PreparedQuery<T> {
+    private final QueryImpl<T> template;
+    private final DBObject queryObject;
+    private final Set<String> parameterNames;
+
+    /**
+     * Prepares a query.  Later changes to the query are not seen by this PreparedQuery.
+     *
+     * @param query the query, as created by a Datastore
+     */
+    public PreparedQuery(final Query<T> query) {
+        if (!(query instanceof QueryImpl)) {
+            throw new IllegalArgumentException("Only queries created by a Datastore can be prepared");
+        }
+        template = ((QueryImpl<T>) query).cloneQuery();
+        queryObject = template.getQueryObject();
+        final Set<String> names = new LinkedHashSet<String>();
+        collectParameters(queryObject, names);
+        parameterNames = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Creates a placeholder for a value to be bound later
+     *
+     * @param name the name of the parameter
+     * @return the placeholder
+     */
+    public static QueryParameter param(final String name) {
+        return new QueryParameter(name);
+    }
+
+    /**
+     * Creates a query binding the only parameter of this prepared query
+     *
+     * @param name  the name of the parameter
+     * @param value the value
+     * @return the query, which can be refined further before it is run
+     */
+    public Query<T> bind(final String name, final Object value) {
+        return bind(Collections.singletonMap(name, value));
+    }
+
+    /**
+     * Creates a query binding the parameters of this prepared query
+     *
+     * @param values the values by parameter name.  Every parameter must have a value, which may be null.
+     * @return the query, which can be refined further before it is run
+     */
+    public Query<T> bind(final Map<String, ?> values) {
+        for (final String name : parameterNames) {
+            if (!values.containsKey(name)) {
+                throw new QueryException(format("No value was bound to the parameter '%s'", name));
+            }
+        }
+        final QueryImpl<T> query = template.cloneQuery();
+        query.setChildren(new ArrayList<Criteria>());
+        query.setQueryObject((DBObject) bind(queryObject, values));
+        return query;
+    }
+
+    /**
+     * @return the names of the parameters of this query
+     */
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    public String toString() {
+        return bind(queryObject, null).toString();
+    }
+
+    /**
+     * Deeply copies the document, replacing the parameters with their values, or with their names if no values are given.  Nothing is
+     * shared with the prepared document, as the bound query may go on to change its own.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object bind(final Object object, final Map<String, ?> values) {
+        if (object instanceof ParameterSlot) {
+            final ParameterSlot slot = (ParameterSlot) object;
+            return values == null ? slot.toString() : slot.resolve(values.get(slot.getName()));
+        } else if (object instanceof List) {
+            final List<Object> list = (List<Object>) object;
+            final List<Object> copy = object instanceof BasicDBList ? new BasicDBList() : new ArrayList<Object>(list.size());
+            for (final Object value : list) {
+                copy.add(bind(value, values));
+            }
+            return copy;
+        } else if (object instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) object;
+            final Map<String, Object> copy = object instanceof DBObject ? new BasicDBObject() : new LinkedHashMap<String, Object>();
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), bind(entry.getValue(), values));
+            }
+            return copy;
+        }
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectParameters(final Object object, final Set<String> names) {
+        if (object instanceof ParameterSlot) {
+            names.add(((ParameterSlot) object).getName());
+        } else if (object instanceof List) {
+            for (final Object value : (List<Object>) object) {
+                collectParameters(value, names);
+            }
+        } else if (object instanceof Map) {
+            for (final Object value : ((Map<String, Object>) object).values()) {
+                collectParameters(value, names);
+            }
+        }
+    }
+}
@@ -31,6 +31,18 @@ public interface Query<T> extends QueryResults<T>, Cloneable {
      */
     Query<T> batchSize(int value);
 
+    /**
+     * Caches the results of this query in the Datastore's {@link QueryResultCache} for up to the given time.  Identical queries run
+     * within that time are answered from the cache, until the Datastore writes to the collection.  Writes by other clients are not seen
+     * until the results expire.  The results of a cached query are read completely when it is first run.
+     *
+     * @param duration how long the results may be reused.  A value <= 0 disables caching.
+     * @param unit     the unit of the duration
+     * @return this
+     * @see org.mongodb.morphia.DatastoreImpl#getQueryResultCache()
+     */
+    Query<T> cacheFor(long duration, TimeUnit unit);
+
     /**
      * Creates and returns a copy of this {@link Query}.
      *
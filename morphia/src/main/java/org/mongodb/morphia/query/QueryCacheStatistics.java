@@ -0,0 +1,125 @@
+package org.mongodb.morphia.query;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class stores various statistics on a {@link QueryResultCache}.  The counters may be updated from several threads.
+ */
+public class QueryCacheStatistics {
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger results = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+    private final AtomicInteger invalidations = new AtomicInteger();
+
+    /**
+     * Copies the statistics
+     *
+     * @return the copy
+     */
+    public QueryCacheStatistics copy() {
+        final QueryCacheStatistics copy = new QueryCacheStatistics();
+        copy.hits.set(hits.get());
+        copy.misses.set(misses.get());
+        copy.results.set(results.get());
+        copy.evictions.set(evictions.get());
+        copy.invalidations.set(invalidations.get());
+        return copy;
+    }
+
+    /**
+     * @return the number of lookups which found a result
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which found nothing and went to the database
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the fraction of lookups which found a result, or 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        final int lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+
+    /**
+     * @return the number of results added to the cache
+     */
+    public int getResults() {
+        return results.get();
+    }
+
+    /**
+     * @return the number of results removed to keep the cache within its bounds
+     */
+    public int getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of times the results of a collection were dropped because it was written to
+     */
+    public int getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Increments the hit count
+     */
+    public void incHits() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Increments the miss count
+     */
+    public void incMisses() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Increments the result count
+     */
+    public void incResults() {
+        results.incrementAndGet();
+    }
+
+    /**
+     * Increments the eviction count
+     */
+    public void incEvictions() {
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * Increments the invalidation count
+     */
+    public void incInvalidations() {
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Clears the statistics
+     */
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        results.set(0);
+        evictions.set(0);
+        invalidations.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + hits + " hits, " + misses + " misses, " + results + " results, " + evictions
+               + " evictions, " + invalidations + " invalidations.";
+    }
+}
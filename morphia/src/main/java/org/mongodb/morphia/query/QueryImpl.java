@@ -18,12 +18,16 @@ import org.mongodb.morphia.logging.MorphiaLoggerFactory;
 import org.mongodb.morphia.mapping.MappedClass;
 import org.mongodb.morphia.mapping.MappedField;
 import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.MapperOptions;
+import org.mongodb.morphia.mapping.cache.ConcurrentEntityCache;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
 import org.mongodb.morphia.mapping.cache.EntityCache;
+import org.mongodb.morphia.query.QueryResultCache.ResultKey;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -65,6 +69,7 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
     private TimeUnit maxTimeUnit;
     private String comment;
     private boolean returnKey;
+    private long cacheMillis;
 
     /**
      * Creates a Query for the given type and collection
@@ -149,8 +154,9 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         }
 
         if (LOG.isTraceEnabled()) {
-            LOG.trace(format("asList: %s \t %d entities, iterator time: driver %d ms, mapper %d ms %n\t cache: %s %n\t for %s",
-                             dbColl.getName(), results.size(), iter.getDriverTime(), iter.getMapperTime(), cache.stats(),
+            LOG.trace(format("asList: %s \t %d entities, iterator time: driver %d us, mapper %d us %n\t cache: %s %n\t for %s",
+                             dbColl.getName(), results.size(), iter.getDriverTime(TimeUnit.MICROSECONDS),
+                             iter.getMapperTime(TimeUnit.MICROSECONDS), cache.stats(),
                              getQueryObject()));
         }
 
@@ -168,11 +174,23 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public MorphiaIterator<T, T> fetch() {
+        if (isCached()) {
+            return new MorphiaIterator<T, T>(ds, cachedDocuments().iterator(), ds.getMapper(), clazz, dbColl.getName(), cache);
+        }
+
         final DBCursor cursor = prepareCursor();
         if (LOG.isTraceEnabled()) {
             LOG.trace("Getting cursor(" + dbColl.getName() + ")  for query:" + cursor.getQuery());
         }
 
+        final MapperOptions options = ds.getMapper().getOptions();
+        final Executor executor = options.getDecodeExecutor();
+        // a tailable cursor waits for documents to be inserted, so it must not be read ahead of the caller
+        if (executor != null && !tail && (limit <= 0 || limit >= options.getParallelDecodeThreshold())) {
+            final EntityCache threadSafeCache = cache instanceof DefaultEntityCache ? new ConcurrentEntityCache() : cache;
+            return new ParallelMorphiaIterator<T, T>(ds, cursor, ds.getMapper(), clazz, dbColl.getName(), threadSafeCache, executor,
+                                                     options.getParallelDecodeWindow());
+        }
         return new MorphiaIterator<T, T>(ds, cursor, ds.getMapper(), clazz, dbColl.getName(), cache);
     }
 
@@ -184,12 +202,35 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return cloned.fetch();
     }
 
+    @Override
+    public PageIterator<T> pages(final int pageSize) {
+        return new PageIterator<T>(this, pageSize, null);
+    }
+
+    @Override
+    public PageIterator<T> pages(final int pageSize, final String continuationToken) {
+        return new PageIterator<T>(this, pageSize, continuationToken);
+    }
+
+    @Override
+    public List<MorphiaIterator<T, T>> parallelScan(final int segments) {
+        return ParallelScan.split(this, segments);
+    }
+
+    @Override
+    public ParallelScanIterator<T> parallelScan(final int segments, final Executor executor) {
+        return new ParallelScanIterator<T>(parallelScan(segments), executor, ds.getMapper().getOptions().getParallelDecodeWindow());
+    }
+
     @Override
     public MorphiaKeyIterator<T> fetchKeys() {
         QueryImpl<T> cloned = cloneQuery();
         cloned.projections = new BasicDBObject(Mapper.ID_KEY, 1);
         cloned.includeFields = true;
 
+        if (cloned.isCached()) {
+            return new MorphiaKeyIterator<T>(ds, cloned.cachedDocuments().iterator(), ds.getMapper(), clazz, dbColl.getName());
+        }
         return new MorphiaKeyIterator<T>(ds, cloned.prepareCursor(), ds.getMapper(), clazz, dbColl.getName());
     }
 
@@ -197,18 +238,26 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
     public T get() {
         final int oldLimit = limit;
         limit = 1;
-        final Iterator<T> it = fetch().iterator();
+        final MorphiaIterator<T, T> it = fetch();
         limit = oldLimit;
-        return (it.hasNext()) ? it.next() : null;
+        try {
+            return (it.hasNext()) ? it.next() : null;
+        } finally {
+            it.close();
+        }
     }
 
     @Override
     public Key<T> getKey() {
         final int oldLimit = limit;
         limit = 1;
-        final Iterator<Key<T>> it = fetchKeys().iterator();
+        final MorphiaKeyIterator<T> it = fetchKeys();
         limit = oldLimit;
-        return (it.hasNext()) ? it.next() : null;
+        try {
+            return (it.hasNext()) ? it.next() : null;
+        } finally {
+            it.close();
+        }
     }
 
     @Override
@@ -257,6 +306,7 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         n.setChildren(getChildren() == null ? null : new ArrayList<Criteria>(getChildren()));
         n.tail = tail;
         n.tailAwaitData = tailAwaitData;
+        n.cacheMillis = cacheMillis;
         return n;
     }
 
@@ -264,6 +314,12 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return dbObject == null ? null : new BasicDBObject(dbObject.toMap());
     }
 
+    @Override
+    public Query<T> cacheFor(final long duration, final TimeUnit unit) {
+        cacheMillis = unit.toMillis(duration);
+        return this;
+    }
+
     @Override
     public Query<T> comment(final String comment) {
         this.comment = comment;
@@ -405,6 +461,26 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return (sort == null) ? null : new BasicDBObject(sort);
     }
 
+    void setSortObject(final BasicDBObject sort) {
+        this.sort = sort;
+    }
+
+    /**
+     * Makes sure the given fields are part of the results if only some fields are retrieved
+     */
+    void includeFields(final List<String> fields) {
+        if (projections == null || projections.isEmpty()) {
+            return;
+        }
+        for (final String field : fields) {
+            if (includeFields) {
+                projections.put(field, 1);
+            } else {
+                projections.removeField(field);
+            }
+        }
+    }
+
     @Override
     public Query<T> hintIndex(final String idxName) {
         indexHint = idxName;
@@ -639,6 +715,50 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return fetch();
     }
 
+    ReadPreference getReadPreference() {
+        return readPref;
+    }
+
+    boolean isTailable() {
+        return tail;
+    }
+
+    /**
+     * @return true if the query reads every document of the collection whole, without any cursor options
+     */
+    boolean isCollectionScan() {
+        return getQueryObject().keySet().isEmpty() && projections == null && sort == null && offset == 0 && limit <= 0 && !tail
+               && !snapshotted && indexHint == null && max == null && min == null && maxScan == null && maxTime == null && comment == null
+               && !returnKey && !noTimeout;
+    }
+
+    private boolean isCached() {
+        return cacheMillis > 0 && !tail;
+    }
+
+    /**
+     * Reads the results from the Datastore's {@link QueryResultCache}, or from the server and into the cache if they are not cached.
+     */
+    private List<DBObject> cachedDocuments() {
+        final QueryResultCache results = ds.getQueryResultCache();
+        final ResultKey key = new ResultKey(dbColl.getName(), getQueryObject(), getFieldsObject(), getSortObject(), offset, limit);
+        List<DBObject> documents = results.get(key);
+        if (documents == null) {
+            final long generation = results.generation(dbColl.getName());
+            documents = new ArrayList<DBObject>();
+            final DBCursor cursor = prepareCursor();
+            try {
+                while (cursor.hasNext()) {
+                    documents.add(cursor.next());
+                }
+            } finally {
+                cursor.close();
+            }
+            results.put(key, documents, cacheMillis, generation);
+        }
+        return documents;
+    }
+
     /**
      * Prepares cursor for iteration
      *
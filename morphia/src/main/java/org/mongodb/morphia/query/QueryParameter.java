@@ -0,0 +1,41 @@
+package org.mongodb.morphia.query;
+
+
+/**
+ * A named placeholder for a filter value of a query which is to be prepared.  The value is supplied each time the query is bound.
+ *
+ * @see PreparedQuery
+ * @see PreparedQuery#param(String)
+ */
+public final class QueryParameter {
+    private final String name;
+
+    QueryParameter(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("A query parameter needs a name");
+        }
+        this.name = name;
+    }
+
+    /**
+     * @return the name of this parameter
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof QueryParameter && name.equals(((QueryParameter) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+}
@@ -0,0 +1,251 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bounded, least recently used store behind {@link Query#cacheFor(long, java.util.concurrent.TimeUnit)}.  Results are stored as the
+ * raw documents returned by the server, keyed by collection, query, projection, sort, offset and limit, and are copied and mapped to new
+ * entities on every hit, so that lifecycle methods and interceptors may change the documents they are given.  Each Datastore holds its
+ * own cache and drops the results of a collection whenever it writes to that collection.  Writes from other clients are only seen once the
+ * results expire.
+ * <p/>
+ * The cache holds at most a fixed number of documents over all results; the least recently used results are evicted first, and results
+ * larger than the whole cache are not stored.  Access to the stored results is synchronized on the cache.
+ */
+public class QueryResultCache {
+    private final int maxDocuments;
+    private final LinkedHashMap<ResultKey, Entry> entries = new LinkedHashMap<ResultKey, Entry>(16, 0.75f, true);
+    private final Map<String, Set<ResultKey>> keysByCollection = new HashMap<String, Set<ResultKey>>();
+    private final Map<String, Long> generations = new HashMap<String, Long>();
+    private final QueryCacheStatistics stats = new QueryCacheStatistics();
+    private int documents;
+
+    /**
+     * Creates a cache
+     *
+     * @param maxDocuments the maximum number of documents to hold over all results
+     */
+    public QueryResultCache(final int maxDocuments) {
+        if (maxDocuments <= 0) {
+            throw new IllegalArgumentException("maxDocuments must be greater than zero");
+        }
+        this.maxDocuments = maxDocuments;
+    }
+
+    /**
+     * Removes the results of every query against a collection.  Results being read from the collection while this is called are not
+     * stored either.
+     *
+     * @param collection the name of the collection
+     */
+    public synchronized void invalidate(final String collection) {
+        final Long generation = generations.get(collection);
+        generations.put(collection, generation == null ? 1 : generation + 1);
+        final Set<ResultKey> keys = keysByCollection.remove(collection);
+        if (keys != null) {
+            for (final ResultKey key : keys) {
+                documents -= entries.remove(key).documents.size();
+            }
+            stats.incInvalidations();
+        }
+    }
+
+    /**
+     * Removes everything from the cache
+     */
+    public synchronized void clear() {
+        for (final String collection : new ArrayList<String>(keysByCollection.keySet())) {
+            invalidate(collection);
+        }
+    }
+
+    /**
+     * @return the maximum number of documents to hold over all results
+     */
+    public int getMaxDocuments() {
+        return maxDocuments;
+    }
+
+    /**
+     * @return the number of documents held, including those of results which have expired but not been removed yet
+     */
+    public synchronized int size() {
+        return documents;
+    }
+
+    /**
+     * @return the hits, misses and removals of this cache
+     */
+    public synchronized QueryCacheStatistics stats() {
+        return stats.copy();
+    }
+
+    /**
+     * @return a copy of the cached results, or null if there are none
+     */
+    List<DBObject> get(final ResultKey key) {
+        final List<DBObject> documents = lookup(key);
+        return documents == null ? null : copy(documents);
+    }
+
+    private synchronized List<DBObject> lookup(final ResultKey key) {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.expires < System.currentTimeMillis()) {
+            if (entry != null) {
+                remove(key);
+            }
+            stats.incMisses();
+            return null;
+        }
+        stats.incHits();
+        return entry.documents;
+    }
+
+    /**
+     * @return a marker to pass to {@link #put(ResultKey, List, long, long)} so that results read concurrently with a write are dropped
+     */
+    synchronized long generation(final String collection) {
+        final Long generation = generations.get(collection);
+        return generation == null ? 0 : generation;
+    }
+
+    /**
+     * Stores a copy of the results, leaving the caller free to map and change the documents it passed
+     */
+    void put(final ResultKey key, final List<DBObject> results, final long ttlMillis, final long generation) {
+        if (results.size() <= maxDocuments) {
+            store(key, copy(results), ttlMillis, generation);
+        }
+    }
+
+    private synchronized void store(final ResultKey key, final List<DBObject> results, final long ttlMillis, final long generation) {
+        if (generation != generation(key.collection)) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(Collections.unmodifiableList(results), System.currentTimeMillis() + ttlMillis));
+        Set<ResultKey> keys = keysByCollection.get(key.collection);
+        if (keys == null) {
+            keys = new HashSet<ResultKey>();
+            keysByCollection.put(key.collection, keys);
+        }
+        keys.add(key);
+        documents += results.size();
+        stats.incResults();
+
+        final Iterator<Map.Entry<ResultKey, Entry>> eldest = entries.entrySet().iterator();
+        while (documents > maxDocuments) {
+            final Map.Entry<ResultKey, Entry> evicted = eldest.next();
+            documents -= evicted.getValue().documents.size();
+            eldest.remove();
+            unindex(evicted.getKey());
+            stats.incEvictions();
+        }
+    }
+
+    private static List<DBObject> copy(final List<DBObject> documents) {
+        final List<DBObject> copies = new ArrayList<DBObject>(documents.size());
+        for (final DBObject document : documents) {
+            copies.add((DBObject) copy(document));
+        }
+        return copies;
+    }
+
+    /**
+     * Copies the documents, lists, dates and byte arrays in a value; the other values read from the server can not be changed.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copy(final Object value) {
+        if (value instanceof List) {
+            final List<Object> list = (List<Object>) value;
+            final List<Object> copy = value instanceof BasicDBList ? new BasicDBList() : new ArrayList<Object>(list.size());
+            for (final Object element : list) {
+                copy.add(copy(element));
+            }
+            return copy;
+        } else if (value instanceof DBObject) {
+            final DBObject document = (DBObject) value;
+            final BasicDBObject copy = new BasicDBObject();
+            for (final String name : document.keySet()) {
+                copy.put(name, copy(document.get(name)));
+            }
+            return copy;
+        } else if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    private void remove(final ResultKey key) {
+        final Entry entry = entries.remove(key);
+        if (entry != null) {
+            documents -= entry.documents.size();
+            unindex(key);
+        }
+    }
+
+    private void unindex(final ResultKey key) {
+        final Set<ResultKey> keys = keysByCollection.get(key.collection);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByCollection.remove(key.collection);
+            }
+        }
+    }
+
+    static final class ResultKey {
+        private final String collection;
+        private final List<Object> query;
+
+        ResultKey(final String collection, final DBObject query, final DBObject fields, final DBObject sort, final int offset,
+                  final int limit) {
+            this.collection = collection;
+            this.query = Arrays.<Object>asList(query, fields, sort, offset, limit);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResultKey)) {
+                return false;
+            }
+            final ResultKey that = (ResultKey) o;
+            return collection.equals(that.collection) && query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * collection.hashCode() + query.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final List<DBObject> documents;
+        private final long expires;
+
+        private Entry(final List<DBObject> documents, final long expires) {
+            this.documents = documents;
+            this.expires = expires;
+        }
+    }
+}
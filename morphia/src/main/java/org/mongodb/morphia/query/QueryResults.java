@@ -5,6 +5,7 @@ import com.mongodb.Bytes;
 import org.mongodb.morphia.Key;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * The results of a query.  These results aren't materialized until a method on this interface is called.
@@ -49,6 +50,50 @@ public interface QueryResults<T> extends Iterable<T> {
      */
     MorphiaIterator<T, T> fetchEmptyEntities();
 
+    /**
+     * Execute the query a page at a time.  Each page continues after the last entity of the previous one rather than skipping over the
+     * earlier pages, so deep pages cost as little as the first.
+     *
+     * @param pageSize the maximum number of entities per page
+     * @return the pages
+     * @see PageIterator
+     */
+    PageIterator<T> pages(int pageSize);
+
+    /**
+     * Execute the query a page at a time, resuming after the position of a continuation token
+     *
+     * @param pageSize          the maximum number of entities per page
+     * @param continuationToken a token from {@link PageIterator#getContinuationToken()} of the same query
+     * @return the pages
+     * @see PageIterator
+     */
+    PageIterator<T> pages(int pageSize, String continuationToken);
+
+    /**
+     * Splits the query into disjoint segments, each read through its own cursor and mapped with its own EntityCache, so that a whole
+     * collection can be processed on several threads and, with a read preference allowing it, from several members of a replica set.
+     * Queries reading every document whole use the server's parallelCollectionScan when it returns a cursor per segment; other queries
+     * are split into ranges of _id sampled from the collection.  A sort applies within each segment.  Results cached with
+     * {@link Query#cacheFor(long, java.util.concurrent.TimeUnit)} are not used.  Queries with an offset, a limit or a tailable cursor can
+     * not be split and throw a {@link QueryException}.
+     *
+     * @param segments the number of segments to aim for.  Small collections, and collections whose _id values are of different types,
+     *                 are split into fewer.
+     * @return the segments, each of which should be iterated and closed by a single thread
+     */
+    List<MorphiaIterator<T, T>> parallelScan(int segments);
+
+    /**
+     * Splits the query as {@link #parallelScan(int)} does and reads every segment on the Executor, merging the results
+     *
+     * @param segments the number of segments to aim for
+     * @param executor the Executor to read the segments on, ideally with a thread per segment
+     * @return the results, in no particular order
+     * @see ParallelScanIterator
+     */
+    ParallelScanIterator<T> parallelScan(int segments, Executor executor);
+
     /**
      * Execute the query and get the keys for the objects.
      *
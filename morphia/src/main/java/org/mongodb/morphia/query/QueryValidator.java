@@ -40,17 +40,26 @@ final class QueryValidator {
      */
     static MappedField validateQuery(final Class clazz, final Mapper mapper, final StringBuilder origProp, final FilterOperator op,
                                      final Object val, final boolean validateNames, final boolean validateTypes) {
+        return validatePath(clazz, mapper, origProp, op, val, validateNames, validateTypes).getMappedField();
+    }
+
+    /**
+     * Validate the path, and value type, returning the mapped field for the field at the path along with the class it was found in
+     */
+    static ValidatedPath validatePath(final Class clazz, final Mapper mapper, final StringBuilder origProp, final FilterOperator op,
+                                      final Object val, final boolean validateNames, final boolean validateTypes) {
         MappedField mf = null;
+        MappedClass mc = null;
         final String prop = origProp.toString();
         boolean hasTranslations = false;
 
         if (!origProp.substring(0, 1).equals("$")) {
             final String[] parts = prop.split("\\.");
             if (clazz == null) {
-                return null;
+                return new ValidatedPath(null, null);
             }
 
-            MappedClass mc = mapper.getMappedClass(clazz);
+            mc = mapper.getMappedClass(clazz);
             //CHECKSTYLE:OFF
             for (int i = 0; ; ) {
                 //CHECKSTYLE:ON
@@ -112,26 +121,33 @@ final class QueryValidator {
             }
 
             if (validateTypes && mf != null) {
-                List<ValidationFailure> typeValidationFailures = new ArrayList<ValidationFailure>();
-                boolean compatibleForType = isCompatibleForOperator(mc, mf, mf.getType(), op, val, typeValidationFailures);
-                List<ValidationFailure> subclassValidationFailures = new ArrayList<ValidationFailure>();
-                boolean compatibleForSubclass = isCompatibleForOperator(mc, mf, mf.getSubClass(), op, val, subclassValidationFailures);
-
-                if ((mf.isSingleValue() && !compatibleForType)
-                    || mf.isMultipleValues() && !(compatibleForSubclass || compatibleForType)) {
-
-                    if (LOG.isWarningEnabled()) {
-                        LOG.warning(format("The type(s) for the query/update may be inconsistent; using an instance of type '%s' "
-                                           + "for the field '%s.%s' which is declared as '%s'", val.getClass().getName(),
-                                           mf.getDeclaringClass().getName(), mf.getJavaFieldName(), mf.getType().getName()
-                                          ));
-                        typeValidationFailures.addAll(subclassValidationFailures);
-                        LOG.warning("Validation warnings: \n" + typeValidationFailures);
-                    }
-                }
+                validateType(mc, mf, op, val);
+            }
+        }
+        return new ValidatedPath(mc, mf);
+    }
+
+    /**
+     * Checks that the value suits the operator and the type of the field, logging a warning if it does not
+     */
+    static void validateType(final MappedClass mc, final MappedField mf, final FilterOperator op, final Object val) {
+        List<ValidationFailure> typeValidationFailures = new ArrayList<ValidationFailure>();
+        boolean compatibleForType = isCompatibleForOperator(mc, mf, mf.getType(), op, val, typeValidationFailures);
+        List<ValidationFailure> subclassValidationFailures = new ArrayList<ValidationFailure>();
+        boolean compatibleForSubclass = isCompatibleForOperator(mc, mf, mf.getSubClass(), op, val, subclassValidationFailures);
+
+        if ((mf.isSingleValue() && !compatibleForType)
+            || mf.isMultipleValues() && !(compatibleForSubclass || compatibleForType)) {
+
+            if (LOG.isWarningEnabled()) {
+                LOG.warning(format("The type(s) for the query/update may be inconsistent; using an instance of type '%s' "
+                                   + "for the field '%s.%s' which is declared as '%s'", val.getClass().getName(),
+                                   mf.getDeclaringClass().getName(), mf.getJavaFieldName(), mf.getType().getName()
+                                  ));
+                typeValidationFailures.addAll(subclassValidationFailures);
+                LOG.warning("Validation warnings: \n" + typeValidationFailures);
             }
         }
-        return mf;
     }
 
     private static boolean canQueryPast(final MappedField mf) {
@@ -169,4 +185,25 @@ final class QueryValidator {
         return validationApplied && validationFailures.size() == 0;
     }
 
+
+    /**
+     * The field at the end of a validated path and the class it was found in, which is the class its values are validated against
+     */
+    static final class ValidatedPath {
+        private final MappedClass mappedClass;
+        private final MappedField mappedField;
+
+        ValidatedPath(final MappedClass mappedClass, final MappedField mappedField) {
+            this.mappedClass = mappedClass;
+            this.mappedField = mappedField;
+        }
+
+        MappedClass getMappedClass() {
+            return mappedClass;
+        }
+
+        MappedField getMappedField() {
+            return mappedField;
+        }
+    }
 }
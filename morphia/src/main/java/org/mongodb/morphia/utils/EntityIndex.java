@@ -0,0 +1,282 @@
+package org.mongodb.morphia.utils;
+
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+
+/**
+ * Reads the index of classes written at build time by {@link org.mongodb.morphia.processor.EntityIndexProcessor}.  Every jar or directory
+ * compiled with the processor carries its own index.
+ * <p/>
+ * An index marked {@value #COMPLETE} lists every class of its jar, so scanning a package of that jar only loads the mapped classes the
+ * index names.  The mark is only trusted if the named classes of the jar, read from its table of contents, are exactly those of the index:
+ * a shaded jar merging several modules keeps the index of only one of them.  Directories, which an IDE may recompile without the
+ * processor, are still listed, but only skip the classes the index marks as unmapped whose class files are not newer than the index.
+ * Classes missing from an index, or in a jar whose index is not complete, are loaded and checked as they would be without an index.
+ * <p/>
+ * The index lists one class per line, as its binary name followed by {@value #ENTITY}, {@value #EMBEDDED} or {@value #UNMAPPED}.  Lines
+ * starting with '#' are comments, except for {@value #COMPLETE}.
+ */
+public final class EntityIndex {
+    /**
+     * The location of the index within a jar or directory
+     */
+    public static final String RESOURCE = "META-INF/morphia/entity-index";
+
+    /**
+     * Marks a class annotated with, or inheriting, {@code @Entity}
+     */
+    public static final String ENTITY = "entity";
+
+    /**
+     * Marks a class annotated with, or inheriting, {@code @Embedded}
+     */
+    public static final String EMBEDDED = "embedded";
+
+    /**
+     * Marks a class which is neither an entity nor embedded
+     */
+    public static final String UNMAPPED = "unmapped";
+
+    /**
+     * The line marking an index which lists every class of its jar or directory
+     */
+    public static final String COMPLETE = "#!complete";
+
+    // the suffix of the binary name of an anonymous or local class, which the processor can not see
+    private static final Pattern UNNAMED = Pattern.compile("\\$[0-9].*$");
+
+    private final Set<String> unmapped = new HashSet<String>();
+    private final Map<File, Map<String, String>> completeJars = new HashMap<File, Map<String, String>>();
+
+    private EntityIndex() {
+    }
+
+    /**
+     * Reads every index visible to a ClassLoader, checking the entries of the indexes found in directories against their class files
+     *
+     * @param loader the ClassLoader to use
+     * @return the indexes, empty if there is none
+     * @throws IOException thrown if an index can not be read
+     */
+    public static EntityIndex load(final ClassLoader loader) throws IOException {
+        final EntityIndex index = new EntityIndex();
+        final Enumeration<URL> resources = loader.getResources(RESOURCE);
+        while (resources != null && resources.hasMoreElements()) {
+            final URL url = resources.nextElement();
+            final Map<String, String> classes = new LinkedHashMap<String, String>();
+            final boolean complete = read(url.openStream(), classes);
+            final File root = toRoot(url);
+            if (root == null || root.isFile()) {
+                if (complete && root != null && listsEveryClass(root, classes)) {
+                    index.completeJars.put(root, classes);
+                }
+                for (final Map.Entry<String, String> entry : classes.entrySet()) {
+                    if (UNMAPPED.equals(entry.getValue())) {
+                        index.unmapped.add(entry.getKey());
+                    }
+                }
+            } else {
+                // an entry is only trusted if its class has not been compiled again since the index was written
+                final long written = new File(root, RESOURCE).lastModified();
+                for (final Map.Entry<String, String> entry : classes.entrySet()) {
+                    final File classFile = new File(root, entry.getKey().replace('.', File.separatorChar) + ".class");
+                    if (UNMAPPED.equals(entry.getValue()) && classFile.lastModified() <= written) {
+                        index.unmapped.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Reads every index visible to a ClassLoader
+     *
+     * @param loader the ClassLoader to use
+     * @return the binary names of the indexed classes mapped to their kind, or null if there is no index at all
+     * @throws IOException thrown if an index can not be read
+     */
+    public static Map<String, String> read(final ClassLoader loader) throws IOException {
+        final Enumeration<URL> resources = loader.getResources(RESOURCE);
+        if (resources == null || !resources.hasMoreElements()) {
+            return null;
+        }
+        final Map<String, String> classes = new LinkedHashMap<String, String>();
+        while (resources.hasMoreElements()) {
+            read(resources.nextElement().openStream(), classes);
+        }
+        return classes;
+    }
+
+    /**
+     * Reads one index and closes its stream
+     *
+     * @param stream  the index
+     * @param classes the Map to add the binary names of the indexed classes, mapped to their kind, to
+     * @return true if the index is marked {@value #COMPLETE}
+     * @throws IOException thrown if the index can not be read
+     */
+    public static boolean read(final InputStream stream, final Map<String, String> classes) throws IOException {
+        boolean complete = false;
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.equals(COMPLETE)) {
+                    complete = true;
+                } else if (line.length() != 0 && !line.startsWith("#")) {
+                    final String[] parts = line.split("\\s+");
+                    classes.put(parts[0], parts.length > 1 ? parts[1] : ENTITY);
+                }
+            }
+        } finally {
+            stream.close();
+        }
+        return complete;
+    }
+
+    /**
+     * Reads the names of the classes every index visible to a ClassLoader marks as {@value #UNMAPPED}, leaving out those compiled again
+     * since
+     *
+     * @param loader the ClassLoader to use
+     * @return the binary names of the classes, empty if there is no index
+     * @throws IOException thrown if an index can not be read
+     */
+    public static Set<String> getUnmappedClasses(final ClassLoader loader) throws IOException {
+        return load(loader).getUnmappedClassNames();
+    }
+
+    /**
+     * Returns the classes in a package as {@link ReflectionUtils#getClasses(ClassLoader, String, boolean)} does, without reading the jars
+     * whose index is complete and without loading the classes the index marks as {@value #UNMAPPED}
+     *
+     * @param loader         the ClassLoader to use
+     * @param packageName    the package to look in
+     * @param mapSubPackages whether to include the classes of sub-packages
+     * @return the classes which may be mapped
+     * @throws IOException            thrown if an error is encountered scanning packages
+     * @throws ClassNotFoundException thrown if a class can not be found
+     */
+    public static Set<Class<?>> getClasses(final ClassLoader loader, final String packageName, final boolean mapSubPackages)
+        throws IOException, ClassNotFoundException {
+        return ReflectionUtils.getClasses(loader, packageName, mapSubPackages, load(loader));
+    }
+
+    /**
+     * @return the binary names of the classes which are known not to be mapped
+     */
+    public Set<String> getUnmappedClassNames() {
+        return unmapped;
+    }
+
+    /**
+     * @param jar the jar file
+     * @return true if the jar has an index listing all of its classes
+     */
+    public boolean isComplete(final File jar) {
+        return completeJars.containsKey(jar.getAbsoluteFile());
+    }
+
+    /**
+     * Lists the classes of a kind in a jar whose index is complete
+     *
+     * @param jar  the jar file
+     * @param kind {@value #ENTITY}, {@value #EMBEDDED} or {@value #UNMAPPED}
+     * @return the binary names of the classes, empty if the index of the jar is not complete
+     */
+    public Set<String> getClassNames(final File jar, final String kind) {
+        final Set<String> names = new HashSet<String>();
+        final Map<String, String> classes = completeJars.get(jar.getAbsoluteFile());
+        if (classes != null) {
+            for (final Map.Entry<String, String> entry : classes.entrySet()) {
+                if (kind.equals(entry.getValue())) {
+                    names.add(entry.getKey());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Loads the mapped classes of a package listed by the complete index of a jar
+     */
+    Set<Class<?>> getClasses(final ClassLoader loader, final File jar, final String packageName, final boolean mapSubPackages)
+        throws ClassNotFoundException {
+        final Set<Class<?>> classes = new HashSet<Class<?>>();
+        for (final Map.Entry<String, String> entry : completeJars.get(jar.getAbsoluteFile()).entrySet()) {
+            final String name = entry.getKey();
+            final String classPackageName = name.lastIndexOf('.') < 0 ? "" : name.substring(0, name.lastIndexOf('.'));
+            if (!UNMAPPED.equals(entry.getValue())
+                && (classPackageName.equals(packageName) || (mapSubPackages && classPackageName.startsWith(packageName + ".")))) {
+                classes.add(Class.forName(name, true, loader));
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Checks that the named classes of a jar are exactly the classes of its index.  Anonymous and local classes count as the class
+     * enclosing them.
+     */
+    private static boolean listsEveryClass(final File jar, final Map<String, String> classes) {
+        final Set<String> named = new HashSet<String>();
+        try {
+            final JarFile file = new JarFile(jar);
+            try {
+                final Enumeration<? extends ZipEntry> entries = file.entries();
+                while (entries.hasMoreElements()) {
+                    final String name = entries.nextElement().getName();
+                    if (name.endsWith(".class") && !name.startsWith("META-INF/") && !name.endsWith("package-info.class")
+                        && !name.equals("module-info.class")) {
+                        final String binaryName = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                        named.add(UNNAMED.matcher(binaryName).replaceFirst(""));
+                    }
+                }
+            } finally {
+                file.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return named.equals(classes.keySet());
+    }
+
+    /**
+     * Finds the jar or directory an index was read from
+     *
+     * @return the jar file or the directory, or null if the index is neither in a jar nor in a directory
+     */
+    private static File toRoot(final URL url) {
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                final String file = url.getFile();
+                return new File(new URI(file.substring(0, file.indexOf("!/")))).getAbsoluteFile();
+            } else if ("file".equals(url.getProtocol())) {
+                return new File(url.toURI()).getParentFile().getParentFile().getParentFile().getAbsoluteFile();
+            }
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+}
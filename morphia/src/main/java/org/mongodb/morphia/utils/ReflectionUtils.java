@@ -44,6 +44,7 @@ import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -532,6 +533,16 @@ public final class ReflectionUtils {
      */
     public static Set<Class<?>> getClasses(final ClassLoader loader, final String packageName, final boolean mapSubPackages) throws
             IOException, ClassNotFoundException {
+        return getClasses(loader, packageName, mapSubPackages, null);
+    }
+
+    /**
+     * Returns the classes in a package, taking those of the jars with a complete index from the index and not loading those the index
+     * knows are not mapped
+     */
+    static Set<Class<?>> getClasses(final ClassLoader loader, final String packageName, final boolean mapSubPackages,
+                                    final EntityIndex index) throws IOException, ClassNotFoundException {
+        final Set<String> skipped = index == null ? Collections.<String>emptySet() : index.getUnmappedClassNames();
         final Set<Class<?>> classes = new HashSet<Class<?>>();
         final String path = packageName.replace('.', '/');
         final Enumeration<URL> resources = loader.getResources(path);
@@ -556,9 +567,13 @@ public final class ReflectionUtils {
                         if (jarPath.contains(":")) {
                             jarPath = jarPath.substring(1);
                         }
-                        classes.addAll(getFromJARFile(loader, jarPath, path, mapSubPackages));
+                        if (index != null && index.isComplete(new File(jarPath))) {
+                            classes.addAll(index.getClasses(loader, new File(jarPath), packageName, mapSubPackages));
+                        } else {
+                            classes.addAll(getFromJARFile(loader, jarPath, path, mapSubPackages, skipped));
+                        }
                     } else {
-                        classes.addAll(getFromDirectory(loader, new File(filePath), packageName, mapSubPackages));
+                        classes.addAll(getFromDirectory(loader, new File(filePath), packageName, mapSubPackages, skipped));
                     }
                 }
             }
@@ -594,6 +609,12 @@ public final class ReflectionUtils {
      */
     public static Set<Class<?>> getFromJARFile(final ClassLoader loader, final String jar, final String packageName, final boolean
         mapSubPackages) throws IOException, ClassNotFoundException {
+        return getFromJARFile(loader, jar, packageName, mapSubPackages, Collections.<String>emptySet());
+    }
+
+    private static Set<Class<?>> getFromJARFile(final ClassLoader loader, final String jar, final String packageName,
+                                                final boolean mapSubPackages, final Set<String> skipped)
+        throws IOException, ClassNotFoundException {
         final Set<Class<?>> classes = new HashSet<Class<?>>();
         final JarInputStream jarFile = new JarInputStream(new FileInputStream(jar));
         try {
@@ -605,8 +626,10 @@ public final class ReflectionUtils {
                     if (className.endsWith(".class")) {
                         String classPackageName = getPackageName(className);
                         if (classPackageName.equals(packageName) || (mapSubPackages && isSubPackage(classPackageName, packageName))) {
-                            className = stripFilenameExtension(className);
-                            classes.add(Class.forName(className.replace('/', '.'), true, loader));
+                            className = stripFilenameExtension(className).replace('/', '.');
+                            if (!skipped.contains(className)) {
+                                classes.add(Class.forName(className, true, loader));
+                            }
                         }
                     }
                 }
@@ -643,13 +666,20 @@ public final class ReflectionUtils {
      */
     public static Set<Class<?>> getFromDirectory(final ClassLoader loader, final File directory, final String packageName,
                                                             final boolean mapSubPackages) throws ClassNotFoundException {
+        return getFromDirectory(loader, directory, packageName, mapSubPackages, Collections.<String>emptySet());
+    }
+
+    private static Set<Class<?>> getFromDirectory(final ClassLoader loader, final File directory, final String packageName,
+                                                  final boolean mapSubPackages, final Set<String> skipped) throws ClassNotFoundException {
         final Set<Class<?>> classes = new HashSet<Class<?>>();
         if (directory.exists()) {
             for (final String file : getFileNames(directory, packageName, mapSubPackages)) {
                 if (file.endsWith(".class")) {
                     final String name = stripFilenameExtension(file);
-                    final Class<?> clazz = Class.forName(name, true, loader);
-                    classes.add(clazz);
+                    if (!skipped.contains(name)) {
+                        final Class<?> clazz = Class.forName(name, true, loader);
+                        classes.add(clazz);
+                    }
                 }
             }
         }
@@ -0,0 +1,72 @@
+package org.mongodb.morphia;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.IndexPlan.Change;
+import org.mongodb.morphia.IndexPlan.ChangeType;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class IndexPlanTest {
+    private static final DBObject ID_INDEX = new BasicDBObject("v", 1).append("key", new BasicDBObject("_id", 1)).append("name", "_id_");
+
+    @Test
+    public void matchesIndexesByKeys() {
+        final List<Change> changes = IndexPlan.diff(
+            "items",
+            Arrays.asList(index(new BasicDBObject("name", 1).append("rating", -1)),
+                          index(new BasicDBObject("rating", 1)).append("unique", true),
+                          index(new BasicDBObject("created", 1)).append("expireAfterSeconds", 60),
+                          index(new BasicDBObject("name", 1).append("rating", -1))),
+            Arrays.asList(ID_INDEX,
+                          existing(new BasicDBObject("name", 1.0).append("rating", -1.0), "name_1_rating_-1"),
+                          existing(new BasicDBObject("rating", 1), "rating_1"),
+                          existing(new BasicDBObject("old", 1), "old_1")));
+
+        Assert.assertEquals(3, changes.size());
+        assertChange(changes.get(0), ChangeType.CHANGED, new BasicDBObject("rating", 1));
+        assertChange(changes.get(1), ChangeType.MISSING, new BasicDBObject("created", 1));
+        assertChange(changes.get(2), ChangeType.UNDECLARED, new BasicDBObject("old", 1));
+        Assert.assertEquals("rating_1", changes.get(0).getExisting().get("name"));
+    }
+
+    @Test
+    public void matchesTextIndexesByFields() {
+        final DBObject existing = existing(new BasicDBObject("_fts", "text").append("_ftsx", 1), "title_text_body_text")
+                                      .append("weights", new BasicDBObject("body", 1).append("title", 10))
+                                      .append("default_language", "english")
+                                      .append("language_override", "language");
+        final BasicDBObject declared = index(new BasicDBObject("title", "text").append("body", "text"))
+                                           .append("weights", new BasicDBObject("title", 10));
+
+        Assert.assertTrue(IndexPlan.diff("items", Arrays.asList(declared), Arrays.asList(ID_INDEX, existing)).isEmpty());
+
+        declared.append("default_language", "spanish");
+        final List<Change> changes = IndexPlan.diff("items", Arrays.asList(declared), Arrays.asList(ID_INDEX, existing));
+        Assert.assertEquals(1, changes.size());
+        Assert.assertEquals(ChangeType.CHANGED, changes.get(0).getType());
+    }
+
+    @Test
+    public void namesIndexesLikeTheServer() {
+        Assert.assertEquals("name_1_rating_-1", IndexPlan.defaultName(new BasicDBObject("name", 1).append("rating", -1)));
+        Assert.assertEquals("location_2dsphere", IndexPlan.defaultName(new BasicDBObject("location", "2dsphere")));
+    }
+
+    private static void assertChange(final Change change, final ChangeType type, final DBObject keys) {
+        Assert.assertEquals(type, change.getType());
+        Assert.assertEquals(keys, change.getKeys());
+    }
+
+    private static BasicDBObject index(final DBObject keys) {
+        return new BasicDBObject("key", keys);
+    }
+
+    private static BasicDBObject existing(final DBObject keys, final String name) {
+        return new BasicDBObject("v", 1).append("key", keys).append("name", name).append("ns", "test.items");
+    }
+}
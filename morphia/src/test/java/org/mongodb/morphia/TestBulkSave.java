@@ -0,0 +1,230 @@
+package org.mongodb.morphia;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteException;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.entities.version.Versioned;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+public class TestBulkSave extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().setUseBulkSaves(true);
+        getMorphia().setBulkWriteBatchSize(7);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().setUseBulkSaves(false);
+        getMorphia().setBulkWriteBatchSize(1000);
+        getMorphia().setOrderedBulkWrites(true);
+        super.tearDown();
+    }
+
+    @Test
+    public void insertsAndReplacesInBatches() {
+        final List<Plain> entities = new ArrayList<Plain>();
+        for (int i = 0; i < 20; i++) {
+            entities.add(new Plain("entity " + i));
+        }
+
+        final List<Key<Plain>> keys = toList(getDs().save(entities));
+        Assert.assertEquals(20, keys.size());
+        Assert.assertEquals(20, getDs().getCount(Plain.class));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertNotNull(entities.get(i).id);
+            Assert.assertEquals(entities.get(i).id, keys.get(i).getId());
+        }
+
+        for (final Plain entity : entities) {
+            entity.count = 5;
+        }
+        getDs().save(entities);
+        Assert.assertEquals(20, getDs().getCount(Plain.class));
+        Assert.assertEquals(20, getDs().createQuery(Plain.class).filter("count", 5).countAll());
+    }
+
+    @Test
+    public void savesVersionedEntities() {
+        final List<Versioned> entities = new ArrayList<Versioned>();
+        for (int i = 0; i < 20; i++) {
+            final Versioned entity = new Versioned();
+            entity.setName("entity " + i);
+            entities.add(entity);
+        }
+
+        final List<Key<Versioned>> keys = toList(getDs().save(entities));
+        Assert.assertEquals(20, keys.size());
+        Assert.assertEquals(20, getDs().getCount(Versioned.class));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertNotNull(entities.get(i).getId());
+            Assert.assertEquals(entities.get(i).getId(), keys.get(i).getId());
+            Assert.assertEquals(1L, entities.get(i).getVersion().longValue());
+        }
+
+        for (final Versioned entity : entities) {
+            entity.setCount(5);
+        }
+        getDs().save(entities);
+        Assert.assertEquals(20, getDs().getCount(Versioned.class));
+        Assert.assertEquals(20, getDs().createQuery(Versioned.class).filter("count", 5).countAll());
+        Assert.assertEquals(2L, getDs().get(Versioned.class, entities.get(0).getId()).getVersion().longValue());
+    }
+
+    @Test
+    public void reportsConflicts() {
+        getMorphia().setOrderedBulkWrites(false);
+        final Versioned first = new Versioned();
+        final Versioned second = new Versioned();
+        getDs().save(Arrays.asList(first, second));
+
+        final Versioned stale = getDs().get(Versioned.class, first.getId());
+        first.setName("updated");
+        getDs().save(first);
+
+        stale.setName("stale");
+        second.setName("second");
+        try {
+            getDs().save(Arrays.asList(stale, second));
+            Assert.fail("the stale entity should have been reported");
+        } catch (BulkSaveException e) {
+            Assert.assertEquals(Arrays.<Object>asList(stale), e.getConflicts());
+            Assert.assertEquals(1, e.getSaved().size());
+            Assert.assertEquals(second.getId(), e.getSaved().get(0).getId());
+            Assert.assertTrue(e.getUnprocessed().isEmpty());
+        }
+        Assert.assertEquals("updated", getDs().get(Versioned.class, first.getId()).getName());
+        Assert.assertEquals("second", getDs().get(Versioned.class, second.getId()).getName());
+    }
+
+    @Test
+    public void stopsOrderedSavesAfterConflicts() {
+        final Versioned first = new Versioned();
+        final Versioned second = new Versioned();
+        getDs().save(Arrays.asList(first, second));
+
+        final Versioned stale = getDs().get(Versioned.class, first.getId());
+        getDs().save(first);
+
+        second.setName("second");
+        try {
+            getDs().save(Arrays.asList(stale, second));
+            Assert.fail("the stale entity should have been reported");
+        } catch (BulkSaveException e) {
+            Assert.assertEquals(Arrays.<Object>asList(stale), e.getConflicts());
+            Assert.assertTrue(e.getSaved().isEmpty());
+            Assert.assertEquals(Arrays.<Object>asList(second), e.getUnprocessed());
+        }
+        Assert.assertNull(getDs().get(Versioned.class, second.getId()).getName());
+    }
+
+    @Test
+    public void reportsTheLoserOfTwoWritersOfTheSameVersion() {
+        final Versioned original = new Versioned();
+        getDs().save(Arrays.asList(original));
+
+        final Versioned writerA = getDs().get(Versioned.class, original.getId());
+        final Versioned writerB = getDs().get(Versioned.class, original.getId());
+        writerA.setName("a");
+        getDs().save(Arrays.asList(writerA));
+
+        writerB.setName("b");
+        try {
+            getDs().save(Arrays.asList(writerB));
+            Assert.fail("the second writer should have been reported");
+        } catch (BulkSaveException e) {
+            Assert.assertEquals(Arrays.<Object>asList(writerB), e.getConflicts());
+            Assert.assertTrue(e.getSaved().isEmpty());
+        }
+        final Versioned stored = getDs().get(Versioned.class, original.getId());
+        Assert.assertEquals("a", stored.getName());
+        Assert.assertEquals(2L, stored.getVersion().longValue());
+    }
+
+    @Test
+    public void reportsDeletedEntitiesAsConflicts() {
+        final Versioned first = new Versioned();
+        final Versioned second = new Versioned();
+        getDs().save(Arrays.asList(first, second));
+        getDs().delete(Versioned.class, first.getId());
+
+        first.setName("deleted");
+        try {
+            getDs().save(Arrays.asList(first, second));
+            Assert.fail("the deleted entity should have been reported");
+        } catch (BulkSaveException e) {
+            Assert.assertEquals(Arrays.<Object>asList(first), e.getConflicts());
+        }
+        Assert.assertNull(getDs().get(Versioned.class, first.getId()));
+        Assert.assertEquals(1, getDs().getCount(Versioned.class));
+    }
+
+    @Test(expected = BulkWriteException.class)
+    public void rethrowsUniqueIndexViolations() {
+        getDs().getCollection(Plain.class).createIndex(new BasicDBObject("name", 1),
+                                                       new BasicDBObject("name", "user_id_1").append("unique", true));
+        final Plain first = new Plain("first");
+        final Plain second = new Plain("second");
+        getDs().save(Arrays.asList(first, second));
+
+        second.name = "first";
+        getDs().save(Arrays.asList(first, second));
+    }
+
+    @Test
+    public void leavesSavesAloneWhenOnlyBulkInsertsAreOn() {
+        getMorphia().setUseBulkSaves(false);
+        getMorphia().setUseBulkWriteOperations(true);
+        try {
+            final Versioned first = new Versioned();
+            getDs().save(Arrays.asList(first));
+            final Versioned stale = getDs().get(Versioned.class, first.getId());
+            getDs().save(first);
+
+            try {
+                getDs().save(Arrays.asList(stale));
+                Assert.fail("the stale entity should have been rejected");
+            } catch (ConcurrentModificationException e) {
+                Assert.assertFalse(e instanceof BulkSaveException);
+            }
+        } finally {
+            getMorphia().setUseBulkWriteOperations(false);
+        }
+    }
+
+    private static <T> List<T> toList(final Iterable<T> iterable) {
+        final List<T> list = new ArrayList<T>();
+        for (final T t : iterable) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    @Entity("bulk_plain")
+    private static class Plain {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int count;
+
+        Plain() {
+        }
+
+        Plain(final String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.mongodb.morphia;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.entities.version.Versioned;
+
+import java.util.ConcurrentModificationException;
+
+public class TestDirtyTracking extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().getMapper().getOptions().setDirtyTracking(true);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setDirtyTracking(false);
+        super.tearDown();
+    }
+
+    @Test
+    public void savesOnlyChangedFields() {
+        final Versioned entity = new Versioned();
+        entity.setName("original");
+        getDs().save(entity);
+
+        // change the stored document behind Morphia's back.  a partial save must leave this field alone.
+        getDs().getCollection(Versioned.class).update(new BasicDBObject("_id", entity.getId()),
+                                                      new BasicDBObject("$set", new BasicDBObject("count", 42)));
+
+        final Versioned loaded = getDs().get(Versioned.class, entity.getId());
+        loaded.setName("changed");
+        getDs().save(loaded);
+
+        final Versioned reloaded = getDs().get(Versioned.class, entity.getId());
+        Assert.assertEquals("changed", reloaded.getName());
+        Assert.assertEquals(42, reloaded.getCount());
+        Assert.assertEquals(2L, reloaded.getVersion().longValue());
+    }
+
+    @Test
+    public void skipsUnchangedEntities() {
+        final Versioned entity = new Versioned();
+        entity.setName("original");
+        getDs().save(entity);
+
+        final Versioned loaded = getDs().get(Versioned.class, entity.getId());
+        getDs().save(loaded);
+        getDs().save(loaded);
+
+        Assert.assertEquals(1L, loaded.getVersion().longValue());
+        Assert.assertEquals(1L, getDs().get(Versioned.class, entity.getId()).getVersion().longValue());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void keepsOptimisticLocking() {
+        final Versioned entity = new Versioned();
+        entity.setName("original");
+        getDs().save(entity);
+
+        final Versioned first = getDs().get(Versioned.class, entity.getId());
+        final Versioned second = getDs().get(Versioned.class, entity.getId());
+
+        first.setName("first");
+        getDs().save(first);
+
+        second.setName("second");
+        getDs().save(second);
+    }
+
+    @Test
+    public void savesAgainAfterDelete() {
+        final Named entity = new Named();
+        entity.name = "original";
+        getDs().save(entity);
+        final Named loaded = getDs().get(Named.class, entity.id);
+        getDs().delete(loaded);
+
+        loaded.name = "changed";
+        getDs().save(loaded);
+        Assert.assertEquals("changed", getDs().get(Named.class, entity.id).name);
+    }
+
+    @Test
+    public void tracksEachCollectionSeparately() {
+        final Named entity = new Named();
+        entity.name = "original";
+        getDs().save(entity);
+        final Named loaded = getDs().get(Named.class, entity.id);
+
+        getAds().save("named_copies", loaded);
+        Assert.assertEquals("original", getAds().find("named_copies", Named.class).get().name);
+    }
+
+    @Test
+    public void savesInFullAfterDelete() {
+        final Named entity = new Named();
+        entity.name = "original";
+        getDs().save(entity);
+        final Named loaded = getDs().get(Named.class, entity.id);
+        getDs().delete(loaded);
+
+        getDs().save(loaded);
+        Assert.assertEquals("original", getDs().get(Named.class, entity.id).name);
+    }
+
+    @Test
+    public void forgetsStateAfterUpdates() {
+        final Named entity = new Named();
+        entity.name = "original";
+        getDs().save(entity);
+        final Named loaded = getDs().get(Named.class, entity.id);
+
+        getDs().update(loaded, getDs().createUpdateOperations(Named.class).set("name", "updated"));
+        getDs().save(loaded);
+        Assert.assertEquals("original", getDs().get(Named.class, entity.id).name);
+
+        getDs().getCollection(Named.class).update(new BasicDBObject("_id", entity.id),
+                                                  new BasicDBObject("$set", new BasicDBObject("name", "behind")));
+        final Named merged = getDs().get(Named.class, entity.id);
+        merged.name = "merged";
+        getDs().merge(merged);
+        merged.name = "behind";
+        getDs().save(merged);
+        Assert.assertEquals("behind", getDs().get(Named.class, entity.id).name);
+    }
+
+    @Entity
+    private static class Named {
+        @Id
+        private ObjectId id;
+        private String name;
+    }
+}
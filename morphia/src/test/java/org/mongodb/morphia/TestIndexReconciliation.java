@@ -0,0 +1,122 @@
+package org.mongodb.morphia;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.IndexPlan.ChangeType;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Field;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.IndexOptions;
+import org.mongodb.morphia.annotations.Indexed;
+import org.mongodb.morphia.annotations.Indexes;
+import org.mongodb.morphia.annotations.Text;
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.MappedField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mongodb.morphia.utils.IndexType.DESC;
+
+public class TestIndexReconciliation extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().map(Article.class, Comment.class);
+    }
+
+    @Test
+    public void planIsADryRun() {
+        final IndexPlan plan = datastore().planIndexes(false, null);
+
+        Assert.assertFalse(plan.isApplied());
+        Assert.assertEquals(4, plan.getChanges(ChangeType.MISSING).size());
+        Assert.assertEquals(plan.getChanges().size(), plan.getChanges(ChangeType.MISSING).size());
+        Assert.assertTrue(getAds().getCollection(Article.class).getIndexInfo().isEmpty());
+    }
+
+    @Test
+    public void createsOnlyMissingIndexes() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            getAds().getCollection(Article.class).createIndex(new BasicDBObject("author", -1), new BasicDBObject("name", "by_author"));
+            final IndexPlan plan = datastore().reconcileIndexes(false, executor);
+            Assert.assertTrue(plan.isApplied());
+            Assert.assertEquals(3, plan.getChanges(ChangeType.MISSING).size());
+            Assert.assertEquals(1, plan.getChanges(ChangeType.CHANGED).size());
+            Assert.assertEquals(5, getAds().getCollection(Article.class).getIndexInfo().size());
+
+            getAds().getCollection(Comment.class).createIndex(new BasicDBObject("legacy", 1));
+            final IndexPlan drift = datastore().reconcileIndexes(false, executor);
+            Assert.assertEquals(2, drift.getChanges().size());
+            Assert.assertEquals("author_-1", drift.getChanges(ChangeType.CHANGED).get(0).getDeclared().get("name"));
+            Assert.assertEquals(new BasicDBObject("legacy", 1), drift.getChanges(ChangeType.UNDECLARED).get(0).getKeys());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void matchesIndexesCreatedByEnsureIndexes() {
+        getDs().ensureIndexes();
+        Assert.assertTrue(datastore().planIndexes(false, null).isEmpty());
+    }
+
+    @Test
+    public void ensureIndexesCallsTheProtectedHooks() {
+        final List<Field[]> hooked = new ArrayList<Field[]>();
+        final DatastoreImpl datastore = new DatastoreImpl(getMorphia(), getMongoClient(), getDb().getName()) {
+            @Override
+            protected void ensureIndex(final MappedClass mc, final DBCollection dbColl, final Field[] fields, final IndexOptions options,
+                                       final boolean background, final List<MappedClass> parentMCs, final List<MappedField> parentMFs) {
+                hooked.add(fields);
+                super.ensureIndex(mc, dbColl, fields, options, background, parentMCs, parentMFs);
+            }
+        };
+        datastore.ensureIndexes(Article.class);
+
+        Assert.assertEquals(1, hooked.size());
+        Assert.assertEquals("author", hooked.get(0)[0].value());
+        Assert.assertTrue(datastore.planIndexes(false, null).getChanges(ChangeType.MISSING).isEmpty());
+    }
+
+    private DatastoreImpl datastore() {
+        return (DatastoreImpl) getDs();
+    }
+
+    @Entity
+    @Indexes(@Index(fields = @Field(value = "author", type = DESC), options = @IndexOptions(name = "author_-1", unique = true)))
+    private static class Article {
+        @Id
+        private ObjectId id;
+        private String author;
+        @Indexed
+        private String slug;
+        @Text
+        private String body;
+        private Stats stats;
+    }
+
+    @Embedded
+    private static class Stats {
+        @Indexed(options = @IndexOptions(sparse = true))
+        private int views;
+    }
+
+    @Entity
+    private static class Comment {
+        @Id
+        private ObjectId id;
+        private String text;
+    }
+}
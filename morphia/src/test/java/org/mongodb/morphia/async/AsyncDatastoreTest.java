@@ -0,0 +1,136 @@
+package org.mongodb.morphia.async;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AsyncDatastoreTest extends TestBase {
+    private ExecutorService executor;
+    private AsyncDatastore async;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(4);
+        async = new AsyncDatastore(getAds(), executor);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    @Test
+    public void savesAndFinds() throws Exception {
+        final City city = new City("Berlin");
+        final Key<City> key = async.save(city).get();
+        Assert.assertEquals(city.id, key.getId());
+
+        Assert.assertEquals("Berlin", async.get(City.class, city.id).get().name);
+        Assert.assertEquals(1L, async.createQuery(City.class).countAll().get().longValue());
+        Assert.assertEquals(1, async.createQuery(City.class).asList().get().size());
+        Assert.assertNull(async.wrap(getDs().createQuery(City.class).filter("name", "Paris")).get().get());
+
+        async.delete(city).get();
+        Assert.assertEquals(0, getDs().getCount(City.class));
+    }
+
+    @Test
+    public void getsKeysOfSeveralCollections() throws Exception {
+        final List<Key<Object>> keys = new ArrayList<Key<Object>>();
+        for (final Object entity : Arrays.asList(new City("Berlin"), new Country("Germany"), new City("Paris"), new Country("France"))) {
+            keys.add(getMorphia().getMapper().getKey(entity));
+            getDs().save(entity);
+        }
+        getDs().save(new City("Rome"));
+
+        Assert.assertEquals(4, async.getByKeys(keys).get().size());
+        Assert.assertTrue(async.getByKeys(new ArrayList<Key<Object>>()).get().isEmpty());
+    }
+
+    @Test
+    public void notifiesCallbacks() throws Exception {
+        final City city = new City("Berlin");
+        getDs().save(city);
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        final AtomicReference<City> found = new AtomicReference<City>();
+        final MorphiaFuture<City> future = async.get(City.class, city.id).onComplete(new Callback<City>() {
+            @Override
+            public void onResult(final City result, final Throwable t) {
+                found.set(result);
+                latch.countDown();
+            }
+        });
+        future.get();
+        future.onComplete(new Callback<City>() {
+            @Override
+            public void onResult(final City result, final Throwable t) {
+                latch.countDown();
+            }
+        });
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("Berlin", found.get().name);
+    }
+
+    @Test
+    public void reportsFailures() throws Exception {
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        async.insert(null).onComplete(new Callback<Key<Object>>() {
+            @Override
+            public void onResult(final Key<Object> result, final Throwable t) {
+                failure.set(t);
+                latch.countDown();
+            }
+        });
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertNotNull(failure.get());
+    }
+
+    @Entity("async_cities")
+    private static class City {
+        @Id
+        private ObjectId id = new ObjectId();
+        private String name;
+
+        City() {
+        }
+
+        City(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("async_countries")
+    private static class Country {
+        @Id
+        private ObjectId id = new ObjectId();
+        private String name;
+
+        Country() {
+        }
+
+        Country(final String name) {
+            this.name = name;
+        }
+    }
+}
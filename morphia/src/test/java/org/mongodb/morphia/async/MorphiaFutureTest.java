@@ -0,0 +1,119 @@
+package org.mongodb.morphia.async;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MorphiaFutureTest {
+    @Test
+    public void completesOnce() throws Exception {
+        final MorphiaFuture<String> future = new MorphiaFuture<String>();
+        final AtomicReference<String> seen = new AtomicReference<String>();
+        future.onComplete(new Callback<String>() {
+            @Override
+            public void onResult(final String result, final Throwable t) {
+                seen.set(result);
+            }
+        });
+        Assert.assertFalse(future.isDone());
+
+        future.complete("first");
+        future.fail(new IllegalStateException());
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals("first", future.get());
+        Assert.assertEquals("first", seen.get());
+        Assert.assertFalse(future.cancel(true));
+    }
+
+    @Test
+    public void callsEveryCallbackWhenOneThrows() throws Exception {
+        final MorphiaFuture<String> future = new MorphiaFuture<String>();
+        final AtomicReference<String> seen = new AtomicReference<String>();
+        future.onComplete(new Callback<String>() {
+            @Override
+            public void onResult(final String result, final Throwable t) {
+                throw new IllegalStateException("failing callback");
+            }
+        });
+        future.onComplete(new Callback<String>() {
+            @Override
+            public void onResult(final String result, final Throwable t) {
+                seen.set(result);
+            }
+        });
+
+        future.run(new Callable<String>() {
+            @Override
+            public String call() {
+                return "done";
+            }
+        });
+        Assert.assertEquals("done", seen.get());
+        Assert.assertEquals("done", future.get());
+    }
+
+    @Test
+    public void callsLateCallbacksImmediately() {
+        final MorphiaFuture<String> future = new MorphiaFuture<String>();
+        final IllegalStateException failure = new IllegalStateException();
+        future.fail(failure);
+        final AtomicReference<Throwable> seen = new AtomicReference<Throwable>();
+        future.onComplete(new Callback<String>() {
+            @Override
+            public void onResult(final String result, final Throwable t) {
+                seen.set(t);
+            }
+        });
+        Assert.assertSame(failure, seen.get());
+        try {
+            future.get();
+            Assert.fail("The failure should have been thrown");
+        } catch (ExecutionException e) {
+            Assert.assertSame(failure, e.getCause());
+        } catch (InterruptedException e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void doesNotRunCancelledTasks() throws Exception {
+        final MorphiaFuture<String> future = new MorphiaFuture<String>();
+        Assert.assertTrue(future.cancel(false));
+        future.run(new Callable<String>() {
+            @Override
+            public String call() {
+                throw new AssertionError("A cancelled task should not run");
+            }
+        });
+        Assert.assertTrue(future.isCancelled());
+        future.get();
+    }
+
+    @Test
+    public void clearsTheCancellationInterruptOnceTheTaskEnds() {
+        final MorphiaFuture<String> future = new MorphiaFuture<String>();
+        final AtomicReference<Boolean> interrupted = new AtomicReference<Boolean>();
+        future.run(new Callable<String>() {
+            @Override
+            public String call() {
+                Assert.assertTrue(future.cancel(true));
+                interrupted.set(Thread.currentThread().isInterrupted());
+                return "ignored";
+            }
+        });
+        Assert.assertTrue(interrupted.get());
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertFalse(Thread.interrupted());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void timesOut() throws Exception {
+        new MorphiaFuture<String>().get(1, TimeUnit.MILLISECONDS);
+    }
+}
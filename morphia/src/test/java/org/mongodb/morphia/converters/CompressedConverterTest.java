@@ -0,0 +1,121 @@
+package org.mongodb.morphia.converters;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.Morphia;
+import org.mongodb.morphia.annotations.Compressed;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+import org.mongodb.morphia.mapping.serialization.CompressedBinary;
+import org.mongodb.morphia.mapping.serialization.Compression;
+import org.mongodb.morphia.mapping.validation.ConstraintViolationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class CompressedConverterTest {
+    @Test
+    public void compressesLargeValues() {
+        final Mapper mapper = new Mapper();
+        final Document document = new Document();
+        document.text = text(5000);
+        document.payload = document.text.getBytes();
+        document.deflated = document.text;
+        document.small = "small";
+
+        final DBObject dbObject = mapper.toDBObject(document);
+        for (final String field : new String[]{"text", "payload", "deflated"}) {
+            Assert.assertTrue(field, CompressedBinary.isCompressed(dbObject.get(field)));
+            Assert.assertTrue(field, ((Binary) dbObject.get(field)).length() < 1000);
+        }
+        Assert.assertEquals(Compression.DEFLATE.getId(), ((Binary) dbObject.get("deflated")).getData()[2]);
+        Assert.assertEquals("small", dbObject.get("small"));
+
+        final Document loaded = mapper.fromDBObject(null, Document.class, dbObject, new DefaultEntityCache());
+        Assert.assertEquals(document.text, loaded.text);
+        Assert.assertArrayEquals(document.payload, loaded.payload);
+        Assert.assertEquals(document.deflated, loaded.deflated);
+        Assert.assertEquals("small", loaded.small);
+    }
+
+    @Test
+    public void readsUncompressedValues() {
+        final String text = text(5000);
+        final DBObject dbObject = new BasicDBObject("_id", new ObjectId())
+                                      .append("text", text)
+                                      .append("payload", text.getBytes());
+        final Document loaded = new Mapper().fromDBObject(null, Document.class, dbObject, new DefaultEntityCache());
+        Assert.assertEquals(text, loaded.text);
+        Assert.assertArrayEquals(text.getBytes(), loaded.payload);
+    }
+
+    @Test
+    public void incompressibleValuesAreStoredAsIs() {
+        final byte[] random = new byte[2000];
+        new Random(42).nextBytes(random);
+        Assert.assertSame(random, CompressedBinary.compress(random, Compression.LZ4, 0));
+    }
+
+    @Test
+    public void unicode() throws Exception {
+        final char[] chars = new char[2000];
+        Arrays.fill(chars, '\u00e9');
+        final String text = new String(chars) + "\u4e2d\u6587";
+        final Object compressed = CompressedBinary.compress(text, Compression.LZ4, 100);
+        Assert.assertEquals(text, CompressedBinary.decompress((Binary) compressed));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsCorruptLengths() throws Exception {
+        final byte[] data = ((Binary) CompressedBinary.compress(text(5000), Compression.LZ4, 0)).getData();
+        // claim an uncompressed length of 2GB
+        data[3] = 0x7F;
+        data[4] = (byte) 0xFF;
+        data[5] = (byte) 0xFF;
+        data[6] = (byte) 0xFF;
+        CompressedBinary.decompress(new Binary(CompressedBinary.SUBTYPE, data));
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void wrongType() {
+        new Morphia().map(WrongType.class);
+    }
+
+    private static String text(final int length) {
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append("Lorem ipsum dolor sit amet, consectetur adipiscing elit ").append(sb.length() % 7).append(". ");
+        }
+        return sb.toString();
+    }
+
+    @Entity(noClassnameStored = true)
+    private static class Document {
+        @Id
+        private ObjectId id = new ObjectId();
+        @Compressed
+        private String text;
+        @Compressed(threshold = 100)
+        private byte[] payload;
+        @Compressed(codec = Compression.DEFLATE)
+        private String deflated;
+        @Compressed
+        private String small;
+    }
+
+    @Entity
+    private static class WrongType {
+        @Id
+        private ObjectId id;
+        @Compressed
+        private Integer count;
+    }
+}
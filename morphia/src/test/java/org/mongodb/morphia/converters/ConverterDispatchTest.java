@@ -0,0 +1,109 @@
+package org.mongodb.morphia.converters;
+
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConverterDispatchTest {
+    @Test
+    public void resolvesEachTypeOnce() {
+        final Converters converters = new Mapper().getConverters();
+        final CountingConverter counting = new CountingConverter();
+        converters.addConverter(counting);
+
+        Assert.assertTrue(converters.hasSimpleValueConverter(Tag.class));
+        Assert.assertTrue(converters.hasSimpleValueConverter(new Tag("a")));
+        Assert.assertEquals("b", converters.encode(new Tag("b")));
+        Assert.assertEquals(1, counting.lookups);
+    }
+
+    @Test
+    public void cachesMisses() {
+        final Converters converters = new Mapper().getConverters();
+        final CountingConverter counting = new CountingConverter();
+        converters.addConverter(counting);
+
+        Assert.assertFalse(converters.hasSimpleValueConverter(Untagged.class));
+        Assert.assertFalse(converters.hasSimpleValueConverter(Untagged.class));
+        Assert.assertEquals(1, counting.lookups);
+    }
+
+    @Test
+    public void addingAndRemovingConvertersInvalidates() {
+        final Converters converters = new Mapper().getConverters();
+        Assert.assertFalse(converters.hasSimpleValueConverter(Tag.class));
+
+        final CountingConverter counting = new CountingConverter();
+        converters.addConverter(counting);
+        Assert.assertTrue(converters.hasSimpleValueConverter(Tag.class));
+
+        converters.removeConverter(counting);
+        Assert.assertFalse(converters.hasSimpleValueConverter(Tag.class));
+    }
+
+    @Test
+    public void doesNotCacheEphemeralFields() {
+        final Mapper mapper = new Mapper();
+        final Grouped grouped = new Grouped();
+        grouped.groups.put("letters", Arrays.asList("a", "b"));
+        final DBObject dbObject = mapper.toDBObject(grouped);
+
+        mapper.fromDBObject(null, Grouped.class, dbObject, new DefaultEntityCache());
+        final int cached = mapper.getConverters().getCachedFieldCount();
+        for (int i = 0; i < 100; i++) {
+            final Grouped loaded = mapper.fromDBObject(null, Grouped.class, dbObject, new DefaultEntityCache());
+            Assert.assertEquals(grouped.groups, loaded.groups);
+        }
+        Assert.assertEquals(cached, mapper.getConverters().getCachedFieldCount());
+    }
+
+    private static final class Tag {
+        private final String name;
+
+        private Tag(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Untagged {
+    }
+
+    @Entity
+    private static class Grouped {
+        @Id
+        private ObjectId id = new ObjectId();
+        private Map<String, List<String>> groups = new HashMap<String, List<String>>();
+    }
+
+    private static class CountingConverter extends TypeConverter implements SimpleValueConverter {
+        private int lookups;
+
+        @Override
+        public Object decode(final Class<?> targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return new Tag((String) fromDBObject);
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            return ((Tag) value).name;
+        }
+
+        @Override
+        protected boolean isSupported(final Class<?> c, final MappedField optionalExtraInfo) {
+            lookups++;
+            return Tag.class.equals(c);
+        }
+    }
+}
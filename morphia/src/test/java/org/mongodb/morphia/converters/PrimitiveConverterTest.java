@@ -0,0 +1,152 @@
+package org.mongodb.morphia.converters;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.FieldAccessor;
+import org.mongodb.morphia.mapping.FieldAccessorFactory;
+import org.mongodb.morphia.mapping.MappedField;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.ReflectiveFieldAccessorFactory;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+
+import java.lang.reflect.Field;
+
+public class PrimitiveConverterTest {
+    @Test
+    public void roundTripWithoutBoxing() {
+        final Mapper mapper = unboxedMapper();
+        final Numbers numbers = new Numbers();
+        numbers.count = 42;
+        numbers.total = Long.MAX_VALUE;
+        numbers.ratio = 0.25;
+        numbers.boxed = 7;
+
+        final DBObject dbObject = mapper.toDBObject(numbers);
+        Assert.assertEquals(42, dbObject.get("count"));
+        Assert.assertEquals(Long.MAX_VALUE, dbObject.get("total"));
+        Assert.assertEquals(0.25, dbObject.get("ratio"));
+        Assert.assertEquals(7, dbObject.get("boxed"));
+
+        final Numbers loaded = mapper.fromDBObject(null, Numbers.class, dbObject, new DefaultEntityCache());
+        Assert.assertEquals(42, loaded.count);
+        Assert.assertEquals(Long.MAX_VALUE, loaded.total);
+        Assert.assertEquals(0.25, loaded.ratio, 0);
+        Assert.assertEquals(Integer.valueOf(7), loaded.boxed);
+    }
+
+    @Test
+    public void widensAndNarrowsStoredNumbers() {
+        final DBObject dbObject = new BasicDBObject("_id", new ObjectId())
+                                      .append("count", 42L)
+                                      .append("total", 12)
+                                      .append("ratio", "1.5");
+        final Numbers loaded = unboxedMapper().fromDBObject(null, Numbers.class, dbObject, new DefaultEntityCache());
+        Assert.assertEquals(42, loaded.count);
+        Assert.assertEquals(12L, loaded.total);
+        Assert.assertEquals(1.5, loaded.ratio, 0);
+    }
+
+    @Test
+    public void boxedConverterReplacementIsStillUsed() {
+        final Mapper mapper = new Mapper();
+        mapper.getConverters().addConverter(new PlusOneConverter());
+        final Numbers numbers = new Numbers();
+        numbers.count = 1;
+
+        Assert.assertEquals(2, mapper.toDBObject(numbers).get("count"));
+    }
+
+    private static Mapper unboxedMapper() {
+        final Mapper mapper = new Mapper();
+        mapper.getOptions().setFieldAccessorFactory(new PrimitiveOnlyAccessorFactory());
+        return mapper;
+    }
+
+    @Entity(noClassnameStored = true)
+    private static class Numbers {
+        @Id
+        private ObjectId id = new ObjectId();
+        private int count;
+        private long total;
+        private double ratio;
+        private Integer boxed;
+    }
+
+    private static class PlusOneConverter extends TypeConverter implements SimpleValueConverter {
+        PlusOneConverter() {
+            super(Integer.class);
+        }
+
+        @Override
+        public Object decode(final Class<?> targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return ((Number) fromDBObject).intValue() - 1;
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            return value == null ? null : (Integer) value + 1;
+        }
+    }
+
+    /**
+     * Fails whenever a primitive field is read or written through its boxed value
+     */
+    private static class PrimitiveOnlyAccessorFactory implements FieldAccessorFactory {
+        private final FieldAccessorFactory reflective = new ReflectiveFieldAccessorFactory();
+
+        @Override
+        public FieldAccessor createAccessor(final Field field) {
+            final FieldAccessor accessor = reflective.createAccessor(field);
+            if (!field.getType().isPrimitive()) {
+                return accessor;
+            }
+            return new FieldAccessor() {
+                @Override
+                public Object get(final Object instance) {
+                    throw new AssertionError("boxed read of " + field.getName());
+                }
+
+                @Override
+                public void set(final Object instance, final Object value) {
+                    throw new AssertionError("boxed write of " + field.getName());
+                }
+
+                @Override
+                public int getInt(final Object instance) {
+                    return accessor.getInt(instance);
+                }
+
+                @Override
+                public void setInt(final Object instance, final int value) {
+                    accessor.setInt(instance, value);
+                }
+
+                @Override
+                public long getLong(final Object instance) {
+                    return accessor.getLong(instance);
+                }
+
+                @Override
+                public void setLong(final Object instance, final long value) {
+                    accessor.setLong(instance, value);
+                }
+
+                @Override
+                public double getDouble(final Object instance) {
+                    return accessor.getDouble(instance);
+                }
+
+                @Override
+                public void setDouble(final Object instance, final double value) {
+                    accessor.setDouble(instance, value);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.mongodb.morphia.mapping;
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.AlsoLoad;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.NotSaved;
+import org.mongodb.morphia.annotations.Property;
+import org.mongodb.morphia.annotations.Reference;
+import org.mongodb.morphia.converters.SimpleValueConverter;
+import org.mongodb.morphia.converters.TypeConverter;
+import org.mongodb.morphia.mapping.CodecPlan.FieldPlan;
+import org.mongodb.morphia.mapping.CodecPlan.Strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+public class CodecPlanTest {
+    @Test
+    public void strategies() {
+        final Mapper mapper = new Mapper();
+        final CodecPlan plan = mapper.getMappedClass(Planned.class).getCodecPlan(mapper);
+
+        final Map<String, FieldPlan> reads = byName(plan.getReads());
+        Assert.assertEquals(Strategy.VALUE, reads.get("id").getStrategy());
+        Assert.assertEquals(Strategy.VALUE, reads.get("name").getStrategy());
+        Assert.assertEquals(Strategy.EMBEDDED, reads.get("address").getStrategy());
+        Assert.assertEquals(Strategy.REFERENCE, reads.get("friend").getStrategy());
+        Assert.assertEquals(Strategy.DEFAULT, reads.get("point").getStrategy());
+        Assert.assertEquals(Strategy.VALUE, reads.get("loadedOnly").getStrategy());
+
+        final Map<String, FieldPlan> writes = byName(plan.getWrites());
+        Assert.assertFalse(writes.containsKey("loadedOnly"));
+        Assert.assertEquals(Strategy.EMBEDDED, writes.get("address").getStrategy());
+        Assert.assertTrue(writes.get("address").isCheckValue());
+        Assert.assertEquals(Strategy.VALUE, writes.get("name").getStrategy());
+        Assert.assertFalse(writes.get("name").isCheckValue());
+    }
+
+    @Test
+    public void rebuiltWhenConvertersChange() {
+        final Mapper mapper = new Mapper();
+        final MappedClass mc = mapper.getMappedClass(Planned.class);
+        final CodecPlan plan = mc.getCodecPlan(mapper);
+        Assert.assertSame(plan, mc.getCodecPlan(mapper));
+
+        mapper.getConverters().addConverter(new PointConverter());
+        final CodecPlan rebuilt = mc.getCodecPlan(mapper);
+        Assert.assertNotSame(plan, rebuilt);
+        Assert.assertEquals(Strategy.VALUE, byName(rebuilt.getReads()).get("point").getStrategy());
+        Assert.assertEquals(Strategy.VALUE, byName(rebuilt.getWrites()).get("point").getStrategy());
+    }
+
+    @Test
+    public void resolvesNamesOnce() throws NoSuchFieldException {
+        final Mapper mapper = new Mapper();
+        final Map<String, FieldPlan> reads = byName(mapper.getMappedClass(Planned.class).getCodecPlan(mapper).getReads());
+
+        final MappedField name = reads.get("name").getField();
+        Assert.assertEquals("name", name.getNameToStore());
+        Assert.assertEquals(asList("name", "oldName"), name.getLoadNames());
+        Assert.assertSame(name.getLoadNames(), name.getLoadNames());
+
+        name.addAnnotation(Property.class, Renamed.class.getDeclaredField("name").getAnnotation(Property.class));
+        Assert.assertEquals("renamed", name.getNameToStore());
+        Assert.assertEquals(asList("renamed", "oldName"), name.getLoadNames());
+    }
+
+    @Test
+    public void roundTrip() {
+        final Mapper mapper = new Mapper();
+        final Planned planned = new Planned();
+        planned.id = new ObjectId();
+        planned.name = "planned";
+        planned.address = new Address();
+        planned.address.street = "Main St";
+        planned.loadedOnly = "skipped";
+
+        final DBObject dbObject = mapper.toDBObject(planned);
+        Assert.assertFalse(dbObject.containsField("loadedOnly"));
+
+        final Planned loaded = mapper.fromDb(null, dbObject, new Planned(), mapper.createEntityCache());
+        Assert.assertEquals(planned.id, loaded.id);
+        Assert.assertEquals("planned", loaded.name);
+        Assert.assertEquals("Main St", loaded.address.street);
+        Assert.assertNull(loaded.loadedOnly);
+    }
+
+    private Map<String, FieldPlan> byName(final FieldPlan[] plans) {
+        final Map<String, FieldPlan> map = new HashMap<String, FieldPlan>();
+        for (final FieldPlan plan : plans) {
+            map.put(plan.getField().getJavaFieldName(), plan);
+        }
+        return map;
+    }
+
+    @Entity
+    private static class Planned {
+        @Id
+        private ObjectId id;
+        @AlsoLoad("oldName")
+        private String name;
+        @Embedded
+        private Address address;
+        @Reference
+        private Planned friend;
+        private Point point;
+        @NotSaved
+        private String loadedOnly;
+    }
+
+    private static class Renamed {
+        @Property("renamed")
+        private String name;
+    }
+
+    @Embedded
+    private static class Address {
+        private String street;
+    }
+
+    private static class Point {
+        private int x;
+        private int y;
+    }
+
+    private static class PointConverter extends TypeConverter implements SimpleValueConverter {
+        PointConverter() {
+            super(Point.class);
+        }
+
+        @Override
+        public Object decode(final Class<?> targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return new Point();
+        }
+    }
+}
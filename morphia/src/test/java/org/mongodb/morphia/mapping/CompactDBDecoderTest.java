@@ -0,0 +1,101 @@
+package org.mongodb.morphia.mapping;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import org.bson.BasicBSONEncoder;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+public class CompactDBDecoderTest {
+    @Test
+    public void decode() {
+        final ObjectId id = new ObjectId();
+        final DBObject decoded = CompactDBDecoder.FACTORY.create().decode(encode(id), (DBCollection) null);
+
+        Assert.assertTrue(decoded instanceof CompactDBObject);
+        Assert.assertEquals(asList("_id", "name", "address", "tags", "ref"), new ArrayList<String>(decoded.keySet()));
+        Assert.assertEquals(id, decoded.get("_id"));
+        Assert.assertTrue(decoded.get("address") instanceof CompactDBObject);
+        Assert.assertTrue(decoded.get("tags") instanceof BasicDBList);
+        Assert.assertEquals(new DBRef("other", id), decoded.get("ref"));
+        Assert.assertEquals(new BasicDBObject("street", "Main St"), decoded.get("address"));
+    }
+
+    @Test
+    public void mapping() {
+        final Mapper mapper = new Mapper();
+        final ObjectId id = new ObjectId();
+        final DBObject decoded = CompactDBDecoder.FACTORY.create().decode(encode(id), (DBCollection) null);
+
+        final Person person = mapper.fromDb(null, decoded, new Person(), mapper.createEntityCache());
+        Assert.assertEquals(id, person.id);
+        Assert.assertEquals("compact", person.name);
+        Assert.assertEquals("Main St", person.address.street);
+        Assert.assertEquals(asList("a", "b"), person.tags);
+    }
+
+    @Test
+    public void updates() {
+        final CompactDBObject dbObject = new CompactDBObject(1);
+        for (int i = 0; i < 20; i++) {
+            dbObject.put("field" + i, i);
+        }
+        Assert.assertEquals(20, dbObject.size());
+        Assert.assertEquals(19, dbObject.get("field19"));
+
+        Assert.assertEquals(5, dbObject.put("field5", "five"));
+        Assert.assertEquals("five", dbObject.get("field5"));
+        Assert.assertEquals(20, dbObject.size());
+
+        Assert.assertEquals(0, dbObject.removeField("field0"));
+        Assert.assertFalse(dbObject.containsField("field0"));
+        Assert.assertEquals("field1", dbObject.keySet().iterator().next());
+
+        final Iterator<String> keys = dbObject.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().endsWith("1")) {
+                keys.remove();
+            }
+        }
+        Assert.assertEquals(17, dbObject.size());
+        Assert.assertFalse(dbObject.containsField("field11"));
+        Assert.assertEquals(dbObject, new BasicDBObject(dbObject.toMap()));
+    }
+
+    private byte[] encode(final ObjectId id) {
+        final BasicDBObject dbObject = new BasicDBObject("_id", id)
+                                           .append("name", "compact")
+                                           .append("address", new BasicDBObject("street", "Main St"))
+                                           .append("tags", asList("a", "b"))
+                                           .append("ref", new BasicDBObject("$ref", "other").append("$id", id));
+        return new BasicBSONEncoder().encode(dbObject);
+    }
+
+    @Entity(noClassnameStored = true)
+    private static class Person {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Embedded
+        private Address address;
+        private List<String> tags;
+    }
+
+    @Embedded
+    private static class Address {
+        private String street;
+    }
+}
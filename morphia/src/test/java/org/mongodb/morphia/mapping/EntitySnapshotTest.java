@@ -0,0 +1,51 @@
+package org.mongodb.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+
+public class EntitySnapshotTest {
+    @Test
+    public void unchanged() {
+        final ObjectId id = new ObjectId();
+        final EntitySnapshot snapshot = EntitySnapshot.of(document(id, "name", asList(1, 2)));
+        Assert.assertNull(snapshot.diff(document(id, "name", asList(1, 2))));
+    }
+
+    @Test
+    public void changed() {
+        final ObjectId id = new ObjectId();
+        final EntitySnapshot snapshot = EntitySnapshot.of(document(id, "name", asList(1, 2)));
+
+        final DBObject update = snapshot.diff(document(id, "renamed", asList(1, 2, 3)));
+        Assert.assertEquals(new BasicDBObject("$set", new BasicDBObject("name", "renamed").append("values", asList(1, 2, 3))), update);
+    }
+
+    @Test
+    public void addedAndRemoved() {
+        final ObjectId id = new ObjectId();
+        final EntitySnapshot snapshot = EntitySnapshot.of(document(id, "name", asList(1, 2)));
+
+        final DBObject current = document(id, "name", asList(1, 2));
+        current.removeField("values");
+        current.put("added", new BasicDBObject("nested", true));
+
+        final DBObject update = snapshot.diff(current);
+        Assert.assertEquals(new BasicDBObject("$set", new BasicDBObject("added", new BasicDBObject("nested", true)))
+                                .append("$unset", new BasicDBObject("values", "")), update);
+    }
+
+    @Test
+    public void idIsNeverSet() {
+        final EntitySnapshot snapshot = EntitySnapshot.of(document(new ObjectId(), "name", asList(1, 2)));
+        Assert.assertNull(snapshot.diff(document(new ObjectId(), "name", asList(1, 2))));
+    }
+
+    private DBObject document(final ObjectId id, final String name, final Object values) {
+        return new BasicDBObject("_id", id).append("className", "Some").append("name", name).append("values", values);
+    }
+}
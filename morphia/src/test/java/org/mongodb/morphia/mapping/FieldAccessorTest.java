@@ -0,0 +1,114 @@
+package org.mongodb.morphia.mapping;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FieldAccessorTest {
+    @Test
+    public void reflective() throws NoSuchFieldException {
+        check(new ReflectiveFieldAccessorFactory());
+    }
+
+    @Test
+    public void unsafe() throws NoSuchFieldException {
+        Assert.assertTrue(UnsafeFieldAccessorFactory.isAvailable());
+        check(new UnsafeFieldAccessorFactory());
+    }
+
+    @Test
+    public void mapperOptions() throws NoSuchFieldException {
+        final Mapper mapper = new Mapper();
+        mapper.getOptions().setFieldAccessorFactory(new UnsafeFieldAccessorFactory());
+        final MappedField mf = mapper.getMappedClass(Fields.class).getMappedFieldByJavaField("name");
+        final Fields fields = new Fields();
+        mf.setFieldValue(fields, "morphia");
+        Assert.assertEquals("morphia", fields.name);
+        Assert.assertEquals("morphia", mf.getFieldValue(fields));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongType() throws NoSuchFieldException {
+        accessor(new UnsafeFieldAccessorFactory(), "name").set(new Fields(), 42);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongPrimitive() throws NoSuchFieldException {
+        accessor(new UnsafeFieldAccessorFactory(), "count").setLong(new Fields(), 42L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongInstance() throws NoSuchFieldException {
+        accessor(new UnsafeFieldAccessorFactory(), "total").getLong("not a Fields");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongInstanceForObjects() throws NoSuchFieldException {
+        accessor(new UnsafeFieldAccessorFactory(), "name").get(new Object());
+    }
+
+    private void check(final FieldAccessorFactory factory) throws NoSuchFieldException {
+        final Fields fields = new Fields();
+
+        final FieldAccessor count = accessor(factory, "count");
+        count.setInt(fields, 12);
+        Assert.assertEquals(12, fields.count);
+        Assert.assertEquals(12, count.getInt(fields));
+        Assert.assertEquals(12L, count.getLong(fields));
+        count.set(fields, 13);
+        Assert.assertEquals(13, count.get(fields));
+        // widening conversions behave as with Field.set()
+        count.set(fields, (short) 14);
+        Assert.assertEquals(14, fields.count);
+
+        final FieldAccessor total = accessor(factory, "total");
+        total.setLong(fields, Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, fields.total);
+        total.set(fields, 15);
+        Assert.assertEquals(15L, total.get(fields));
+
+        final FieldAccessor ratio = accessor(factory, "ratio");
+        ratio.setDouble(fields, 0.5);
+        Assert.assertEquals(0.5, ratio.getDouble(fields), 0);
+        ratio.set(fields, 1.5);
+        Assert.assertEquals(1.5, fields.ratio, 0);
+
+        final FieldAccessor flag = accessor(factory, "flag");
+        flag.set(fields, true);
+        Assert.assertEquals(true, flag.get(fields));
+
+        final FieldAccessor name = accessor(factory, "name");
+        name.set(fields, "name");
+        Assert.assertEquals("name", name.get(fields));
+        name.set(fields, null);
+        Assert.assertNull(fields.name);
+
+        final List<String> list = new ArrayList<String>();
+        final FieldAccessor values = accessor(factory, "values");
+        values.set(fields, list);
+        Assert.assertSame(list, values.get(fields));
+
+        final FieldAccessor fixed = accessor(factory, "fixed");
+        fixed.set(fields, "changed");
+        Assert.assertEquals("changed", fixed.get(fields));
+    }
+
+    private FieldAccessor accessor(final FieldAccessorFactory factory, final String name) throws NoSuchFieldException {
+        final Field field = Fields.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return factory.createAccessor(field);
+    }
+
+    private static class Fields {
+        private final String fixed = new String("fixed");
+        private int count;
+        private long total;
+        private double ratio;
+        private boolean flag;
+        private String name;
+        private List<String> values;
+    }
+}
@@ -0,0 +1,102 @@
+package org.mongodb.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.EntityListeners;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.PostLoad;
+import org.mongodb.morphia.annotations.PrePersist;
+import org.mongodb.morphia.annotations.PreSave;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LifecycleDispatcherTest {
+    @Test
+    public void callsEntityAndListenerMethods() {
+        final Mapper mapper = new Mapper();
+        final Audited audited = new Audited();
+
+        final DBObject dbObject = mapper.toDBObject(audited);
+        Assert.assertEquals(1, audited.prePersisted);
+        Assert.assertEquals("replaced", dbObject.get("marker"));
+        Assert.assertEquals("seen", dbObject.get("listener"));
+
+        final Audited loaded = mapper.fromDBObject(null, Audited.class, dbObject, new DefaultEntityCache());
+        Assert.assertTrue(loaded.loaded);
+    }
+
+    @Test
+    public void reusesListenerInstances() {
+        final Mapper mapper = new Mapper();
+        mapper.toDBObject(new Audited());
+        final Object listener = mapper.getInstanceCache().get(AuditListener.class);
+        mapper.toDBObject(new Audited());
+
+        Assert.assertSame(listener, mapper.getInstanceCache().get(AuditListener.class));
+        Assert.assertEquals(2, ((AuditListener) listener).saved.size());
+    }
+
+    @Test
+    public void rebuildsForAnotherMapper() {
+        final Mapper first = new Mapper();
+        final Mapper second = new Mapper();
+        final MappedClass mc = first.getMappedClass(Audited.class);
+        final Audited audited = new Audited();
+
+        mc.callLifecycleMethods(PreSave.class, audited, new BasicDBObject(), first);
+        mc.callLifecycleMethods(PreSave.class, audited, new BasicDBObject(), second);
+
+        Assert.assertEquals(1, ((AuditListener) first.getInstanceCache().get(AuditListener.class)).saved.size());
+        Assert.assertEquals(1, ((AuditListener) second.getInstanceCache().get(AuditListener.class)).saved.size());
+    }
+
+    @Test
+    public void eventsWithoutMethodsPassTheDocumentThrough() {
+        final Mapper mapper = new Mapper();
+        final DBObject dbObject = new BasicDBObject();
+        Assert.assertSame(dbObject, mapper.getMappedClass(Plain.class).callLifecycleMethods(PrePersist.class, new Plain(), dbObject,
+                                                                                              mapper));
+    }
+
+    @Entity
+    @EntityListeners(AuditListener.class)
+    private static class Audited {
+        @Id
+        private ObjectId id = new ObjectId();
+        private int prePersisted;
+        private transient boolean loaded;
+
+        @PrePersist
+        DBObject prePersist(final DBObject dbObject) {
+            prePersisted++;
+            return new BasicDBObject(dbObject.toMap()).append("marker", "replaced");
+        }
+
+        @PostLoad
+        void postLoad() {
+            loaded = true;
+        }
+    }
+
+    private static class AuditListener {
+        private final List<Object> saved = new ArrayList<Object>();
+
+        @PreSave
+        void preSave(final Object entity, final DBObject dbObject) {
+            saved.add(entity);
+            dbObject.put("listener", "seen");
+        }
+    }
+
+    @Entity
+    private static class Plain {
+        @Id
+        private ObjectId id;
+    }
+}
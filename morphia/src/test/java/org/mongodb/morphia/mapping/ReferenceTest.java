@@ -14,6 +14,9 @@ import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.annotations.Id;
 import org.mongodb.morphia.annotations.Reference;
 import org.mongodb.morphia.mapping.lazy.ProxyTestBase;
+import org.mongodb.morphia.metrics.HistogramMetrics;
+import org.mongodb.morphia.metrics.OperationStatistics;
+import org.mongodb.morphia.metrics.OperationType;
 import org.mongodb.morphia.query.MorphiaKeyIterator;
 import org.mongodb.morphia.query.Query;
 
@@ -58,6 +61,53 @@ public class ReferenceTest extends ProxyTestBase {
         assertEquals(parent, complexParent);
     }
 
+    @Test
+    public void testBatchReferenceLoading() {
+        getMorphia().getMapper().getOptions().setBatchReferenceLoading(true);
+        final HistogramMetrics metrics = new HistogramMetrics();
+        try {
+            final Ref[] refs = new Ref[]{new Ref("foo"), new Ref("bar"), new Ref("baz")};
+            getDs().save(refs);
+            final Key<Container> key = getDs().save(new Container(refs));
+
+            final Container retrieved = getDs().getByKey(Container.class, key);
+
+            assertEquals(asList(refs), retrieved.getCollectionRef());
+            final Map<Integer, Ref> expectedRefMap = new LinkedHashMap<Integer, Ref>();
+            for (int i = 0; i < refs.length; i++) {
+                expectedRefMap.put(i, refs[i]);
+            }
+            assertEquals(expectedRefMap, retrieved.getMapRef());
+
+            // without the single reference loading it first, the collection and the map share one $in query for all three
+            final Container batched = new Container(refs);
+            batched.singleRef = null;
+            batched.lazySingleRef = null;
+            getDs().save(batched);
+            getMorphia().getMapper().getOptions().setMetrics(metrics);
+            assertEquals(asList(refs), getDs().get(batched).getCollectionRef());
+            final OperationStatistics fetches = metrics.getStatistics(OperationType.REFERENCE_FETCH,
+                                                                      getDs().getCollection(Ref.class).getName(), Ref.class);
+            assertEquals(1, fetches.getCount());
+            assertEquals(refs.length, fetches.getDocuments());
+
+            final ComplexParent parent = new ComplexParent();
+            parent.complex = new Complex(new ChildId("Bob", 67), "Kelso");
+            parent.list = asList(new Complex(new ChildId("Turk", 27), "Turk"),
+                                 new Complex(new ChildId("JD", 26), "Dorian"));
+            parent.lazyList = asList(new Complex(new ChildId("Cinder", 22), "Ella"));
+            getDs().save(parent.complex);
+            getDs().save(parent.list);
+            getDs().save(parent.lazyList);
+            getDs().save(parent);
+
+            assertEquals(parent, getDs().get(ComplexParent.class, parent.id));
+        } finally {
+            getMorphia().getMapper().getOptions().setBatchReferenceLoading(false);
+            getMorphia().getMapper().getOptions().setMetrics(null);
+        }
+    }
+
     @Test
     public void testFindByEntityReference() {
         final Ref ref = new Ref("refId");
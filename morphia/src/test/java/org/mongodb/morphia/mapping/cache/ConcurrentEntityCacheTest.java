@@ -0,0 +1,78 @@
+package org.mongodb.morphia.mapping.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConcurrentEntityCacheTest {
+    @Test
+    public void behavesLikeDefault() {
+        final EntityCache cache = new ConcurrentEntityCacheFactory().createCache();
+        final Key<String> key = new Key<String>(String.class, "strings", 1);
+        final String value = "one";
+
+        Assert.assertNull(cache.exists(key));
+        Assert.assertNull(cache.getEntity(key));
+        cache.putEntity(key, value);
+        Assert.assertTrue(cache.exists(key));
+        Assert.assertSame(value, cache.getEntity(key));
+
+        final Key<String> missing = new Key<String>(String.class, "strings", 2);
+        cache.notifyExists(missing, false);
+        Assert.assertFalse(cache.exists(missing));
+
+        final EntityCacheStatistics stats = cache.stats();
+        Assert.assertEquals(2, stats.getEntities());
+        Assert.assertEquals(3, stats.getHits());
+        Assert.assertEquals(2, stats.getMisses());
+
+        cache.flush();
+        Assert.assertNull(cache.getEntity(key));
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        final EntityCache cache = new ConcurrentEntityCache();
+        final List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("value" + i);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < values.size(); i++) {
+                            final Key<String> key = new Key<String>(String.class, "strings", i);
+                            if (cache.getEntity(key) == null) {
+                                cache.putEntity(key, values.get(i));
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            Assert.assertSame(values.get(i), cache.getEntity(new Key<String>(String.class, "strings", i)));
+        }
+        final EntityCacheStatistics stats = cache.stats();
+        Assert.assertEquals(4 * values.size() + values.size(), stats.getHits() + stats.getMisses());
+    }
+}
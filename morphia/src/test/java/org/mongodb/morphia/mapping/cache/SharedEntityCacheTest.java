@@ -0,0 +1,178 @@
+package org.mongodb.morphia.mapping.cache;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Cached;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Reference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SharedEntityCacheTest extends TestBase {
+    private SharedEntityCacheFactory factory;
+    private EntityCacheFactory original;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        original = getMorphia().getMapper().getOptions().getCacheFactory();
+        factory = new SharedEntityCacheFactory(100, 1, TimeUnit.MINUTES);
+        getMorphia().getMapper().getOptions().setCacheFactory(factory);
+        getMorphia().map(Tenant.class, User.class);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setCacheFactory(original);
+        super.tearDown();
+    }
+
+    @Test
+    public void sharesReferencesAcrossQueries() {
+        final Tenant tenant = new Tenant("acme");
+        getDs().save(tenant);
+        getDs().save(new User("alice", tenant), new User("bob", tenant));
+
+        final User alice = getDs().find(User.class).filter("name", "alice").get();
+        final User bob = getDs().find(User.class).filter("name", "bob").get();
+        Assert.assertEquals("acme", alice.tenant.name);
+        Assert.assertSame(alice.tenant, bob.tenant);
+        Assert.assertEquals(1, factory.getStore().stats().getHits());
+    }
+
+    @Test
+    public void invalidatedOnSave() {
+        final Tenant tenant = new Tenant("acme");
+        getDs().save(tenant);
+        getDs().save(new User("alice", tenant));
+
+        final Tenant cached = getDs().find(User.class).get().tenant;
+        Assert.assertEquals("acme", cached.name);
+
+        tenant.name = "acme corp";
+        getDs().save(tenant);
+        Assert.assertEquals(0, factory.getStore().size());
+        Assert.assertEquals("acme corp", getDs().find(User.class).get().tenant.name);
+    }
+
+    @Test
+    public void invalidatedOnUpdateAndDelete() {
+        final Tenant tenant = new Tenant("acme");
+        getDs().save(tenant);
+        getDs().save(new User("alice", tenant));
+        getDs().find(User.class).get();
+        Assert.assertEquals(1, factory.getStore().size());
+
+        getDs().update(getDs().find(Tenant.class), getDs().createUpdateOperations(Tenant.class).set("name", "updated"));
+        Assert.assertEquals(0, factory.getStore().size());
+        Assert.assertEquals("updated", getDs().find(User.class).get().tenant.name);
+
+        getDs().delete(getDs().find(Tenant.class));
+        Assert.assertEquals(0, factory.getStore().size());
+    }
+
+    @Test
+    public void publishesOnlyCompleteAndCurrentEntities() {
+        final Key<Tenant> key = new Key<Tenant>(Tenant.class, "Tenant", new ObjectId());
+        final Tenant tenant = new Tenant("acme");
+        final SharedEntityCache cache = (SharedEntityCache) factory.createCache();
+        cache.putEntity(key, tenant);
+        cache.putEntity(key, tenant);
+        Assert.assertEquals(0, factory.getStore().size());
+
+        factory.getStore().invalidate("Tenant");
+        cache.publish(key, tenant);
+        Assert.assertEquals(0, factory.getStore().size());
+
+        final SharedEntityCache current = (SharedEntityCache) factory.createCache();
+        current.publish(key, tenant);
+        Assert.assertSame(tenant, factory.getStore().get(key));
+    }
+
+    @Test
+    public void customFactoriesArePublishedToAndInvalidated() {
+        final List<Object> published = new ArrayList<Object>();
+        final List<Object> invalidated = new ArrayList<Object>();
+        getMorphia().getMapper().getOptions().setCacheFactory(new AbstractEntityCacheFactory() {
+            @Override
+            public EntityCache createCache() {
+                return new DefaultEntityCache();
+            }
+
+            @Override
+            public <T> void publish(final EntityCache cache, final Key<T> key, final T entity) {
+                published.add(entity);
+            }
+
+            @Override
+            public void invalidate(final Key<?> key) {
+                invalidated.add(key.getId());
+            }
+
+            @Override
+            public void invalidate(final String collection) {
+                invalidated.add(collection);
+            }
+        });
+
+        final Tenant tenant = new Tenant("acme");
+        getDs().save(tenant);
+        Assert.assertEquals(Arrays.<Object>asList(tenant.id), invalidated);
+        final Tenant loaded = getDs().get(Tenant.class, tenant.id);
+        Assert.assertEquals(Arrays.<Object>asList(loaded), published);
+
+        getDs().delete(getDs().find(Tenant.class));
+        Assert.assertEquals(Arrays.<Object>asList(tenant.id, "Tenant"), invalidated);
+    }
+
+    @Test
+    public void uncachedClassesAreNotStored() {
+        getDs().save(new User("alice", null));
+        getDs().find(User.class).get();
+        getDs().find(User.class).get();
+        Assert.assertEquals(0, factory.getStore().size());
+    }
+
+    @Entity
+    @Cached(ttl = 10, unit = TimeUnit.MINUTES)
+    private static class Tenant {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Tenant() {
+        }
+
+        Tenant(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    private static class User {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private Tenant tenant;
+
+        User() {
+        }
+
+        User(final String name, final Tenant tenant) {
+            this.name = name;
+            this.tenant = tenant;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.mongodb.morphia.mapping.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.Key;
+
+public class SharedEntityStoreTest {
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final SharedEntityStore store = new SharedEntityStore(2);
+        store.put(key("a", 1), "one", 60000);
+        store.put(key("a", 2), "two", 60000);
+        Assert.assertEquals("one", store.get(key("a", 1)));
+
+        store.put(key("a", 3), "three", 60000);
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals("one", store.get(key("a", 1)));
+        Assert.assertNull(store.get(key("a", 2)));
+        Assert.assertEquals("three", store.get(key("a", 3)));
+    }
+
+    @Test
+    public void expires() {
+        final SharedEntityStore store = new SharedEntityStore(10);
+        store.put(key("a", 1), "one", -1);
+        store.put(key("a", 2), "two", 60000);
+        store.purge();
+        Assert.assertEquals(1, store.size());
+        Assert.assertNull(store.get(key("a", 1)));
+        Assert.assertEquals("two", store.get(key("a", 2)));
+    }
+
+    @Test
+    public void invalidates() {
+        final SharedEntityStore store = new SharedEntityStore(10);
+        store.put(key("a", 1), "one", 60000);
+        store.put(key("a", 2), "two", 60000);
+        store.put(key("b", 1), "b-one", 60000);
+
+        store.invalidate(new Key<Object>(Object.class, "a", 2));
+        Assert.assertNull(store.get(key("a", 2)));
+
+        store.invalidate("a");
+        Assert.assertNull(store.get(key("a", 1)));
+        Assert.assertEquals("b-one", store.get(key("b", 1)));
+        Assert.assertEquals(1, store.size());
+    }
+
+    @Test
+    public void dropsEntitiesReadBeforeAnInvalidation() {
+        final SharedEntityStore store = new SharedEntityStore(10);
+        final long generation = store.generation();
+        store.invalidate("a");
+        Assert.assertFalse(store.put(key("a", 1), "stale", 60000, generation));
+        Assert.assertTrue(store.put(key("b", 1), "b-one", 60000, generation));
+        Assert.assertTrue(store.put(key("a", 1), "fresh", 60000, store.generation()));
+        Assert.assertEquals("fresh", store.get(key("a", 1)));
+
+        final long beforeClear = store.generation();
+        store.clear();
+        Assert.assertFalse(store.put(key("b", 1), "stale", 60000, beforeClear));
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void stats() {
+        final SharedEntityStore store = new SharedEntityStore(10);
+        store.put(key("a", 1), "one", 60000);
+        store.get(key("a", 1));
+        store.get(key("a", 2));
+        Assert.assertEquals("EntityCacheStatistics: 1 entities, 1 hits, 1 misses.", store.stats().toString());
+    }
+
+    private Key<String> key(final String collection, final int id) {
+        return new Key<String>(String.class, collection, id);
+    }
+}
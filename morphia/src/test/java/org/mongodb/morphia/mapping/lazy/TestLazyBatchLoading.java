@@ -0,0 +1,130 @@
+package org.mongodb.morphia.mapping.lazy;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Reference;
+import org.mongodb.morphia.mapping.lazy.TestLazySingleReference.ReferencedEntity;
+import org.mongodb.morphia.mapping.lazy.proxy.LazyReferenceFetchingException;
+import org.mongodb.morphia.testutil.TestEntity;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class TestLazyBatchLoading extends ProxyTestBase {
+
+    @Test
+    public void fetchesSiblingsTogether() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        for (int i = 0; i < 8; i++) {
+            final ReferencedEntity reference = new ReferencedEntity();
+            reference.setFoo("foo " + i);
+            getDs().save(reference);
+            final BatchedRoot root = new BatchedRoot();
+            root.r = reference;
+            getDs().save(root);
+        }
+
+        final List<BatchedRoot> roots = getDs().createQuery(BatchedRoot.class).order("_id").asList();
+        Assert.assertEquals(8, roots.size());
+        for (final BatchedRoot root : roots) {
+            assertIsProxy(root.r);
+            assertNotFetched(root.r);
+        }
+
+        Assert.assertEquals("foo 0", roots.get(0).r.getFoo());
+        // the first 5 references are in memory now, the rest is not
+        getDs().delete(getDs().createQuery(ReferencedEntity.class));
+        for (int i = 1; i < 5; i++) {
+            assertNotFetched(roots.get(i).r);
+            Assert.assertEquals("foo " + i, roots.get(i).r.getFoo());
+        }
+        try {
+            roots.get(5).r.getFoo();
+            Assert.fail("the reference should have been fetched with the next batch");
+        } catch (LazyReferenceFetchingException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void fetchesSiblingsWithCompoundIds() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        for (int i = 0; i < 3; i++) {
+            final CompoundIdEntity reference = new CompoundIdEntity();
+            reference.id = new CompoundKey("key", i);
+            reference.foo = "foo " + i;
+            getDs().save(reference);
+            final CompoundBatchedRoot root = new CompoundBatchedRoot();
+            root.r = reference;
+            getDs().save(root);
+        }
+
+        final List<CompoundBatchedRoot> roots = getDs().createQuery(CompoundBatchedRoot.class).order("_id").asList();
+        Assert.assertEquals("foo 0", roots.get(0).r.getFoo());
+        getDs().delete(getDs().createQuery(CompoundIdEntity.class));
+        for (int i = 1; i < 3; i++) {
+            assertNotFetched(roots.get(i).r);
+            Assert.assertEquals("foo " + i, roots.get(i).r.getFoo());
+        }
+    }
+
+    public static class BatchedRoot extends TestEntity {
+        @Reference(lazy = true, batchSize = 5)
+        private ReferencedEntity r;
+    }
+
+    public static class CompoundBatchedRoot extends TestEntity {
+        @Reference(lazy = true, batchSize = 5)
+        private CompoundIdEntity r;
+    }
+
+    public static class CompoundIdEntity implements Serializable {
+        @Id
+        private CompoundKey id;
+        private String foo;
+
+        public String getFoo() {
+            return foo;
+        }
+    }
+
+    @Embedded
+    public static class CompoundKey implements Serializable {
+        private String name;
+        private int part;
+
+        public CompoundKey() {
+        }
+
+        CompoundKey(final String name, final int part) {
+            this.name = name;
+            this.part = part;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final CompoundKey that = (CompoundKey) o;
+            return part == that.part && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + part;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.mongodb.morphia.mapping.lazy;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.annotations.Reference;
+import org.mongodb.morphia.mapping.lazy.TestLazySingleReference.ReferencedEntity;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReference;
+import org.mongodb.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
+import org.mongodb.morphia.testutil.TestEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSubclassLazyProxyFactory extends ProxyTestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().getMapper().getOptions().setProxyFactory(new SubclassLazyProxyFactory());
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setProxyFactory(null);
+        super.tearDown();
+    }
+
+    @Test
+    public void fetchesSingleReferencesOnUse() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final ReferencedEntity reference = new ReferencedEntity();
+        reference.setFoo("bar");
+        getDs().save(reference);
+        SingleRoot root = new SingleRoot();
+        root.r = reference;
+        root.second = reference;
+        getDs().save(root);
+
+        root = getDs().get(root);
+        final ReferencedEntity proxy = root.r;
+        assertIsProxy(proxy);
+        Assert.assertSame(proxy, root.second);
+        Assert.assertEquals(reference.getId(), proxy.getId());
+        assertNotFetched(proxy);
+        Assert.assertEquals("bar", proxy.getFoo());
+        assertFetched(proxy);
+
+        getDs().save(root);
+        Assert.assertEquals(reference.getId(), getDs().get(root).r.getId());
+    }
+
+    @Test
+    public void fetchesCollectionsOnUse() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final ListRoot root = new ListRoot();
+        for (int i = 0; i < 3; i++) {
+            final ReferencedEntity reference = new ReferencedEntity();
+            reference.setFoo("foo " + i);
+            getDs().save(reference);
+            root.references.add(reference);
+        }
+        getDs().save(root);
+
+        final ListRoot loaded = getDs().get(root);
+        assertIsProxy(loaded.references);
+        Assert.assertEquals(3, ((ProxiedEntityReferenceList) loaded.references).__getKeysAsList().size());
+        assertNotFetched(loaded.references);
+        Assert.assertEquals("foo 1", loaded.references.get(1).getFoo());
+        assertFetched(loaded.references);
+    }
+
+    @Test
+    public void doesNotKeepProxiesAlive() throws Exception {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final SubclassLazyProxyFactory factory = new SubclassLazyProxyFactory();
+        ReferencedEntity first = factory.createProxy(getDs(), ReferencedEntity.class,
+                                                     new Key<ReferencedEntity>(ReferencedEntity.class, "ReferencedEntity", "first"), false);
+        final ReferencedEntity second = factory.createProxy(getDs(), ReferencedEntity.class,
+                                                            new Key<ReferencedEntity>(ReferencedEntity.class, "ReferencedEntity", "second"),
+                                                            false);
+        Assert.assertSame(first.getClass(), second.getClass());
+        Assert.assertEquals("second", ((ProxiedEntityReference) second).__getKey().getId());
+
+        final WeakReference<ReferencedEntity> reference = new WeakReference<ReferencedEntity>(first);
+        first = null;
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+    }
+
+    @Test
+    public void serializesTheTarget() throws Exception {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final ReferencedEntity reference = new ReferencedEntity();
+        reference.setFoo("bar");
+        getDs().save(reference);
+        SingleRoot root = new SingleRoot();
+        root.r = reference;
+        getDs().save(root);
+        root = getDs().get(root);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(root.r);
+        out.close();
+        final Object read = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertNotProxy(read);
+        Assert.assertEquals("bar", ((ReferencedEntity) read).getFoo());
+    }
+
+    private static class SingleRoot extends TestEntity {
+        @Reference(lazy = true)
+        private ReferencedEntity r;
+        @Reference(lazy = true)
+        private ReferencedEntity second;
+    }
+
+    private static class ListRoot extends TestEntity {
+        @Reference(lazy = true)
+        private List<ReferencedEntity> references = new ArrayList<ReferencedEntity>();
+    }
+}
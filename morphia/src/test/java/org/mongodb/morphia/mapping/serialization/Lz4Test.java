@@ -0,0 +1,69 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class Lz4Test {
+    @Test
+    public void roundTrip() throws IOException {
+        final Random random = new Random(42);
+        for (final int length : new int[]{0, 1, 12, 13, 100, 1000, 70000, 300000}) {
+            check(new byte[length]);
+            check(randomBytes(random, length, 256));
+            check(randomBytes(random, length, 4));
+            final byte[] text = new byte[length];
+            final byte[] phrase = "the quick brown fox jumps over the lazy dog ".getBytes("UTF-8");
+            for (int i = 0; i < length; i++) {
+                text[i] = phrase[(i * 7 / 6) % phrase.length];
+            }
+            check(text);
+        }
+    }
+
+    @Test
+    public void compresses() {
+        final byte[] data = new byte[10000];
+        Arrays.fill(data, (byte) 'a');
+        Assert.assertTrue(Lz4.compress(data, 0, data.length, new byte[Lz4.maxCompressedLength(data.length)], 0) < 100);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptOffset() throws IOException {
+        final byte[] data = new byte[100];
+        final byte[] compressed = new byte[Lz4.maxCompressedLength(data.length)];
+        final int length = Lz4.compress(data, 0, data.length, compressed, 0);
+        // the offset of the first match now points before the start of the output
+        compressed[2] = (byte) 0xFF;
+        Lz4.decompress(compressed, 0, length, new byte[data.length], 0, data.length);
+    }
+
+    @Test(expected = IOException.class)
+    public void wrongLength() throws IOException {
+        final byte[] data = randomBytes(new Random(1), 100, 4);
+        final byte[] compressed = new byte[Lz4.maxCompressedLength(data.length)];
+        final int length = Lz4.compress(data, 0, data.length, compressed, 0);
+        Lz4.decompress(compressed, 0, length, new byte[data.length + 1], 0, data.length + 1);
+    }
+
+    private static void check(final byte[] data) throws IOException {
+        final byte[] compressed = new byte[Lz4.maxCompressedLength(data.length) + 3];
+        final int length = Lz4.compress(data, 0, data.length, compressed, 3);
+        Assert.assertTrue(length <= Lz4.maxCompressedLength(data.length));
+        final byte[] decompressed = new byte[data.length];
+        Lz4.decompress(compressed, 3, length, decompressed, 0, data.length);
+        Assert.assertArrayEquals(data, decompressed);
+    }
+
+    private static byte[] randomBytes(final Random random, final int length, final int range) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) random.nextInt(range);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,193 @@
+package org.mongodb.morphia.mapping.serialization;
+
+
+import com.mongodb.DBObject;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Serialized;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.Serializer;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class SerializationFormatTest {
+    private static final SerializationFormat DEFLATE = new SerializationFormat(new JavaSerialization(), Compression.DEFLATE);
+
+    @Test
+    public void roundTrip() throws IOException, ClassNotFoundException {
+        final Payload payload = payload();
+        for (final SerializationStrategy strategy : new SerializationStrategy[]{new JavaSerialization(), new CompactJavaSerialization()}) {
+            for (final Compression compression : Compression.values()) {
+                final SerializationFormat format = new SerializationFormat(strategy, compression);
+                for (final boolean compress : new boolean[]{true, false}) {
+                    final byte[] bytes = format.serialize(payload, compress);
+                    Assert.assertEquals(SerializationFormat.MAGIC, bytes[0]);
+                    Assert.assertEquals(strategy.getId(), bytes[2]);
+                    Assert.assertEquals(compress ? compression.getId() : 0, bytes[3]);
+                    Assert.assertEquals(payload, format.deserialize(bytes));
+                    Assert.assertEquals(payload, format.deserialize(new Binary(bytes)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readsLegacyValues() throws IOException, ClassNotFoundException {
+        final Payload payload = payload();
+        Assert.assertEquals(payload, SerializationFormat.DEFAULT.deserialize(Serializer.serialize(payload, true)));
+        Assert.assertEquals(payload, SerializationFormat.DEFAULT.deserialize(Serializer.serialize(payload, false)));
+    }
+
+    @Test
+    public void writesLegacyValuesByDefault() throws IOException, ClassNotFoundException {
+        final Payload payload = payload();
+        for (final boolean compress : new boolean[]{true, false}) {
+            final byte[] bytes = SerializationFormat.DEFAULT.serialize(payload, compress);
+            Assert.assertArrayEquals(Serializer.serialize(payload, compress), bytes);
+            Assert.assertEquals(payload, Serializer.deserialize(bytes, compress));
+        }
+    }
+
+    @Test
+    public void readsValuesOfOtherStrategies() throws IOException, ClassNotFoundException {
+        final Payload payload = payload();
+        final SerializationFormat compact = new SerializationFormat(new CompactJavaSerialization(), Compression.LZ4);
+        Assert.assertEquals(payload, SerializationFormat.DEFAULT.deserialize(compact.serialize(payload, true)));
+        Assert.assertEquals(payload, compact.deserialize(SerializationFormat.DEFAULT.serialize(payload, true)));
+    }
+
+    @Test
+    public void compactIsSmaller() throws IOException {
+        final Payload payload = payload();
+        Assert.assertTrue(new SerializationFormat(new CompactJavaSerialization(), Compression.NONE).serialize(payload, false).length
+                          < new SerializationFormat(new JavaSerialization(), Compression.NONE).serialize(payload, false).length);
+    }
+
+    @Test
+    public void incompressibleValuesAreStoredAsIs() throws IOException, ClassNotFoundException {
+        final byte[] bytes = DEFLATE.serialize(1, true);
+        Assert.assertEquals(Compression.NONE.getId(), bytes[3]);
+        Assert.assertEquals(1, DEFLATE.deserialize(bytes));
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownStrategy() throws IOException, ClassNotFoundException {
+        final byte[] bytes = DEFLATE.serialize("value", false);
+        bytes[2] = 99;
+        DEFLATE.deserialize(bytes);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws IOException, ClassNotFoundException {
+        final byte[] bytes = DEFLATE.serialize(payload(), true);
+        DEFLATE.deserialize(Arrays.copyOf(bytes, bytes.length - 4));
+    }
+
+    @Test(expected = IOException.class)
+    public void implausibleLength() throws IOException, ClassNotFoundException {
+        final byte[] bytes = DEFLATE.serialize(payload(), true);
+        bytes[4] = 0x7F;
+        DEFLATE.deserialize(bytes);
+    }
+
+    @Test
+    public void customStrategy() throws IOException, ClassNotFoundException {
+        final SerializationFormat format = new SerializationFormat(new StringStrategy(), Compression.LZ4);
+        final byte[] bytes = format.serialize("value", false);
+        Assert.assertEquals(16, bytes[2]);
+        Assert.assertEquals("value", format.deserialize(bytes));
+    }
+
+    @Test
+    public void mapperOptions() {
+        final Mapper mapper = new Mapper();
+        mapper.getOptions().setSerializationFormat(new SerializationFormat(new CompactJavaSerialization(), Compression.LZ4));
+        final Holder holder = new Holder();
+        holder.payload = payload();
+
+        final DBObject dbObject = mapper.toDBObject(holder);
+        Assert.assertEquals(CompactJavaSerialization.ID, ((byte[]) dbObject.get("payload"))[2]);
+        Assert.assertEquals(holder.payload, mapper.fromDBObject(null, Holder.class, dbObject, new DefaultEntityCache()).payload);
+    }
+
+    private static Payload payload() {
+        final Payload payload = new Payload();
+        payload.name = "payload";
+        payload.created = new Date(0);
+        payload.unit = TimeUnit.SECONDS;
+        for (int i = 0; i < 100; i++) {
+            payload.values.add("value " + (i % 10));
+            payload.counts.put("count " + i, i);
+        }
+        return payload;
+    }
+
+    @Entity(noClassnameStored = true)
+    private static class Holder {
+        @Id
+        private ObjectId id = new ObjectId();
+        @Serialized
+        private Payload payload;
+    }
+
+    private static class Payload implements Serializable {
+        private String name;
+        private Date created;
+        private TimeUnit unit;
+        private List<String> values = new ArrayList<String>();
+        private Map<String, Integer> counts = new HashMap<String, Integer>();
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Payload)) {
+                return false;
+            }
+            final Payload that = (Payload) o;
+            return name.equals(that.name) && created.equals(that.created) && unit == that.unit && values.equals(that.values)
+                   && counts.equals(that.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    private static class StringStrategy implements SerializationStrategy {
+        @Override
+        public int getId() {
+            return 16;
+        }
+
+        @Override
+        public void serialize(final Object value, final OutputStream out) throws IOException {
+            out.write(((String) value).getBytes("UTF-8"));
+        }
+
+        @Override
+        public Object deserialize(final InputStream in) throws IOException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.mongodb.morphia.metrics;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+import org.mongodb.morphia.query.MorphiaIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class HistogramMetricsTest {
+    @Test
+    public void keepsStatisticsPerOperationAndEntity() {
+        final HistogramMetrics metrics = new HistogramMetrics();
+        metrics.operation(new OperationEvent(OperationType.FIND, "people", Person.class, 10, -1, 1000, 2000, 3, 4));
+        metrics.operation(new OperationEvent(OperationType.FIND, "people", Person.class, 5, -1, 3000, 4000, 1, 0));
+        metrics.operation(new OperationEvent(OperationType.SAVE, "people", Person.class, 1, -1, 100, 100, 0, 0));
+        metrics.operation(new OperationEvent(OperationType.FIND, "things", Object.class, 1, -1, 50000, 0, 0, 0));
+
+        final List<OperationStatistics> all = metrics.getStatistics();
+        Assert.assertEquals(3, all.size());
+        Assert.assertEquals("things", all.get(0).getCollection());
+        Assert.assertEquals(OperationType.FIND, all.get(1).getType());
+        Assert.assertEquals(OperationType.SAVE, all.get(2).getType());
+
+        final OperationStatistics finds = metrics.getStatistics(OperationType.FIND, "people", Person.class);
+        Assert.assertEquals(2, finds.getCount());
+        Assert.assertEquals(15, finds.getDocuments());
+        Assert.assertEquals(4, finds.getCacheHits());
+        Assert.assertEquals(4, finds.getCacheMisses());
+        Assert.assertEquals(4000, finds.getDriverTime().getTotal());
+        Assert.assertEquals(6000, finds.getMapperTime().getTotal());
+        Assert.assertEquals(7000, finds.getTotalTime().getMax());
+        Assert.assertNull(metrics.getStatistics(OperationType.DELETE, "people", Person.class));
+
+        metrics.reset();
+        Assert.assertTrue(metrics.getStatistics().isEmpty());
+    }
+
+    @Test
+    public void iteratorReportsOnceExhausted() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final Mapper mapper = new Mapper();
+        mapper.getOptions().setMetrics(metrics);
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (int i = 0; i < 20; i++) {
+            documents.add(new BasicDBObject("_id", i));
+        }
+
+        final MorphiaIterator<Person, Person> iterator = new MorphiaIterator<Person, Person>(null, documents.iterator(), mapper,
+                                                                                             Person.class, "people",
+                                                                                             new DefaultEntityCache());
+        int count = 0;
+        for (final Person person : iterator) {
+            Assert.assertEquals(count++, person.id);
+        }
+        iterator.close();
+
+        Assert.assertEquals(1, metrics.events.size());
+        final OperationEvent event = metrics.events.get(0);
+        Assert.assertEquals(OperationType.FIND, event.getType());
+        Assert.assertEquals("people", event.getCollection());
+        Assert.assertEquals(Person.class, event.getEntityClass());
+        Assert.assertEquals(20, event.getDocuments());
+        Assert.assertTrue(event.getBytes() > 20 * 4);
+        Assert.assertTrue(event.getMapperTime(TimeUnit.NANOSECONDS) > 0);
+        Assert.assertEquals(iterator.getMapperTime(TimeUnit.NANOSECONDS), event.getMapperTime(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(iterator.getDriverTime(TimeUnit.NANOSECONDS), event.getDriverTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void closingEarlyReports() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final Mapper mapper = new Mapper();
+        mapper.getOptions().setMetrics(metrics);
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        documents.add(new BasicDBObject("_id", 1));
+        documents.add(new BasicDBObject("_id", 2));
+
+        final MorphiaIterator<Person, Person> iterator = new MorphiaIterator<Person, Person>(null, documents.iterator(), mapper,
+                                                                                             Person.class, "people",
+                                                                                             new DefaultEntityCache());
+        iterator.next();
+        iterator.close();
+        iterator.close();
+        Assert.assertEquals(1, metrics.events.size());
+        Assert.assertEquals(1, metrics.events.get(0).getDocuments());
+    }
+
+    private static class RecordingMetrics implements MorphiaMetrics {
+        private final List<OperationEvent> events = new ArrayList<OperationEvent>();
+
+        @Override
+        public boolean isMeasuringBytes() {
+            return true;
+        }
+
+        @Override
+        public void operation(final OperationEvent event) {
+            events.add(event);
+        }
+    }
+
+    private static class Person {
+        @Id
+        private int id;
+    }
+}
@@ -0,0 +1,62 @@
+package org.mongodb.morphia.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketsStayWithinTheRelativeError() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final long value = random.nextLong() >>> (24 + random.nextInt(40));
+            final long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            Assert.assertTrue(value + " > " + highest, value <= highest);
+            Assert.assertTrue(value + " -> " + highest, highest - value <= Math.max(value / 64, 1));
+        }
+        for (long value = 0; value < 128; value++) {
+            Assert.assertEquals(value, LatencyHistogram.highestValue(LatencyHistogram.index(value)));
+        }
+    }
+
+    @Test
+    public void computesPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(1000000, histogram.getMax());
+        Assert.assertEquals(500500, histogram.getMean(), 0.001);
+        assertClose(500000, histogram.getValueAtPercentile(50));
+        assertClose(990000, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(1000, histogram.getValueAtPercentile(0), 1000 / 64);
+    }
+
+    @Test
+    public void clampsOutOfRangeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(2, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getMax());
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void resets() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(12345);
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    private static void assertClose(final long expected, final long actual) {
+        Assert.assertTrue(expected + " != " + actual, Math.abs(expected - actual) <= expected / 64);
+    }
+}
@@ -0,0 +1,120 @@
+package org.mongodb.morphia.metrics;
+
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Reference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestMorphiaMetrics extends TestBase {
+    private final HistogramMetrics metrics = new HistogramMetrics(true);
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().getMapper().getOptions().setMetrics(metrics);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setMetrics(null);
+        super.tearDown();
+    }
+
+    @Test
+    public void reportsWrites() {
+        getDs().save(new Author("Ann"));
+        getAds().insert(new Author("Bob"));
+        getDs().update(getDs().createQuery(Author.class), getDs().createUpdateOperations(Author.class).set("name", "Cy"));
+        getDs().delete(getDs().createQuery(Author.class).filter("name", "Cy"));
+
+        final OperationStatistics saves = metrics.getStatistics(OperationType.SAVE, "authors", Author.class);
+        Assert.assertEquals(1, saves.getCount());
+        Assert.assertEquals(1, saves.getDocuments());
+        Assert.assertTrue(saves.getBytes() > 0);
+        Assert.assertTrue(saves.getDriverTime().getMax() > 0);
+        Assert.assertEquals(1, metrics.getStatistics(OperationType.INSERT, "authors", Author.class).getDocuments());
+        Assert.assertEquals(2, metrics.getStatistics(OperationType.UPDATE, "authors", Author.class).getDocuments());
+        Assert.assertEquals(2, metrics.getStatistics(OperationType.DELETE, "authors", Author.class).getDocuments());
+    }
+
+    @Test
+    public void reportsFindsAndReferenceFetches() {
+        final List<Author> authors = new ArrayList<Author>();
+        for (int i = 0; i < 3; i++) {
+            final Author author = new Author("author " + i);
+            getDs().save(author);
+            authors.add(author);
+        }
+        getDs().save(new Book("shared", authors.get(0)));
+        getDs().save(new Book("other", authors.get(1)));
+        metrics.reset();
+
+        Assert.assertEquals(2, getDs().createQuery(Book.class).asList().size());
+        Assert.assertEquals(3, getDs().createQuery(Author.class).order("name").asList().size());
+        Assert.assertNotNull(getDs().createQuery(Author.class).get());
+
+        final OperationStatistics bookFinds = metrics.getStatistics(OperationType.FIND, "books", Book.class);
+        Assert.assertEquals(1, bookFinds.getCount());
+        Assert.assertEquals(2, bookFinds.getDocuments());
+        Assert.assertTrue(bookFinds.getCacheMisses() >= 2);
+
+        final OperationStatistics fetches = metrics.getStatistics(OperationType.REFERENCE_FETCH, "authors", Author.class);
+        Assert.assertEquals(2, fetches.getCount());
+        Assert.assertEquals(2, fetches.getDocuments());
+        Assert.assertTrue(bookFinds.getMapperTime().getTotal() >= fetches.getTotalTime().getTotal());
+
+        final OperationStatistics authorFinds = metrics.getStatistics(OperationType.FIND, "authors", Author.class);
+        Assert.assertEquals(2, authorFinds.getCount());
+        Assert.assertEquals(4, authorFinds.getDocuments());
+    }
+
+    @Test
+    public void skipsTimingWithoutMetrics() {
+        getMorphia().getMapper().getOptions().setMetrics(null);
+        getDs().save(new Author("Dee"));
+        Assert.assertEquals(1, getDs().createQuery(Author.class).asList().size());
+        Assert.assertTrue(metrics.getStatistics().isEmpty());
+    }
+
+    @Entity("authors")
+    private static class Author {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Author() {
+        }
+
+        Author(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("books")
+    private static class Book {
+        @Id
+        private ObjectId id;
+        private String title;
+        @Reference
+        private Author author;
+
+        Book() {
+        }
+
+        Book(final String title, final Author author) {
+            this.title = title;
+            this.author = author;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.mongodb.morphia.processor;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.utils.EntityIndex;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class EntityIndexProcessorTest {
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("entity-index", "");
+        Assert.assertTrue(directory.delete() && directory.mkdir());
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void indexesAnnotatedAndInheritingClasses() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        writeSources();
+        Assert.assertEquals(0, compile(compiler, "-processor", EntityIndexProcessor.class.getName(), "com/example/index/Person.java",
+                                       "com/example/index/sub/Employee.java", "com/example/index/Plain.java"));
+
+        final URLClassLoader loader = loader(directory);
+        final Map<String, String> expected = new LinkedHashMap<String, String>();
+        expected.put("com.example.index.Person", EntityIndex.ENTITY);
+        expected.put("com.example.index.Person$Address", EntityIndex.EMBEDDED);
+        expected.put("com.example.index.Plain", EntityIndex.UNMAPPED);
+        expected.put("com.example.index.sub.Employee", EntityIndex.ENTITY);
+        Assert.assertEquals(expected, EntityIndex.read(loader));
+
+        final Set<Class<?>> classes = EntityIndex.getClasses(loader, "com.example.index", false);
+        Assert.assertEquals(2, classes.size());
+        Assert.assertEquals(3, EntityIndex.getClasses(loader, "com.example.index", true).size());
+        Assert.assertTrue(EntityIndex.getClasses(loader, "com.example.other", true).isEmpty());
+
+        // an incremental compile keeps the entries of the classes it did not compile
+        Assert.assertEquals(0, compile(compiler, "-processor", EntityIndexProcessor.class.getName(),
+                                       "com/example/index/sub/Employee.java"));
+        Assert.assertEquals(expected, EntityIndex.read(loader));
+        Assert.assertTrue(EntityIndex.read(new FileInputStream(new File(directory, EntityIndex.RESOURCE)), new HashMap<String, String>()));
+
+        // a class compiled without the processor is not indexed, and an indexed class which was since removed is not loaded
+        write("com/example/index/Later.java", "package com.example.index;\n"
+                                                + "@org.mongodb.morphia.annotations.Entity\n"
+                                                + "public class Later { }\n");
+        Assert.assertEquals(0, compile(compiler, "-proc:none", "com/example/index/Later.java"));
+        final Writer index = new FileWriter(new File(directory, EntityIndex.RESOURCE), true);
+        try {
+            index.write("com.example.index.Removed entity\n");
+        } finally {
+            index.close();
+        }
+        Assert.assertEquals(3, EntityIndex.getClasses(loader, "com.example.index", false).size());
+
+        // nor does a stale entry hide a class which has become an entity since
+        Assert.assertTrue(new File(directory, EntityIndex.RESOURCE).setLastModified(System.currentTimeMillis() - 60000));
+        write("com/example/index/Plain.java", "package com.example.index;\n"
+                                                + "@org.mongodb.morphia.annotations.Entity\n"
+                                                + "public class Plain { }\n");
+        Assert.assertEquals(0, compile(compiler, "-proc:none", "com/example/index/Plain.java"));
+        Assert.assertEquals(4, EntityIndex.getClasses(loader(directory), "com.example.index", false).size());
+    }
+
+    @Test
+    public void readsCompleteJarIndexesInsteadOfTheJar() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        writeSources();
+        Assert.assertEquals(0, compile(compiler, "-processor", EntityIndexProcessor.class.getName(), "com/example/index/Person.java",
+                                       "com/example/index/sub/Employee.java", "com/example/index/Plain.java"));
+        final File jar = jar("entities.jar");
+
+        final EntityIndex index = EntityIndex.load(loader(jar));
+        Assert.assertTrue(index.isComplete(jar));
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("com.example.index.Person", "com.example.index.sub.Employee")),
+                            index.getClassNames(jar, EntityIndex.ENTITY));
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("com.example.index.Person", "com.example.index.Person$Address",
+                                                              "com.example.index.sub.Employee")),
+                            names(EntityIndex.getClasses(loader(jar), "com.example.index", true)));
+    }
+
+    @Test
+    public void readsShadedJarsInFull() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        writeSources();
+        Assert.assertEquals(0, compile(compiler, "-processor", EntityIndexProcessor.class.getName(), "com/example/index/Person.java",
+                                       "com/example/index/sub/Employee.java", "com/example/index/Plain.java"));
+        // a class of another module, merged into the jar without its index
+        write("com/example/index/Later.java", "package com.example.index;\n"
+                                                + "@org.mongodb.morphia.annotations.Entity\n"
+                                                + "public class Later { }\n");
+        Assert.assertEquals(0, compile(compiler, "-proc:none", "com/example/index/Later.java"));
+        final File jar = jar("shaded.jar");
+
+        Assert.assertFalse(EntityIndex.load(loader(jar)).isComplete(jar));
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("com.example.index.Later", "com.example.index.Person",
+                                                              "com.example.index.Person$Address", "com.example.index.sub.Employee")),
+                            names(EntityIndex.getClasses(loader(jar), "com.example.index", true)));
+    }
+
+    private void writeSources() throws IOException {
+        write("com/example/index/Person.java", "package com.example.index;\n"
+                                                + "@org.mongodb.morphia.annotations.Entity\n"
+                                                + "public class Person {\n"
+                                                + "    @org.mongodb.morphia.annotations.Embedded\n"
+                                                + "    public static class Address { }\n"
+                                                + "}\n");
+        write("com/example/index/sub/Employee.java", "package com.example.index.sub;\n"
+                                                       + "public class Employee extends com.example.index.Person { }\n");
+        write("com/example/index/Plain.java", "package com.example.index;\n"
+                                                + "public class Plain { }\n");
+    }
+
+    private int compile(final JavaCompiler compiler, final String... arguments) {
+        final List<String> list = new ArrayList<String>();
+        list.add("-classpath");
+        list.add(System.getProperty("java.class.path") + File.pathSeparator + directory.getPath());
+        list.add("-d");
+        list.add(directory.getPath());
+        for (final String argument : arguments) {
+            list.add(argument.endsWith(".java") ? new File(directory, argument).getPath() : argument);
+        }
+        return compiler.run(null, null, null, list.toArray(new String[list.size()]));
+    }
+
+    private static URLClassLoader loader(final File root) throws IOException {
+        return new URLClassLoader(new URL[]{root.toURI().toURL()}, null) {
+            @Override
+            protected Class<?> findClass(final String name) throws ClassNotFoundException {
+                return name.startsWith("com.example") ? super.findClass(name) : getClass().getClassLoader().loadClass(name);
+            }
+        };
+    }
+
+    private File jar(final String name) throws IOException {
+        final File jar = new File(directory, name);
+        final JarOutputStream stream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            addToJar(stream, directory, "");
+        } finally {
+            stream.close();
+        }
+        return jar;
+    }
+
+    private static Set<String> names(final Set<Class<?>> classes) {
+        final Set<String> names = new HashSet<String>();
+        for (final Class<?> clazz : classes) {
+            names.add(clazz.getName());
+        }
+        return names;
+    }
+
+    private static void addToJar(final JarOutputStream stream, final File file, final String name) throws IOException {
+        if (file.isDirectory()) {
+            if (name.length() != 0) {
+                stream.putNextEntry(new JarEntry(name));
+                stream.closeEntry();
+            }
+            for (final File child : file.listFiles()) {
+                if (child.isDirectory() || child.getName().endsWith(".class") || child.getName().equals("entity-index")) {
+                    addToJar(stream, child, name + child.getName() + (child.isDirectory() ? "/" : ""));
+                }
+            }
+        } else {
+            stream.putNextEntry(new JarEntry(name));
+            final InputStream in = new FileInputStream(file);
+            try {
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    stream.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+            stream.closeEntry();
+        }
+    }
+
+    private void write(final String path, final String source) throws IOException {
+        final File file = new File(directory, path);
+        Assert.assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        final Writer writer = new FileWriter(file);
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : Arrays.asList(children)) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,129 @@
+package org.mongodb.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.ConcurrentEntityCache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ParallelMorphiaIteratorTest {
+    private final Mapper mapper = new Mapper();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsResultsInCursorOrder() {
+        final List<Numbered> results = new ArrayList<Numbered>();
+        for (final Numbered numbered : iterator(documents(1000), executor, 16)) {
+            results.add(numbered);
+        }
+        Assert.assertEquals(1000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(i, results.get(i).id);
+            Assert.assertEquals("number " + i, results.get(i).name);
+        }
+    }
+
+    @Test
+    public void mapsOnCallerWhenExecutorRejects() {
+        final Executor rejecting = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        int count = 0;
+        for (final Numbered numbered : iterator(documents(50), rejecting, 8)) {
+            Assert.assertEquals(count++, numbered.id);
+        }
+        Assert.assertEquals(50, count);
+    }
+
+    @Test
+    public void returnsMappedEntitiesWithoutFillingWindow() {
+        final Executor direct = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        };
+        final Iterator<DBObject> documents = documents(100).iterator();
+        final int[] read = new int[1];
+        final Iterator<DBObject> counting = new Iterator<DBObject>() {
+            @Override
+            public boolean hasNext() {
+                return documents.hasNext();
+            }
+
+            @Override
+            public DBObject next() {
+                read[0]++;
+                return documents.next();
+            }
+
+            @Override
+            public void remove() {
+            }
+        };
+        final ParallelMorphiaIterator<Numbered, Numbered> iterator =
+            new ParallelMorphiaIterator<Numbered, Numbered>(null, counting, mapper, Numbered.class, "numbers", new ConcurrentEntityCache(),
+                                                            direct, 64);
+        Assert.assertEquals(0, iterator.next().id);
+        Assert.assertEquals(1, read[0]);
+    }
+
+    @Test
+    public void stopsWhenClosed() {
+        final ParallelMorphiaIterator<Numbered, Numbered> iterator = iterator(documents(100), executor, 8);
+        Assert.assertEquals(0, iterator.next().id);
+        iterator.close();
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void doesNotRemove() {
+        final ParallelMorphiaIterator<Numbered, Numbered> iterator = iterator(documents(10), executor, 8);
+        iterator.next();
+        iterator.remove();
+    }
+
+    private ParallelMorphiaIterator<Numbered, Numbered> iterator(final List<DBObject> documents, final Executor executor, final int window) {
+        return new ParallelMorphiaIterator<Numbered, Numbered>(null, documents.iterator(), mapper, Numbered.class, "numbers",
+                                                               new ConcurrentEntityCache(), executor, window);
+    }
+
+    private List<DBObject> documents(final int count) {
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (int i = 0; i < count; i++) {
+            documents.add(new BasicDBObject("_id", i).append("name", "number " + i));
+        }
+        return documents;
+    }
+
+    private static class Numbered {
+        @Id
+        private int id;
+        private String name;
+    }
+}
@@ -0,0 +1,122 @@
+package org.mongodb.morphia.query;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.DefaultEntityCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelScanIteratorTest {
+    private final Mapper mapper = new Mapper();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void mergesEverySegment() {
+        final List<MorphiaIterator<Numbered, Numbered>> segments = new ArrayList<MorphiaIterator<Numbered, Numbered>>();
+        for (int i = 0; i < 4; i++) {
+            segments.add(segment(documents(i * 250, 250).iterator()));
+        }
+        final Set<Integer> ids = new TreeSet<Integer>();
+        for (final Numbered numbered : new ParallelScanIterator<Numbered>(segments, executor, 16)) {
+            Assert.assertTrue(ids.add(numbered.id));
+        }
+        Assert.assertEquals(1000, ids.size());
+    }
+
+    @Test
+    public void throwsFailuresOfSegments() {
+        final Iterator<DBObject> failing = new Iterator<DBObject>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DBObject next() {
+                throw new IllegalStateException("cursor failed");
+            }
+
+            @Override
+            public void remove() {
+            }
+        };
+        final List<MorphiaIterator<Numbered, Numbered>> segments = Arrays.asList(segment(documents(0, 10).iterator()), segment(failing));
+        try {
+            for (final Numbered ignored : new ParallelScanIterator<Numbered>(segments, executor, 4)) {
+                Assert.assertNotNull(ignored);
+            }
+            Assert.fail("the failure of a segment should be thrown");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("cursor failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void stopsWhenClosed() {
+        final List<MorphiaIterator<Numbered, Numbered>> segments = Arrays.asList(segment(documents(0, 100).iterator()),
+                                                                                 segment(documents(100, 100).iterator()));
+        final ParallelScanIterator<Numbered> iterator = new ParallelScanIterator<Numbered>(segments, executor, 2);
+        Assert.assertNotNull(iterator.next());
+        iterator.close();
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void restrictsQueriesToRanges() {
+        final List<Object> boundaries = Arrays.<Object>asList(10, 20);
+        final DBObject all = new BasicDBObject();
+        Assert.assertEquals(new BasicDBObject("_id", new BasicDBObject("$lt", 10)), ParallelScan.rangeQuery(all, boundaries, 0));
+        Assert.assertEquals(new BasicDBObject("_id", new BasicDBObject("$gte", 10).append("$lt", 20)),
+                            ParallelScan.rangeQuery(all, boundaries, 1));
+        Assert.assertEquals(new BasicDBObject("_id", new BasicDBObject("$gte", 20)), ParallelScan.rangeQuery(all, boundaries, 2));
+
+        final DBObject filtered = new BasicDBObject("name", "a");
+        final BasicDBList and = new BasicDBList();
+        and.add(filtered);
+        and.add(new BasicDBObject("_id", new BasicDBObject("$gte", 20)));
+        Assert.assertEquals(new BasicDBObject("$and", and), ParallelScan.rangeQuery(filtered, boundaries, 2));
+        Assert.assertSame(filtered, ParallelScan.rangeQuery(filtered, new ArrayList<Object>(), 0));
+    }
+
+    private MorphiaIterator<Numbered, Numbered> segment(final Iterator<DBObject> documents) {
+        return new MorphiaIterator<Numbered, Numbered>(null, documents, mapper, Numbered.class, "numbers", new DefaultEntityCache());
+    }
+
+    private List<DBObject> documents(final int first, final int count) {
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (int i = first; i < first + count; i++) {
+            documents.add(new BasicDBObject("_id", i).append("name", "number " + i));
+        }
+        return documents;
+    }
+
+    private static class Numbered {
+        @Id
+        private int id;
+        private String name;
+    }
+}
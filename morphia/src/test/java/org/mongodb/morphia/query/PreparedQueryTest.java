@@ -0,0 +1,142 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Embedded;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Property;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mongodb.morphia.query.PreparedQuery.param;
+
+public class PreparedQueryTest extends TestBase {
+    @Test
+    public void bindsTranslatedFields() {
+        final PreparedQuery<Hotel> query = new PreparedQuery<Hotel>(getDs().createQuery(Hotel.class)
+                                                                         .filter("address.city", param("city"))
+                                                                         .filter("stars >=", param("stars")));
+        Assert.assertEquals(2, query.getParameterNames().size());
+
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put("city", "Berlin");
+        values.put("stars", 4);
+        final DBObject bound = query.bind(values).getQueryObject();
+        Assert.assertEquals("Berlin", bound.get("addr.c"));
+        Assert.assertEquals(4, ((Map) bound.get("stars")).get("$gte"));
+
+        values.put("city", "Paris");
+        Assert.assertEquals("Paris", query.bind(values).getQueryObject().get("addr.c"));
+    }
+
+    @Test
+    public void runsBoundQueries() {
+        getDs().save(Arrays.asList(new Hotel("Berlin", 3), new Hotel("Berlin", 5), new Hotel("Paris", 4)));
+
+        final PreparedQuery<Hotel> byCity = new PreparedQuery<Hotel>(getDs().createQuery(Hotel.class)
+                                                                          .filter("address.city", param("city"))
+                                                                          .order("-stars"));
+        final List<Hotel> berlin = byCity.bind("city", "Berlin").asList();
+        Assert.assertEquals(2, berlin.size());
+        Assert.assertEquals(5, berlin.get(0).stars);
+        Assert.assertEquals(1, byCity.bind("city", "Paris").asList().size());
+        Assert.assertEquals(0, byCity.bind("city", "Rome").countAll());
+    }
+
+    @Test
+    public void convertsInValues() {
+        getDs().save(Arrays.asList(new Hotel("Berlin", 3), new Hotel("Paris", 4), new Hotel("Rome", 5)));
+
+        final PreparedQuery<Hotel> cities = new PreparedQuery<Hotel>(getDs().createQuery(Hotel.class)
+                                                                          .filter("address.city in", param("cities")));
+        Assert.assertEquals(2, cities.bind("cities", Arrays.asList("Berlin", "Rome")).countAll());
+        Assert.assertEquals(1, cities.bind("cities", "Paris").countAll());
+    }
+
+    @Test
+    public void bindsInsideOr() {
+        getDs().save(Arrays.asList(new Hotel("Berlin", 3), new Hotel("Paris", 4), new Hotel("Rome", 5)));
+
+        final Query<Hotel> template = getDs().createQuery(Hotel.class);
+        template.or(template.criteria("address.city").equal(param("city")),
+                    template.criteria("stars").greaterThan(param("stars")));
+        final PreparedQuery<Hotel> query = new PreparedQuery<Hotel>(template);
+
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put("city", "Berlin");
+        values.put("stars", 4);
+        Assert.assertEquals(2, query.bind(values).countAll());
+    }
+
+    @Test
+    public void doesNotShareTemplateWithBoundQueries() {
+        final PreparedQuery<Hotel> query = new PreparedQuery<Hotel>(getDs().createQuery(Hotel.class)
+                                                                         .filter("address.city", param("city"))
+                                                                         .filter("stars >=", 3));
+        final Query<Hotel> refined = query.bind("city", "Berlin").filter("stars <", 5);
+        Assert.assertEquals(5, ((Map) refined.getQueryObject().get("stars")).get("$lt"));
+
+        final Map stars = (Map) query.bind("city", "Paris").getQueryObject().get("stars");
+        Assert.assertEquals(3, stars.get("$gte"));
+        Assert.assertFalse(stars.containsKey("$lt"));
+    }
+
+    @Test(expected = QueryException.class)
+    public void requiresAllParameters() {
+        new PreparedQuery<Hotel>(getDs().createQuery(Hotel.class)
+                                     .filter("address.city", param("city"))
+                                     .filter("stars", param("stars")))
+            .bind("city", "Berlin");
+    }
+
+    @Test
+    public void validatesBoundIdsAgainstTheQueriedClass() {
+        final Resort resort = new Resort();
+        getDs().save(resort);
+
+        final PreparedQuery<Resort> query = new PreparedQuery<Resort>(getDs().createQuery(Resort.class).filter("id", param("id")));
+        Assert.assertEquals(1, query.bind("id", resort.id).countAll());
+        Assert.assertFalse(getMorphia().getMapper().isMapped(Lodging.class));
+    }
+
+    private static class Lodging {
+        @Id
+        protected ObjectId id;
+    }
+
+    @Entity
+    private static class Resort extends Lodging {
+    }
+
+    @Entity
+    private static class Hotel {
+        @Id
+        private ObjectId id;
+        @Embedded("addr")
+        private Address address;
+        private int stars;
+
+        Hotel() {
+        }
+
+        Hotel(final String city, final int stars) {
+            this.address = new Address();
+            this.address.city = city;
+            this.stars = stars;
+        }
+    }
+
+    @Embedded
+    private static class Address {
+        @Property("c")
+        private String city;
+    }
+}
@@ -0,0 +1,94 @@
+package org.mongodb.morphia.query;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mongodb.morphia.query.QueryResultCache.ResultKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryResultCacheTest {
+    @Test
+    public void evictsLeastRecentlyUsedResults() {
+        final QueryResultCache cache = new QueryResultCache(5);
+        final ResultKey first = key("a", 1);
+        final ResultKey second = key("a", 2);
+        cache.put(first, documents(2), 60000, cache.generation("a"));
+        cache.put(second, documents(2), 60000, cache.generation("a"));
+        Assert.assertNotNull(cache.get(first));
+
+        cache.put(key("b", 1), documents(2), 60000, cache.generation("b"));
+        Assert.assertEquals(4, cache.size());
+        Assert.assertNotNull(cache.get(first));
+        Assert.assertNull(cache.get(second));
+
+        cache.put(key("b", 2), documents(6), 60000, cache.generation("b"));
+        Assert.assertNull(cache.get(key("b", 2)));
+
+        final QueryCacheStatistics stats = cache.stats();
+        Assert.assertEquals(1, stats.getEvictions());
+        Assert.assertEquals(2, stats.getHits());
+        Assert.assertEquals(2, stats.getMisses());
+        Assert.assertEquals(0.5, stats.getHitRatio(), 0);
+    }
+
+    @Test
+    public void dropsResultsOfWrittenCollections() {
+        final QueryResultCache cache = new QueryResultCache(100);
+        cache.put(key("a", 1), documents(1), 60000, cache.generation("a"));
+        cache.put(key("b", 1), documents(1), 60000, cache.generation("b"));
+
+        final long generation = cache.generation("a");
+        cache.invalidate("a");
+        Assert.assertNull(cache.get(key("a", 1)));
+        Assert.assertNotNull(cache.get(key("b", 1)));
+
+        // read before the write finished, so possibly stale
+        cache.put(key("a", 2), documents(1), 60000, generation);
+        Assert.assertNull(cache.get(key("a", 2)));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    public void expiresResults() throws InterruptedException {
+        final QueryResultCache cache = new QueryResultCache(100);
+        cache.put(key("a", 1), documents(1), 1, cache.generation("a"));
+        Thread.sleep(20);
+        Assert.assertNull(cache.get(key("a", 1)));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void copiesDocumentsOnEveryHit() {
+        final QueryResultCache cache = new QueryResultCache(100);
+        final List<DBObject> results = documents(1);
+        results.get(0).put("address", new BasicDBObject("city", "Berlin"));
+        cache.put(key("a", 1), results, 60000, cache.generation("a"));
+        results.get(0).put("preLoaded", true);
+
+        final DBObject hit = cache.get(key("a", 1)).get(0);
+        Assert.assertFalse(hit.containsField("preLoaded"));
+        ((DBObject) hit.get("address")).put("city", "Paris");
+        hit.put("preLoaded", true);
+
+        final DBObject next = cache.get(key("a", 1)).get(0);
+        Assert.assertFalse(next.containsField("preLoaded"));
+        Assert.assertEquals("Berlin", ((DBObject) next.get("address")).get("city"));
+    }
+
+    private static ResultKey key(final String collection, final int value) {
+        return new ResultKey(collection, new BasicDBObject("value", value), null, null, 0, -1);
+    }
+
+    private static List<DBObject> documents(final int count) {
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (int i = 0; i < count; i++) {
+            documents.add(new BasicDBObject("_id", i));
+        }
+        return documents;
+    }
+}
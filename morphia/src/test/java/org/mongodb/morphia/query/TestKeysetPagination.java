@@ -0,0 +1,138 @@
+package org.mongodb.morphia.query;
+
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestKeysetPagination extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        final List<Rated> entities = new ArrayList<Rated>();
+        for (int i = 0; i < 25; i++) {
+            entities.add(new Rated("item " + i, i % 4));
+        }
+        getDs().save(entities);
+    }
+
+    @Test
+    public void pagesInSortOrder() {
+        final List<Integer> sizes = new ArrayList<Integer>();
+        final List<Rated> all = new ArrayList<Rated>();
+        for (final List<Rated> page : getDs().createQuery(Rated.class).order("-rating").pages(10)) {
+            sizes.add(page.size());
+            all.addAll(page);
+        }
+        Assert.assertEquals(Arrays.asList(10, 10, 5), sizes);
+        Assert.assertEquals(getDs().createQuery(Rated.class).order("-rating, _id").asList(), all);
+    }
+
+    @Test
+    public void resumesFromContinuationToken() {
+        final Query<Rated> query = getDs().createQuery(Rated.class).filter("rating >", 0).order("rating");
+        final PageIterator<Rated> pages = query.pages(7);
+        Assert.assertNull(pages.getContinuationToken());
+        final List<Rated> first = pages.next();
+        final String token = pages.getContinuationToken();
+
+        final List<Rated> rest = new ArrayList<Rated>();
+        for (final List<Rated> page : query.pages(7, token)) {
+            rest.addAll(page);
+        }
+        final List<Rated> all = new ArrayList<Rated>(first);
+        all.addAll(rest);
+        Assert.assertEquals(query.cloneQuery().order("rating, _id").asList(), all);
+        Assert.assertEquals(18, all.size());
+    }
+
+    @Test
+    public void keepsSortFieldsOfProjections() {
+        int count = 0;
+        for (final List<Rated> page : getDs().createQuery(Rated.class).order("rating").retrievedFields(true, "name").pages(4)) {
+            for (final Rated rated : page) {
+                Assert.assertNotNull(rated.name);
+                count++;
+            }
+        }
+        Assert.assertEquals(25, count);
+    }
+
+    @Test
+    public void obeysLimitAndOffset() {
+        final List<Rated> all = new ArrayList<Rated>();
+        for (final List<Rated> page : getDs().createQuery(Rated.class).offset(3).limit(12).pages(5)) {
+            all.addAll(page);
+        }
+        Assert.assertEquals(getDs().createQuery(Rated.class).order("_id").offset(3).limit(12).asList(), all);
+    }
+
+    @Test
+    public void resumesWithinTheLimit() {
+        final Query<Rated> query = getDs().createQuery(Rated.class).order("rating").limit(12);
+        final PageIterator<Rated> pages = query.pages(5);
+        final List<Rated> all = new ArrayList<Rated>(pages.next());
+        for (final List<Rated> page : query.pages(5, pages.getContinuationToken())) {
+            all.addAll(page);
+        }
+        Assert.assertEquals(query.cloneQuery().order("rating, _id").asList(), all);
+        Assert.assertEquals(12, all.size());
+    }
+
+    @Test
+    public void skipsPagesInNaturalOrder() {
+        final Query<Rated> query = getDs().createQuery(Rated.class).disableValidation().order("-$natural");
+        final PageIterator<Rated> pages = query.pages(10);
+        final List<Rated> all = new ArrayList<Rated>(pages.next());
+        Assert.assertFalse(pages.getContinuationToken().contains("values"));
+        for (final List<Rated> page : query.pages(10, pages.getContinuationToken())) {
+            all.addAll(page);
+        }
+        Assert.assertEquals(query.cloneQuery().asList(), all);
+    }
+
+    @Test(expected = QueryException.class)
+    public void rejectsForeignTokens() {
+        getDs().createQuery(Rated.class).order("rating").pages(5, "{ \"skip\" : 5 }");
+    }
+
+    @Test(expected = QueryException.class)
+    public void rejectsTokensHoldingOperators() {
+        getDs().createQuery(Rated.class).order("rating").pages(5, "{ \"skip\" : 5, \"values\" : [ { \"$ne\" : 0 }, 1 ] }");
+    }
+
+    @Entity
+    private static class Rated {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int rating;
+
+        Rated() {
+        }
+
+        Rated(final String name, final int rating) {
+            this.name = name;
+            this.rating = rating;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Rated && id.equals(((Rated) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.mongodb.morphia.query;
+
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestParallelScan extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        final List<Scanned> entities = new ArrayList<Scanned>();
+        for (int i = 0; i < 100; i++) {
+            entities.add(new Scanned(i));
+        }
+        getDs().save(entities);
+    }
+
+    @Test
+    public void scansWholeCollection() {
+        final List<MorphiaIterator<Scanned, Scanned>> segments = getDs().createQuery(Scanned.class).parallelScan(4);
+        Assert.assertEquals(4, segments.size());
+        Assert.assertEquals(100, count(segments));
+    }
+
+    @Test
+    public void splitsFilteredQueriesById() {
+        final List<MorphiaIterator<Scanned, Scanned>> segments = getDs().createQuery(Scanned.class).filter("number <", 50).parallelScan(4);
+        Assert.assertEquals(4, segments.size());
+        Assert.assertEquals(50, count(segments));
+    }
+
+    @Test
+    public void mergesSegments() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Set<ObjectId> ids = new HashSet<ObjectId>();
+            for (final Scanned scanned : getDs().createQuery(Scanned.class).filter("number >=", 10).parallelScan(4, executor)) {
+                Assert.assertTrue(ids.add(scanned.id));
+            }
+            Assert.assertEquals(90, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = QueryException.class)
+    public void rejectsLimits() {
+        getDs().createQuery(Scanned.class).limit(10).parallelScan(2);
+    }
+
+    private int count(final List<MorphiaIterator<Scanned, Scanned>> segments) {
+        final Set<ObjectId> ids = new HashSet<ObjectId>();
+        for (final MorphiaIterator<Scanned, Scanned> segment : segments) {
+            try {
+                for (final Scanned scanned : segment) {
+                    Assert.assertTrue(ids.add(scanned.id));
+                }
+            } finally {
+                segment.close();
+            }
+        }
+        return ids.size();
+    }
+
+    @Entity
+    private static class Scanned {
+        @Id
+        private ObjectId id;
+        private int number;
+
+        Scanned() {
+        }
+
+        Scanned(final int number) {
+            this.number = number;
+        }
+    }
+}
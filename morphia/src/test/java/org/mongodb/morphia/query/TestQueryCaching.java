@@ -0,0 +1,103 @@
+package org.mongodb.morphia.query;
+
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.DatastoreImpl;
+import org.mongodb.morphia.TestBase;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Id;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestQueryCaching extends TestBase {
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        cache().clear();
+        getDs().save(new Setting("color", "blue"), new Setting("size", "large"));
+    }
+
+    @Test
+    public void answersRepeatedQueriesFromTheCache() {
+        final List<Setting> first = cached().asList();
+        // written behind the Datastore's back, so only visible once the results expire
+        getDb().getCollection("settings").drop();
+        final List<Setting> second = cached().asList();
+
+        Assert.assertEquals(2, second.size());
+        Assert.assertNotSame(first.get(0), second.get(0));
+        Assert.assertEquals(first.get(0).id, second.get(0).id);
+        Assert.assertEquals(1, cache().stats().getHits());
+        Assert.assertTrue(getDs().createQuery(Setting.class).asList().isEmpty());
+    }
+
+    @Test
+    public void dropsResultsOnWrites() {
+        Assert.assertEquals(2, cached().asList().size());
+        getDs().save(new Setting("shape", "round"));
+        Assert.assertEquals(3, cached().asList().size());
+
+        getDs().update(getDs().createQuery(Setting.class).filter("name", "shape"),
+                       getDs().createUpdateOperations(Setting.class).set("value", "square"));
+        Assert.assertEquals("square", cached().asList().get(1).value);
+
+        getDs().findAndModify(getDs().createQuery(Setting.class).filter("name", "shape"),
+                              getDs().createUpdateOperations(Setting.class).set("value", "oval"));
+        Assert.assertEquals("oval", cached().asList().get(1).value);
+
+        getDs().delete(getDs().createQuery(Setting.class).filter("name", "shape"));
+        Assert.assertEquals(2, cached().asList().size());
+        Assert.assertEquals(0, cache().stats().getHits());
+        Assert.assertEquals(4, cache().stats().getInvalidations());
+    }
+
+    @Test
+    public void dropsResultsOfAggregationOutputs() {
+        checkMinServerVersion(2.6);
+        Assert.assertEquals(2, cached().asList().size());
+        getDs().createAggregation(Setting.class)
+               .match(getDs().createQuery(Setting.class).filter("name", "color"))
+               .out("settings", Setting.class);
+        Assert.assertEquals(1, cached().asList().size());
+        Assert.assertEquals(0, cache().stats().getHits());
+    }
+
+    @Test
+    public void cachesKeysAndShapesSeparately() {
+        Assert.assertEquals(2, cached().asKeyList().size());
+        Assert.assertEquals(1, cached().limit(1).asList().size());
+        Assert.assertEquals(2, cached().asList().size());
+        Assert.assertEquals(2, cached().asKeyList().size());
+        Assert.assertEquals(1, cache().stats().getHits());
+        Assert.assertEquals(3, cache().stats().getMisses());
+    }
+
+    private QueryResultCache cache() {
+        return ((DatastoreImpl) getDs()).getQueryResultCache();
+    }
+
+    private Query<Setting> cached() {
+        return getDs().createQuery(Setting.class).order("name").cacheFor(1, TimeUnit.MINUTES);
+    }
+
+    @Entity("settings")
+    private static class Setting {
+        @Id
+        private ObjectId id;
+        private String name;
+        private String value;
+
+        Setting() {
+        }
+
+        Setting(final String name, final String value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}